@@ -0,0 +1,110 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ru.d_shap.gradle.plugin.texturepacker.backend.PackerRequest;
+import ru.d_shap.gradle.plugin.texturepacker.configuration.Parameter;
+import ru.d_shap.gradle.plugin.texturepacker.configuration.ParametersConfiguration;
+
+/**
+ * Benchmark of the TexturePacker command line creation for the synthetic pipeline. No process is run.
+ *
+ * @author Dmitry Shapovalov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandLineBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int _directoryCount;
+
+    private List<PackerRequest> _packerRequests;
+
+    private TexturePackerBackend _texturePackerBackend;
+
+    private JobLog _jobLog;
+
+    /**
+     * Create new object.
+     */
+    public CommandLineBenchmark() {
+        super();
+    }
+
+    /**
+     * Create the packer requests of the synthetic pipeline.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        ParametersConfiguration parametersConfiguration = new ParametersConfiguration();
+        parametersConfiguration.methodMissing("format", new Object[]{"phaser-json-hash"});
+        parametersConfiguration.methodMissing("max_size", new Object[]{2048});
+        parametersConfiguration.methodMissing("trim_mode", new Object[]{"Trim"});
+        List<Parameter> parameters = parametersConfiguration.getParameters();
+        File rootDir = new File("images").getAbsoluteFile();
+        File destinationDir = new File("build").getAbsoluteFile();
+        _packerRequests = new ArrayList<>(_directoryCount);
+        for (int i = 0; i < _directoryCount; i++) {
+            String name = SyntheticSourceDirs.getDirName(i);
+            _packerRequests.add(new PackerRequest("benchmark", name, new File(rootDir, name), new File(destinationDir, name + ".png"), new File(destinationDir, name + ".json"), parameters));
+        }
+        ExecutionPolicy executionPolicy = new ExecutionPolicy(0L, 0, Collections.<Integer>emptyList(), 0L);
+        _texturePackerBackend = new TexturePackerBackend(executionPolicy, new ExecutionStatistics(), new ExecutionCancellation(), null);
+        _jobLog = new JobLog();
+    }
+
+    /**
+     * Create the command lines of the pipeline.
+     *
+     * @param blackhole the blackhole.
+     */
+    @Benchmark
+    public void createCommandLines(final Blackhole blackhole) {
+        for (PackerRequest packerRequest : _packerRequests) {
+            List<String> arguments = _texturePackerBackend.createArguments(packerRequest);
+            blackhole.consume(_texturePackerBackend.createCommandLine(arguments, _jobLog));
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of the source directory fingerprints, that are computed for every source directory of
+ * the incremental and the cached runs.
+ *
+ * @author Dmitry Shapovalov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FingerprintBenchmark {
+
+    private static final int ARGUMENT_COUNT = 16;
+
+    @Param({"10", "100", "1000"})
+    private int _fileCount;
+
+    private File _rootDir;
+
+    private File _sourceDir;
+
+    private List<String> _arguments;
+
+    /**
+     * Create new object.
+     */
+    public FingerprintBenchmark() {
+        super();
+    }
+
+    /**
+     * Create the synthetic source directory.
+     *
+     * @throws IOException if the source directory can't be created.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        _rootDir = SyntheticSourceDirs.create(1, _fileCount);
+        _sourceDir = new File(_rootDir, SyntheticSourceDirs.getDirName(0));
+        _arguments = new ArrayList<>();
+        for (int i = 0; i < ARGUMENT_COUNT; i++) {
+            _arguments.add("--argument-" + i);
+        }
+    }
+
+    /**
+     * Delete the synthetic source directory.
+     *
+     * @throws IOException if the source directory can't be deleted.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        SyntheticSourceDirs.delete(_rootDir);
+    }
+
+    /**
+     * Compute the fingerprint of the file names, sizes and modification times.
+     *
+     * @param blackhole the blackhole.
+     *
+     * @throws IOException if the source directory can't be read.
+     */
+    @Benchmark
+    public void getDirFingerprint(final Blackhole blackhole) throws IOException {
+        blackhole.consume(Fingerprints.getDirFingerprint(_sourceDir));
+    }
+
+    /**
+     * Compute the fingerprint of the file content.
+     *
+     * @param blackhole the blackhole.
+     *
+     * @throws IOException if the source directory can't be read.
+     */
+    @Benchmark
+    public void getDirContentFingerprint(final Blackhole blackhole) throws IOException {
+        blackhole.consume(Fingerprints.getDirContentFingerprint(_sourceDir));
+    }
+
+    /**
+     * Compute the fingerprint of the arguments.
+     *
+     * @param blackhole the blackhole.
+     */
+    @Benchmark
+    public void getArgumentsFingerprint(final Blackhole blackhole) {
+        blackhole.consume(Fingerprints.getFingerprint(_arguments));
+    }
+
+}
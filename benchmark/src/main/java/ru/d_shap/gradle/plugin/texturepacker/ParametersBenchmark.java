@@ -0,0 +1,94 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ru.d_shap.gradle.plugin.texturepacker.configuration.ParametersConfiguration;
+
+/**
+ * Benchmark of the pipeline parameters configuration with the dynamic method dispatch.
+ *
+ * @author Dmitry Shapovalov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParametersBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int _parameterCount;
+
+    private String[] _names;
+
+    private Object[][] _args;
+
+    /**
+     * Create new object.
+     */
+    public ParametersBenchmark() {
+        super();
+    }
+
+    /**
+     * Create the parameter names and the parameter args.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        _names = new String[_parameterCount];
+        _args = new Object[_parameterCount][];
+        for (int i = 0; i < _parameterCount; i++) {
+            _names[i] = "benchmark_parameter_" + i;
+            _args[i] = new Object[]{"value", i};
+        }
+    }
+
+    /**
+     * Configure the parameters.
+     *
+     * @param blackhole the blackhole.
+     */
+    @Benchmark
+    public void configureParameters(final Blackhole blackhole) {
+        ParametersConfiguration parametersConfiguration = new ParametersConfiguration();
+        for (int i = 0; i < _parameterCount; i++) {
+            parametersConfiguration.methodMissing(_names[i], _args[i]);
+        }
+        blackhole.consume(parametersConfiguration.getParameters());
+    }
+
+}
@@ -0,0 +1,138 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ru.d_shap.gradle.plugin.texturepacker.configuration.NameTemplate;
+import ru.d_shap.gradle.plugin.texturepacker.configuration.Parameter;
+import ru.d_shap.gradle.plugin.texturepacker.configuration.ParametersConfiguration;
+import ru.d_shap.gradle.plugin.texturepacker.configuration.PipelineConfiguration;
+
+/**
+ * Benchmark of the packing job planning: the source directory listing, the include and exclude
+ * matching and the file name template resolution for the synthetic pipeline.
+ *
+ * @author Dmitry Shapovalov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlanningBenchmark {
+
+    private static final String FILTER_INCLUDE = "include";
+
+    private static final String FILTER_EXCLUDE = "exclude";
+
+    @Param({"10", "100", "1000", "10000"})
+    private int _directoryCount;
+
+    @Param({"all", FILTER_INCLUDE, FILTER_EXCLUDE})
+    private String _filter;
+
+    private File _sourceDir;
+
+    private File _destinationDir;
+
+    private List<String> _include;
+
+    private List<String> _exclude;
+
+    private List<Parameter> _parameters;
+
+    private PackingJobPlanner _packingJobPlanner;
+
+    /**
+     * Create new object.
+     */
+    public PlanningBenchmark() {
+        super();
+    }
+
+    /**
+     * Create the synthetic pipeline.
+     *
+     * @throws IOException if the source directories can't be created.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        _sourceDir = SyntheticSourceDirs.create(_directoryCount, 0);
+        _destinationDir = new File(_sourceDir, "build");
+        _include = Collections.emptyList();
+        _exclude = Collections.emptyList();
+        if (FILTER_INCLUDE.equals(_filter)) {
+            _include = SyntheticSourceDirs.getHalfDirNames(_directoryCount);
+        }
+        if (FILTER_EXCLUDE.equals(_filter)) {
+            _exclude = SyntheticSourceDirs.getHalfDirNames(_directoryCount);
+        }
+        ParametersConfiguration parametersConfiguration = new ParametersConfiguration();
+        parametersConfiguration.methodMissing("format", new Object[]{"phaser-json-hash"});
+        parametersConfiguration.methodMissing("max_size", new Object[]{2048});
+        parametersConfiguration.methodMissing("trim_mode", new Object[]{"Trim"});
+        _parameters = parametersConfiguration.getParameters();
+        _packingJobPlanner = new PackingJobPlanner(Collections.<PipelineConfiguration>emptyList(), new File(_destinationDir, "split"));
+    }
+
+    /**
+     * Delete the synthetic pipeline.
+     *
+     * @throws IOException if the source directories can't be deleted.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        SyntheticSourceDirs.delete(_sourceDir);
+    }
+
+    /**
+     * Create the packing jobs of the pipeline.
+     *
+     * @param blackhole the blackhole.
+     */
+    @Benchmark
+    public void createPackingJobs(final Blackhole blackhole) {
+        String sheetNameTemplate = NameTemplate.PLACEHOLDER + ".png";
+        String dataNameTemplate = NameTemplate.PLACEHOLDER + ".json";
+        blackhole.consume(_packingJobPlanner.createPackingJobs("benchmark", _sourceDir, _destinationDir, _include, _exclude, false, false, sheetNameTemplate, dataNameTemplate, null, PipelineConfiguration.PACKER_TEXTUREPACKER, _parameters));
+    }
+
+}
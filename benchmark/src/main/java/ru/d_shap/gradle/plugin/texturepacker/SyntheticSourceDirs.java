@@ -0,0 +1,132 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helper class to create the synthetic source directories for the benchmarks.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class SyntheticSourceDirs {
+
+    private static final String TEMP_DIR_PREFIX = "texturepacker-benchmark";
+
+    private static final String DIR_NAME_FORMAT = "dir%05d";
+
+    private static final String FILE_NAME_FORMAT = "image%04d.png";
+
+    private static final int FILE_SIZE = 256;
+
+    private SyntheticSourceDirs() {
+        super();
+    }
+
+    /**
+     * Create the root directory with the child directories.
+     *
+     * @param dirCount  the number of the child directories.
+     * @param fileCount the number of the files in every child directory.
+     *
+     * @return the root directory.
+     *
+     * @throws IOException if the directories can't be created.
+     */
+    static File create(final int dirCount, final int fileCount) throws IOException {
+        File rootDir = Files.createTempDirectory(TEMP_DIR_PREFIX).toFile();
+        byte[] content = new byte[FILE_SIZE];
+        for (int i = 0; i < dirCount; i++) {
+            File childDir = new File(rootDir, getDirName(i));
+            if (!childDir.mkdir()) {
+                throw new IOException("Directory " + childDir.getAbsolutePath() + " can't be created");
+            }
+            for (int j = 0; j < fileCount; j++) {
+                content[0] = (byte) i;
+                content[1] = (byte) j;
+                Files.write(new File(childDir, String.format(FILE_NAME_FORMAT, j)).toPath(), content);
+            }
+        }
+        return rootDir;
+    }
+
+    /**
+     * Get the name of the child directory.
+     *
+     * @param index the index of the child directory.
+     *
+     * @return the name of the child directory.
+     */
+    static String getDirName(final int index) {
+        return String.format(DIR_NAME_FORMAT, index);
+    }
+
+    /**
+     * Get the names of every second child directory.
+     *
+     * @param dirCount the number of the child directories.
+     *
+     * @return the names of every second child directory.
+     */
+    static List<String> getHalfDirNames(final int dirCount) {
+        List<String> dirNames = new ArrayList<>();
+        for (int i = 0; i < dirCount; i += 2) {
+            dirNames.add(getDirName(i));
+        }
+        return dirNames;
+    }
+
+    /**
+     * Delete the root directory with all child directories.
+     *
+     * @param rootDir the root directory.
+     *
+     * @throws IOException if the directories can't be deleted.
+     */
+    static void delete(final File rootDir) throws IOException {
+        if (rootDir == null || !rootDir.exists()) {
+            return;
+        }
+        Files.walkFileTree(rootDir.toPath(), new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(final Path dir, final IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+    }
+
+}
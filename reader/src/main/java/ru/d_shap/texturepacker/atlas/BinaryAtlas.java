@@ -0,0 +1,437 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.texturepacker.atlas;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The reader of the binary atlas created by TexturePacker Gradle Plugin. The atlas is read directly
+ * from the buffer: the frames are found by the name with the binary search over the FNV-1a hash of the
+ * name, the frame values are read with the absolute buffer reads. The frame search and the frame values
+ * reads don't allocate memory. The reader is thread-safe.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class BinaryAtlas {
+
+    /**
+     * The flag of the rotated frame.
+     */
+    public static final int FLAG_ROTATED = 1;
+
+    /**
+     * The flag of the trimmed frame.
+     */
+    public static final int FLAG_TRIMMED = 2;
+
+    private static final int MAGIC = 0x42415054;
+
+    private static final int VERSION = 1;
+
+    private static final int RECORD_SIZE = 48;
+
+    private static final int FNV_OFFSET_BASIS = 0x811C9DC5;
+
+    private static final int FNV_PRIME = 0x01000193;
+
+    private static final int OFFSET_VERSION = 4;
+
+    private static final int OFFSET_HEADER_SIZE = 6;
+
+    private static final int OFFSET_FRAME_COUNT = 8;
+
+    private static final int OFFSET_SHEET_WIDTH = 12;
+
+    private static final int OFFSET_SHEET_HEIGHT = 16;
+
+    private static final int OFFSET_SHEET_NAME = 20;
+
+    private static final int OFFSET_SHEET_NAME_LENGTH = 24;
+
+    private static final int OFFSET_STRINGS = 28;
+
+    private static final int RECORD_HASH = 0;
+
+    private static final int RECORD_NAME = 4;
+
+    private static final int RECORD_NAME_LENGTH = 8;
+
+    private static final int RECORD_X = 12;
+
+    private static final int RECORD_Y = 16;
+
+    private static final int RECORD_WIDTH = 20;
+
+    private static final int RECORD_HEIGHT = 24;
+
+    private static final int RECORD_SOURCE_X = 28;
+
+    private static final int RECORD_SOURCE_Y = 32;
+
+    private static final int RECORD_SOURCE_WIDTH = 36;
+
+    private static final int RECORD_SOURCE_HEIGHT = 40;
+
+    private static final int RECORD_FLAGS = 44;
+
+    private static final int MALFORMED_REPLACEMENT = '?';
+
+    private final ByteBuffer _buffer;
+
+    private final int _frameCount;
+
+    private final int _recordsOffset;
+
+    private final int _stringsOffset;
+
+    private BinaryAtlas(final ByteBuffer buffer) {
+        super();
+        _buffer = buffer;
+        if (buffer.limit() < OFFSET_STRINGS + 4 || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Buffer doesn't contain the binary atlas");
+        }
+        if (buffer.getShort(OFFSET_VERSION) != VERSION) {
+            throw new IllegalArgumentException("Binary atlas version " + buffer.getShort(OFFSET_VERSION) + " is not supported");
+        }
+        _frameCount = buffer.getInt(OFFSET_FRAME_COUNT);
+        _recordsOffset = buffer.getShort(OFFSET_HEADER_SIZE);
+        _stringsOffset = buffer.getInt(OFFSET_STRINGS);
+        if (_frameCount < 0 || _recordsOffset + (long) _frameCount * RECORD_SIZE > _stringsOffset || _stringsOffset > buffer.limit()) {
+            throw new IllegalArgumentException("Binary atlas is corrupted");
+        }
+    }
+
+    /**
+     * Wrap the buffer with the binary atlas. The buffer content is not copied, the buffer position and
+     * the buffer order are not changed.
+     *
+     * @param buffer the buffer with the binary atlas from the position to the limit.
+     *
+     * @return the binary atlas.
+     */
+    public static BinaryAtlas wrap(final ByteBuffer buffer) {
+        ByteBuffer atlasBuffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        return new BinaryAtlas(atlasBuffer);
+    }
+
+    /**
+     * Map the binary atlas file into memory.
+     *
+     * @param file the binary atlas file.
+     *
+     * @return the binary atlas.
+     *
+     * @throws IOException if the file can't be mapped.
+     */
+    public static BinaryAtlas open(final File file) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r"); FileChannel fileChannel = randomAccessFile.getChannel()) {
+            ByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+            return wrap(buffer);
+        }
+    }
+
+    /**
+     * Get the number of the frames.
+     *
+     * @return the number of the frames.
+     */
+    public int getFrameCount() {
+        return _frameCount;
+    }
+
+    /**
+     * Get the width of the sheet.
+     *
+     * @return the width of the sheet.
+     */
+    public int getSheetWidth() {
+        return _buffer.getInt(OFFSET_SHEET_WIDTH);
+    }
+
+    /**
+     * Get the height of the sheet.
+     *
+     * @return the height of the sheet.
+     */
+    public int getSheetHeight() {
+        return _buffer.getInt(OFFSET_SHEET_HEIGHT);
+    }
+
+    /**
+     * Get the sheet file name. The method allocates the string.
+     *
+     * @return the sheet file name.
+     */
+    public String getSheetName() {
+        return getString(_buffer.getInt(OFFSET_SHEET_NAME), _buffer.getInt(OFFSET_SHEET_NAME_LENGTH));
+    }
+
+    /**
+     * Find the frame by the name. The name is encoded the same way as {@link String#getBytes(java.nio.charset.Charset)}
+     * with the UTF-8 charset encodes it: every unpaired surrogate is encoded as '?'.
+     *
+     * @param name the frame name.
+     *
+     * @return the frame index, or -1 if the frame is not found.
+     */
+    public int findFrame(final CharSequence name) {
+        int hash = getNameHash(name);
+        int low = 0;
+        int high = _frameCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleHash = getRecordInt(middle, RECORD_HASH);
+            if (middleHash < hash) {
+                low = middle + 1;
+            } else if (middleHash > hash) {
+                high = middle - 1;
+            } else {
+                return findFrame(name, hash, middle);
+            }
+        }
+        return -1;
+    }
+
+    private int findFrame(final CharSequence name, final int hash, final int index) {
+        for (int frame = index; frame >= 0 && getRecordInt(frame, RECORD_HASH) == hash; frame--) {
+            if (isNameEqual(frame, name)) {
+                return frame;
+            }
+        }
+        for (int frame = index + 1; frame < _frameCount && getRecordInt(frame, RECORD_HASH) == hash; frame++) {
+            if (isNameEqual(frame, name)) {
+                return frame;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the frame name. The method allocates the string.
+     *
+     * @param frame the frame index.
+     *
+     * @return the frame name.
+     */
+    public String getFrameName(final int frame) {
+        return getString(getRecordInt(frame, RECORD_NAME), getRecordInt(frame, RECORD_NAME_LENGTH));
+    }
+
+    /**
+     * Get the X coordinate of the frame in the sheet.
+     *
+     * @param frame the frame index.
+     *
+     * @return the X coordinate of the frame in the sheet.
+     */
+    public int getX(final int frame) {
+        return getRecordInt(frame, RECORD_X);
+    }
+
+    /**
+     * Get the Y coordinate of the frame in the sheet.
+     *
+     * @param frame the frame index.
+     *
+     * @return the Y coordinate of the frame in the sheet.
+     */
+    public int getY(final int frame) {
+        return getRecordInt(frame, RECORD_Y);
+    }
+
+    /**
+     * Get the width of the frame in the sheet.
+     *
+     * @param frame the frame index.
+     *
+     * @return the width of the frame in the sheet.
+     */
+    public int getWidth(final int frame) {
+        return getRecordInt(frame, RECORD_WIDTH);
+    }
+
+    /**
+     * Get the height of the frame in the sheet.
+     *
+     * @param frame the frame index.
+     *
+     * @return the height of the frame in the sheet.
+     */
+    public int getHeight(final int frame) {
+        return getRecordInt(frame, RECORD_HEIGHT);
+    }
+
+    /**
+     * Get the X offset of the trimmed frame in the source image.
+     *
+     * @param frame the frame index.
+     *
+     * @return the X offset of the trimmed frame in the source image.
+     */
+    public int getSourceX(final int frame) {
+        return getRecordInt(frame, RECORD_SOURCE_X);
+    }
+
+    /**
+     * Get the Y offset of the trimmed frame in the source image.
+     *
+     * @param frame the frame index.
+     *
+     * @return the Y offset of the trimmed frame in the source image.
+     */
+    public int getSourceY(final int frame) {
+        return getRecordInt(frame, RECORD_SOURCE_Y);
+    }
+
+    /**
+     * Get the width of the source image.
+     *
+     * @param frame the frame index.
+     *
+     * @return the width of the source image.
+     */
+    public int getSourceWidth(final int frame) {
+        return getRecordInt(frame, RECORD_SOURCE_WIDTH);
+    }
+
+    /**
+     * Get the height of the source image.
+     *
+     * @param frame the frame index.
+     *
+     * @return the height of the source image.
+     */
+    public int getSourceHeight(final int frame) {
+        return getRecordInt(frame, RECORD_SOURCE_HEIGHT);
+    }
+
+    /**
+     * Check if the frame is rotated in the sheet.
+     *
+     * @param frame the frame index.
+     *
+     * @return true if the frame is rotated in the sheet.
+     */
+    public boolean isRotated(final int frame) {
+        return (getRecordInt(frame, RECORD_FLAGS) & FLAG_ROTATED) != 0;
+    }
+
+    /**
+     * Check if the frame is trimmed.
+     *
+     * @param frame the frame index.
+     *
+     * @return true if the frame is trimmed.
+     */
+    public boolean isTrimmed(final int frame) {
+        return (getRecordInt(frame, RECORD_FLAGS) & FLAG_TRIMMED) != 0;
+    }
+
+    private int getRecordInt(final int frame, final int offset) {
+        if (frame < 0 || frame >= _frameCount) {
+            throw new IndexOutOfBoundsException("Frame " + frame + " is out of bounds");
+        }
+        return _buffer.getInt(_recordsOffset + frame * RECORD_SIZE + offset);
+    }
+
+    private String getString(final int offset, final int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = _buffer.get(_stringsOffset + offset + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean isNameEqual(final int frame, final CharSequence name) {
+        int offset = _stringsOffset + getRecordInt(frame, RECORD_NAME);
+        int length = getRecordInt(frame, RECORD_NAME_LENGTH);
+        int position = 0;
+        for (int i = 0; i < name.length(); i += getCharCount(name, i)) {
+            int codePoint = getCodePoint(name, i);
+            int byteCount = getUtf8Length(codePoint);
+            if (position + byteCount > length) {
+                return false;
+            }
+            for (int j = 0; j < byteCount; j++) {
+                if ((_buffer.get(offset + position) & 0xFF) != getUtf8Byte(codePoint, byteCount, j)) {
+                    return false;
+                }
+                position++;
+            }
+        }
+        return position == length;
+    }
+
+    private static int getNameHash(final CharSequence name) {
+        int hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < name.length(); i += getCharCount(name, i)) {
+            int codePoint = getCodePoint(name, i);
+            int byteCount = getUtf8Length(codePoint);
+            for (int j = 0; j < byteCount; j++) {
+                hash ^= getUtf8Byte(codePoint, byteCount, j);
+                hash *= FNV_PRIME;
+            }
+        }
+        return hash;
+    }
+
+    private static int getCodePoint(final CharSequence name, final int index) {
+        int codePoint = Character.codePointAt(name, index);
+        if (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE) {
+            return MALFORMED_REPLACEMENT;
+        }
+        return codePoint;
+    }
+
+    private static int getCharCount(final CharSequence name, final int index) {
+        return Character.charCount(Character.codePointAt(name, index));
+    }
+
+    private static int getUtf8Length(final int codePoint) {
+        if (codePoint < 0x80) {
+            return 1;
+        }
+        if (codePoint < 0x800) {
+            return 2;
+        }
+        if (codePoint < 0x10000) {
+            return 3;
+        }
+        return 4;
+    }
+
+    private static int getUtf8Byte(final int codePoint, final int byteCount, final int index) {
+        if (byteCount == 1) {
+            return codePoint;
+        }
+        int shift = 6 * (byteCount - 1 - index);
+        if (index == 0) {
+            return (0xFF00 >> byteCount) & 0xFF | codePoint >> shift;
+        }
+        return 0x80 | (codePoint >> shift) & 0x3F;
+    }
+
+}
@@ -0,0 +1,431 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.util.List;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Internal;
+import org.gradle.workers.WorkerExecutor;
+
+import ru.d_shap.gradle.plugin.texturepacker.configuration.PipelineConfiguration;
+
+/**
+ * Base TexturePacker gradle task with the configuration of the pipelines and the processing. The base task
+ * declares no inputs and no outputs, the subclasses declare the inputs and the outputs they need.
+ *
+ * @author Dmitry Shapovalov
+ */
+public abstract class AbstractTexturePackerTask extends DefaultTask {
+
+    private static final String SPLIT_DIR_NAME = "split";
+
+    private final List<PipelineConfiguration> _pipelineConfigurations;
+
+    private final Property<Boolean> _parallel;
+
+    private final Property<Integer> _workers;
+
+    private final Property<Integer> _maxWorkerCount;
+
+    private final Property<Boolean> _incremental;
+
+    private final Property<Boolean> _rerunTasks;
+
+    private final Property<Boolean> _cache;
+
+    private final DirectoryProperty _cacheDir;
+
+    private final Property<Long> _cacheSize;
+
+    private final Property<String> _remoteCache;
+
+    private final Property<Boolean> _remoteCachePush;
+
+    private final Property<Boolean> _optimizePng;
+
+    private final Property<Long> _processTimeout;
+
+    private final Property<Integer> _retries;
+
+    private final ListProperty<Integer> _retryExitCodes;
+
+    private final Property<Long> _retryDelay;
+
+    private final Property<Boolean> _failFast;
+
+    private final Property<Boolean> _batch;
+
+    private final Property<Integer> _batchSize;
+
+    private final Property<Boolean> _metrics;
+
+    private final Property<Boolean> _buildScanValues;
+
+    private final Property<Long> _watchDebounce;
+
+    private final RegularFileProperty _watchMarker;
+
+    private final DirectoryProperty _workDir;
+
+    private final Property<TexturePackerProcessService> _processService;
+
+    private final Property<BuildScanService> _buildScanService;
+
+    private final WorkerExecutor _workerExecutor;
+
+    private transient volatile List<PackingJob> _packingJobs;
+
+    /**
+     * Create new object.
+     *
+     * @param pipelineConfigurations the pipeline configurations.
+     * @param objectFactory          the object factory.
+     * @param workerExecutor         the worker executor.
+     */
+    protected AbstractTexturePackerTask(final List<PipelineConfiguration> pipelineConfigurations, final ObjectFactory objectFactory, final WorkerExecutor workerExecutor) {
+        super();
+        _pipelineConfigurations = pipelineConfigurations;
+        _parallel = objectFactory.property(Boolean.class);
+        _workers = objectFactory.property(Integer.class);
+        _maxWorkerCount = objectFactory.property(Integer.class);
+        _incremental = objectFactory.property(Boolean.class);
+        _rerunTasks = objectFactory.property(Boolean.class);
+        _cache = objectFactory.property(Boolean.class);
+        _cacheDir = objectFactory.directoryProperty();
+        _cacheSize = objectFactory.property(Long.class);
+        _remoteCache = objectFactory.property(String.class);
+        _remoteCachePush = objectFactory.property(Boolean.class);
+        _optimizePng = objectFactory.property(Boolean.class);
+        _processTimeout = objectFactory.property(Long.class);
+        _retries = objectFactory.property(Integer.class);
+        _retryExitCodes = objectFactory.listProperty(Integer.class);
+        _retryDelay = objectFactory.property(Long.class);
+        _failFast = objectFactory.property(Boolean.class);
+        _batch = objectFactory.property(Boolean.class);
+        _batchSize = objectFactory.property(Integer.class);
+        _metrics = objectFactory.property(Boolean.class);
+        _buildScanValues = objectFactory.property(Boolean.class);
+        _watchDebounce = objectFactory.property(Long.class);
+        _watchMarker = objectFactory.fileProperty();
+        _workDir = objectFactory.directoryProperty();
+        _processService = objectFactory.property(TexturePackerProcessService.class);
+        _buildScanService = objectFactory.property(BuildScanService.class);
+        _workerExecutor = workerExecutor;
+        _packingJobs = null;
+    }
+
+    /**
+     * Get the pipeline configurations.
+     *
+     * @return the pipeline configurations.
+     */
+    @Internal
+    public List<PipelineConfiguration> getPipelineConfigurations() {
+        return _pipelineConfigurations;
+    }
+
+    /**
+     * Get the flag to process the source directories in parallel.
+     *
+     * @return the flag to process the source directories in parallel.
+     */
+    @Internal
+    public Property<Boolean> getParallel() {
+        return _parallel;
+    }
+
+    /**
+     * Get the maximum number of the parallel workers, zero means the gradle max workers count.
+     *
+     * @return the maximum number of the parallel workers.
+     */
+    @Internal
+    public Property<Integer> getWorkers() {
+        return _workers;
+    }
+
+    /**
+     * Get the gradle max workers count.
+     *
+     * @return the gradle max workers count.
+     */
+    @Internal
+    public Property<Integer> getMaxWorkerCount() {
+        return _maxWorkerCount;
+    }
+
+    /**
+     * Get the flag to process only the changed source directories.
+     *
+     * @return the flag to process only the changed source directories.
+     */
+    @Internal
+    public Property<Boolean> getIncremental() {
+        return _incremental;
+    }
+
+    /**
+     * Get the flag to process all source directories, because gradle is run with --rerun-tasks option.
+     *
+     * @return the flag to process all source directories.
+     */
+    @Internal
+    public Property<Boolean> getRerunTasks() {
+        return _rerunTasks;
+    }
+
+    /**
+     * Get the flag to store the created files to the local cache and restore them from it.
+     *
+     * @return the flag to store the created files to the local cache and restore them from it.
+     */
+    @Internal
+    public Property<Boolean> getCache() {
+        return _cache;
+    }
+
+    /**
+     * Get the local cache directory.
+     *
+     * @return the local cache directory.
+     */
+    @Internal
+    public DirectoryProperty getCacheDir() {
+        return _cacheDir;
+    }
+
+    /**
+     * Get the maximum size of the local cache in megabytes.
+     *
+     * @return the maximum size of the local cache in megabytes.
+     */
+    @Internal
+    public Property<Long> getCacheSize() {
+        return _cacheSize;
+    }
+
+    /**
+     * Get the location of the remote cache, the HTTP URL or the directory.
+     *
+     * @return the location of the remote cache, the HTTP URL or the directory.
+     */
+    @Internal
+    public Property<String> getRemoteCache() {
+        return _remoteCache;
+    }
+
+    /**
+     * Get the flag to upload the created sheets and atlases to the remote cache.
+     *
+     * @return the flag to upload the created sheets and atlases to the remote cache.
+     */
+    @Internal
+    public Property<Boolean> getRemoteCachePush() {
+        return _remoteCachePush;
+    }
+
+    /**
+     * Get the flag to optimize the created PNG sheets.
+     *
+     * @return the flag to optimize the created PNG sheets.
+     */
+    @Internal
+    public Property<Boolean> getOptimizePng() {
+        return _optimizePng;
+    }
+
+    /**
+     * Get the maximum time of the source directory processing in seconds, zero means no timeout.
+     *
+     * @return the maximum time of the source directory processing in seconds.
+     */
+    @Internal
+    public Property<Long> getProcessTimeout() {
+        return _processTimeout;
+    }
+
+    /**
+     * Get the maximum number of the retries, if TexturePacker is timed out or failed with the retry exit code.
+     *
+     * @return the maximum number of the retries.
+     */
+    @Internal
+    public Property<Integer> getRetries() {
+        return _retries;
+    }
+
+    /**
+     * Get the TexturePacker exit codes to retry the source directory processing.
+     *
+     * @return the TexturePacker exit codes to retry the source directory processing.
+     */
+    @Internal
+    public ListProperty<Integer> getRetryExitCodes() {
+        return _retryExitCodes;
+    }
+
+    /**
+     * Get the delay before the first retry in milliseconds, the delay is doubled before every next retry.
+     *
+     * @return the delay before the first retry in milliseconds.
+     */
+    @Internal
+    public Property<Long> getRetryDelay() {
+        return _retryDelay;
+    }
+
+    /**
+     * Get the flag to cancel the processing of all source directories after the first failure.
+     *
+     * @return the flag to cancel the processing of all source directories after the first failure.
+     */
+    @Internal
+    public Property<Boolean> getFailFast() {
+        return _failFast;
+    }
+
+    /**
+     * Get the flag to process the source directories of the pipeline with one TexturePacker run.
+     *
+     * @return the flag to process the source directories of the pipeline with one TexturePacker run.
+     */
+    @Internal
+    public Property<Boolean> getBatch() {
+        return _batch;
+    }
+
+    /**
+     * Get the maximum number of the source directories to process with one TexturePacker run.
+     *
+     * @return the maximum number of the source directories to process with one TexturePacker run.
+     */
+    @Internal
+    public Property<Integer> getBatchSize() {
+        return _batchSize;
+    }
+
+    /**
+     * Get the flag to write the metrics of the source directories processing.
+     *
+     * @return the flag to write the metrics of the source directories processing.
+     */
+    @Internal
+    public Property<Boolean> getMetrics() {
+        return _metrics;
+    }
+
+    /**
+     * Get the flag to add the metrics of the slowest source directories to the build scan.
+     *
+     * @return the flag to add the metrics of the slowest source directories to the build scan.
+     */
+    @Internal
+    public Property<Boolean> getBuildScanValues() {
+        return _buildScanValues;
+    }
+
+    /**
+     * Get the time in milliseconds without changes of the source directory, after which the source directory is processed in watch mode.
+     *
+     * @return the time in milliseconds without changes of the source directory, after which the source directory is processed in watch mode.
+     */
+    @Internal
+    public Property<Long> getWatchDebounce() {
+        return _watchDebounce;
+    }
+
+    /**
+     * Get the marker file, that is touched in watch mode after the source directories are processed.
+     *
+     * @return the marker file.
+     */
+    @Internal
+    public RegularFileProperty getWatchMarker() {
+        return _watchMarker;
+    }
+
+    /**
+     * Get the directory to keep the state between the builds.
+     *
+     * @return the directory to keep the state between the builds.
+     */
+    @Internal
+    public DirectoryProperty getWorkDir() {
+        return _workDir;
+    }
+
+    /**
+     * Get the build service to limit the number of the TexturePacker processes across the build.
+     *
+     * @return the build service to limit the number of the TexturePacker processes.
+     */
+    @Internal
+    public Property<TexturePackerProcessService> getProcessService() {
+        return _processService;
+    }
+
+    /**
+     * Get the worker executor to run the packing jobs as the gradle workers.
+     *
+     * @return the worker executor.
+     */
+    @Internal
+    public WorkerExecutor getWorkerExecutor() {
+        return _workerExecutor;
+    }
+
+    /**
+     * Get the build service to keep the build scan extension.
+     *
+     * @return the build service to keep the build scan extension.
+     */
+    @Internal
+    public Property<BuildScanService> getBuildScanService() {
+        return _buildScanService;
+    }
+
+    @Internal
+    List<PackingJob> getPackingJobs() {
+        List<PackingJob> packingJobs = _packingJobs;
+        if (packingJobs == null) {
+            packingJobs = createPackingJobs();
+            _packingJobs = packingJobs;
+        }
+        return packingJobs;
+    }
+
+    void resetPackingJobs() {
+        _packingJobs = null;
+    }
+
+    List<PackingJob> createPackingJobs() {
+        File splitDir = new File(_workDir.get().getAsFile(), SPLIT_DIR_NAME);
+        PackingJobPlanner packingJobPlanner = new PackingJobPlanner(_pipelineConfigurations, splitDir);
+        return packingJobPlanner.createPackingJobs();
+    }
+
+}
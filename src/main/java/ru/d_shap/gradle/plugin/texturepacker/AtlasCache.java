@@ -0,0 +1,474 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * The local content-addressed cache of the created sheets and atlases. Every cache entry is a directory
+ * named by the cache key, the entry contains the sheet file and the atlas file. The last access time of
+ * the entry is stored as the modification time of the entry directory and is used to evict the least
+ * recently used entries. The remote cache is the second tier behind the local cache. The local cache miss is loaded from the
+ * remote cache and is stored in the local cache. The created sheets and the local cache hits, that
+ * are missing in the remote cache, are uploaded to the remote cache asynchronously, so the packing doesn't
+ * wait for the upload. The upload keeps only the cache key in memory, the archive is created from the local
+ * cache entry and is streamed to the remote cache from the file. After the first remote cache error the
+ * remote cache is not used until the end of the task run. The cache directory is shared by the builds and the
+ * projects, so the entries are read and written with the shared lock and are evicted with the exclusive
+ * lock. The new entries are created in the temporary directories and are moved to the cache directory.
+ * The temporary directories, that are left by the killed builds, are deleted during the eviction, because
+ * no other build uses the cache directory at this time.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class AtlasCache {
+
+    private static final String SHEET_FILE_NAME = "sheet";
+
+    private static final String DATA_FILE_NAME = "data";
+
+    private static final String TEMP_PREFIX = "tmp-";
+
+    private static final int UPLOAD_THREAD_COUNT = 2;
+
+    private static final long UPLOAD_TIMEOUT = 60 * 1000L;
+
+    private final File _cacheDir;
+
+    private final long _maxSize;
+
+    private final CacheLock _cacheLock;
+
+    private final RemoteCache _remoteCache;
+
+    private final CacheStatistics _cacheStatistics;
+
+    private final AtomicBoolean _remoteCacheDisabled;
+
+    private final ExecutorService _uploadExecutorService;
+
+    private final Set<String> _uploadKeys;
+
+    AtlasCache(final File cacheDir, final long maxSize, final RemoteCache remoteCache, final boolean remoteCachePush, final CacheStatistics cacheStatistics) {
+        super();
+        _cacheDir = cacheDir;
+        _maxSize = maxSize;
+        _cacheLock = CacheLock.get(cacheDir);
+        _remoteCache = remoteCache;
+        _cacheStatistics = cacheStatistics;
+        _remoteCacheDisabled = new AtomicBoolean();
+        if (remoteCache != null && remoteCachePush) {
+            _uploadExecutorService = Executors.newFixedThreadPool(UPLOAD_THREAD_COUNT, new UploadThreadFactory());
+        } else {
+            _uploadExecutorService = null;
+        }
+        _uploadKeys = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    }
+
+    File getCacheDir() {
+        return _cacheDir;
+    }
+
+    CacheStatistics getCacheStatistics() {
+        return _cacheStatistics;
+    }
+
+    boolean restore(final String key, final PackingJob packingJob) throws IOException {
+        File entryDir = new File(_cacheDir, key);
+        try (CacheLock.Lease lease = _cacheLock.lockShared()) {
+            if (restoreEntry(entryDir, packingJob)) {
+                _cacheStatistics.incrementLocalHitCount();
+                uploadRemoteEntry(key, true);
+                return true;
+            }
+        }
+        File entryFile = loadRemoteEntry(key);
+        if (entryFile == null) {
+            _cacheStatistics.incrementMissCount();
+            return false;
+        }
+        try (CacheLock.Lease lease = _cacheLock.lockShared()) {
+            if (!unpackRemoteEntry(key, entryFile, entryDir) || !restoreEntry(entryDir, packingJob)) {
+                _cacheStatistics.incrementMissCount();
+                return false;
+            }
+        } finally {
+            Files.deleteIfExists(entryFile.toPath());
+        }
+        _cacheStatistics.incrementRemoteHitCount();
+        if (Logger.isDebugEnabled()) {
+            Logger.debug("Cache entry " + key + " is loaded from remote cache " + _remoteCache.getLocation());
+        }
+        return true;
+    }
+
+    private boolean restoreEntry(final File entryDir, final PackingJob packingJob) throws IOException {
+        File sheetFile = new File(entryDir, SHEET_FILE_NAME);
+        File dataFile = new File(entryDir, DATA_FILE_NAME);
+        if (!sheetFile.isFile() || !dataFile.isFile()) {
+            return false;
+        }
+        copyFile(sheetFile, packingJob.getSheetFile());
+        copyFile(dataFile, packingJob.getDataFile());
+        entryDir.setLastModified(System.currentTimeMillis());
+        return true;
+    }
+
+    void store(final String key, final PackingJob packingJob) throws IOException {
+        File entryDir = new File(_cacheDir, key);
+        try (CacheLock.Lease lease = _cacheLock.lockShared()) {
+            if (entryDir.isDirectory()) {
+                return;
+            }
+            Path tempPath = Files.createTempDirectory(_cacheDir.toPath(), TEMP_PREFIX);
+            File tempDir = tempPath.toFile();
+            try {
+                copyFile(packingJob.getSheetFile(), new File(tempDir, SHEET_FILE_NAME));
+                copyFile(packingJob.getDataFile(), new File(tempDir, DATA_FILE_NAME));
+                Files.move(tempPath, entryDir.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException ex) {
+                deleteDir(tempDir);
+                if (!entryDir.isDirectory()) {
+                    throw ex;
+                }
+            }
+        }
+        uploadRemoteEntry(key, false);
+    }
+
+    private File loadRemoteEntry(final String key) throws IOException {
+        if (_remoteCache == null || _remoteCacheDisabled.get()) {
+            return null;
+        }
+        File entryFile = Files.createTempFile(TEMP_PREFIX, null).toFile();
+        boolean loaded = false;
+        try {
+            long startTime = System.currentTimeMillis();
+            try {
+                loaded = _remoteCache.load(key, entryFile);
+            } catch (IOException ex) {
+                disableRemoteCache(ex);
+                return null;
+            }
+            _cacheStatistics.addDownloadTime(System.currentTimeMillis() - startTime);
+            if (!loaded) {
+                return null;
+            }
+            _cacheStatistics.addDownloadSize(entryFile.length());
+            return entryFile;
+        } finally {
+            if (!loaded) {
+                Files.deleteIfExists(entryFile.toPath());
+            }
+        }
+    }
+
+    private boolean unpackRemoteEntry(final String key, final File entryFile, final File entryDir) throws IOException {
+        Path tempPath = Files.createTempDirectory(_cacheDir.toPath(), TEMP_PREFIX);
+        File tempDir = tempPath.toFile();
+        try {
+            unpackEntry(entryFile, tempDir);
+            Files.move(tempPath, entryDir.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            deleteDir(tempDir);
+            if (!entryDir.isDirectory()) {
+                _cacheStatistics.incrementRemoteErrorCount();
+                if (Logger.isErrorEnabled()) {
+                    Logger.error("Cache entry " + key + " of remote cache " + _remoteCache.getLocation() + " can't be loaded", ex);
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void uploadRemoteEntry(final String key, final boolean missingOnly) {
+        if (_uploadExecutorService == null || _remoteCacheDisabled.get() || !_uploadKeys.add(key)) {
+            return;
+        }
+        _uploadExecutorService.execute(new UploadTask(key, missingOnly));
+    }
+
+    private void disableRemoteCache(final IOException exception) {
+        _cacheStatistics.incrementRemoteErrorCount();
+        if (_remoteCacheDisabled.compareAndSet(false, true) && Logger.isErrorEnabled()) {
+            Logger.error("Remote cache " + _remoteCache.getLocation() + " is not used until the end of the task run", exception);
+        }
+    }
+
+    void awaitUploads() {
+        if (_uploadExecutorService == null) {
+            return;
+        }
+        _uploadExecutorService.shutdown();
+        try {
+            if (!_uploadExecutorService.awaitTermination(UPLOAD_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                _uploadExecutorService.shutdownNow();
+                if (Logger.isErrorEnabled()) {
+                    Logger.error("Uploads to remote cache " + _remoteCache.getLocation() + " are not finished in " + UPLOAD_TIMEOUT + " ms");
+                }
+            }
+        } catch (InterruptedException ex) {
+            _uploadExecutorService.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static void packEntry(final File sheetFile, final File dataFile, final File entryFile) throws IOException {
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(entryFile.toPath()))) {
+            zipOutputStream.putNextEntry(new ZipEntry(SHEET_FILE_NAME));
+            Files.copy(sheetFile.toPath(), zipOutputStream);
+            zipOutputStream.closeEntry();
+            zipOutputStream.putNextEntry(new ZipEntry(DATA_FILE_NAME));
+            Files.copy(dataFile.toPath(), zipOutputStream);
+            zipOutputStream.closeEntry();
+        }
+    }
+
+    static void unpackEntry(final File entryFile, final File entryDir) throws IOException {
+        try (ZipInputStream zipInputStream = new ZipInputStream(Files.newInputStream(entryFile.toPath()))) {
+            ZipEntry zipEntry = zipInputStream.getNextEntry();
+            while (zipEntry != null) {
+                String name = zipEntry.getName();
+                if (SHEET_FILE_NAME.equals(name) || DATA_FILE_NAME.equals(name)) {
+                    Files.copy(zipInputStream, new File(entryDir, name).toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+                zipEntry = zipInputStream.getNextEntry();
+            }
+        }
+        if (!new File(entryDir, SHEET_FILE_NAME).isFile() || !new File(entryDir, DATA_FILE_NAME).isFile()) {
+            throw new IOException("Remote cache entry doesn't contain the sheet and the atlas");
+        }
+    }
+
+    void evict() throws IOException {
+        try (CacheLock.Lease lease = _cacheLock.lockExclusive()) {
+            File[] files = _cacheDir.listFiles();
+            if (files == null) {
+                return;
+            }
+            List<File> entries = new ArrayList<>();
+            long totalSize = 0;
+            for (File file : files) {
+                if (file.getName().startsWith(TEMP_PREFIX)) {
+                    deleteDir(file);
+                    if (Logger.isDebugEnabled()) {
+                        Logger.debug("Temporary cache entry " + file.getName() + " is deleted");
+                    }
+                } else if (file.isDirectory()) {
+                    entries.add(file);
+                    totalSize += getSize(file);
+                }
+            }
+            if (totalSize > _maxSize) {
+                evictEntries(entries, totalSize);
+            }
+        }
+    }
+
+    static void clean(final File cacheDir) throws IOException {
+        if (!cacheDir.isDirectory()) {
+            return;
+        }
+        try (CacheLock.Lease lease = CacheLock.get(cacheDir).lockExclusive()) {
+            File[] files = cacheDir.listFiles();
+            if (files == null) {
+                return;
+            }
+            for (File file : files) {
+                if (!CacheLock.LOCK_FILE_NAME.equals(file.getName())) {
+                    deleteDir(file);
+                }
+            }
+        }
+    }
+
+    private void evictEntries(final List<File> entries, final long totalSize) throws IOException {
+        long size = totalSize;
+        Collections.sort(entries, new LastModifiedComparator());
+        for (File entryDir : entries) {
+            if (size <= _maxSize) {
+                break;
+            }
+            long entrySize = getSize(entryDir);
+            deleteDir(entryDir);
+            size -= entrySize;
+            if (Logger.isDebugEnabled()) {
+                Logger.debug("Cache entry " + entryDir.getName() + " is evicted");
+            }
+        }
+    }
+
+    private long getSize(final File dir) {
+        long size = 0;
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                size += file.length();
+            }
+        }
+        return size;
+    }
+
+    private void copyFile(final File source, final File target) throws IOException {
+        File parentFile = target.getAbsoluteFile().getParentFile();
+        parentFile.mkdirs();
+        Files.copy(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    static void deleteDir(final File rootDir) throws IOException {
+        if (!rootDir.exists()) {
+            return;
+        }
+        Files.walkFileTree(rootDir.toPath(), new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(final Path dir, final IOException exc) throws IOException {
+                if (exc != null) {
+                    throw exc;
+                }
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+    }
+
+    /**
+     * The task to upload the cache entry to the remote cache.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private final class UploadTask implements Runnable {
+
+        private final String _key;
+
+        private final boolean _missingOnly;
+
+        UploadTask(final String key, final boolean missingOnly) {
+            super();
+            _key = key;
+            _missingOnly = missingOnly;
+        }
+
+        @Override
+        public void run() {
+            if (_remoteCacheDisabled.get()) {
+                return;
+            }
+            File entryDir = new File(_cacheDir, _key);
+            try {
+                if (_missingOnly && _remoteCache.contains(_key)) {
+                    return;
+                }
+                File entryFile = Files.createTempFile(TEMP_PREFIX, null).toFile();
+                try {
+                    try (CacheLock.Lease lease = _cacheLock.lockShared()) {
+                        if (!entryDir.isDirectory()) {
+                            return;
+                        }
+                        packEntry(new File(entryDir, SHEET_FILE_NAME), new File(entryDir, DATA_FILE_NAME), entryFile);
+                    }
+                    _remoteCache.store(_key, entryFile);
+                    _cacheStatistics.incrementUploadCount();
+                    _cacheStatistics.addUploadSize(entryFile.length());
+                } finally {
+                    Files.deleteIfExists(entryFile.toPath());
+                }
+                if (Logger.isDebugEnabled()) {
+                    Logger.debug("Cache entry " + _key + " is uploaded to remote cache " + _remoteCache.getLocation());
+                }
+            } catch (IOException ex) {
+                disableRemoteCache(ex);
+            }
+        }
+
+    }
+
+    /**
+     * The thread factory for the remote cache uploads.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class UploadThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger _counter;
+
+        UploadThreadFactory() {
+            super();
+            _counter = new AtomicInteger();
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            Thread thread = new Thread(runnable, "texturepacker-upload-" + _counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+    /**
+     * Comparator to sort the cache entries from the least recently used to the most recently used.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class LastModifiedComparator implements Comparator<File> {
+
+        LastModifiedComparator() {
+            super();
+        }
+
+        @Override
+        public int compare(final File file1, final File file2) {
+            return Long.compare(file1.lastModified(), file2.lastModified());
+        }
+
+    }
+
+}
@@ -0,0 +1,56 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+/**
+ * The build service to keep the build scan extension for the task actions. The build scan extension is found
+ * when the tasks are configured. If the task graph is loaded from the configuration cache, the build scan
+ * extension is not available.
+ *
+ * @author Dmitry Shapovalov
+ */
+public abstract class BuildScanService implements BuildService<BuildServiceParameters.None> {
+
+    static final String NAME = "texturePackerBuildScan";
+
+    private final AtomicReference<Object> _buildScanExtension;
+
+    /**
+     * Create new object.
+     */
+    public BuildScanService() {
+        super();
+        _buildScanExtension = new AtomicReference<>();
+    }
+
+    Object getBuildScanExtension() {
+        return _buildScanExtension.get();
+    }
+
+    void setBuildScanExtension(final Object buildScanExtension) {
+        _buildScanExtension.set(buildScanExtension);
+    }
+
+}
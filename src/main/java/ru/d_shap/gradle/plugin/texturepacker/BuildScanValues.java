@@ -0,0 +1,64 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.lang.reflect.Method;
+
+/**
+ * Helper class to add the custom values to the build scan. The build scan extension is accessed with
+ * reflection, so the plugin doesn't depend on the build scan plugin.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class BuildScanValues {
+
+    static final String EXTENSION_NAME = "buildScan";
+
+    private static final String VALUE_PREFIX = "TexturePacker ";
+
+    private BuildScanValues() {
+        super();
+    }
+
+    static void add(final Object buildScanExtension, final MetricsRecorder metricsRecorder) {
+        if (buildScanExtension == null) {
+            if (Logger.isInfoEnabled()) {
+                Logger.info("Build scan is not available, metrics are not added to the build scan");
+            }
+            return;
+        }
+        try {
+            Method method = buildScanExtension.getClass().getMethod("value", String.class, String.class);
+            method.invoke(buildScanExtension, VALUE_PREFIX + "duration", metricsRecorder.getDuration() + " ms");
+            int index = 1;
+            for (JobMetrics jobMetrics : metricsRecorder.getSlowestJobMetrics(MetricsRecorder.SLOWEST_COUNT)) {
+                PackingJob packingJob = jobMetrics.getPackingJob();
+                String value = packingJob.getPipelineName() + ':' + packingJob.getName() + ' ' + jobMetrics.getDuration() + " ms, " + jobMetrics.getOutcome();
+                method.invoke(buildScanExtension, VALUE_PREFIX + "slowest " + index, value);
+                index++;
+            }
+        } catch (ReflectiveOperationException ex) {
+            if (Logger.isErrorEnabled()) {
+                Logger.error("Exception in build scan values adding", ex);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,235 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The lock of the cache directory, shared by the builds and the projects, that use the same cache directory.
+ * The entries are read and written with the shared lock, and the entries are evicted with the exclusive lock,
+ * so the entry is not deleted while it is copied. The threads of the same process are synchronized with
+ * the read-write lock, and the processes are synchronized with the file lock of the lock file in the cache
+ * directory. The file lock is held by the process, so the shared file lock is acquired by the first
+ * thread with the shared lock and is released by the last one. The file lock, that is held by the plugin
+ * classes of the other class loader in the same process, is awaited by polling.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class CacheLock {
+
+    static final String LOCK_FILE_NAME = "cache.lock";
+
+    private static final long OVERLAPPING_LOCK_WAIT_TIME = 10L;
+
+    private static final Map<File, CacheLock> CACHE_LOCKS = new HashMap<>();
+
+    private final File _lockFile;
+
+    private final ReadWriteLock _lock;
+
+    private final Object _sharedLock;
+
+    private int _sharedCount;
+
+    private FileChannel _sharedChannel;
+
+    private CacheLock(final File lockFile) {
+        super();
+        _lockFile = lockFile;
+        _lock = new ReentrantReadWriteLock();
+        _sharedLock = new Object();
+        _sharedCount = 0;
+        _sharedChannel = null;
+    }
+
+    /**
+     * Get the lock of the cache directory.
+     *
+     * @param cacheDir the cache directory.
+     *
+     * @return the lock of the cache directory.
+     */
+    static CacheLock get(final File cacheDir) {
+        File lockFile = new File(cacheDir.getAbsoluteFile().toPath().normalize().toFile(), LOCK_FILE_NAME);
+        synchronized (CACHE_LOCKS) {
+            CacheLock cacheLock = CACHE_LOCKS.get(lockFile);
+            if (cacheLock == null) {
+                cacheLock = new CacheLock(lockFile);
+                CACHE_LOCKS.put(lockFile, cacheLock);
+            }
+            return cacheLock;
+        }
+    }
+
+    /**
+     * Acquire the shared lock to read or write the cache entries.
+     *
+     * @return the lease to release the lock.
+     *
+     * @throws IOException IO exception.
+     */
+    Lease lockShared() throws IOException {
+        Lock lock = _lock.readLock();
+        lock.lock();
+        try {
+            synchronized (_sharedLock) {
+                if (_sharedCount == 0) {
+                    FileChannel channel = openChannel();
+                    lockChannel(channel, true);
+                    _sharedChannel = channel;
+                }
+                _sharedCount++;
+            }
+            return new Lease(lock, true);
+        } catch (IOException ex) {
+            lock.unlock();
+            throw ex;
+        }
+    }
+
+    /**
+     * Acquire the exclusive lock to delete the cache entries.
+     *
+     * @return the lease to release the lock.
+     *
+     * @throws IOException IO exception.
+     */
+    Lease lockExclusive() throws IOException {
+        Lock lock = _lock.writeLock();
+        lock.lock();
+        try {
+            FileChannel channel = openChannel();
+            return new Lease(lock, channel, lockChannel(channel, false));
+        } catch (IOException ex) {
+            lock.unlock();
+            throw ex;
+        }
+    }
+
+    private FileChannel openChannel() throws IOException {
+        _lockFile.getParentFile().mkdirs();
+        return FileChannel.open(_lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private FileLock lockChannel(final FileChannel channel, final boolean shared) throws IOException {
+        FileLock fileLock = null;
+        try {
+            while (fileLock == null) {
+                fileLock = tryLockChannel(channel, shared);
+            }
+            return fileLock;
+        } finally {
+            if (fileLock == null) {
+                channel.close();
+            }
+        }
+    }
+
+    private FileLock tryLockChannel(final FileChannel channel, final boolean shared) throws IOException {
+        try {
+            return channel.lock(0L, Long.MAX_VALUE, shared);
+        } catch (OverlappingFileLockException ex) {
+            waitForOverlappingLock();
+            return null;
+        }
+    }
+
+    private void waitForOverlappingLock() throws IOException {
+        try {
+            Thread.sleep(OVERLAPPING_LOCK_WAIT_TIME);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException exception = new InterruptedIOException("Lock of cache directory " + _lockFile.getParent() + " is interrupted");
+            exception.initCause(ex);
+            throw exception;
+        }
+    }
+
+    private void releaseShared() throws IOException {
+        synchronized (_sharedLock) {
+            _sharedCount--;
+            if (_sharedCount == 0) {
+                FileChannel channel = _sharedChannel;
+                _sharedChannel = null;
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * The lease of the acquired lock.
+     *
+     * @author Dmitry Shapovalov
+     */
+    final class Lease implements Closeable {
+
+        private final Lock _lock;
+
+        private final boolean _shared;
+
+        private final FileChannel _channel;
+
+        private final FileLock _fileLock;
+
+        Lease(final Lock lock, final boolean shared) {
+            super();
+            _lock = lock;
+            _shared = shared;
+            _channel = null;
+            _fileLock = null;
+        }
+
+        Lease(final Lock lock, final FileChannel channel, final FileLock fileLock) {
+            super();
+            _lock = lock;
+            _shared = false;
+            _channel = channel;
+            _fileLock = fileLock;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (_shared) {
+                    releaseShared();
+                } else {
+                    _fileLock.release();
+                    _channel.close();
+                }
+            } finally {
+                _lock.unlock();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,129 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The statistics of the local and remote cache usage within the task run.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class CacheStatistics {
+
+    private final AtomicInteger _localHitCount;
+
+    private final AtomicInteger _remoteHitCount;
+
+    private final AtomicInteger _missCount;
+
+    private final AtomicInteger _uploadCount;
+
+    private final AtomicInteger _remoteErrorCount;
+
+    private final AtomicLong _downloadSize;
+
+    private final AtomicLong _uploadSize;
+
+    private final AtomicLong _downloadTime;
+
+    CacheStatistics() {
+        super();
+        _localHitCount = new AtomicInteger();
+        _remoteHitCount = new AtomicInteger();
+        _missCount = new AtomicInteger();
+        _uploadCount = new AtomicInteger();
+        _remoteErrorCount = new AtomicInteger();
+        _downloadSize = new AtomicLong();
+        _uploadSize = new AtomicLong();
+        _downloadTime = new AtomicLong();
+    }
+
+    void incrementLocalHitCount() {
+        _localHitCount.incrementAndGet();
+    }
+
+    int getLocalHitCount() {
+        return _localHitCount.get();
+    }
+
+    void incrementRemoteHitCount() {
+        _remoteHitCount.incrementAndGet();
+    }
+
+    int getRemoteHitCount() {
+        return _remoteHitCount.get();
+    }
+
+    void incrementMissCount() {
+        _missCount.incrementAndGet();
+    }
+
+    int getMissCount() {
+        return _missCount.get();
+    }
+
+    void incrementUploadCount() {
+        _uploadCount.incrementAndGet();
+    }
+
+    int getUploadCount() {
+        return _uploadCount.get();
+    }
+
+    void incrementRemoteErrorCount() {
+        _remoteErrorCount.incrementAndGet();
+    }
+
+    int getRemoteErrorCount() {
+        return _remoteErrorCount.get();
+    }
+
+    void addDownloadSize(final long downloadSize) {
+        _downloadSize.addAndGet(downloadSize);
+    }
+
+    long getDownloadSize() {
+        return _downloadSize.get();
+    }
+
+    void addUploadSize(final long uploadSize) {
+        _uploadSize.addAndGet(uploadSize);
+    }
+
+    long getUploadSize() {
+        return _uploadSize.get();
+    }
+
+    void addDownloadTime(final long downloadTime) {
+        _downloadTime.addAndGet(downloadTime);
+    }
+
+    long getDownloadTime() {
+        return _downloadTime.get();
+    }
+
+    @Override
+    public String toString() {
+        return "local hits: " + getLocalHitCount() + ", remote hits: " + getRemoteHitCount() + ", misses: " + getMissCount() + ", uploads: " + getUploadCount() + ", remote errors: " + getRemoteErrorCount() + ", downloaded: " + getDownloadSize() + " bytes in " + getDownloadTime() + " ms, uploaded: " + getUploadSize() + " bytes";
+    }
+
+}
@@ -0,0 +1,59 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.gradle.api.Action;
+import org.gradle.api.GradleException;
+import org.gradle.api.Task;
+import org.gradle.api.file.Directory;
+import org.gradle.api.provider.Provider;
+
+/**
+ * TexturePacker gradle action to delete the local cache. The cache entries are deleted with the exclusive
+ * lock of the cache directory, so the entries are not deleted while the running builds copy them.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class CleanCacheAction implements Action<Task> {
+
+    private final Provider<Directory> _cacheDir;
+
+    CleanCacheAction(final Provider<Directory> cacheDir) {
+        super();
+        _cacheDir = cacheDir;
+    }
+
+    @Override
+    public void execute(final Task task) {
+        File cacheDir = _cacheDir.get().getAsFile();
+        try {
+            AtlasCache.clean(cacheDir);
+        } catch (IOException ex) {
+            throw new GradleException("Cache " + cacheDir.getAbsolutePath() + " can't be deleted", ex);
+        }
+        if (Logger.isInfoEnabled()) {
+            Logger.info("Cache " + cacheDir.getAbsolutePath() + " is deleted");
+        }
+    }
+
+}
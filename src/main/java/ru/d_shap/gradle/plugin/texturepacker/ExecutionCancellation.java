@@ -0,0 +1,47 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The cancellation of the packer executions within the task run. No new TexturePacker process is started
+ * after the executions are cancelled.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class ExecutionCancellation {
+
+    private final AtomicBoolean _cancelled;
+
+    ExecutionCancellation() {
+        super();
+        _cancelled = new AtomicBoolean();
+    }
+
+    void cancel() {
+        _cancelled.set(true);
+    }
+
+    boolean isCancelled() {
+        return _cancelled.get();
+    }
+
+}
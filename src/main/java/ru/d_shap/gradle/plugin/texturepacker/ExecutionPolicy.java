@@ -0,0 +1,77 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The policy to execute TexturePacker: the timeout of the source directory processing and the retries
+ * of the timed out or failed processing.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class ExecutionPolicy {
+
+    private static final long MILLIS_IN_SECOND = 1000L;
+
+    private static final int MAX_DELAY_SHIFT = 16;
+
+    private static final long MAX_RETRY_DELAY = 10 * 60 * 1000L;
+
+    private final long _timeout;
+
+    private final int _retries;
+
+    private final Set<Integer> _retryExitCodes;
+
+    private final long _retryDelay;
+
+    ExecutionPolicy(final long timeout, final int retries, final List<Integer> retryExitCodes, final long retryDelay) {
+        super();
+        _timeout = timeout * MILLIS_IN_SECOND;
+        _retries = retries;
+        _retryExitCodes = new HashSet<>(retryExitCodes);
+        _retryDelay = retryDelay;
+    }
+
+    long getTimeout() {
+        return _timeout;
+    }
+
+    int getRetries() {
+        return _retries;
+    }
+
+    boolean isRetryExitCode(final int exitCode) {
+        return _retryExitCodes.contains(exitCode);
+    }
+
+    long getRetryDelay(final int retry) {
+        int shift = Math.min(Math.max(retry - 1, 0), MAX_DELAY_SHIFT);
+        long retryDelay = Math.min(_retryDelay, MAX_RETRY_DELAY);
+        if (retryDelay > MAX_RETRY_DELAY >> shift) {
+            return MAX_RETRY_DELAY;
+        }
+        return retryDelay << shift;
+    }
+
+}
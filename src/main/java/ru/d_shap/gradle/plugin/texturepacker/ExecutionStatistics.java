@@ -0,0 +1,111 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The statistics of the packer executions within the task run.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class ExecutionStatistics {
+
+    private final AtomicInteger _executionCount;
+
+    private final AtomicInteger _timeoutCount;
+
+    private final AtomicInteger _retryCount;
+
+    private final AtomicInteger _failureCount;
+
+    private final AtomicLong _processWaitTime;
+
+    private final AtomicLong _memoryWaitTime;
+
+    ExecutionStatistics() {
+        super();
+        _executionCount = new AtomicInteger();
+        _timeoutCount = new AtomicInteger();
+        _retryCount = new AtomicInteger();
+        _failureCount = new AtomicInteger();
+        _processWaitTime = new AtomicLong();
+        _memoryWaitTime = new AtomicLong();
+    }
+
+    void incrementExecutionCount() {
+        _executionCount.incrementAndGet();
+    }
+
+    void addExecutionCount(final int executionCount) {
+        _executionCount.addAndGet(executionCount);
+    }
+
+    int getExecutionCount() {
+        return _executionCount.get();
+    }
+
+    void incrementTimeoutCount() {
+        _timeoutCount.incrementAndGet();
+    }
+
+    int getTimeoutCount() {
+        return _timeoutCount.get();
+    }
+
+    void incrementRetryCount() {
+        _retryCount.incrementAndGet();
+    }
+
+    int getRetryCount() {
+        return _retryCount.get();
+    }
+
+    void incrementFailureCount() {
+        _failureCount.incrementAndGet();
+    }
+
+    int getFailureCount() {
+        return _failureCount.get();
+    }
+
+    void addProcessWaitTime(final long processWaitTime) {
+        _processWaitTime.addAndGet(processWaitTime);
+    }
+
+    long getProcessWaitTime() {
+        return _processWaitTime.get();
+    }
+
+    void addMemoryWaitTime(final long memoryWaitTime) {
+        _memoryWaitTime.addAndGet(memoryWaitTime);
+    }
+
+    long getMemoryWaitTime() {
+        return _memoryWaitTime.get();
+    }
+
+    @Override
+    public String toString() {
+        return "executions: " + getExecutionCount() + ", timeouts: " + getTimeoutCount() + ", retries: " + getRetryCount() + ", failures: " + getFailureCount() + ", process wait: " + getProcessWaitTime() + " ms, memory wait: " + getMemoryWaitTime() + " ms";
+    }
+
+}
@@ -0,0 +1,95 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * The remote cache in the shared directory, for example the network file system mount. Every cache entry
+ * is the file named by the cache key, the entry is written to the temporary file first and then is moved,
+ * so the concurrent builds never read the partially written entry.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class FileRemoteCache implements RemoteCache {
+
+    private static final String ENTRY_EXTENSION = ".zip";
+
+    private static final String TEMP_PREFIX = "tmp-";
+
+    private final File _cacheDir;
+
+    FileRemoteCache(final File cacheDir) {
+        super();
+        _cacheDir = cacheDir;
+    }
+
+    @Override
+    public String getLocation() {
+        return _cacheDir.getAbsolutePath();
+    }
+
+    @Override
+    public boolean contains(final String key) {
+        return getEntryFile(key).isFile();
+    }
+
+    @Override
+    public boolean load(final String key, final File entryFile) throws IOException {
+        Path entryPath = getEntryFile(key).toPath();
+        try {
+            Files.copy(entryPath, entryFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (NoSuchFileException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public void store(final String key, final File entryFile) throws IOException {
+        File remoteEntryFile = getEntryFile(key);
+        if (remoteEntryFile.isFile()) {
+            return;
+        }
+        Files.createDirectories(_cacheDir.toPath());
+        Path tempPath = Files.createTempFile(_cacheDir.toPath(), TEMP_PREFIX, ENTRY_EXTENSION);
+        try {
+            Files.copy(entryFile.toPath(), tempPath, StandardCopyOption.REPLACE_EXISTING);
+            try {
+                Files.move(tempPath, remoteEntryFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tempPath, remoteEntryFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    private File getEntryFile(final String key) {
+        return new File(_cacheDir, key + ENTRY_EXTENSION);
+    }
+
+}
@@ -0,0 +1,168 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Helper class to compute fingerprints.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class Fingerprints {
+
+    private static final String ALGORITHM = "SHA-256";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private Fingerprints() {
+        super();
+    }
+
+    /**
+     * Get the fingerprint of the files in the directory. The fingerprint is based on the relative path,
+     * the size and the last modification time of every file in the directory and its subdirectories.
+     *
+     * @param dir the directory.
+     *
+     * @return the fingerprint.
+     *
+     * @throws IOException if the directory can't be read.
+     */
+    static String getDirFingerprint(final File dir) throws IOException {
+        final Path rootPath = dir.toPath();
+        final List<String> fileDescriptions = new ArrayList<>();
+        Files.walkFileTree(rootPath, new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+                String relativePath = rootPath.relativize(file).toString().replace(File.separatorChar, '/');
+                fileDescriptions.add(relativePath + '|' + attrs.size() + '|' + attrs.lastModifiedTime().toMillis());
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+        Collections.sort(fileDescriptions);
+        return getFingerprint(fileDescriptions);
+    }
+
+    /**
+     * Get the fingerprint of the content of the files in the directory. The fingerprint is based on the
+     * relative path and the content of every file in the directory and its subdirectories.
+     *
+     * @param dir the directory.
+     *
+     * @return the fingerprint.
+     *
+     * @throws IOException if the directory can't be read.
+     */
+    static String getDirContentFingerprint(final File dir) throws IOException {
+        final Path rootPath = dir.toPath();
+        final List<Path> files = new ArrayList<>();
+        Files.walkFileTree(rootPath, new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+                files.add(rootPath.relativize(file));
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+        Collections.sort(files);
+        MessageDigest messageDigest = createMessageDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        for (Path file : files) {
+            String relativePath = file.toString().replace(File.separatorChar, '/');
+            messageDigest.update(relativePath.getBytes(StandardCharsets.UTF_8));
+            messageDigest.update((byte) 0);
+            try (InputStream inputStream = Files.newInputStream(rootPath.resolve(file))) {
+                int read = inputStream.read(buffer);
+                while (read >= 0) {
+                    messageDigest.update(buffer, 0, read);
+                    read = inputStream.read(buffer);
+                }
+            }
+            messageDigest.update((byte) 0);
+        }
+        return toHexString(messageDigest.digest());
+    }
+
+    /**
+     * Get the fingerprint of the content.
+     *
+     * @param content the content.
+     *
+     * @return the fingerprint.
+     */
+    static String getContentFingerprint(final byte[] content) {
+        MessageDigest messageDigest = createMessageDigest();
+        messageDigest.update(content);
+        return toHexString(messageDigest.digest());
+    }
+
+    /**
+     * Get the fingerprint of the values.
+     *
+     * @param values the values.
+     *
+     * @return the fingerprint.
+     */
+    static String getFingerprint(final List<String> values) {
+        MessageDigest messageDigest = createMessageDigest();
+        for (String value : values) {
+            messageDigest.update(value.getBytes(StandardCharsets.UTF_8));
+            messageDigest.update((byte) 0);
+        }
+        return toHexString(messageDigest.digest());
+    }
+
+    static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    static String toHexString(final byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0x0F];
+            chars[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0x0F];
+        }
+        return new String(chars);
+    }
+
+}
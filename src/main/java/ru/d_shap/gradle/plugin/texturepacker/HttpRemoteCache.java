@@ -0,0 +1,130 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * The remote cache on the HTTP server. The cache entry is checked with the HEAD request, is loaded with
+ * the GET request and is stored with the PUT request to the URL of the cache key relative to the cache URL.
+ * The missing entry is reported with the 404 response code. The cache entry is streamed from and to the file.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class HttpRemoteCache implements RemoteCache {
+
+    private static final int CONNECT_TIMEOUT = 10 * 1000;
+
+    private static final int READ_TIMEOUT = 30 * 1000;
+
+    private static final String CONTENT_TYPE = "application/zip";
+
+    private final String _url;
+
+    HttpRemoteCache(final String url) {
+        super();
+        if (url.endsWith("/")) {
+            _url = url;
+        } else {
+            _url = url + "/";
+        }
+    }
+
+    @Override
+    public String getLocation() {
+        return _url;
+    }
+
+    @Override
+    public boolean contains(final String key) throws IOException {
+        HttpURLConnection connection = openConnection(key);
+        try {
+            connection.setRequestMethod("HEAD");
+            int responseCode = connection.getResponseCode();
+            if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
+                return false;
+            }
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Remote cache " + _url + " responded with HTTP code " + responseCode + " to HEAD request");
+            }
+            return true;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @Override
+    public boolean load(final String key, final File entryFile) throws IOException {
+        HttpURLConnection connection = openConnection(key);
+        try {
+            connection.setRequestMethod("GET");
+            int responseCode = connection.getResponseCode();
+            if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
+                return false;
+            }
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Remote cache " + _url + " responded with HTTP code " + responseCode + " to GET request");
+            }
+            try (InputStream inputStream = connection.getInputStream()) {
+                Files.copy(inputStream, entryFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @Override
+    public void store(final String key, final File entryFile) throws IOException {
+        HttpURLConnection connection = openConnection(key);
+        try {
+            connection.setRequestMethod("PUT");
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", CONTENT_TYPE);
+            connection.setFixedLengthStreamingMode(entryFile.length());
+            try (OutputStream outputStream = connection.getOutputStream()) {
+                Files.copy(entryFile.toPath(), outputStream);
+            }
+            int responseCode = connection.getResponseCode();
+            if (responseCode < HttpURLConnection.HTTP_OK || responseCode >= HttpURLConnection.HTTP_MULT_CHOICE) {
+                throw new IOException("Remote cache " + _url + " responded with HTTP code " + responseCode + " to PUT request");
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private HttpURLConnection openConnection(final String key) throws IOException {
+        URL url = new URL(_url + key);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT);
+        connection.setReadTimeout(READ_TIMEOUT);
+        connection.setUseCaches(false);
+        return connection;
+    }
+
+}
@@ -0,0 +1,154 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Helper class to read the image size from the PNG or JPEG header without the image decoding.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class ImageHeaders {
+
+    private static final long PNG_SIGNATURE = 0x89504E470D0A1A0AL;
+
+    private static final int PNG_IHDR = 0x49484452;
+
+    private static final int PNG_HEADER_SIZE = 24;
+
+    private static final int JPEG_MARKER_PREFIX = 0xFF;
+
+    private static final int JPEG_SOI = 0xD8;
+
+    private static final int JPEG_EOI = 0xD9;
+
+    private static final int JPEG_SOS = 0xDA;
+
+    private static final int JPEG_SOF0 = 0xC0;
+
+    private static final int JPEG_SOF15 = 0xCF;
+
+    private static final int JPEG_DHT = 0xC4;
+
+    private static final int JPEG_JPG = 0xC8;
+
+    private static final int JPEG_DAC = 0xCC;
+
+    private static final int JPEG_RST0 = 0xD0;
+
+    private static final int JPEG_RST7 = 0xD7;
+
+    private static final int JPEG_TEM = 0x01;
+
+    private static final int JPEG_SOF_SIZE = 5;
+
+    private static final int UNSIGNED_BYTE_MASK = 0xFF;
+
+    private static final int UNSIGNED_SHORT_MASK = 0xFFFF;
+
+    private ImageHeaders() {
+        super();
+    }
+
+    /**
+     * Read the image size from the PNG or JPEG header.
+     *
+     * @param path the image file.
+     *
+     * @return the width and the height of the image, or null if the file is neither PNG nor JPEG image.
+     *
+     * @throws IOException if the file can't be read.
+     */
+    static int[] readSize(final Path path) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(PNG_HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+            if (!readFully(fileChannel, buffer, 2)) {
+                return null;
+            }
+            if ((buffer.get(0) & UNSIGNED_BYTE_MASK) == JPEG_MARKER_PREFIX && (buffer.get(1) & UNSIGNED_BYTE_MASK) == JPEG_SOI) {
+                return readJpegSize(fileChannel);
+            }
+            if (!readFully(fileChannel, buffer, PNG_HEADER_SIZE) || buffer.getLong(0) != PNG_SIGNATURE || buffer.getInt(12) != PNG_IHDR) {
+                return null;
+            }
+            return new int[]{buffer.getInt(16), buffer.getInt(20)};
+        }
+    }
+
+    private static int[] readJpegSize(final FileChannel fileChannel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(JPEG_SOF_SIZE + 2).order(ByteOrder.BIG_ENDIAN);
+        while (true) {
+            buffer.clear();
+            if (!readFully(fileChannel, buffer, 2) || (buffer.get(0) & UNSIGNED_BYTE_MASK) != JPEG_MARKER_PREFIX) {
+                return null;
+            }
+            int marker = buffer.get(1) & UNSIGNED_BYTE_MASK;
+            if (marker == JPEG_MARKER_PREFIX) {
+                fileChannel.position(fileChannel.position() - 1);
+                continue;
+            }
+            if (marker == JPEG_EOI || marker == JPEG_SOS) {
+                return null;
+            }
+            if (marker == JPEG_TEM || marker >= JPEG_RST0 && marker <= JPEG_RST7) {
+                continue;
+            }
+            buffer.clear();
+            if (!readFully(fileChannel, buffer, 2)) {
+                return null;
+            }
+            int segmentLength = buffer.getShort(0) & UNSIGNED_SHORT_MASK;
+            if (segmentLength < 2) {
+                return null;
+            }
+            if (isStartOfFrame(marker)) {
+                buffer.clear();
+                if (!readFully(fileChannel, buffer, JPEG_SOF_SIZE)) {
+                    return null;
+                }
+                int height = buffer.getShort(1) & UNSIGNED_SHORT_MASK;
+                int width = buffer.getShort(3) & UNSIGNED_SHORT_MASK;
+                return new int[]{width, height};
+            }
+            fileChannel.position(fileChannel.position() + segmentLength - 2);
+        }
+    }
+
+    private static boolean isStartOfFrame(final int marker) {
+        return marker >= JPEG_SOF0 && marker <= JPEG_SOF15 && marker != JPEG_DHT && marker != JPEG_JPG && marker != JPEG_DAC;
+    }
+
+    private static boolean readFully(final FileChannel fileChannel, final ByteBuffer buffer, final int size) throws IOException {
+        buffer.limit(size);
+        while (buffer.hasRemaining()) {
+            if (fileChannel.read(buffer) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,190 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * The history of the packing job costs. For every packing job the history keeps the duration of the last
+ * processing, the total pixel count of the images, the observed peak memory of the packer process and
+ * the memory estimate of the packing job, the observed peak memory was measured for. The history is stored in the build directory
+ * between the builds and is used to schedule the most expensive packing jobs first and to estimate the memory of the packing jobs.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class JobHistory {
+
+    private static final String COUNT_KEY = "count";
+
+    private static final String KEY_SUFFIX = ".key";
+
+    private static final String DURATION_SUFFIX = ".duration";
+
+    private static final String PIXELS_SUFFIX = ".pixels";
+
+    private static final String PEAK_MEMORY_SUFFIX = ".peakMemory";
+
+    private static final String ESTIMATED_MEMORY_SUFFIX = ".estimatedMemory";
+
+    private final File _file;
+
+    private final Map<String, Entry> _entries;
+
+    private JobHistory(final File file) {
+        super();
+        _file = file;
+        _entries = new HashMap<>();
+    }
+
+    static JobHistory load(final File file) {
+        JobHistory jobHistory = new JobHistory(file);
+        if (!file.isFile()) {
+            return jobHistory;
+        }
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+            properties.load(inputStream);
+        } catch (IOException ex) {
+            if (Logger.isDebugEnabled()) {
+                Logger.debug("History " + file.getAbsolutePath() + " can't be read: " + ex);
+            }
+            return jobHistory;
+        }
+        try {
+            int count = Integer.parseInt(properties.getProperty(COUNT_KEY, "0"));
+            for (int i = 0; i < count; i++) {
+                String key = properties.getProperty(i + KEY_SUFFIX);
+                long duration = Long.parseLong(properties.getProperty(i + DURATION_SUFFIX, "0"));
+                long pixels = Long.parseLong(properties.getProperty(i + PIXELS_SUFFIX, "0"));
+                long peakMemory = Long.parseLong(properties.getProperty(i + PEAK_MEMORY_SUFFIX, "0"));
+                long estimatedMemory = Long.parseLong(properties.getProperty(i + ESTIMATED_MEMORY_SUFFIX, "0"));
+                if (key != null) {
+                    jobHistory._entries.put(key, new Entry(duration, pixels, peakMemory, estimatedMemory));
+                }
+            }
+        } catch (NumberFormatException ex) {
+            if (Logger.isDebugEnabled()) {
+                Logger.debug("History " + file.getAbsolutePath() + " is malformed: " + ex);
+            }
+            jobHistory._entries.clear();
+        }
+        return jobHistory;
+    }
+
+    void save() {
+        Properties properties = new Properties();
+        List<String> keys = new ArrayList<>(_entries.keySet());
+        Collections.sort(keys);
+        properties.setProperty(COUNT_KEY, String.valueOf(keys.size()));
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            Entry entry = _entries.get(key);
+            properties.setProperty(i + KEY_SUFFIX, key);
+            properties.setProperty(i + DURATION_SUFFIX, String.valueOf(entry.getDuration()));
+            properties.setProperty(i + PIXELS_SUFFIX, String.valueOf(entry.getPixels()));
+            properties.setProperty(i + PEAK_MEMORY_SUFFIX, String.valueOf(entry.getPeakMemory()));
+            properties.setProperty(i + ESTIMATED_MEMORY_SUFFIX, String.valueOf(entry.getEstimatedMemory()));
+        }
+        try {
+            File parentFile = _file.getAbsoluteFile().getParentFile();
+            parentFile.mkdirs();
+            Path tempPath = Files.createTempFile(parentFile.toPath(), _file.getName(), ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(tempPath)) {
+                properties.store(outputStream, "TexturePacker job history");
+            }
+            Files.move(tempPath, _file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            if (Logger.isErrorEnabled()) {
+                Logger.error("History " + _file.getAbsolutePath() + " can't be written", ex);
+            }
+        }
+    }
+
+    Entry getEntry(final String key) {
+        return _entries.get(key);
+    }
+
+    void putEntry(final String key, final Entry entry) {
+        _entries.put(key, entry);
+    }
+
+    Map<String, Entry> getEntries() {
+        return Collections.unmodifiableMap(_entries);
+    }
+
+    void retainEntries(final Set<String> keys) {
+        _entries.keySet().retainAll(keys);
+    }
+
+    /**
+     * The history entry of the packing job.
+     *
+     * @author Dmitry Shapovalov
+     */
+    static final class Entry {
+
+        private final long _duration;
+
+        private final long _pixels;
+
+        private final long _peakMemory;
+
+        private final long _estimatedMemory;
+
+        Entry(final long duration, final long pixels, final long peakMemory, final long estimatedMemory) {
+            super();
+            _duration = duration;
+            _pixels = pixels;
+            _peakMemory = peakMemory;
+            _estimatedMemory = estimatedMemory;
+        }
+
+        long getDuration() {
+            return _duration;
+        }
+
+        long getPixels() {
+            return _pixels;
+        }
+
+        long getPeakMemory() {
+            return _peakMemory;
+        }
+
+        long getEstimatedMemory() {
+            return _estimatedMemory;
+        }
+
+    }
+
+}
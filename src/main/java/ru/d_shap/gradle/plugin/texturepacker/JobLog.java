@@ -0,0 +1,156 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ru.d_shap.gradle.plugin.texturepacker.backend.PackerLog;
+
+/**
+ * The log of the single packing job. Messages are collected while the job is running and are written
+ * to the logger at once, so the output of concurrent jobs is not mixed.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class JobLog implements PackerLog {
+
+    private static final Object LOCK = new Object();
+
+    private static final int LEVEL_DEBUG = 0;
+
+    private static final int LEVEL_INFO = 1;
+
+    private static final int LEVEL_ERROR = 2;
+
+    private final List<Entry> _entries;
+
+    private String _lastErrorMessage;
+
+    JobLog() {
+        super();
+        _entries = new ArrayList<>();
+        _lastErrorMessage = null;
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return Logger.isDebugEnabled();
+    }
+
+    @Override
+    public void debug(final String message) {
+        addEntry(LEVEL_DEBUG, message, null);
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return Logger.isInfoEnabled();
+    }
+
+    @Override
+    public void info(final String message) {
+        addEntry(LEVEL_INFO, message, null);
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return Logger.isErrorEnabled();
+    }
+
+    @Override
+    public void error(final String message) {
+        addEntry(LEVEL_ERROR, message, null);
+    }
+
+    @Override
+    public void error(final String message, final Throwable throwable) {
+        addEntry(LEVEL_ERROR, message, throwable);
+    }
+
+    private void addEntry(final int level, final String message, final Throwable throwable) {
+        synchronized (_entries) {
+            _entries.add(new Entry(level, message, throwable));
+            if (level == LEVEL_ERROR) {
+                _lastErrorMessage = message;
+            }
+        }
+    }
+
+    String takeLastErrorMessage() {
+        synchronized (_entries) {
+            String lastErrorMessage = _lastErrorMessage;
+            _lastErrorMessage = null;
+            return lastErrorMessage;
+        }
+    }
+
+    void flush() {
+        synchronized (LOCK) {
+            synchronized (_entries) {
+                for (Entry entry : _entries) {
+                    writeEntry(entry);
+                }
+                _entries.clear();
+            }
+        }
+    }
+
+    private void writeEntry(final Entry entry) {
+        if (entry._level == LEVEL_DEBUG) {
+            if (Logger.isDebugEnabled()) {
+                Logger.debug(entry._message);
+            }
+        } else if (entry._level == LEVEL_INFO) {
+            if (Logger.isInfoEnabled()) {
+                Logger.info(entry._message);
+            }
+        } else if (Logger.isErrorEnabled()) {
+            if (entry._throwable == null) {
+                Logger.error(entry._message);
+            } else {
+                Logger.error(entry._message, entry._throwable);
+            }
+        }
+    }
+
+    /**
+     * The log entry.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class Entry {
+
+        private final int _level;
+
+        private final String _message;
+
+        private final Throwable _throwable;
+
+        Entry(final int level, final String message, final Throwable throwable) {
+            super();
+            _level = level;
+            _message = message;
+            _throwable = throwable;
+        }
+
+    }
+
+}
@@ -0,0 +1,245 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * The manifest of the processed packing jobs. For every packing job the manifest keeps the fingerprints
+ * of the inputs and the parameters and the list of the created files. The manifest is stored in the
+ * build directory between the builds. The entries of the packing jobs, that are not planned any more,
+ * are stale, and their files are deleted. The packing job is recorded with the incomplete entry before
+ * the processing, and the entry is replaced after the successful processing. So the files of the failed
+ * packing job are still known and are deleted, when the packing job becomes stale.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class JobManifest {
+
+    private static final String COUNT_KEY = "count";
+
+    private static final String KEY_SUFFIX = ".key";
+
+    private static final String INPUTS_SUFFIX = ".inputs";
+
+    private static final String PARAMETERS_SUFFIX = ".parameters";
+
+    private static final String OUTPUTS_SUFFIX = ".outputs";
+
+    private final File _file;
+
+    private final Map<String, Entry> _entries;
+
+    private JobManifest(final File file) {
+        super();
+        _file = file;
+        _entries = new HashMap<>();
+    }
+
+    static JobManifest load(final File file) {
+        JobManifest jobManifest = new JobManifest(file);
+        if (!file.isFile()) {
+            return jobManifest;
+        }
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+            properties.load(inputStream);
+        } catch (IOException ex) {
+            if (Logger.isErrorEnabled()) {
+                Logger.error("Manifest " + file.getAbsolutePath() + " can't be read, all directories are processed", ex);
+            }
+            return jobManifest;
+        } catch (IllegalArgumentException ex) {
+            if (Logger.isErrorEnabled()) {
+                Logger.error("Manifest " + file.getAbsolutePath() + " is malformed, all directories are processed: " + ex);
+            }
+            return jobManifest;
+        }
+        try {
+            int count = Integer.parseInt(properties.getProperty(COUNT_KEY, "0"));
+            for (int i = 0; i < count; i++) {
+                String key = properties.getProperty(i + KEY_SUFFIX);
+                String inputs = properties.getProperty(i + INPUTS_SUFFIX);
+                String parameters = properties.getProperty(i + PARAMETERS_SUFFIX);
+                String outputs = properties.getProperty(i + OUTPUTS_SUFFIX, "");
+                if (key != null && inputs != null && parameters != null) {
+                    List<String> outputList = new ArrayList<>();
+                    for (String output : outputs.split(File.pathSeparator)) {
+                        if (!output.isEmpty()) {
+                            outputList.add(output);
+                        }
+                    }
+                    jobManifest._entries.put(key, new Entry(inputs, parameters, outputList));
+                }
+            }
+        } catch (NumberFormatException ex) {
+            if (Logger.isErrorEnabled()) {
+                Logger.error("Manifest " + file.getAbsolutePath() + " is malformed, all directories are processed: " + ex);
+            }
+            jobManifest._entries.clear();
+        }
+        return jobManifest;
+    }
+
+    void save() {
+        Properties properties = new Properties();
+        synchronized (_entries) {
+            List<String> keys = new ArrayList<>(_entries.keySet());
+            Collections.sort(keys);
+            properties.setProperty(COUNT_KEY, String.valueOf(keys.size()));
+            for (int i = 0; i < keys.size(); i++) {
+                String key = keys.get(i);
+                Entry entry = _entries.get(key);
+                properties.setProperty(i + KEY_SUFFIX, key);
+                properties.setProperty(i + INPUTS_SUFFIX, entry.getInputs());
+                properties.setProperty(i + PARAMETERS_SUFFIX, entry.getParameters());
+                properties.setProperty(i + OUTPUTS_SUFFIX, joinOutputs(entry.getOutputs()));
+            }
+        }
+        try {
+            File parentFile = _file.getAbsoluteFile().getParentFile();
+            parentFile.mkdirs();
+            Path tempPath = Files.createTempFile(parentFile.toPath(), _file.getName(), ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(tempPath)) {
+                properties.store(outputStream, "TexturePacker job manifest");
+            }
+            Files.move(tempPath, _file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            if (Logger.isErrorEnabled()) {
+                Logger.error("Manifest " + _file.getAbsolutePath() + " can't be written", ex);
+            }
+        }
+    }
+
+    private String joinOutputs(final List<String> outputs) {
+        StringBuilder builder = new StringBuilder();
+        for (String output : outputs) {
+            if (builder.length() > 0) {
+                builder.append(File.pathSeparator);
+            }
+            builder.append(output);
+        }
+        return builder.toString();
+    }
+
+    Entry getEntry(final String key) {
+        synchronized (_entries) {
+            return _entries.get(key);
+        }
+    }
+
+    void putEntry(final String key, final Entry entry) {
+        synchronized (_entries) {
+            _entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Put the incomplete entry of the packing job, that is processed now. The entry keeps the files of
+     * the previous entry and the files, that are about to be created.
+     *
+     * @param key         the key of the packing job.
+     * @param outputFiles the files of the packing job.
+     */
+    void putIncompleteEntry(final String key, final List<File> outputFiles) {
+        Set<String> outputs = new LinkedHashSet<>();
+        synchronized (_entries) {
+            Entry entry = _entries.get(key);
+            if (entry != null) {
+                outputs.addAll(entry.getOutputs());
+            }
+            for (File outputFile : outputFiles) {
+                outputs.add(outputFile.getAbsolutePath());
+            }
+            _entries.put(key, new Entry(Entry.INCOMPLETE_FINGERPRINT, Entry.INCOMPLETE_FINGERPRINT, new ArrayList<>(outputs)));
+        }
+    }
+
+    List<Entry> removeStaleEntries(final Set<String> keys) {
+        List<Entry> staleEntries = new ArrayList<>();
+        synchronized (_entries) {
+            Iterator<Map.Entry<String, Entry>> iterator = _entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Entry> mapEntry = iterator.next();
+                if (!keys.contains(mapEntry.getKey())) {
+                    staleEntries.add(mapEntry.getValue());
+                    iterator.remove();
+                }
+            }
+        }
+        return staleEntries;
+    }
+
+    /**
+     * The manifest entry of the single packing job.
+     *
+     * @author Dmitry Shapovalov
+     */
+    static final class Entry {
+
+        private static final String INCOMPLETE_FINGERPRINT = "incomplete";
+
+        private final String _inputs;
+
+        private final String _parameters;
+
+        private final List<String> _outputs;
+
+        Entry(final String inputs, final String parameters, final List<String> outputs) {
+            super();
+            _inputs = inputs;
+            _parameters = parameters;
+            _outputs = Collections.unmodifiableList(new ArrayList<>(outputs));
+        }
+
+        boolean isIncomplete() {
+            return INCOMPLETE_FINGERPRINT.equals(_inputs);
+        }
+
+        String getInputs() {
+            return _inputs;
+        }
+
+        String getParameters() {
+            return _parameters;
+        }
+
+        List<String> getOutputs() {
+            return _outputs;
+        }
+
+    }
+
+}
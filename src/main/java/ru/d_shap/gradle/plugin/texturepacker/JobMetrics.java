@@ -0,0 +1,179 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.util.concurrent.TimeUnit;
+
+import ru.d_shap.gradle.plugin.texturepacker.backend.PackerResult;
+
+/**
+ * The metrics of the single packing job. The metrics are updated by the worker, that processes the
+ * packing job, and are read after all packing jobs are processed.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class JobMetrics {
+
+    static final String OUTCOME_SKIPPED = "skipped";
+
+    static final String OUTCOME_UP_TO_DATE = "up-to-date";
+
+    static final String OUTCOME_CACHED = "cached";
+
+    static final String OUTCOME_PROCESSED = "processed";
+
+    static final String OUTCOME_FAILED = "failed";
+
+    static final String OUTCOME_COPIED = "copied";
+
+    private final PackingJob _packingJob;
+
+    private String _outcome;
+
+    private String _worker;
+
+    private String _batchName;
+
+    private long _queueWaitNanoTime;
+
+    private long _durationNanoTime;
+
+    private long _spawnDuration;
+
+    private long _runDuration;
+
+    private long _peakMemory;
+
+    private int _executionCount;
+
+    private int _imageCount;
+
+    private long _imageSize;
+
+    private long _sheetSize;
+
+    JobMetrics(final PackingJob packingJob) {
+        super();
+        _packingJob = packingJob;
+        _outcome = OUTCOME_SKIPPED;
+        _worker = null;
+        _batchName = null;
+        _queueWaitNanoTime = 0L;
+        _durationNanoTime = 0L;
+        _spawnDuration = 0L;
+        _runDuration = 0L;
+        _peakMemory = 0L;
+        _executionCount = 0;
+        _imageCount = 0;
+        _imageSize = 0L;
+        _sheetSize = 0L;
+    }
+
+    PackingJob getPackingJob() {
+        return _packingJob;
+    }
+
+    String getOutcome() {
+        return _outcome;
+    }
+
+    void setOutcome(final String outcome) {
+        _outcome = outcome;
+    }
+
+    String getWorker() {
+        return _worker;
+    }
+
+    String getBatchName() {
+        return _batchName;
+    }
+
+    long getQueueWait() {
+        return TimeUnit.NANOSECONDS.toMillis(_queueWaitNanoTime);
+    }
+
+    long getDuration() {
+        return TimeUnit.NANOSECONDS.toMillis(_durationNanoTime);
+    }
+
+    void addExecution(final String worker, final long queueWaitNanoTime, final long durationNanoTime) {
+        if (_worker == null) {
+            _worker = worker;
+            _queueWaitNanoTime = queueWaitNanoTime;
+        }
+        _durationNanoTime += durationNanoTime;
+    }
+
+    void addBatchExecution(final String batchName, final long durationNanoTime) {
+        _batchName = batchName;
+        _durationNanoTime += durationNanoTime;
+    }
+
+    long getSpawnDuration() {
+        return _spawnDuration;
+    }
+
+    long getRunDuration() {
+        return _runDuration;
+    }
+
+    long getPeakMemory() {
+        return _peakMemory;
+    }
+
+    int getExecutionCount() {
+        return _executionCount;
+    }
+
+    void addPackerResult(final PackerResult packerResult) {
+        _spawnDuration += packerResult.getSpawnDuration();
+        _runDuration += packerResult.getRunDuration();
+        _peakMemory = Math.max(_peakMemory, packerResult.getPeakMemory());
+        _executionCount += packerResult.getExecutionCount();
+    }
+
+    void addBatchProcessTimes(final long spawnDuration, final long runDuration) {
+        _spawnDuration += spawnDuration;
+        _runDuration += runDuration;
+    }
+
+    int getImageCount() {
+        return _imageCount;
+    }
+
+    long getImageSize() {
+        return _imageSize;
+    }
+
+    void setImages(final int imageCount, final long imageSize) {
+        _imageCount = imageCount;
+        _imageSize = imageSize;
+    }
+
+    long getSheetSize() {
+        return _sheetSize;
+    }
+
+    void setSheetSize(final long sheetSize) {
+        _sheetSize = sheetSize;
+    }
+
+}
@@ -19,6 +19,7 @@
 ///////////////////////////////////////////////////////////////////////////////////////////////////
 package ru.d_shap.gradle.plugin.texturepacker;
 
+import org.gradle.api.logging.Logging;
 import org.slf4j.LoggerFactory;
 
 /**
@@ -70,6 +71,24 @@ public final class Logger {
         LOGGER_INSTANCE.info(message);
     }
 
+    /**
+     * Check if lifecycle level is enabled.
+     *
+     * @return true, if lifecycle level is enabled.
+     */
+    public static boolean isLifecycleEnabled() {
+        return LOGGER_INSTANCE.isInfoEnabled(Logging.LIFECYCLE);
+    }
+
+    /**
+     * Log the message with lifecycle level.
+     *
+     * @param message the message.
+     */
+    public static void lifecycle(final String message) {
+        LOGGER_INSTANCE.info(Logging.LIFECYCLE, message);
+    }
+
     /**
      * Check if error level is enabled.
      *
@@ -0,0 +1,90 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.util.List;
+
+import ru.d_shap.gradle.plugin.texturepacker.backend.PackerLog;
+
+/**
+ * The memory budget of the TexturePacker processes. Every TexturePacker process reserves the estimated
+ * peak memory before the start and releases the reservation after the finish, so the TexturePacker processes,
+ * running at the same time, fit in the budget. The budget and the reservations are kept by the process
+ * service, so the TexturePacker processes of all tasks of the build are counted against the single budget. The reservation,
+ * greater than the budget, is reduced to the budget, so the expensive TexturePacker process runs alone.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class MemoryBudget {
+
+    private static final long BYTES_IN_MEGABYTE = 1024L * 1024L;
+
+    private final long _maxMemory;
+
+    private final PackingJobScheduler _packingJobScheduler;
+
+    private final TexturePackerProcessService _processService;
+
+    private final ExecutionStatistics _executionStatistics;
+
+    MemoryBudget(final PackingJobScheduler packingJobScheduler, final TexturePackerProcessService processService, final ExecutionStatistics executionStatistics) {
+        super();
+        _maxMemory = processService.getMaxMemory();
+        _packingJobScheduler = packingJobScheduler;
+        _processService = processService;
+        _executionStatistics = executionStatistics;
+    }
+
+    /**
+     * Reserve the memory for the TexturePacker process of the packing jobs. The TexturePacker process
+     * processes the packing jobs one after another, so the maximum estimate of the packing jobs is reserved.
+     *
+     * @param packingJobs the packing jobs of the TexturePacker process.
+     * @param tag         the tag of the TexturePacker process.
+     * @param packerLog   the log of the TexturePacker process.
+     *
+     * @return the reserved memory in bytes.
+     *
+     * @throws InterruptedException if the waiting for the memory is interrupted.
+     */
+    long acquire(final List<PackingJob> packingJobs, final String tag, final PackerLog packerLog) throws InterruptedException {
+        long estimatedMemory = 0L;
+        for (PackingJob packingJob : packingJobs) {
+            estimatedMemory = Math.max(estimatedMemory, _packingJobScheduler.estimateMemory(packingJob));
+        }
+        long memory = Math.min(estimatedMemory, _maxMemory);
+        long waitTime = _processService.acquireMemory(memory);
+        _executionStatistics.addMemoryWaitTime(waitTime);
+        if (packerLog.isDebugEnabled()) {
+            packerLog.debug("TexturePacker process of " + tag + " reserved " + estimatedMemory / BYTES_IN_MEGABYTE + " MB of " + _maxMemory / BYTES_IN_MEGABYTE + " MB memory budget after " + waitTime + " ms");
+        }
+        return memory;
+    }
+
+    /**
+     * Release the reserved memory.
+     *
+     * @param memory the reserved memory in bytes.
+     */
+    void release(final long memory) {
+        _processService.releaseMemory(memory);
+    }
+
+}
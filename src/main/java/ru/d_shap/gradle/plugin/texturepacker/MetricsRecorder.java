@@ -0,0 +1,359 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import ru.d_shap.gradle.plugin.texturepacker.json.JsonWriter;
+
+/**
+ * The recorder of the packing job metrics. The recorder collects the queue wait, the processing
+ * duration, the packer process durations, the image count and size, and the sheet size of every
+ * source directory, and writes the metrics summary and the trace in Chrome trace event format, that
+ * can be opened with chrome://tracing or Perfetto UI.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class MetricsRecorder {
+
+    static final int SLOWEST_COUNT = 5;
+
+    private static final String CATEGORY_DIRECTORY = "directory";
+
+    private static final String CATEGORY_BATCH = "batch";
+
+    private static final long NANOSECONDS_IN_MICROSECOND = 1000L;
+
+    private static final double PERCENT = 100.0;
+
+    private final boolean _collectImages;
+
+    private final long _startTime;
+
+    private final long _startNanoTime;
+
+    private final Map<PackingJob, JobMetrics> _jobMetrics;
+
+    private final List<Span> _spans;
+
+    private long _endNanoTime;
+
+    MetricsRecorder(final List<PackingJob> packingJobs, final boolean collectImages) {
+        super();
+        _collectImages = collectImages;
+        _startTime = System.currentTimeMillis();
+        _startNanoTime = System.nanoTime();
+        _jobMetrics = new LinkedHashMap<>();
+        for (PackingJob packingJob : packingJobs) {
+            _jobMetrics.put(packingJob, new JobMetrics(packingJob));
+        }
+        _spans = new ArrayList<>();
+        _endNanoTime = _startNanoTime;
+    }
+
+    JobMetrics getJobMetrics(final PackingJob packingJob) {
+        return _jobMetrics.get(packingJob);
+    }
+
+    void recordJob(final PackingJob packingJob, final String worker, final long submitNanoTime, final long startNanoTime, final long endNanoTime) {
+        JobMetrics jobMetrics = getJobMetrics(packingJob);
+        jobMetrics.addExecution(worker, startNanoTime - submitNanoTime, endNanoTime - startNanoTime);
+        if (_collectImages) {
+            collectImages(jobMetrics);
+        }
+        addSpan(new Span(packingJob.getPipelineName() + ':' + packingJob.getName(), CATEGORY_DIRECTORY, worker, startNanoTime, endNanoTime, jobMetrics));
+    }
+
+    void recordBatch(final PackingBatch packingBatch, final String worker, final long startNanoTime, final long endNanoTime) {
+        List<PackingJob> packingJobs = packingBatch.getPackingJobs();
+        long durationShare = (endNanoTime - startNanoTime) / Math.max(packingJobs.size(), 1);
+        for (PackingJob packingJob : packingJobs) {
+            getJobMetrics(packingJob).addBatchExecution(packingBatch.getName(), durationShare);
+        }
+        addSpan(new Span(packingBatch.getName(), CATEGORY_BATCH, worker, startNanoTime, endNanoTime, null));
+    }
+
+    private void addSpan(final Span span) {
+        synchronized (_spans) {
+            _spans.add(span);
+            _endNanoTime = Math.max(_endNanoTime, span._endNanoTime);
+        }
+    }
+
+    private void collectImages(final JobMetrics jobMetrics) {
+        ImageVisitor imageVisitor = new ImageVisitor();
+        try {
+            Files.walkFileTree(jobMetrics.getPackingJob().getSourceDir().toPath(), imageVisitor);
+            jobMetrics.setImages(imageVisitor._imageCount, imageVisitor._imageSize);
+        } catch (IOException ex) {
+            if (Logger.isDebugEnabled()) {
+                Logger.debug("Images of " + jobMetrics.getPackingJob().getSourceDir().getAbsolutePath() + " can't be counted: " + ex);
+            }
+        }
+    }
+
+    long getDuration() {
+        synchronized (_spans) {
+            return TimeUnit.NANOSECONDS.toMillis(_endNanoTime - _startNanoTime);
+        }
+    }
+
+    List<JobMetrics> getSlowestJobMetrics(final int count) {
+        List<JobMetrics> jobMetrics = new ArrayList<>(_jobMetrics.values());
+        Collections.sort(jobMetrics, new DurationComparator());
+        return jobMetrics.subList(0, Math.min(count, jobMetrics.size()));
+    }
+
+    void write(final File summaryFile, final File traceFile, final int workerCount) throws IOException {
+        for (JobMetrics jobMetrics : _jobMetrics.values()) {
+            File sheetFile = jobMetrics.getPackingJob().getSheetFile();
+            if (sheetFile.isFile()) {
+                jobMetrics.setSheetSize(sheetFile.length());
+            }
+        }
+        List<Span> spans;
+        synchronized (_spans) {
+            spans = new ArrayList<>(_spans);
+        }
+        writeFile(summaryFile, createSummary(spans, workerCount));
+        writeFile(traceFile, createTrace(spans));
+    }
+
+    private String createSummary(final List<Span> spans, final int workerCount) {
+        JsonWriter jsonWriter = new JsonWriter();
+        jsonWriter.beginObject();
+        jsonWriter.name("startTime").value(_startTime);
+        jsonWriter.name("duration").value(getDuration());
+        jsonWriter.name("workers").value(workerCount);
+        jsonWriter.name("workerUtilization").value(getWorkerUtilization(spans, workerCount));
+        jsonWriter.name("directories").value(_jobMetrics.size());
+        jsonWriter.name("outcomes").beginObject();
+        for (Map.Entry<String, Integer> entry : getOutcomeCounts().entrySet()) {
+            jsonWriter.name(entry.getKey()).value(entry.getValue());
+        }
+        jsonWriter.endObject();
+        jsonWriter.name("slowest").beginArray();
+        for (JobMetrics jobMetrics : getSlowestJobMetrics(SLOWEST_COUNT)) {
+            jsonWriter.beginObject();
+            jsonWriter.name("pipeline").value(jobMetrics.getPackingJob().getPipelineName());
+            jsonWriter.name("name").value(jobMetrics.getPackingJob().getName());
+            jsonWriter.name("duration").value(jobMetrics.getDuration());
+            jsonWriter.endObject();
+        }
+        jsonWriter.endArray();
+        jsonWriter.name("jobs").beginArray();
+        for (JobMetrics jobMetrics : _jobMetrics.values()) {
+            jsonWriter.beginObject();
+            writeJobMetrics(jsonWriter, jobMetrics);
+            jsonWriter.endObject();
+        }
+        jsonWriter.endArray();
+        jsonWriter.endObject();
+        return jsonWriter.toString();
+    }
+
+    private void writeJobMetrics(final JsonWriter jsonWriter, final JobMetrics jobMetrics) {
+        PackingJob packingJob = jobMetrics.getPackingJob();
+        jsonWriter.name("pipeline").value(packingJob.getPipelineName());
+        jsonWriter.name("name").value(packingJob.getName());
+        jsonWriter.name("sourceDir").value(packingJob.getSourceDir().getAbsolutePath());
+        jsonWriter.name("packer").value(packingJob.getPacker());
+        jsonWriter.name("outcome").value(jobMetrics.getOutcome());
+        if (jobMetrics.getWorker() != null) {
+            jsonWriter.name("worker").value(jobMetrics.getWorker());
+        }
+        if (jobMetrics.getBatchName() != null) {
+            jsonWriter.name("batch").value(jobMetrics.getBatchName());
+        }
+        jsonWriter.name("queueWait").value(jobMetrics.getQueueWait());
+        jsonWriter.name("duration").value(jobMetrics.getDuration());
+        jsonWriter.name("spawnDuration").value(jobMetrics.getSpawnDuration());
+        jsonWriter.name("runDuration").value(jobMetrics.getRunDuration());
+        jsonWriter.name("peakMemory").value(jobMetrics.getPeakMemory());
+        jsonWriter.name("executions").value(jobMetrics.getExecutionCount());
+        jsonWriter.name("imageCount").value(jobMetrics.getImageCount());
+        jsonWriter.name("imageSize").value(jobMetrics.getImageSize());
+        jsonWriter.name("sheetSize").value(jobMetrics.getSheetSize());
+    }
+
+    private double getWorkerUtilization(final List<Span> spans, final int workerCount) {
+        long wallNanoTime = _endNanoTime - _startNanoTime;
+        if (wallNanoTime <= 0L || workerCount <= 0) {
+            return 0.0;
+        }
+        long busyNanoTime = 0L;
+        for (Span span : spans) {
+            busyNanoTime += span._endNanoTime - span._startNanoTime;
+        }
+        double utilization = (double) busyNanoTime / wallNanoTime / workerCount;
+        return Math.round(utilization * PERCENT) / PERCENT;
+    }
+
+    private Map<String, Integer> getOutcomeCounts() {
+        Map<String, Integer> outcomeCounts = new LinkedHashMap<>();
+        for (JobMetrics jobMetrics : _jobMetrics.values()) {
+            Integer count = outcomeCounts.get(jobMetrics.getOutcome());
+            if (count == null) {
+                outcomeCounts.put(jobMetrics.getOutcome(), 1);
+            } else {
+                outcomeCounts.put(jobMetrics.getOutcome(), count + 1);
+            }
+        }
+        return outcomeCounts;
+    }
+
+    private String createTrace(final List<Span> spans) {
+        Map<String, Integer> threadIds = new LinkedHashMap<>();
+        for (Span span : spans) {
+            if (!threadIds.containsKey(span._worker)) {
+                threadIds.put(span._worker, threadIds.size() + 1);
+            }
+        }
+        JsonWriter jsonWriter = new JsonWriter();
+        jsonWriter.beginObject();
+        jsonWriter.name("displayTimeUnit").value("ms");
+        jsonWriter.name("traceEvents").beginArray();
+        for (Map.Entry<String, Integer> entry : threadIds.entrySet()) {
+            jsonWriter.beginObject();
+            jsonWriter.name("name").value("thread_name");
+            jsonWriter.name("ph").value("M");
+            jsonWriter.name("pid").value(1);
+            jsonWriter.name("tid").value(entry.getValue());
+            jsonWriter.name("args").beginObject().name("name").value(entry.getKey()).endObject();
+            jsonWriter.endObject();
+        }
+        for (Span span : spans) {
+            jsonWriter.beginObject();
+            jsonWriter.name("name").value(span._name);
+            jsonWriter.name("cat").value(span._category);
+            jsonWriter.name("ph").value("X");
+            jsonWriter.name("pid").value(1);
+            jsonWriter.name("tid").value(threadIds.get(span._worker));
+            jsonWriter.name("ts").value((span._startNanoTime - _startNanoTime) / NANOSECONDS_IN_MICROSECOND);
+            jsonWriter.name("dur").value((span._endNanoTime - span._startNanoTime) / NANOSECONDS_IN_MICROSECOND);
+            if (span._jobMetrics != null) {
+                jsonWriter.name("args").beginObject();
+                writeJobMetrics(jsonWriter, span._jobMetrics);
+                jsonWriter.endObject();
+            }
+            jsonWriter.endObject();
+        }
+        jsonWriter.endArray();
+        jsonWriter.endObject();
+        return jsonWriter.toString();
+    }
+
+    private void writeFile(final File file, final String content) throws IOException {
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        Files.write(file.toPath(), (content + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The time span of the worker.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class Span {
+
+        private final String _name;
+
+        private final String _category;
+
+        private final String _worker;
+
+        private final long _startNanoTime;
+
+        private final long _endNanoTime;
+
+        private final JobMetrics _jobMetrics;
+
+        Span(final String name, final String category, final String worker, final long startNanoTime, final long endNanoTime, final JobMetrics jobMetrics) {
+            super();
+            _name = name;
+            _category = category;
+            _worker = worker;
+            _startNanoTime = startNanoTime;
+            _endNanoTime = endNanoTime;
+            _jobMetrics = jobMetrics;
+        }
+
+    }
+
+    /**
+     * The comparator to sort the packing job metrics by the duration in the descending order.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class DurationComparator implements Comparator<JobMetrics> {
+
+        DurationComparator() {
+            super();
+        }
+
+        @Override
+        public int compare(final JobMetrics jobMetrics1, final JobMetrics jobMetrics2) {
+            return Long.compare(jobMetrics2.getDuration(), jobMetrics1.getDuration());
+        }
+
+    }
+
+    /**
+     * The file visitor to count the images of the source directory.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class ImageVisitor extends SimpleFileVisitor<Path> {
+
+        private int _imageCount;
+
+        private long _imageSize;
+
+        ImageVisitor() {
+            super();
+            _imageCount = 0;
+            _imageSize = 0L;
+        }
+
+        @Override
+        public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+            if (attrs.isRegularFile()) {
+                _imageCount++;
+                _imageSize += attrs.size();
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+    }
+
+}
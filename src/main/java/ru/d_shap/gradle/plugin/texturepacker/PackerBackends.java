@@ -0,0 +1,119 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.gradle.api.InvalidUserDataException;
+
+import ru.d_shap.gradle.plugin.texturepacker.backend.PackerBackend;
+import ru.d_shap.gradle.plugin.texturepacker.backend.StubPackerBackend;
+import ru.d_shap.gradle.plugin.texturepacker.builtin.BuiltinPackerBackend;
+import ru.d_shap.gradle.plugin.texturepacker.configuration.PipelineConfiguration;
+
+/**
+ * The packer backends of the task run. The backend is selected with the packer name of the pipeline:
+ * the name of the plugin backend or the fully qualified name of the backend class. The backend versions are
+ * also resolved without the task run to be the task inputs.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class PackerBackends {
+
+    private final TexturePackerBackend _texturePackerBackend;
+
+    private final Map<String, PackerBackend> _packerBackends;
+
+    PackerBackends(final ExecutionPolicy executionPolicy, final ExecutionStatistics executionStatistics, final ExecutionCancellation executionCancellation, final TexturePackerProcessService processService) {
+        super();
+        _texturePackerBackend = new TexturePackerBackend(executionPolicy, executionStatistics, executionCancellation, processService);
+        _packerBackends = new HashMap<>();
+        _packerBackends.put(PipelineConfiguration.PACKER_TEXTUREPACKER, _texturePackerBackend);
+        _packerBackends.put(PipelineConfiguration.PACKER_BUILTIN, new BuiltinPackerBackend());
+        _packerBackends.put(PipelineConfiguration.PACKER_STUB, new StubPackerBackend());
+    }
+
+    TexturePackerBackend getTexturePackerBackend() {
+        return _texturePackerBackend;
+    }
+
+    void resolve(final List<PackingJob> packingJobs) {
+        for (PackingJob packingJob : packingJobs) {
+            String packer = packingJob.getPacker();
+            if (!_packerBackends.containsKey(packer)) {
+                _packerBackends.put(packer, createPackerBackend(packer));
+            }
+        }
+    }
+
+    PackerBackend get(final String packer) {
+        PackerBackend packerBackend = _packerBackends.get(packer);
+        if (packerBackend == null) {
+            throw new InvalidUserDataException("Packer " + packer + " is not resolved");
+        }
+        return packerBackend;
+    }
+
+    static String getVersion(final String packer) {
+        if (PipelineConfiguration.PACKER_TEXTUREPACKER.equals(packer)) {
+            return TexturePackerBackend.readVersion();
+        }
+        if (PipelineConfiguration.PACKER_BUILTIN.equals(packer)) {
+            return new BuiltinPackerBackend().getVersion();
+        }
+        if (PipelineConfiguration.PACKER_STUB.equals(packer)) {
+            return new StubPackerBackend().getVersion();
+        }
+        return createPackerBackend(packer).getVersion();
+    }
+
+    private static PackerBackend createPackerBackend(final String packer) {
+        Class<?> packerClass = loadPackerClass(packer);
+        if (!PackerBackend.class.isAssignableFrom(packerClass)) {
+            throw new InvalidUserDataException("Packer " + packer + " doesn't implement " + PackerBackend.class.getName());
+        }
+        try {
+            return (PackerBackend) packerClass.getConstructor().newInstance();
+        } catch (ReflectiveOperationException ex) {
+            throw new InvalidUserDataException("Packer " + packer + " can't be created", ex);
+        }
+    }
+
+    private static Class<?> loadPackerClass(final String packer) {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        if (contextClassLoader != null) {
+            try {
+                return Class.forName(packer, true, contextClassLoader);
+            } catch (ClassNotFoundException ex) {
+                if (Logger.isDebugEnabled()) {
+                    Logger.debug("Packer " + packer + " is not found with the context class loader");
+                }
+            }
+        }
+        try {
+            return Class.forName(packer, true, PackerBackend.class.getClassLoader());
+        } catch (ClassNotFoundException ex) {
+            throw new InvalidUserDataException("Packer " + packer + " is not found", ex);
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.util.List;
+
+/**
+ * The packing batch, the source directories of the single pipeline to process with one TexturePacker run.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class PackingBatch {
+
+    private final String _pipelineName;
+
+    private final int _index;
+
+    private final List<PackingJob> _packingJobs;
+
+    PackingBatch(final String pipelineName, final int index, final List<PackingJob> packingJobs) {
+        super();
+        _pipelineName = pipelineName;
+        _index = index;
+        _packingJobs = packingJobs;
+    }
+
+    String getPipelineName() {
+        return _pipelineName;
+    }
+
+    int getIndex() {
+        return _index;
+    }
+
+    List<PackingJob> getPackingJobs() {
+        return _packingJobs;
+    }
+
+    String getName() {
+        return _pipelineName + ":batch-" + _index;
+    }
+
+}
@@ -0,0 +1,60 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.gradle.api.GradleException;
+
+/**
+ * The exception to report the source directories, that are failed to process. Every failure is the source
+ * directory path and the failure message, including the exit code and the last lines of the error output.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class PackingFailureException extends GradleException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String[] _failures;
+
+    PackingFailureException(final List<String> failures) {
+        super(createMessage(failures));
+        _failures = failures.toArray(new String[0]);
+    }
+
+    List<String> getFailures() {
+        return Collections.unmodifiableList(Arrays.asList(_failures.clone()));
+    }
+
+    private static String createMessage(final List<String> failures) {
+        StringBuilder builder = new StringBuilder();
+        for (String failure : failures) {
+            if (builder.length() > 0) {
+                builder.append('\n');
+            }
+            builder.append(failure);
+        }
+        return builder.toString();
+    }
+
+}
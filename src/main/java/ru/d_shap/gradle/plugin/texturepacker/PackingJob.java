@@ -0,0 +1,157 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import ru.d_shap.gradle.plugin.texturepacker.configuration.Parameter;
+import ru.d_shap.gradle.plugin.texturepacker.configuration.PipelineConfiguration;
+
+/**
+ * The packing job, the single source directory to process with TexturePacker.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class PackingJob {
+
+    private final String _pipelineName;
+
+    private final File _rootDir;
+
+    private final String _name;
+
+    private final File _sourceDir;
+
+    private final File _sheetFile;
+
+    private final File _dataFile;
+
+    private final File _binaryFile;
+
+    private final String _packer;
+
+    private final List<Parameter> _parameters;
+
+    private final SplitGroup _splitGroup;
+
+    PackingJob(final String pipelineName, final File rootDir, final String name, final File sheetFile, final File dataFile, final File binaryFile, final String packer, final List<Parameter> parameters) {
+        this(pipelineName, rootDir, name, sheetFile, dataFile, binaryFile, packer, parameters, null);
+    }
+
+    PackingJob(final String pipelineName, final File rootDir, final String name, final File sheetFile, final File dataFile, final File binaryFile, final String packer, final List<Parameter> parameters, final SplitGroup splitGroup) {
+        super();
+        _pipelineName = pipelineName;
+        _rootDir = rootDir;
+        _name = name;
+        if (splitGroup == null) {
+            _sourceDir = new File(rootDir, name);
+        } else {
+            _sourceDir = new File(rootDir, splitGroup.getSourceDirName());
+        }
+        _sheetFile = sheetFile;
+        _dataFile = dataFile;
+        _binaryFile = binaryFile;
+        _packer = packer;
+        _parameters = parameters;
+        _splitGroup = splitGroup;
+    }
+
+    String getPipelineName() {
+        return _pipelineName;
+    }
+
+    File getRootDir() {
+        return _rootDir;
+    }
+
+    String getName() {
+        return _name;
+    }
+
+    String getSourceDirName() {
+        if (_splitGroup == null) {
+            return _name;
+        } else {
+            return _splitGroup.getSourceDirName();
+        }
+    }
+
+    File getSourceDir() {
+        return _sourceDir;
+    }
+
+    File getSheetFile() {
+        return _sheetFile;
+    }
+
+    File getDataFile() {
+        return _dataFile;
+    }
+
+    File getBinaryFile() {
+        return _binaryFile;
+    }
+
+    String getPacker() {
+        return _packer;
+    }
+
+    boolean isTexturePacker() {
+        return PipelineConfiguration.PACKER_TEXTUREPACKER.equals(_packer);
+    }
+
+    List<Parameter> getParameters() {
+        return _parameters;
+    }
+
+    SplitGroup getSplitGroup() {
+        return _splitGroup;
+    }
+
+    File getIndexFile() {
+        if (_splitGroup != null && _splitGroup.isIndexOwner()) {
+            return _splitGroup.getSplitIndex().getIndexFile();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Get the files created by the packing job: the sheet, the atlas, the binary atlas and the index of the split source directory.
+     *
+     * @return the files created by the packing job.
+     */
+    List<File> getOutputFiles() {
+        List<File> outputFiles = new ArrayList<>();
+        outputFiles.add(_sheetFile);
+        outputFiles.add(_dataFile);
+        if (_binaryFile != null) {
+            outputFiles.add(_binaryFile);
+        }
+        File indexFile = getIndexFile();
+        if (indexFile != null) {
+            outputFiles.add(indexFile);
+        }
+        return outputFiles;
+    }
+
+}
@@ -0,0 +1,372 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.gradle.api.InvalidUserDataException;
+
+import ru.d_shap.gradle.plugin.texturepacker.configuration.Parameter;
+
+/**
+ * The packing job deduplicator. The packing jobs of the different pipelines with the same source directory,
+ * the same packer and parameters, and the same sheet and atlas file names create the same files, so only
+ * the first of them is executed and the created files are copied for the duplicates. The duplicates, that
+ * create the same files as the executed packing job, are neither executed nor copied. The packing jobs, that
+ * create the same file differently, are the configuration error.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class PackingJobDeduplicator {
+
+    private final List<PackingJob> _uniqueJobs;
+
+    private final Map<PackingJob, List<PackingJob>> _duplicateJobs;
+
+    private final Map<PackingJob, PackingJob> _duplicateToUniqueJobs;
+
+    private final Set<PackingJob> _sameOutputJobs;
+
+    PackingJobDeduplicator(final List<PackingJob> packingJobs) {
+        super();
+        _uniqueJobs = new ArrayList<>();
+        _duplicateJobs = new HashMap<>();
+        _duplicateToUniqueJobs = new HashMap<>();
+        _sameOutputJobs = new HashSet<>();
+        deduplicate(packingJobs);
+    }
+
+    private void deduplicate(final List<PackingJob> packingJobs) {
+        Map<List<String>, PackingJob> keyToUniqueJob = new HashMap<>();
+        Map<String, PackingJob> fileToJob = new HashMap<>();
+        for (PackingJob packingJob : packingJobs) {
+            List<String> key = getKey(packingJob);
+            PackingJob uniqueJob = keyToUniqueJob.get(key);
+            if (uniqueJob == null) {
+                checkOutputFiles(packingJob, fileToJob);
+                keyToUniqueJob.put(key, packingJob);
+                _uniqueJobs.add(packingJob);
+                _duplicateJobs.put(packingJob, new ArrayList<PackingJob>());
+                continue;
+            }
+
+            if (Logger.isInfoEnabled()) {
+                Logger.info("Directory " + packingJob.getSourceDir().getAbsolutePath() + " of pipeline " + packingJob.getPipelineName() + " is the duplicate of pipeline " + uniqueJob.getPipelineName() + ", it is not processed again");
+            }
+            _duplicateToUniqueJobs.put(packingJob, uniqueJob);
+            _duplicateJobs.get(uniqueJob).add(packingJob);
+            if (isSameOutputFiles(packingJob, uniqueJob)) {
+                _sameOutputJobs.add(packingJob);
+            } else {
+                checkOutputFiles(packingJob, fileToJob);
+            }
+        }
+    }
+
+    private List<String> getKey(final PackingJob packingJob) {
+        List<String> key = new ArrayList<>();
+        key.add(packingJob.getSourceDir().getAbsoluteFile().toPath().normalize().toString());
+        key.add(packingJob.getPacker());
+        Path dataDirPath = packingJob.getDataFile().getAbsoluteFile().getParentFile().toPath();
+        Path sheetPath = packingJob.getSheetFile().getAbsoluteFile().toPath();
+        key.add(dataDirPath.relativize(sheetPath).toString());
+        key.add(packingJob.getDataFile().getName());
+        if (packingJob.getBinaryFile() == null) {
+            key.add("");
+        } else {
+            key.add(packingJob.getBinaryFile().getName());
+        }
+        SplitGroup splitGroup = packingJob.getSplitGroup();
+        if (splitGroup == null) {
+            key.add("");
+        } else {
+            key.add(String.valueOf(splitGroup.getNumber()));
+            key.addAll(splitGroup.getFileNames());
+        }
+        for (Parameter parameter : packingJob.getParameters()) {
+            key.add("--" + parameter.getName());
+            key.addAll(Arrays.asList(parameter.getArgs()));
+        }
+        return key;
+    }
+
+    private boolean isSameOutputFiles(final PackingJob packingJob, final PackingJob uniqueJob) {
+        List<File> outputFiles = packingJob.getOutputFiles();
+        List<File> uniqueOutputFiles = uniqueJob.getOutputFiles();
+        if (outputFiles.size() != uniqueOutputFiles.size()) {
+            return false;
+        }
+        for (int i = 0; i < outputFiles.size(); i++) {
+            if (!outputFiles.get(i).getAbsoluteFile().equals(uniqueOutputFiles.get(i).getAbsoluteFile())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void checkOutputFiles(final PackingJob packingJob, final Map<String, PackingJob> fileToJob) {
+        for (File outputFile : packingJob.getOutputFiles()) {
+            checkOutputFile(packingJob, outputFile, fileToJob);
+        }
+    }
+
+    private void checkOutputFile(final PackingJob packingJob, final File file, final Map<String, PackingJob> fileToJob) {
+        String path = file.getAbsoluteFile().toPath().normalize().toString();
+        PackingJob otherJob = fileToJob.get(path);
+        if (otherJob != null && otherJob != packingJob) {
+            throw new InvalidUserDataException("File " + path + " is created both by directory " + otherJob.getSourceDir().getAbsolutePath() + " of pipeline " + otherJob.getPipelineName() + " and by directory " + packingJob.getSourceDir().getAbsolutePath() + " of pipeline " + packingJob.getPipelineName() + " with different parameters");
+        }
+        fileToJob.put(path, packingJob);
+    }
+
+    /**
+     * Get the packing jobs to execute.
+     *
+     * @return the packing jobs to execute.
+     */
+    List<PackingJob> getUniqueJobs() {
+        return _uniqueJobs;
+    }
+
+    /**
+     * Get the executed packing job of the duplicate packing job.
+     *
+     * @param duplicateJob the duplicate packing job.
+     *
+     * @return the executed packing job, or null, if the packing job is not the duplicate.
+     */
+    PackingJob getUniqueJob(final PackingJob duplicateJob) {
+        return _duplicateToUniqueJobs.get(duplicateJob);
+    }
+
+    /**
+     * Check if the duplicate packing job creates the same files as the executed packing job, so the files
+     * are not copied.
+     *
+     * @param duplicateJob the duplicate packing job.
+     *
+     * @return true, if the duplicate packing job creates the same files as the executed packing job.
+     */
+    boolean isSameOutputJob(final PackingJob duplicateJob) {
+        return _sameOutputJobs.contains(duplicateJob);
+    }
+
+    /**
+     * Create the packing job handler to copy the files of the duplicates, right after the executed packing job
+     * is handled.
+     *
+     * @param packingJobHandler the handler of the executed packing jobs.
+     * @param metricsRecorder   the metrics recorder.
+     * @param jobManifest       the manifest of the processed packing jobs.
+     *
+     * @return the packing job handler.
+     */
+    PackingJobExecutor.PackingJobHandler createJobHandler(final PackingJobExecutor.PackingJobHandler packingJobHandler, final MetricsRecorder metricsRecorder, final JobManifest jobManifest) {
+        return new DuplicateJobHandler(packingJobHandler, metricsRecorder, jobManifest);
+    }
+
+    /**
+     * Create the packing batch handler to copy the files of the duplicates, right after the executed packing
+     * batch is handled.
+     *
+     * @param packingBatchHandler the handler of the executed packing batches.
+     * @param metricsRecorder     the metrics recorder.
+     * @param jobManifest         the manifest of the processed packing jobs.
+     *
+     * @return the packing batch handler.
+     */
+    PackingJobExecutor.PackingBatchHandler createBatchHandler(final PackingJobExecutor.PackingBatchHandler packingBatchHandler, final MetricsRecorder metricsRecorder, final JobManifest jobManifest) {
+        return new DuplicateBatchHandler(packingBatchHandler, metricsRecorder, jobManifest);
+    }
+
+    /**
+     * Copy the files, created by the executed packing job, for its duplicates. The files are copied only if
+     * the executed packing job is not failed and the files are changed. The copied files are added to the manifest.
+     * The duplicates of the failed packing job are failed too. The duplicates, that create the same files as the
+     * executed packing job, get the outcome of the executed packing job.
+     *
+     * @param uniqueJob       the executed packing job.
+     * @param metricsRecorder the metrics recorder.
+     * @param jobManifest     the manifest of the processed packing jobs.
+     * @param jobLog          the log of the executed packing job.
+     *
+     * @return the failures of the files copying.
+     */
+    List<String> copyDuplicateFiles(final PackingJob uniqueJob, final MetricsRecorder metricsRecorder, final JobManifest jobManifest, final JobLog jobLog) {
+        List<PackingJob> duplicateJobs = _duplicateJobs.get(uniqueJob);
+        if (duplicateJobs == null || duplicateJobs.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String outcome = metricsRecorder.getJobMetrics(uniqueJob).getOutcome();
+        if (JobMetrics.OUTCOME_SKIPPED.equals(outcome)) {
+            return Collections.emptyList();
+        }
+        boolean created = !JobMetrics.OUTCOME_FAILED.equals(outcome);
+        List<String> failures = new ArrayList<>();
+        for (PackingJob duplicateJob : duplicateJobs) {
+            JobMetrics jobMetrics = metricsRecorder.getJobMetrics(duplicateJob);
+            if (_sameOutputJobs.contains(duplicateJob)) {
+                jobMetrics.setOutcome(outcome);
+                continue;
+            }
+            if (!created) {
+                jobMetrics.setOutcome(JobMetrics.OUTCOME_FAILED);
+                continue;
+            }
+            try {
+                jobManifest.putIncompleteEntry(TexturePackerJobHandler.getManifestKey(duplicateJob), duplicateJob.getOutputFiles());
+                copyFiles(uniqueJob, duplicateJob, jobLog);
+                putManifestEntry(jobManifest, uniqueJob, duplicateJob);
+                jobMetrics.setOutcome(JobMetrics.OUTCOME_COPIED);
+            } catch (IOException ex) {
+                if (jobLog.isErrorEnabled()) {
+                    jobLog.error("Exception in duplicate files copying", ex);
+                }
+                jobMetrics.setOutcome(JobMetrics.OUTCOME_FAILED);
+                failures.add(duplicateJob.getSourceDir().getAbsolutePath() + " of pipeline " + duplicateJob.getPipelineName() + ": Files are not copied from pipeline " + uniqueJob.getPipelineName() + ": " + ex.getMessage());
+            }
+        }
+        return failures;
+    }
+
+    private void putManifestEntry(final JobManifest jobManifest, final PackingJob uniqueJob, final PackingJob duplicateJob) {
+        JobManifest.Entry uniqueEntry = jobManifest.getEntry(TexturePackerJobHandler.getManifestKey(uniqueJob));
+        if (uniqueEntry == null) {
+            return;
+        }
+        List<String> outputs = new ArrayList<>();
+        for (File outputFile : duplicateJob.getOutputFiles()) {
+            outputs.add(outputFile.getAbsolutePath());
+        }
+        JobManifest.Entry entry = new JobManifest.Entry(uniqueEntry.getInputs(), uniqueEntry.getParameters(), outputs);
+        jobManifest.putEntry(TexturePackerJobHandler.getManifestKey(duplicateJob), entry);
+    }
+
+    private void copyFiles(final PackingJob uniqueJob, final PackingJob duplicateJob, final JobLog jobLog) throws IOException {
+        List<File> uniqueOutputFiles = uniqueJob.getOutputFiles();
+        List<File> duplicateOutputFiles = duplicateJob.getOutputFiles();
+        for (int i = 0; i < duplicateOutputFiles.size(); i++) {
+            copyFile(uniqueOutputFiles.get(i), duplicateOutputFiles.get(i), jobLog);
+        }
+        if (jobLog.isInfoEnabled()) {
+            jobLog.info("Directory " + duplicateJob.getSourceDir().getAbsolutePath() + " of pipeline " + duplicateJob.getPipelineName() + " is copied from pipeline " + uniqueJob.getPipelineName());
+        }
+    }
+
+    private void copyFile(final File sourceFile, final File targetFile, final JobLog jobLog) throws IOException {
+        if (targetFile.isFile() && targetFile.length() == sourceFile.length() && targetFile.lastModified() == sourceFile.lastModified()) {
+            return;
+        }
+        targetFile.getParentFile().mkdirs();
+        Files.copy(sourceFile.toPath(), targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+        if (jobLog.isInfoEnabled()) {
+            jobLog.info("File " + targetFile.getAbsolutePath() + " is created");
+        }
+    }
+
+    /**
+     * The packing job handler to copy the files of the duplicates, right after the executed packing job is handled.
+     * The copy failures are reported together with the failures of the executed packing job.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private final class DuplicateJobHandler implements PackingJobExecutor.PackingJobHandler {
+
+        private final PackingJobExecutor.PackingJobHandler _packingJobHandler;
+
+        private final MetricsRecorder _metricsRecorder;
+
+        private final JobManifest _jobManifest;
+
+        DuplicateJobHandler(final PackingJobExecutor.PackingJobHandler packingJobHandler, final MetricsRecorder metricsRecorder, final JobManifest jobManifest) {
+            super();
+            _packingJobHandler = packingJobHandler;
+            _metricsRecorder = metricsRecorder;
+            _jobManifest = jobManifest;
+        }
+
+        @Override
+        public void handle(final PackingJob packingJob, final JobLog jobLog) {
+            List<String> failures = new ArrayList<>();
+            try {
+                _packingJobHandler.handle(packingJob, jobLog);
+            } catch (PackingFailureException ex) {
+                failures.addAll(ex.getFailures());
+            }
+            failures.addAll(copyDuplicateFiles(packingJob, _metricsRecorder, _jobManifest, jobLog));
+            if (!failures.isEmpty()) {
+                throw new PackingFailureException(failures);
+            }
+        }
+
+    }
+
+    /**
+     * The packing batch handler to copy the files of the duplicates, right after the executed packing batch is handled.
+     * The copy failures are reported together with the failures of the executed packing batch.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private final class DuplicateBatchHandler implements PackingJobExecutor.PackingBatchHandler {
+
+        private final PackingJobExecutor.PackingBatchHandler _packingBatchHandler;
+
+        private final MetricsRecorder _metricsRecorder;
+
+        private final JobManifest _jobManifest;
+
+        DuplicateBatchHandler(final PackingJobExecutor.PackingBatchHandler packingBatchHandler, final MetricsRecorder metricsRecorder, final JobManifest jobManifest) {
+            super();
+            _packingBatchHandler = packingBatchHandler;
+            _metricsRecorder = metricsRecorder;
+            _jobManifest = jobManifest;
+        }
+
+        @Override
+        public void handle(final PackingBatch packingBatch, final JobLog jobLog) {
+            List<String> failures = new ArrayList<>();
+            try {
+                _packingBatchHandler.handle(packingBatch, jobLog);
+            } catch (PackingFailureException ex) {
+                failures.addAll(ex.getFailures());
+            }
+            for (PackingJob packingJob : packingBatch.getPackingJobs()) {
+                failures.addAll(copyDuplicateFiles(packingJob, _metricsRecorder, _jobManifest, jobLog));
+            }
+            if (!failures.isEmpty()) {
+                throw new PackingFailureException(failures);
+            }
+        }
+
+    }
+
+}
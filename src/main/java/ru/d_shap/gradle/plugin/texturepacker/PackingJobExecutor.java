@@ -0,0 +1,440 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.gradle.api.Action;
+import org.gradle.api.GradleException;
+import org.gradle.workers.WorkQueue;
+import org.gradle.workers.WorkerExecutor;
+
+/**
+ * The packing job executor, runs packing jobs or packing batches with the fixed number of workers.
+ * The workers are the gradle work actions, so the workers hold the gradle worker leases and the packing jobs
+ * of all tasks respect the gradle max workers count. The workers take the packing jobs from the shared queue
+ * in the order of the packing jobs. All failures are reported together, when all jobs are completed.
+ * In fail-fast mode the jobs are cancelled after the first failure, so the running TexturePacker processes
+ * are killed. The packing jobs share the manifest, the caches and the budgets of the task, that can't be
+ * passed as the work parameters, so the work actions find the shared queue by the execution ID. The queue
+ * is registered only until all submitted work actions are completed, and the jobs, that are not taken
+ * by any work action, are reported as the failure.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class PackingJobExecutor {
+
+    private static final int FAILURE_MESSAGE_CAPACITY = 256;
+
+    private static final Map<String, WorkerLoop> WORKER_LOOPS = new ConcurrentHashMap<>();
+
+    private final WorkerExecutor _workerExecutor;
+
+    private final int _workerCount;
+
+    private final boolean _failFast;
+
+    private final ExecutionCancellation _executionCancellation;
+
+    private final MetricsRecorder _metricsRecorder;
+
+    PackingJobExecutor(final WorkerExecutor workerExecutor, final int workerCount, final boolean failFast, final ExecutionCancellation executionCancellation, final MetricsRecorder metricsRecorder) {
+        super();
+        _workerExecutor = workerExecutor;
+        _workerCount = Math.max(workerCount, 1);
+        _failFast = failFast;
+        _executionCancellation = executionCancellation;
+        _metricsRecorder = metricsRecorder;
+    }
+
+    void execute(final List<PackingJob> packingJobs, final PackingJobHandler packingJobHandler) {
+        List<String> names = new ArrayList<>(packingJobs.size());
+        List<Callable<Void>> callables = new ArrayList<>(packingJobs.size());
+        for (PackingJob packingJob : packingJobs) {
+            names.add(packingJob.getSourceDir().getAbsolutePath());
+            callables.add(new PackingJobCallable(packingJob, packingJobHandler, _metricsRecorder));
+        }
+        executeCallables(names, callables);
+    }
+
+    void executeBatches(final List<PackingBatch> packingBatches, final PackingBatchHandler packingBatchHandler) {
+        List<String> names = new ArrayList<>(packingBatches.size());
+        List<Callable<Void>> callables = new ArrayList<>(packingBatches.size());
+        for (PackingBatch packingBatch : packingBatches) {
+            names.add(packingBatch.getName());
+            callables.add(new PackingBatchCallable(packingBatch, packingBatchHandler, _metricsRecorder));
+        }
+        executeCallables(names, callables);
+    }
+
+    private void executeCallables(final List<String> names, final List<Callable<Void>> callables) {
+        if (callables.isEmpty()) {
+            return;
+        }
+        int workerCount = Math.min(_workerCount, callables.size());
+        if (Logger.isDebugEnabled()) {
+            Logger.debug("Execute " + callables.size() + " jobs with " + workerCount + " workers");
+        }
+        WorkerLoop workerLoop = new WorkerLoop(names, callables, _failFast, _executionCancellation);
+        String executionId = UUID.randomUUID().toString();
+        WORKER_LOOPS.put(executionId, workerLoop);
+        try {
+            submitWorkers(executionId, workerCount);
+        } finally {
+            WORKER_LOOPS.remove(executionId);
+        }
+        reportFailures(workerLoop);
+    }
+
+    private void submitWorkers(final String executionId, final int workerCount) {
+        WorkQueue workQueue = _workerExecutor.noIsolation();
+        try {
+            for (int i = 0; i < workerCount; i++) {
+                workQueue.submit(PackingWorkAction.class, new WorkParametersConfiguration(executionId));
+            }
+        } finally {
+            workQueue.await();
+        }
+    }
+
+    static void runWorkerLoop(final String executionId) {
+        WorkerLoop workerLoop = WORKER_LOOPS.get(executionId);
+        if (workerLoop == null) {
+            throw new IllegalStateException("Packing job execution " + executionId + " is already completed");
+        }
+        workerLoop.run();
+    }
+
+    private void reportFailures(final WorkerLoop workerLoop) {
+        int unclaimedCount = workerLoop.getUnclaimedCount();
+        if (unclaimedCount > 0) {
+            throw new GradleException("TexturePacker failed to process " + unclaimedCount + " jobs, the jobs are not taken by the gradle workers");
+        }
+        List<String> failures = workerLoop.getFailures();
+        if (failures.isEmpty()) {
+            return;
+        }
+        Collections.sort(failures);
+        int cancelledCount = workerLoop.getCancelledCount();
+        StringBuilder builder = new StringBuilder(FAILURE_MESSAGE_CAPACITY);
+        builder.append("TexturePacker failed to process ").append(failures.size()).append(" directories");
+        if (cancelledCount > 0) {
+            builder.append(", ").append(cancelledCount).append(" jobs are cancelled");
+        }
+        builder.append(':');
+        for (String failure : failures) {
+            builder.append('\n').append(failure);
+        }
+        throw new GradleException(builder.toString(), workerLoop.getFirstCause());
+    }
+
+    /**
+     * The packing job handler.
+     *
+     * @author Dmitry Shapovalov
+     */
+    interface PackingJobHandler {
+
+        /**
+         * Process the packing job.
+         *
+         * @param packingJob the packing job.
+         * @param jobLog     the log of the packing job.
+         */
+        void handle(PackingJob packingJob, JobLog jobLog);
+
+    }
+
+    /**
+     * The packing batch handler.
+     *
+     * @author Dmitry Shapovalov
+     */
+    interface PackingBatchHandler {
+
+        /**
+         * Process the packing batch.
+         *
+         * @param packingBatch the packing batch.
+         * @param jobLog       the log of the packing batch.
+         */
+        void handle(PackingBatch packingBatch, JobLog jobLog);
+
+    }
+
+    /**
+     * The callable to run the single packing job.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class PackingJobCallable implements Callable<Void> {
+
+        private final PackingJob _packingJob;
+
+        private final PackingJobHandler _packingJobHandler;
+
+        private final MetricsRecorder _metricsRecorder;
+
+        private final long _submitNanoTime;
+
+        PackingJobCallable(final PackingJob packingJob, final PackingJobHandler packingJobHandler, final MetricsRecorder metricsRecorder) {
+            super();
+            _packingJob = packingJob;
+            _packingJobHandler = packingJobHandler;
+            _metricsRecorder = metricsRecorder;
+            _submitNanoTime = System.nanoTime();
+        }
+
+        @Override
+        public Void call() {
+            JobLog jobLog = new JobLog();
+            long startNanoTime = System.nanoTime();
+            try {
+                _packingJobHandler.handle(_packingJob, jobLog);
+            } finally {
+                _metricsRecorder.recordJob(_packingJob, Thread.currentThread().getName(), _submitNanoTime, startNanoTime, System.nanoTime());
+                jobLog.flush();
+            }
+            return null;
+        }
+
+    }
+
+    /**
+     * The callable to run the single packing batch.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class PackingBatchCallable implements Callable<Void> {
+
+        private final PackingBatch _packingBatch;
+
+        private final PackingBatchHandler _packingBatchHandler;
+
+        private final MetricsRecorder _metricsRecorder;
+
+        PackingBatchCallable(final PackingBatch packingBatch, final PackingBatchHandler packingBatchHandler, final MetricsRecorder metricsRecorder) {
+            super();
+            _packingBatch = packingBatch;
+            _packingBatchHandler = packingBatchHandler;
+            _metricsRecorder = metricsRecorder;
+        }
+
+        @Override
+        public Void call() {
+            JobLog jobLog = new JobLog();
+            long startNanoTime = System.nanoTime();
+            try {
+                _packingBatchHandler.handle(_packingBatch, jobLog);
+            } finally {
+                _metricsRecorder.recordBatch(_packingBatch, Thread.currentThread().getName(), startNanoTime, System.nanoTime());
+                jobLog.flush();
+            }
+            return null;
+        }
+
+    }
+
+    /**
+     * The shared queue of the jobs, the workers take the jobs from the queue until the queue is empty.
+     * In fail-fast mode the workers stop taking the jobs after the first failure, and the running jobs
+     * of the other workers are interrupted.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class WorkerLoop implements Runnable {
+
+        private final List<String> _names;
+
+        private final List<Callable<Void>> _callables;
+
+        private final boolean _failFast;
+
+        private final ExecutionCancellation _executionCancellation;
+
+        private final AtomicInteger _nextIndex;
+
+        private final AtomicInteger _startedCount;
+
+        private final Set<Thread> _activeThreads;
+
+        private final Set<Thread> _interruptedThreads;
+
+        private final List<String> _failures;
+
+        private Throwable _firstCause;
+
+        private int _interruptedCount;
+
+        WorkerLoop(final List<String> names, final List<Callable<Void>> callables, final boolean failFast, final ExecutionCancellation executionCancellation) {
+            super();
+            _names = names;
+            _callables = callables;
+            _failFast = failFast;
+            _executionCancellation = executionCancellation;
+            _nextIndex = new AtomicInteger();
+            _startedCount = new AtomicInteger();
+            _activeThreads = new HashSet<>();
+            _interruptedThreads = new HashSet<>();
+            _failures = new ArrayList<>();
+            _firstCause = null;
+            _interruptedCount = 0;
+        }
+
+        @Override
+        public void run() {
+            int index = _nextIndex.getAndIncrement();
+            while (index < _callables.size() && startCallable()) {
+                runCallable(index);
+                index = _nextIndex.getAndIncrement();
+            }
+        }
+
+        private boolean startCallable() {
+            synchronized (_activeThreads) {
+                if (_failFast && _executionCancellation.isCancelled()) {
+                    return false;
+                }
+                _activeThreads.add(Thread.currentThread());
+                _startedCount.incrementAndGet();
+                return true;
+            }
+        }
+
+        private void runCallable(final int index) {
+            FutureTask<Void> futureTask = new FutureTask<>(_callables.get(index));
+            try {
+                futureTask.run();
+                futureTask.get();
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof PackingFailureException) {
+                    addFailures(((PackingFailureException) cause).getFailures(), cause);
+                } else {
+                    addFailures(Collections.singletonList(_names.get(index) + ": " + cause.getMessage()), cause);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                finishCallable();
+            }
+        }
+
+        private void finishCallable() {
+            synchronized (_activeThreads) {
+                Thread thread = Thread.currentThread();
+                _activeThreads.remove(thread);
+                if (_interruptedThreads.remove(thread)) {
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        private void addFailures(final List<String> failures, final Throwable cause) {
+            synchronized (_failures) {
+                if (_failFast && !_failures.isEmpty()) {
+                    _interruptedCount++;
+                    return;
+                }
+                _failures.addAll(failures);
+                if (_firstCause == null) {
+                    _firstCause = cause;
+                }
+            }
+            if (_failFast) {
+                cancel();
+            }
+        }
+
+        private void cancel() {
+            synchronized (_activeThreads) {
+                _executionCancellation.cancel();
+                Thread currentThread = Thread.currentThread();
+                for (Thread thread : _activeThreads) {
+                    if (thread != currentThread) {
+                        _interruptedThreads.add(thread);
+                        thread.interrupt();
+                    }
+                }
+            }
+        }
+
+        List<String> getFailures() {
+            synchronized (_failures) {
+                return new ArrayList<>(_failures);
+            }
+        }
+
+        Throwable getFirstCause() {
+            synchronized (_failures) {
+                return _firstCause;
+            }
+        }
+
+        int getUnclaimedCount() {
+            synchronized (_activeThreads) {
+                if (_failFast && _executionCancellation.isCancelled()) {
+                    return 0;
+                }
+                return _callables.size() - _startedCount.get();
+            }
+        }
+
+        int getCancelledCount() {
+            synchronized (_failures) {
+                return _callables.size() - _startedCount.get() + _interruptedCount;
+            }
+        }
+
+    }
+
+    /**
+     * Action to configure the parameters of the work action.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class WorkParametersConfiguration implements Action<PackingWorkAction.Parameters> {
+
+        private final String _executionId;
+
+        WorkParametersConfiguration(final String executionId) {
+            super();
+            _executionId = executionId;
+        }
+
+        @Override
+        public void execute(final PackingWorkAction.Parameters parameters) {
+            parameters.getExecutionId().set(_executionId);
+        }
+
+    }
+
+}
@@ -0,0 +1,274 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.InvalidUserDataException;
+
+import ru.d_shap.gradle.plugin.texturepacker.configuration.NameTemplate;
+import ru.d_shap.gradle.plugin.texturepacker.configuration.Parameter;
+import ru.d_shap.gradle.plugin.texturepacker.configuration.ParametersConfiguration;
+import ru.d_shap.gradle.plugin.texturepacker.configuration.PipelineConfiguration;
+
+/**
+ * The packing job planner, creates the packing jobs for the configured pipelines.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class PackingJobPlanner {
+
+    private static final String INDEX_FILE_EXTENSION = ".index.json";
+
+    private final List<PipelineConfiguration> _pipelineConfigurations;
+
+    private final File _splitDir;
+
+    PackingJobPlanner(final List<PipelineConfiguration> pipelineConfigurations, final File splitDir) {
+        super();
+        _pipelineConfigurations = pipelineConfigurations;
+        _splitDir = splitDir;
+    }
+
+    List<PackingJob> createPackingJobs() {
+        List<PackingJob> packingJobs = new ArrayList<>();
+        for (PipelineConfiguration pipelineConfiguration : _pipelineConfigurations) {
+            File sourceDir = pipelineConfiguration.getSourceDir().getAsFile().getOrNull();
+            if (sourceDir == null) {
+                throw new InvalidUserDataException("src property must be defined");
+            }
+
+            File destinationDir = pipelineConfiguration.getDestinationDir().getAsFile().getOrNull();
+            if (destinationDir == null) {
+                throw new InvalidUserDataException("dst property must be defined");
+            }
+
+            List<String> include = pipelineConfiguration.getInclude().get();
+            List<String> exclude = pipelineConfiguration.getExclude().get();
+            boolean recursive = pipelineConfiguration.getRecursive().get();
+            boolean split = pipelineConfiguration.getSplit().get();
+
+            String sheetNameTemplate = pipelineConfiguration.getSheetName().getOrNull();
+            if (sheetNameTemplate == null) {
+                throw new InvalidUserDataException("Property sheet is udefined");
+            }
+            String dataNameTemplate = pipelineConfiguration.getDataName().getOrNull();
+            if (dataNameTemplate == null) {
+                throw new InvalidUserDataException("Property data is udefined");
+            }
+
+            String binaryNameTemplate = pipelineConfiguration.getBinaryName().getOrNull();
+
+            ParametersConfiguration parametersConfiguration = pipelineConfiguration.getParameterConfiguration();
+            List<Parameter> parameters = parametersConfiguration.getParameters();
+            String packer = pipelineConfiguration.getPacker().get();
+
+            List<PackingJob> pipelinePackingJobs = createPackingJobs(pipelineConfiguration.getName(), sourceDir, destinationDir, include, exclude, recursive, split, sheetNameTemplate, dataNameTemplate, binaryNameTemplate, packer, parameters);
+            packingJobs.addAll(pipelinePackingJobs);
+        }
+        return packingJobs;
+    }
+
+    List<PackingJob> createPackingJobs(final String pipelineName, final File sourceDir, final File destinationDir, final List<String> include, final List<String> exclude, final boolean recursive, final boolean split, final String sheetNameTemplate, final String dataNameTemplate, final String binaryNameTemplate, final String packer, final List<Parameter> parameters) {
+        SourceDirMatcher sourceDirMatcher = new SourceDirMatcher(include, exclude);
+        SourceDirVisitor sourceDirVisitor = new SourceDirVisitor(sourceDir.toPath(), sourceDirMatcher, recursive, include, exclude);
+        int maxDepth;
+        if (recursive) {
+            maxDepth = Integer.MAX_VALUE;
+        } else {
+            maxDepth = 1;
+        }
+        try {
+            Files.walkFileTree(sourceDir.toPath(), EnumSet.of(FileVisitOption.FOLLOW_LINKS), maxDepth, sourceDirVisitor);
+        } catch (IOException ex) {
+            throw new GradleException("Source directory " + sourceDir.getAbsolutePath() + " can't be read", ex);
+        }
+
+        List<String> sourceDirNames = sourceDirVisitor.getSourceDirNames();
+        Collections.sort(sourceDirNames);
+        List<PackingJob> packingJobs = new ArrayList<>();
+        for (String sourceDirName : sourceDirNames) {
+            if (split) {
+                List<List<String>> groups = splitSourceDir(new File(sourceDir, sourceDirName), parameters);
+                if (groups.size() > 1) {
+                    List<PackingJob> splitPackingJobs = createSplitPackingJobs(pipelineName, sourceDir, destinationDir, sourceDirName, groups, sheetNameTemplate, dataNameTemplate, binaryNameTemplate, packer, parameters);
+                    packingJobs.addAll(splitPackingJobs);
+                    continue;
+                }
+            }
+            File sheetFile = getFile(sourceDirName, sheetNameTemplate, destinationDir);
+            File dataFile = getFile(sourceDirName, dataNameTemplate, destinationDir);
+            File binaryFile = null;
+            if (binaryNameTemplate != null) {
+                binaryFile = getFile(sourceDirName, binaryNameTemplate, destinationDir);
+            }
+            PackingJob packingJob = new PackingJob(pipelineName, sourceDir, sourceDirName, sheetFile, dataFile, binaryFile, packer, parameters);
+            packingJobs.add(packingJob);
+        }
+        return packingJobs;
+    }
+
+    private List<List<String>> splitSourceDir(final File sourceDir, final List<Parameter> parameters) {
+        SheetSplitter sheetSplitter = new SheetSplitter(parameters);
+        try {
+            return sheetSplitter.split(sourceDir);
+        } catch (IOException ex) {
+            throw new GradleException("Source directory " + sourceDir.getAbsolutePath() + " can't be split", ex);
+        }
+    }
+
+    private List<PackingJob> createSplitPackingJobs(final String pipelineName, final File sourceDir, final File destinationDir, final String sourceDirName, final List<List<String>> groups, final String sheetNameTemplate, final String dataNameTemplate, final String binaryNameTemplate, final String packer, final List<Parameter> parameters) {
+        File indexFile = getIndexFile(getFile(sourceDirName, dataNameTemplate, destinationDir));
+        SplitIndex splitIndex = new SplitIndex(sourceDirName, indexFile);
+        List<PackingJob> packingJobs = new ArrayList<>();
+        for (int i = 0; i < groups.size(); i++) {
+            String name = sourceDirName + "-" + (i + 1);
+            File sheetFile = getFile(name, sheetNameTemplate, destinationDir);
+            File dataFile = getFile(name, dataNameTemplate, destinationDir);
+            File binaryFile = null;
+            if (binaryNameTemplate != null) {
+                binaryFile = getFile(name, binaryNameTemplate, destinationDir);
+            }
+            File stagingRootDir = new File(new File(_splitDir, pipelineName), name);
+            SplitGroup splitGroup = new SplitGroup(sourceDirName, i + 1, groups.get(i), stagingRootDir, splitIndex);
+            PackingJob packingJob = new PackingJob(pipelineName, sourceDir, name, sheetFile, dataFile, binaryFile, packer, parameters, splitGroup);
+            splitIndex.addPackingJob(packingJob);
+            packingJobs.add(packingJob);
+        }
+        return packingJobs;
+    }
+
+    private File getIndexFile(final File dataFile) {
+        String fileName = dataFile.getName();
+        int index = fileName.lastIndexOf('.');
+        if (index > 0) {
+            fileName = fileName.substring(0, index);
+        }
+        return new File(dataFile.getParentFile(), fileName + INDEX_FILE_EXTENSION);
+    }
+
+    private File getFile(final String sourceDirName, final String template, final File destinationDir) {
+        String fileName = NameTemplate.resolve(template, sourceDirName);
+        File file = new File(destinationDir, fileName);
+        return file.getAbsoluteFile();
+    }
+
+    /**
+     * The visitor to find the source directories to process. The excluded directories and the directories,
+     * that can't contain the included directories, are skipped without the walk of their content.
+     * The subdirectories of the source directory to process are not walked too.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class SourceDirVisitor extends SimpleFileVisitor<Path> {
+
+        private final Path _rootPath;
+
+        private final SourceDirMatcher _sourceDirMatcher;
+
+        private final boolean _recursive;
+
+        private final List<String> _include;
+
+        private final List<String> _exclude;
+
+        private final List<String> _sourceDirNames;
+
+        SourceDirVisitor(final Path rootPath, final SourceDirMatcher sourceDirMatcher, final boolean recursive, final List<String> include, final List<String> exclude) {
+            super();
+            _rootPath = rootPath;
+            _sourceDirMatcher = sourceDirMatcher;
+            _recursive = recursive;
+            _include = include;
+            _exclude = exclude;
+            _sourceDirNames = new ArrayList<>();
+        }
+
+        List<String> getSourceDirNames() {
+            return _sourceDirNames;
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) {
+            if (dir.equals(_rootPath)) {
+                return FileVisitResult.CONTINUE;
+            }
+            return visitSourceDir(dir);
+        }
+
+        @Override
+        public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+            if (attrs.isDirectory()) {
+                visitSourceDir(file);
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(final Path file, final IOException exc) {
+            if (Logger.isDebugEnabled()) {
+                Logger.debug("Source " + file + " can't be read: " + exc);
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        private FileVisitResult visitSourceDir(final Path dir) {
+            String name = _rootPath.relativize(dir).toString().replace(File.separatorChar, '/');
+            if (_sourceDirMatcher.isExcluded(name)) {
+                logSource("Skip processing source ", name);
+                return FileVisitResult.SKIP_SUBTREE;
+            }
+            if (_sourceDirMatcher.isIncluded(name)) {
+                logSource("Start processing source ", name);
+                _sourceDirNames.add(name);
+                return FileVisitResult.SKIP_SUBTREE;
+            }
+            if (_recursive && _sourceDirMatcher.isIncludedDescendantPossible(name)) {
+                return FileVisitResult.CONTINUE;
+            }
+            logSource("Skip processing source ", name);
+            return FileVisitResult.SKIP_SUBTREE;
+        }
+
+        private void logSource(final String message, final String name) {
+            if (Logger.isDebugEnabled()) {
+                StringBuilder builder = new StringBuilder();
+                builder.append(message).append(name);
+                builder.append(", include: ").append(_include);
+                builder.append(", exclude: ").append(_exclude);
+                Logger.debug(builder.toString());
+            }
+        }
+
+    }
+
+}
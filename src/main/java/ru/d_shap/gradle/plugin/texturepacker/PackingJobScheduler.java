@@ -0,0 +1,344 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.gradle.api.InvalidUserDataException;
+
+/**
+ * The packing job scheduler, orders the packing jobs from the most expensive to the least expensive,
+ * so the long packing job doesn't start last and doesn't stretch the task run. The cost of the packing job
+ * is the duration of its last processing from the job history. The cost of the packing job without
+ * the history is estimated from the total pixel count of its images, the pixel count is read from the
+ * image headers and is converted to the duration with the pixel rate of the packing jobs with the history.
+ * The scheduler also estimates the peak memory of the TexturePacker process of the packing job from the
+ * maximum sheet size and the total pixel count. The estimate is calibrated with the peak memory, observed
+ * for the packing job in the previous builds, or with the ratio of the observed peak memory to the estimate
+ * of all packing jobs with the history.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class PackingJobScheduler {
+
+    private static final double DEFAULT_PIXELS_PER_MILLISECOND = 1000.0;
+
+    private static final long BYTES_PER_PIXEL = 4L;
+
+    private static final long BASE_MEMORY = 64L * 1024L * 1024L;
+
+    private final JobHistory _jobHistory;
+
+    private final Map<PackingJob, Long> _pixelCounts;
+
+    private final Map<PackingJob, Long> _costs;
+
+    private final Map<PackingJob, Long> _estimatedMemories;
+
+    private final double _memoryRatio;
+
+    PackingJobScheduler(final JobHistory jobHistory) {
+        super();
+        _jobHistory = jobHistory;
+        _pixelCounts = new ConcurrentHashMap<>();
+        _costs = new HashMap<>();
+        _estimatedMemories = new ConcurrentHashMap<>();
+        _memoryRatio = getMemoryRatio();
+    }
+
+    /**
+     * Order the packing jobs from the most expensive to the least expensive.
+     *
+     * @param packingJobs the packing jobs.
+     *
+     * @return the ordered packing jobs.
+     */
+    List<PackingJob> schedule(final List<PackingJob> packingJobs) {
+        double pixelsPerMillisecond = getPixelsPerMillisecond();
+        for (PackingJob packingJob : packingJobs) {
+            long cost = getCost(packingJob, pixelsPerMillisecond);
+            _costs.put(packingJob, cost);
+            if (Logger.isDebugEnabled()) {
+                Logger.debug("Directory " + packingJob.getSourceDir().getAbsolutePath() + " of pipeline " + packingJob.getPipelineName() + " is scheduled with the estimated cost " + cost + " ms");
+            }
+        }
+        List<PackingJob> scheduledJobs = new ArrayList<>(packingJobs);
+        Collections.sort(scheduledJobs, new PackingJobCostComparator());
+        return scheduledJobs;
+    }
+
+    /**
+     * Order the packing batches from the most expensive to the least expensive. The cost of the packing batch
+     * is the total cost of its packing jobs.
+     *
+     * @param packingBatches the packing batches.
+     *
+     * @return the ordered packing batches.
+     */
+    List<PackingBatch> scheduleBatches(final List<PackingBatch> packingBatches) {
+        List<PackingBatch> scheduledBatches = new ArrayList<>(packingBatches);
+        Collections.sort(scheduledBatches, new PackingBatchCostComparator());
+        return scheduledBatches;
+    }
+
+    /**
+     * Record the durations of the processed packing jobs and save the job history. The history entries
+     * of the packing jobs, that are not planned anymore, are removed. The processed packing jobs can be
+     * the subset of the planned packing jobs, for example the changed directories in the watch mode.
+     *
+     * @param packingJobs        the processed packing jobs.
+     * @param plannedPackingJobs all planned packing jobs.
+     * @param metricsRecorder    the metrics recorder with the durations of the packing jobs.
+     */
+    void recordHistory(final List<PackingJob> packingJobs, final List<PackingJob> plannedPackingJobs, final MetricsRecorder metricsRecorder) {
+        for (PackingJob packingJob : packingJobs) {
+            String key = TexturePackerJobHandler.getManifestKey(packingJob);
+            JobMetrics jobMetrics = metricsRecorder.getJobMetrics(packingJob);
+            JobHistory.Entry entry = _jobHistory.getEntry(key);
+            if (JobMetrics.OUTCOME_PROCESSED.equals(jobMetrics.getOutcome())) {
+                _jobHistory.putEntry(key, createEntry(packingJob, jobMetrics, entry));
+            } else if (entry == null && _pixelCounts.containsKey(packingJob)) {
+                _jobHistory.putEntry(key, new JobHistory.Entry(0L, _pixelCounts.get(packingJob), 0L, 0L));
+            }
+        }
+        Set<String> keys = new HashSet<>();
+        for (PackingJob packingJob : plannedPackingJobs) {
+            keys.add(TexturePackerJobHandler.getManifestKey(packingJob));
+        }
+        _jobHistory.retainEntries(keys);
+        _jobHistory.save();
+    }
+
+    private JobHistory.Entry createEntry(final PackingJob packingJob, final JobMetrics jobMetrics, final JobHistory.Entry entry) {
+        long pixels = getPixelCount(packingJob);
+        if (jobMetrics.getPeakMemory() > 0L) {
+            return new JobHistory.Entry(jobMetrics.getDuration(), pixels, jobMetrics.getPeakMemory(), getEstimatedMemory(packingJob));
+        }
+        if (entry == null) {
+            return new JobHistory.Entry(jobMetrics.getDuration(), pixels, 0L, 0L);
+        }
+        return new JobHistory.Entry(jobMetrics.getDuration(), pixels, entry.getPeakMemory(), entry.getEstimatedMemory());
+    }
+
+    /**
+     * Estimate the peak memory of the TexturePacker process of the packing job. The estimate is calibrated
+     * with the observed peak memory of the previous builds.
+     *
+     * @param packingJob the packing job.
+     *
+     * @return the estimated peak memory in bytes.
+     */
+    long estimateMemory(final PackingJob packingJob) {
+        long estimatedMemory = getEstimatedMemory(packingJob);
+        JobHistory.Entry entry = _jobHistory.getEntry(TexturePackerJobHandler.getManifestKey(packingJob));
+        if (entry != null && entry.getPeakMemory() > 0L && entry.getEstimatedMemory() > 0L) {
+            return (long) ((double) entry.getPeakMemory() * estimatedMemory / entry.getEstimatedMemory());
+        }
+        return (long) (estimatedMemory * _memoryRatio);
+    }
+
+    private long getEstimatedMemory(final PackingJob packingJob) {
+        Long estimatedMemory = _estimatedMemories.get(packingJob);
+        if (estimatedMemory == null) {
+            long sheetPixels = getSheetPixelCount(packingJob);
+            estimatedMemory = BASE_MEMORY + (sheetPixels + getPixelCount(packingJob)) * BYTES_PER_PIXEL;
+            _estimatedMemories.put(packingJob, estimatedMemory);
+        }
+        return estimatedMemory;
+    }
+
+    private long getSheetPixelCount(final PackingJob packingJob) {
+        try {
+            SheetSplitter sheetSplitter = new SheetSplitter(packingJob.getParameters());
+            return (long) sheetSplitter.getSheetWidth() * sheetSplitter.getSheetHeight();
+        } catch (InvalidUserDataException ex) {
+            if (Logger.isDebugEnabled()) {
+                Logger.debug("Sheet size of " + packingJob.getSourceDir().getAbsolutePath() + " can't be determined: " + ex.getMessage());
+            }
+            return 0L;
+        }
+    }
+
+    private double getMemoryRatio() {
+        long totalPeakMemory = 0L;
+        long totalEstimatedMemory = 0L;
+        for (JobHistory.Entry entry : _jobHistory.getEntries().values()) {
+            if (entry.getPeakMemory() > 0L && entry.getEstimatedMemory() > 0L) {
+                totalPeakMemory += entry.getPeakMemory();
+                totalEstimatedMemory += entry.getEstimatedMemory();
+            }
+        }
+        if (totalEstimatedMemory == 0L) {
+            return 1.0;
+        }
+        return (double) totalPeakMemory / totalEstimatedMemory;
+    }
+
+    private double getPixelsPerMillisecond() {
+        long totalDuration = 0L;
+        long totalPixels = 0L;
+        for (JobHistory.Entry entry : _jobHistory.getEntries().values()) {
+            if (entry.getDuration() > 0L && entry.getPixels() > 0L) {
+                totalDuration += entry.getDuration();
+                totalPixels += entry.getPixels();
+            }
+        }
+        if (totalDuration == 0L) {
+            return DEFAULT_PIXELS_PER_MILLISECOND;
+        }
+        return (double) totalPixels / totalDuration;
+    }
+
+    private long getCost(final PackingJob packingJob, final double pixelsPerMillisecond) {
+        JobHistory.Entry entry = _jobHistory.getEntry(TexturePackerJobHandler.getManifestKey(packingJob));
+        if (entry != null && entry.getDuration() > 0L) {
+            return entry.getDuration();
+        }
+        long pixels;
+        if (entry != null && entry.getPixels() > 0L) {
+            pixels = entry.getPixels();
+        } else {
+            pixels = getPixelCount(packingJob);
+        }
+        return (long) (pixels / pixelsPerMillisecond);
+    }
+
+    private long getPixelCount(final PackingJob packingJob) {
+        Long pixelCount = _pixelCounts.get(packingJob);
+        if (pixelCount == null) {
+            pixelCount = countPixels(packingJob);
+            _pixelCounts.put(packingJob, pixelCount);
+        }
+        return pixelCount;
+    }
+
+    /**
+     * Count the total pixels of the images of the packing job. The image sizes are read from the image headers,
+     * the images of the other formats are not counted.
+     *
+     * @param packingJob the packing job.
+     *
+     * @return the total pixel count.
+     */
+    static long countPixels(final PackingJob packingJob) {
+        final List<Path> imagePaths = new ArrayList<>();
+        try {
+            SplitGroup splitGroup = packingJob.getSplitGroup();
+            if (splitGroup == null) {
+                Files.walkFileTree(packingJob.getSourceDir().toPath(), new SimpleFileVisitor<Path>() {
+
+                    @Override
+                    public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+                        if (attrs.isRegularFile()) {
+                            imagePaths.add(file);
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                });
+            } else {
+                for (String fileName : splitGroup.getFileNames()) {
+                    imagePaths.add(new File(packingJob.getSourceDir(), fileName).toPath());
+                }
+            }
+            long pixels = 0L;
+            for (Path imagePath : imagePaths) {
+                int[] size = ImageHeaders.readSize(imagePath);
+                if (size != null) {
+                    pixels += (long) size[0] * size[1];
+                }
+            }
+            return pixels;
+        } catch (IOException ex) {
+            if (Logger.isDebugEnabled()) {
+                Logger.debug("Pixels of " + packingJob.getSourceDir().getAbsolutePath() + " can't be counted: " + ex);
+            }
+            return 0L;
+        }
+    }
+
+    private long getScheduledCost(final PackingJob packingJob) {
+        Long cost = _costs.get(packingJob);
+        if (cost == null) {
+            return 0L;
+        }
+        return cost;
+    }
+
+    /**
+     * The comparator to sort the packing jobs from the most expensive to the least expensive.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private final class PackingJobCostComparator implements Comparator<PackingJob> {
+
+        PackingJobCostComparator() {
+            super();
+        }
+
+        @Override
+        public int compare(final PackingJob packingJob1, final PackingJob packingJob2) {
+            return Long.compare(getScheduledCost(packingJob2), getScheduledCost(packingJob1));
+        }
+
+    }
+
+    /**
+     * The comparator to sort the packing batches from the most expensive to the least expensive.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private final class PackingBatchCostComparator implements Comparator<PackingBatch> {
+
+        PackingBatchCostComparator() {
+            super();
+        }
+
+        @Override
+        public int compare(final PackingBatch packingBatch1, final PackingBatch packingBatch2) {
+            return Long.compare(getBatchCost(packingBatch2), getBatchCost(packingBatch1));
+        }
+
+        private long getBatchCost(final PackingBatch packingBatch) {
+            long cost = 0L;
+            for (PackingJob packingJob : packingBatch.getPackingJobs()) {
+                cost += getScheduledCost(packingJob);
+            }
+            return cost;
+        }
+
+    }
+
+}
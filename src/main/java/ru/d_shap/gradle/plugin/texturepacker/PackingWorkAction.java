@@ -0,0 +1,63 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+
+/**
+ * The work action to run the packing jobs on the gradle worker. Every work action holds the gradle worker
+ * lease, so the packing jobs of all tasks respect the gradle max workers count. The work action takes
+ * the packing jobs from the shared queue of the packing job executor until the queue is empty.
+ *
+ * @author Dmitry Shapovalov
+ */
+public abstract class PackingWorkAction implements WorkAction<PackingWorkAction.Parameters> {
+
+    /**
+     * Create new object.
+     */
+    public PackingWorkAction() {
+        super();
+    }
+
+    @Override
+    public void execute() {
+        PackingJobExecutor.runWorkerLoop(getParameters().getExecutionId().get());
+    }
+
+    /**
+     * The parameters of the work action.
+     *
+     * @author Dmitry Shapovalov
+     */
+    public interface Parameters extends WorkParameters {
+
+        /**
+         * Get the ID of the packing job execution.
+         *
+         * @return the ID of the packing job execution.
+         */
+        Property<String> getExecutionId();
+
+    }
+
+}
@@ -0,0 +1,311 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The monitor of the peak resident memory of the packer process. The operating system should expose
+ * the processes in the proc file system, otherwise the peak memory is not measured. The packer process
+ * is the child process of the gradle process, which command line ends with the packer arguments.
+ * The other child processes are checked again on every poll, since the command line of the new process
+ * is replaced right after the start. The peak memory of the found process is polled until the monitor is stopped.
+ * All monitors are polled by the single shared poller thread, that scans the proc file system once per poll
+ * for all monitors and stops when there are no monitors left.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class ProcessMemoryMonitor {
+
+    private static final File PROC_DIR = new File("/proc");
+
+    private static final String STATUS_FILE_NAME = "status";
+
+    private static final String CMDLINE_FILE_NAME = "cmdline";
+
+    private static final String PARENT_PID_PREFIX = "PPid:";
+
+    private static final String PEAK_MEMORY_PREFIX = "VmHWM:";
+
+    private static final long POLL_INTERVAL = 100L;
+
+    private static final long BYTES_IN_KILOBYTE = 1024L;
+
+    private static final String SELF_PID = readSelfPid();
+
+    private static final Poller POLLER = new Poller();
+
+    private final List<String> _arguments;
+
+    private volatile long _peakMemory;
+
+    private volatile String _pid;
+
+    private ProcessMemoryMonitor(final List<String> arguments) {
+        super();
+        _arguments = arguments;
+        _peakMemory = 0L;
+        _pid = null;
+    }
+
+    /**
+     * Start the monitor of the packer process with the specified arguments.
+     *
+     * @param arguments the arguments of the packer process.
+     *
+     * @return the started monitor or null if the peak memory can't be measured.
+     */
+    static ProcessMemoryMonitor start(final List<String> arguments) {
+        if (SELF_PID == null) {
+            return null;
+        }
+        ProcessMemoryMonitor processMemoryMonitor = new ProcessMemoryMonitor(arguments);
+        POLLER.add(processMemoryMonitor);
+        return processMemoryMonitor;
+    }
+
+    /**
+     * Stop the monitor.
+     *
+     * @return the peak resident memory of the packer process in bytes, 0 if the process is not found.
+     */
+    long stop() {
+        POLLER.remove(this);
+        String pid = _pid;
+        if (pid != null) {
+            updatePeakMemory(pid);
+        }
+        return _peakMemory;
+    }
+
+    private void updatePeakMemory(final String pid) {
+        long peakMemory = readPeakMemory(pid);
+        if (peakMemory > _peakMemory) {
+            _peakMemory = peakMemory;
+        }
+    }
+
+    private static boolean isPid(final String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (!Character.isDigit(name.charAt(i))) {
+                return false;
+            }
+        }
+        return !name.isEmpty();
+    }
+
+    private boolean isPackerCommandLine(final List<String> commandLine) {
+        if (commandLine.size() <= _arguments.size()) {
+            return false;
+        }
+        List<String> arguments = commandLine.subList(commandLine.size() - _arguments.size(), commandLine.size());
+        return arguments.equals(_arguments);
+    }
+
+    private static long readPeakMemory(final String pid) {
+        String peakMemory = readStatusValue(new File(PROC_DIR, pid), PEAK_MEMORY_PREFIX);
+        if (peakMemory == null) {
+            return 0L;
+        }
+        int index = peakMemory.indexOf(' ');
+        if (index > 0) {
+            peakMemory = peakMemory.substring(0, index);
+        }
+        try {
+            return Long.parseLong(peakMemory) * BYTES_IN_KILOBYTE;
+        } catch (NumberFormatException ex) {
+            return 0L;
+        }
+    }
+
+    private static String readStatusValue(final File processDir, final String prefix) {
+        try {
+            for (String line : Files.readAllLines(new File(processDir, STATUS_FILE_NAME).toPath(), StandardCharsets.UTF_8)) {
+                if (line.startsWith(prefix)) {
+                    return line.substring(prefix.length()).trim();
+                }
+            }
+            return null;
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    private static List<String> readCommandLine(final File processDir) {
+        List<String> commandLine = new ArrayList<>();
+        try {
+            byte[] bytes = Files.readAllBytes(new File(processDir, CMDLINE_FILE_NAME).toPath());
+            int start = 0;
+            for (int i = 0; i < bytes.length; i++) {
+                if (bytes[i] == 0) {
+                    commandLine.add(new String(bytes, start, i - start, StandardCharsets.UTF_8));
+                    start = i + 1;
+                }
+            }
+            return commandLine;
+        } catch (IOException ex) {
+            return commandLine;
+        }
+    }
+
+    private static String readSelfPid() {
+        try {
+            File selfDir = new File(PROC_DIR, "self").getCanonicalFile();
+            if (new File(selfDir, STATUS_FILE_NAME).isFile()) {
+                return selfDir.getName();
+            }
+            return null;
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * The shared poller of the monitors.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class Poller implements Runnable {
+
+        private final Object _lock;
+
+        private final List<ProcessMemoryMonitor> _processMemoryMonitors;
+
+        private final Set<String> _rejectedPids;
+
+        private Thread _thread;
+
+        Poller() {
+            super();
+            _lock = new Object();
+            _processMemoryMonitors = new ArrayList<>();
+            _rejectedPids = new HashSet<>();
+            _thread = null;
+        }
+
+        void add(final ProcessMemoryMonitor processMemoryMonitor) {
+            synchronized (_lock) {
+                _processMemoryMonitors.add(processMemoryMonitor);
+                if (_thread == null) {
+                    _thread = new Thread(this, "texturepacker-memory-monitor");
+                    _thread.setDaemon(true);
+                    _thread.start();
+                }
+            }
+        }
+
+        void remove(final ProcessMemoryMonitor processMemoryMonitor) {
+            synchronized (_lock) {
+                _processMemoryMonitors.remove(processMemoryMonitor);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                List<ProcessMemoryMonitor> processMemoryMonitors;
+                synchronized (_lock) {
+                    if (_processMemoryMonitors.isEmpty()) {
+                        finish();
+                        return;
+                    }
+                    processMemoryMonitors = new ArrayList<>(_processMemoryMonitors);
+                }
+                poll(processMemoryMonitors);
+                try {
+                    Thread.sleep(POLL_INTERVAL);
+                } catch (InterruptedException ex) {
+                    synchronized (_lock) {
+                        finish();
+                    }
+                    return;
+                }
+            }
+        }
+
+        private void finish() {
+            _thread = null;
+            _rejectedPids.clear();
+        }
+
+        private void poll(final List<ProcessMemoryMonitor> processMemoryMonitors) {
+            List<ProcessMemoryMonitor> pendingMonitors = new ArrayList<>();
+            Set<String> foundPids = new HashSet<>();
+            for (ProcessMemoryMonitor processMemoryMonitor : processMemoryMonitors) {
+                String pid = processMemoryMonitor._pid;
+                if (pid == null) {
+                    pendingMonitors.add(processMemoryMonitor);
+                } else {
+                    foundPids.add(pid);
+                    processMemoryMonitor.updatePeakMemory(pid);
+                }
+            }
+            if (!pendingMonitors.isEmpty()) {
+                findPids(pendingMonitors, foundPids);
+            }
+        }
+
+        private void findPids(final List<ProcessMemoryMonitor> pendingMonitors, final Set<String> foundPids) {
+            String[] names = PROC_DIR.list();
+            if (names == null) {
+                return;
+            }
+            _rejectedPids.retainAll(new HashSet<>(Arrays.asList(names)));
+            for (String name : names) {
+                if (!isPid(name) || _rejectedPids.contains(name) || foundPids.contains(name)) {
+                    continue;
+                }
+                File processDir = new File(PROC_DIR, name);
+                if (!SELF_PID.equals(readStatusValue(processDir, PARENT_PID_PREFIX))) {
+                    _rejectedPids.add(name);
+                    continue;
+                }
+                ProcessMemoryMonitor processMemoryMonitor = findMonitor(pendingMonitors, readCommandLine(processDir));
+                if (processMemoryMonitor != null) {
+                    processMemoryMonitor._pid = name;
+                    processMemoryMonitor.updatePeakMemory(name);
+                    pendingMonitors.remove(processMemoryMonitor);
+                    if (pendingMonitors.isEmpty()) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        private ProcessMemoryMonitor findMonitor(final List<ProcessMemoryMonitor> pendingMonitors, final List<String> commandLine) {
+            for (ProcessMemoryMonitor processMemoryMonitor : pendingMonitors) {
+                if (processMemoryMonitor.isPackerCommandLine(commandLine)) {
+                    return processMemoryMonitor;
+                }
+            }
+            return null;
+        }
+
+    }
+
+}
@@ -0,0 +1,140 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * The sink for the output of the TexturePacker process. The output is split into lines, every line is
+ * written to the logger as soon as it arrives, prefixed with the tag of the processed directory. Only
+ * the last lines are kept in memory for the error reporting, so the memory usage does not depend on the
+ * output size.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class ProcessOutputSink extends OutputStream {
+
+    static final int DEFAULT_TAIL_SIZE = 20;
+
+    private static final int MAX_LINE_LENGTH = 8 * 1024;
+
+    private static final byte CR = '\r';
+
+    private static final byte LF = '\n';
+
+    private final String _tag;
+
+    private final boolean _errorOutput;
+
+    private final int _tailSize;
+
+    private final byte[] _lineBuffer;
+
+    private int _lineLength;
+
+    private final Deque<String> _tail;
+
+    ProcessOutputSink(final String tag, final boolean errorOutput, final int tailSize) {
+        super();
+        _tag = tag;
+        _errorOutput = errorOutput;
+        _tailSize = tailSize;
+        _lineBuffer = new byte[MAX_LINE_LENGTH];
+        _lineLength = 0;
+        _tail = new ArrayDeque<>(tailSize);
+    }
+
+    @Override
+    public void write(final int value) {
+        synchronized (_tail) {
+            writeByte((byte) value);
+        }
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) {
+        synchronized (_tail) {
+            for (int i = offset; i < offset + length; i++) {
+                writeByte(bytes[i]);
+            }
+        }
+    }
+
+    private void writeByte(final byte value) {
+        if (value == LF) {
+            processLine();
+        } else if (value != CR) {
+            _lineBuffer[_lineLength] = value;
+            _lineLength++;
+            if (_lineLength == _lineBuffer.length) {
+                processLine();
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        synchronized (_tail) {
+            if (_lineLength > 0) {
+                processLine();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private void processLine() {
+        String line = new String(_lineBuffer, 0, _lineLength, StandardCharsets.UTF_8);
+        _lineLength = 0;
+        if (line.isEmpty()) {
+            return;
+        }
+        if (_tailSize > 0) {
+            if (_tail.size() == _tailSize) {
+                _tail.removeFirst();
+            }
+            _tail.addLast(line);
+        }
+        if (_errorOutput) {
+            if (Logger.isErrorEnabled()) {
+                Logger.error("[" + _tag + "] " + line);
+            }
+        } else {
+            if (Logger.isDebugEnabled()) {
+                Logger.debug("[" + _tag + "] " + line);
+            }
+        }
+    }
+
+    List<String> getTail() {
+        synchronized (_tail) {
+            return new ArrayList<>(_tail);
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The accumulated durations of the packer processes: the duration to start the processes and the
+ * duration of the processes after the start, and the peak resident memory of the packer processes.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class ProcessTimes {
+
+    private final AtomicLong _spawnNanoTime;
+
+    private final AtomicLong _runNanoTime;
+
+    private final AtomicLong _peakMemory;
+
+    ProcessTimes() {
+        super();
+        _spawnNanoTime = new AtomicLong();
+        _runNanoTime = new AtomicLong();
+        _peakMemory = new AtomicLong();
+    }
+
+    void add(final long spawnNanoTime, final long runNanoTime) {
+        _spawnNanoTime.addAndGet(spawnNanoTime);
+        _runNanoTime.addAndGet(runNanoTime);
+    }
+
+    long getSpawnDuration() {
+        return TimeUnit.NANOSECONDS.toMillis(_spawnNanoTime.get());
+    }
+
+    long getRunDuration() {
+        return TimeUnit.NANOSECONDS.toMillis(_runNanoTime.get());
+    }
+
+    void addPeakMemory(final long peakMemory) {
+        long currentPeakMemory = _peakMemory.get();
+        while (peakMemory > currentPeakMemory && !_peakMemory.compareAndSet(currentPeakMemory, peakMemory)) {
+            currentPeakMemory = _peakMemory.get();
+        }
+    }
+
+    long getPeakMemory() {
+        return _peakMemory.get();
+    }
+
+}
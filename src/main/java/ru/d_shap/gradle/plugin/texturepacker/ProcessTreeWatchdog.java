@@ -0,0 +1,141 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.exec.ProcessDestroyer;
+import org.apache.commons.exec.TimeoutObserver;
+import org.apache.commons.exec.Watchdog;
+
+/**
+ * The watchdog to kill the TexturePacker process and all its descendants after the timeout. The executor
+ * passes the process to the watchdog right after the process is started, and removes the process after
+ * the process is finished. The descendants are killed before the process itself, because the descendants
+ * of the killed process can't be found any more. The descendants are found with the process API of Java 9
+ * and later, so only the process itself is killed with Java 8.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class ProcessTreeWatchdog implements ProcessDestroyer, TimeoutObserver {
+
+    private final long _timeout;
+
+    private final Object _lock;
+
+    private Process _process;
+
+    private Watchdog _watchdog;
+
+    private boolean _killedProcess;
+
+    ProcessTreeWatchdog(final long timeout) {
+        super();
+        _timeout = timeout;
+        _lock = new Object();
+        _process = null;
+        _watchdog = null;
+        _killedProcess = false;
+    }
+
+    @Override
+    public boolean add(final Process process) {
+        synchronized (_lock) {
+            _process = process;
+            if (_timeout > 0) {
+                _watchdog = Watchdog.builder().setThreadFactory(Executors.defaultThreadFactory()).setTimeout(Duration.ofMillis(_timeout)).get();
+                _watchdog.addTimeoutObserver(this);
+                _watchdog.start();
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public boolean remove(final Process process) {
+        Watchdog watchdog;
+        synchronized (_lock) {
+            watchdog = _watchdog;
+            _watchdog = null;
+            _process = null;
+        }
+        if (watchdog != null) {
+            watchdog.stop();
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        synchronized (_lock) {
+            if (_process == null) {
+                return 0;
+            } else {
+                return 1;
+            }
+        }
+    }
+
+    @Override
+    public void timeoutOccured(final Watchdog watchdog) {
+        synchronized (_lock) {
+            if (_process == null || !isAlive(_process)) {
+                return;
+            }
+            _killedProcess = true;
+            destroyDescendants(_process);
+            _process.destroy();
+        }
+    }
+
+    boolean killedProcess() {
+        synchronized (_lock) {
+            return _killedProcess;
+        }
+    }
+
+    private boolean isAlive(final Process process) {
+        try {
+            process.exitValue();
+            return false;
+        } catch (IllegalThreadStateException ex) {
+            return true;
+        }
+    }
+
+    private void destroyDescendants(final Process process) {
+        try {
+            Method descendantsMethod = Process.class.getMethod("descendants");
+            Method toArrayMethod = descendantsMethod.getReturnType().getMethod("toArray");
+            Method destroyForciblyMethod = Class.forName("java.lang.ProcessHandle").getMethod("destroyForcibly");
+            Object descendants = descendantsMethod.invoke(process);
+            for (Object descendant : (Object[]) toArrayMethod.invoke(descendants)) {
+                destroyForciblyMethod.invoke(descendant);
+            }
+        } catch (ReflectiveOperationException ex) {
+            if (Logger.isDebugEnabled()) {
+                Logger.debug("Descendants of the TexturePacker process can't be killed: " + ex);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * The remote cache of the created sheets and atlases, shared between the machines. Every cache entry
+ * is the ZIP archive with the sheet file and the atlas file stored by the cache key.
+ *
+ * @author Dmitry Shapovalov
+ */
+interface RemoteCache {
+
+    /**
+     * Get the location of the remote cache.
+     *
+     * @return the location of the remote cache.
+     */
+    String getLocation();
+
+    /**
+     * Check if the remote cache contains the cache entry.
+     *
+     * @param key the cache key.
+     *
+     * @return true if the remote cache contains the cache entry.
+     *
+     * @throws IOException if the remote cache can't be read.
+     */
+    boolean contains(String key) throws IOException;
+
+    /**
+     * Load the cache entry to the file.
+     *
+     * @param key       the cache key.
+     * @param entryFile the file to write the cache entry.
+     *
+     * @return true if the cache entry is loaded, false if the remote cache doesn't contain the entry.
+     *
+     * @throws IOException if the remote cache can't be read.
+     */
+    boolean load(String key, File entryFile) throws IOException;
+
+    /**
+     * Store the cache entry from the file.
+     *
+     * @param key       the cache key.
+     * @param entryFile the file with the cache entry.
+     *
+     * @throws IOException if the remote cache can't be written.
+     */
+    void store(String key, File entryFile) throws IOException;
+
+}
@@ -0,0 +1,185 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ru.d_shap.gradle.plugin.texturepacker.png.PngOptimizer;
+
+/**
+ * The optimizer of the created PNG sheets. The optimization results are cached by the fingerprint of
+ * the created sheet, so the same sheet is never optimized again. The cache entry is empty, if the
+ * optimized sheet is not smaller than the created sheet. The least recently used entries are evicted,
+ * when the cache exceeds the maximum size. The encodings of all sheets are executed by the shared
+ * threads, so the optimization uses no more threads than the workers.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class SheetOptimizer {
+
+    private static final String PNG_EXTENSION = ".png";
+
+    private static final String TEMP_PREFIX = "tmp-";
+
+    private final File _cacheDir;
+
+    private final long _maxSize;
+
+    private final ExecutorService _optimizeExecutorService;
+
+    SheetOptimizer(final File cacheDir, final long maxSize, final int threadCount) {
+        super();
+        _cacheDir = cacheDir;
+        _maxSize = maxSize;
+        _optimizeExecutorService = Executors.newFixedThreadPool(threadCount, new OptimizeThreadFactory());
+    }
+
+    void optimize(final PackingJob packingJob, final JobLog jobLog) {
+        File sheetFile = packingJob.getSheetFile();
+        if (!sheetFile.getName().toLowerCase(Locale.ENGLISH).endsWith(PNG_EXTENSION) || !sheetFile.isFile()) {
+            return;
+        }
+        try {
+            byte[] data = Files.readAllBytes(sheetFile.toPath());
+            File entryFile = new File(_cacheDir, PngOptimizer.VERSION + '-' + Fingerprints.getContentFingerprint(data));
+            byte[] optimizedData;
+            if (entryFile.isFile()) {
+                optimizedData = Files.readAllBytes(entryFile.toPath());
+                entryFile.setLastModified(System.currentTimeMillis());
+                if (jobLog.isDebugEnabled()) {
+                    jobLog.debug("Sheet " + sheetFile.getAbsolutePath() + " is restored from optimization cache");
+                }
+            } else {
+                optimizedData = PngOptimizer.optimize(data, _optimizeExecutorService);
+                if (optimizedData == null) {
+                    optimizedData = new byte[0];
+                }
+                store(entryFile, optimizedData);
+            }
+            if (optimizedData.length > 0) {
+                Files.write(sheetFile.toPath(), optimizedData);
+                if (jobLog.isInfoEnabled()) {
+                    jobLog.info("Sheet " + sheetFile.getAbsolutePath() + " is optimized: " + data.length + " -> " + optimizedData.length + " bytes");
+                }
+            }
+        } catch (IOException ex) {
+            if (jobLog.isErrorEnabled()) {
+                jobLog.error("Exception in sheet optimization", ex);
+            }
+        }
+    }
+
+    private void store(final File entryFile, final byte[] optimizedData) throws IOException {
+        _cacheDir.mkdirs();
+        Path tempPath = Files.createTempFile(_cacheDir.toPath(), TEMP_PREFIX, null);
+        try {
+            Files.write(tempPath, optimizedData);
+            Files.move(tempPath, entryFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    void shutdown() {
+        _optimizeExecutorService.shutdownNow();
+    }
+
+    void evict() throws IOException {
+        File[] files = _cacheDir.listFiles();
+        if (files == null) {
+            return;
+        }
+        List<File> entryFiles = new ArrayList<>();
+        long totalSize = 0;
+        for (File file : files) {
+            if (file.isFile() && !file.getName().startsWith(TEMP_PREFIX)) {
+                entryFiles.add(file);
+                totalSize += file.length();
+            }
+        }
+        if (totalSize <= _maxSize) {
+            return;
+        }
+        Collections.sort(entryFiles, new LastModifiedComparator());
+        for (File entryFile : entryFiles) {
+            if (totalSize <= _maxSize) {
+                break;
+            }
+            long size = entryFile.length();
+            Files.delete(entryFile.toPath());
+            totalSize -= size;
+        }
+    }
+
+    /**
+     * Thread factory for the optimization threads.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class OptimizeThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger _counter;
+
+        OptimizeThreadFactory() {
+            super();
+            _counter = new AtomicInteger();
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            Thread thread = new Thread(runnable, "texturepacker-optimize-" + _counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+    /**
+     * Comparator to sort the cache entries from the least recently used to the most recently used.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class LastModifiedComparator implements Comparator<File> {
+
+        LastModifiedComparator() {
+            super();
+        }
+
+        @Override
+        public int compare(final File file1, final File file2) {
+            return Long.compare(file1.lastModified(), file2.lastModified());
+        }
+
+    }
+
+}
@@ -0,0 +1,281 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.gradle.api.InvalidUserDataException;
+
+import ru.d_shap.gradle.plugin.texturepacker.configuration.Parameter;
+
+/**
+ * The sheet splitter, partitions the sprites of the source directory into the groups, that fit in one sheet.
+ * The sprite sizes are read from the image headers, the packed area is estimated with the padding,
+ * the extrusion and the fill factor of the sheet.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class SheetSplitter {
+
+    private static final int DEFAULT_MAX_SIZE = 2048;
+
+    private static final int DEFAULT_PADDING = 2;
+
+    private static final int DEFAULT_EXTRUDE = 1;
+
+    private static final double FILL_FACTOR = 0.8;
+
+    private final int _sheetWidth;
+
+    private final int _sheetHeight;
+
+    private final int _shapePadding;
+
+    private final int _borderPadding;
+
+    private final int _extrude;
+
+    SheetSplitter(final List<Parameter> parameters) {
+        super();
+        int width = 0;
+        int height = 0;
+        int maxWidth = DEFAULT_MAX_SIZE;
+        int maxHeight = DEFAULT_MAX_SIZE;
+        int shapePadding = DEFAULT_PADDING;
+        int borderPadding = DEFAULT_PADDING;
+        int extrude = DEFAULT_EXTRUDE;
+        for (Parameter parameter : parameters) {
+            switch (parameter.getName()) {
+                case "width":
+                    width = parseNumber(parameter);
+                    break;
+                case "height":
+                    height = parseNumber(parameter);
+                    break;
+                case "max-width":
+                    maxWidth = parseNumber(parameter);
+                    break;
+                case "max-height":
+                    maxHeight = parseNumber(parameter);
+                    break;
+                case "max-size":
+                    maxWidth = parseNumber(parameter);
+                    maxHeight = maxWidth;
+                    break;
+                case "shape-padding":
+                    shapePadding = parseNumber(parameter);
+                    break;
+                case "border-padding":
+                    borderPadding = parseNumber(parameter);
+                    break;
+                case "padding":
+                    shapePadding = parseNumber(parameter);
+                    borderPadding = shapePadding;
+                    break;
+                case "extrude":
+                    extrude = parseNumber(parameter);
+                    break;
+                default:
+                    break;
+            }
+        }
+        _sheetWidth = getSheetSize(width, maxWidth);
+        _sheetHeight = getSheetSize(height, maxHeight);
+        _shapePadding = shapePadding;
+        _borderPadding = borderPadding;
+        _extrude = extrude;
+    }
+
+    int getSheetWidth() {
+        return _sheetWidth;
+    }
+
+    int getSheetHeight() {
+        return _sheetHeight;
+    }
+
+    private static int parseNumber(final Parameter parameter) {
+        String[] args = parameter.getArgs();
+        if (args.length != 1) {
+            throw new InvalidUserDataException("Parameter " + parameter.getName() + " must have one argument");
+        }
+        try {
+            return Math.max(Integer.parseInt(args[0].trim()), 0);
+        } catch (NumberFormatException ex) {
+            throw new InvalidUserDataException("Parameter " + parameter.getName() + " must be a number: " + args[0], ex);
+        }
+    }
+
+    private static int getSheetSize(final int size, final int maxSize) {
+        if (size > 0) {
+            return size;
+        } else {
+            return maxSize;
+        }
+    }
+
+    /**
+     * Partition the sprites of the source directory into the groups, that fit in one sheet.
+     *
+     * @param sourceDir the source directory.
+     *
+     * @return the sorted relative paths of the sprites of every group, one group if the sprites fit in one sheet.
+     *
+     * @throws IOException if the source directory can't be read.
+     */
+    List<List<String>> split(final File sourceDir) throws IOException {
+        List<SpriteArea> spriteAreas = getSpriteAreas(sourceDir.toPath());
+        long capacity = (long) (Math.max(_sheetWidth - 2 * _borderPadding, 0) * (long) Math.max(_sheetHeight - 2 * _borderPadding, 0) * FILL_FACTOR);
+        long totalArea = 0;
+        for (SpriteArea spriteArea : spriteAreas) {
+            totalArea += spriteArea.getArea();
+        }
+        if (totalArea <= capacity || spriteAreas.size() <= 1) {
+            List<String> names = new ArrayList<>();
+            for (SpriteArea spriteArea : spriteAreas) {
+                names.add(spriteArea.getName());
+            }
+            Collections.sort(names);
+            return Collections.singletonList(names);
+        }
+
+        Collections.sort(spriteAreas, new SpriteAreaComparator());
+        int groupCount = (int) Math.min((totalArea + capacity - 1) / Math.max(capacity, 1), spriteAreas.size());
+        while (true) {
+            List<List<String>> groups = new ArrayList<>();
+            long[] groupAreas = new long[groupCount];
+            for (int i = 0; i < groupCount; i++) {
+                groups.add(new ArrayList<String>());
+            }
+            for (SpriteArea spriteArea : spriteAreas) {
+                int lightestGroup = 0;
+                for (int i = 1; i < groupCount; i++) {
+                    if (groupAreas[i] < groupAreas[lightestGroup]) {
+                        lightestGroup = i;
+                    }
+                }
+                groups.get(lightestGroup).add(spriteArea.getName());
+                groupAreas[lightestGroup] += spriteArea.getArea();
+            }
+            if (groupCount >= spriteAreas.size() || isFit(groups, groupAreas, capacity)) {
+                for (List<String> group : groups) {
+                    Collections.sort(group);
+                }
+                return groups;
+            }
+            groupCount++;
+        }
+    }
+
+    private boolean isFit(final List<List<String>> groups, final long[] groupAreas, final long capacity) {
+        for (int i = 0; i < groupAreas.length; i++) {
+            if (groupAreas[i] > capacity && groups.get(i).size() > 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<SpriteArea> getSpriteAreas(final Path sourcePath) throws IOException {
+        final List<SpriteArea> spriteAreas = new ArrayList<>();
+        Files.walkFileTree(sourcePath, new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                if (attrs.isRegularFile()) {
+                    String name = sourcePath.relativize(file).toString().replace(File.separatorChar, '/');
+                    spriteAreas.add(new SpriteArea(name, getArea(file)));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+        return spriteAreas;
+    }
+
+    private long getArea(final Path file) throws IOException {
+        int[] size = ImageHeaders.readSize(file);
+        if (size == null) {
+            return 0;
+        }
+        int spritePadding = _shapePadding + 2 * _extrude;
+        return (long) (size[0] + spritePadding) * (size[1] + spritePadding);
+    }
+
+    /**
+     * The relative path of the sprite and its estimated packed area.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class SpriteArea {
+
+        private final String _name;
+
+        private final long _area;
+
+        SpriteArea(final String name, final long area) {
+            super();
+            _name = name;
+            _area = area;
+        }
+
+        String getName() {
+            return _name;
+        }
+
+        long getArea() {
+            return _area;
+        }
+
+    }
+
+    /**
+     * The comparator to sort the sprites from the largest to the smallest.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class SpriteAreaComparator implements Comparator<SpriteArea> {
+
+        SpriteAreaComparator() {
+            super();
+        }
+
+        @Override
+        public int compare(final SpriteArea spriteArea1, final SpriteArea spriteArea2) {
+            int result = Long.compare(spriteArea2.getArea(), spriteArea1.getArea());
+            if (result == 0) {
+                result = spriteArea1.getName().compareTo(spriteArea2.getName());
+            }
+            return result;
+        }
+
+    }
+
+}
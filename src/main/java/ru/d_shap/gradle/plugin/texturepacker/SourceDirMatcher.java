@@ -0,0 +1,225 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.gradle.api.InvalidUserDataException;
+
+/**
+ * The matcher of the source directories with the include and exclude patterns. The patterns are
+ * matched with the path of the source directory relative to the pipeline source directory, the path
+ * separator is always '/'. The pattern is either the Ant-style pattern, where '?' matches one character,
+ * '*' matches zero or more characters in a directory name and '**' matches zero or more directories,
+ * or the regular expression with the regex: prefix. The patterns are compiled once.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class SourceDirMatcher {
+
+    static final String REGEX_PREFIX = "regex:";
+
+    private static final String ANY_DIRS = "**";
+
+    private static final String SEPARATOR = "/";
+
+    private final List<PathPattern> _include;
+
+    private final List<PathPattern> _exclude;
+
+    SourceDirMatcher(final List<String> include, final List<String> exclude) {
+        super();
+        _include = compile(include);
+        _exclude = compile(exclude);
+    }
+
+    private static List<PathPattern> compile(final List<String> patterns) {
+        List<PathPattern> result = new ArrayList<>();
+        if (patterns != null) {
+            for (String pattern : patterns) {
+                result.add(compile(pattern));
+            }
+        }
+        return result;
+    }
+
+    private static PathPattern compile(final String pattern) {
+        if (pattern == null || pattern.isEmpty()) {
+            throw new InvalidUserDataException("Include and exclude patterns must not be empty");
+        }
+        if (pattern.startsWith(REGEX_PREFIX)) {
+            try {
+                return new PathPattern(Pattern.compile(pattern.substring(REGEX_PREFIX.length())), null);
+            } catch (PatternSyntaxException ex) {
+                throw new InvalidUserDataException("Pattern " + pattern + " is not a valid regular expression", ex);
+            }
+        }
+
+        List<Pattern> segmentPatterns = new ArrayList<>();
+        StringBuilder builder = new StringBuilder(pattern.length() * 2);
+        for (String segment : pattern.replace('\\', '/').split(SEPARATOR)) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (ANY_DIRS.equals(segment)) {
+                segmentPatterns.add(null);
+                builder.append("(?:/[^/]+)*");
+            } else {
+                String segmentRegex = getSegmentRegex(segment);
+                segmentPatterns.add(Pattern.compile(segmentRegex));
+                builder.append(SEPARATOR).append(segmentRegex);
+            }
+        }
+        return new PathPattern(Pattern.compile(builder.toString()), segmentPatterns);
+    }
+
+    private static String getSegmentRegex(final String segment) {
+        StringBuilder builder = new StringBuilder(segment.length() * 2);
+        StringBuilder literal = new StringBuilder(segment.length());
+        for (int i = 0; i < segment.length(); i++) {
+            char ch = segment.charAt(i);
+            if (ch == '*' || ch == '?') {
+                if (literal.length() > 0) {
+                    builder.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                if (ch == '*') {
+                    builder.append("[^/]*");
+                } else {
+                    builder.append("[^/]");
+                }
+            } else {
+                literal.append(ch);
+            }
+        }
+        if (literal.length() > 0) {
+            builder.append(Pattern.quote(literal.toString()));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Check if the source directory should be processed: the directory matches any include pattern,
+     * or there are no include patterns.
+     *
+     * @param relativePath the relative path of the source directory.
+     *
+     * @return true if the source directory should be processed.
+     */
+    boolean isIncluded(final String relativePath) {
+        if (_include.isEmpty()) {
+            return true;
+        }
+        return matchesAny(_include, relativePath);
+    }
+
+    /**
+     * Check if the source directory and all its subdirectories should be skipped.
+     *
+     * @param relativePath the relative path of the source directory.
+     *
+     * @return true if the source directory matches any exclude pattern.
+     */
+    boolean isExcluded(final String relativePath) {
+        return matchesAny(_exclude, relativePath);
+    }
+
+    /**
+     * Check if any subdirectory of the source directory can match the include patterns. The check is
+     * used to prune the directory walk, so it returns true, if it is not known.
+     *
+     * @param relativePath the relative path of the source directory.
+     *
+     * @return false if no subdirectory of the source directory can be processed.
+     */
+    boolean isIncludedDescendantPossible(final String relativePath) {
+        if (_include.isEmpty()) {
+            return true;
+        }
+        String[] segments = relativePath.split(SEPARATOR);
+        for (PathPattern pathPattern : _include) {
+            if (pathPattern.isDescendantPossible(segments)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesAny(final List<PathPattern> pathPatterns, final String relativePath) {
+        for (PathPattern pathPattern : pathPatterns) {
+            if (pathPattern.matches(relativePath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The compiled pattern.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class PathPattern {
+
+        private final Pattern _pattern;
+
+        private final List<Pattern> _segmentPatterns;
+
+        PathPattern(final Pattern pattern, final List<Pattern> segmentPatterns) {
+            super();
+            _pattern = pattern;
+            _segmentPatterns = segmentPatterns;
+        }
+
+        boolean matches(final String relativePath) {
+            if (_segmentPatterns == null) {
+                return _pattern.matcher(relativePath).matches();
+            } else {
+                return _pattern.matcher(SEPARATOR + relativePath).matches();
+            }
+        }
+
+        boolean isDescendantPossible(final String... segments) {
+            if (_segmentPatterns == null) {
+                return true;
+            }
+            int index = 0;
+            for (String segment : segments) {
+                if (index >= _segmentPatterns.size()) {
+                    return false;
+                }
+                Pattern segmentPattern = _segmentPatterns.get(index);
+                if (segmentPattern == null) {
+                    return true;
+                }
+                if (!segmentPattern.matcher(segment).matches()) {
+                    return false;
+                }
+                index++;
+            }
+            return index < _segmentPatterns.size();
+        }
+
+    }
+
+}
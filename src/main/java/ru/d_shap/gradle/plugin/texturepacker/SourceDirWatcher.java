@@ -0,0 +1,128 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The watcher of the source directories. All directories of the pipeline source directories are watched,
+ * the changes are collected until no changes occur within the debounce time. If the events of the watched
+ * directory are lost, the directory itself is reported as changed, so everything inside it is processed again.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class SourceDirWatcher implements Closeable {
+
+    private final WatchService _watchService;
+
+    private final Map<Path, WatchKey> _watchKeys;
+
+    SourceDirWatcher() throws IOException {
+        super();
+        _watchService = FileSystems.getDefault().newWatchService();
+        _watchKeys = new HashMap<>();
+    }
+
+    void register(final List<File> rootDirs) throws IOException {
+        RegisterVisitor registerVisitor = new RegisterVisitor();
+        for (File rootDir : rootDirs) {
+            if (rootDir.isDirectory()) {
+                Files.walkFileTree(rootDir.toPath(), EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, registerVisitor);
+            }
+        }
+    }
+
+    int getWatchedDirCount() {
+        return _watchKeys.size();
+    }
+
+    Set<Path> awaitChanges(final long debounce) throws InterruptedException {
+        Set<Path> changedPaths = new HashSet<>();
+        WatchKey watchKey = _watchService.take();
+        while (watchKey != null) {
+            collectChanges(watchKey, changedPaths);
+            watchKey = _watchService.poll(debounce, TimeUnit.MILLISECONDS);
+        }
+        return changedPaths;
+    }
+
+    private void collectChanges(final WatchKey watchKey, final Set<Path> changedPaths) {
+        Path dir = (Path) watchKey.watchable();
+        for (WatchEvent<?> watchEvent : watchKey.pollEvents()) {
+            Object context = watchEvent.context();
+            if (watchEvent.kind() == StandardWatchEventKinds.OVERFLOW || context == null) {
+                changedPaths.add(dir);
+            } else {
+                changedPaths.add(dir.resolve((Path) context));
+            }
+        }
+        if (!watchKey.reset()) {
+            _watchKeys.remove(dir);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        _watchService.close();
+    }
+
+    /**
+     * The visitor to register all directories of the source directory.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private final class RegisterVisitor extends SimpleFileVisitor<Path> {
+
+        RegisterVisitor() {
+            super();
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) throws IOException {
+            if (!_watchKeys.containsKey(dir)) {
+                WatchKey watchKey = dir.register(_watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                _watchKeys.put(dir, watchKey);
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+    }
+
+}
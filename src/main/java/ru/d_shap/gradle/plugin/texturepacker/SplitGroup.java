@@ -0,0 +1,118 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * The group of the sprites of the split source directory, that is packed into the separate sheet.
+ * The sprites of the group are staged in the separate directory with the same name as the source directory.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class SplitGroup {
+
+    private final String _sourceDirName;
+
+    private final int _number;
+
+    private final List<String> _fileNames;
+
+    private final File _stagingRootDir;
+
+    private final File _stagingDir;
+
+    private final SplitIndex _splitIndex;
+
+    SplitGroup(final String sourceDirName, final int number, final List<String> fileNames, final File stagingRootDir, final SplitIndex splitIndex) {
+        super();
+        _sourceDirName = sourceDirName;
+        _number = number;
+        _fileNames = fileNames;
+        _stagingRootDir = stagingRootDir;
+        _stagingDir = new File(stagingRootDir, new File(sourceDirName).getName());
+        _splitIndex = splitIndex;
+    }
+
+    String getSourceDirName() {
+        return _sourceDirName;
+    }
+
+    int getNumber() {
+        return _number;
+    }
+
+    List<String> getFileNames() {
+        return _fileNames;
+    }
+
+    File getStagingDir() {
+        return _stagingDir;
+    }
+
+    SplitIndex getSplitIndex() {
+        return _splitIndex;
+    }
+
+    /**
+     * Check if the index file is written with this group.
+     *
+     * @return true if the index file is written with this group.
+     */
+    boolean isIndexOwner() {
+        return _number == 1;
+    }
+
+    /**
+     * Link or copy the sprites of the group to the staging directory.
+     *
+     * @param sourceDir the source directory.
+     *
+     * @throws IOException if the sprites can't be staged.
+     */
+    void stage(final File sourceDir) throws IOException {
+        AtlasCache.deleteDir(_stagingRootDir);
+        for (String fileName : _fileNames) {
+            Path sourcePath = new File(sourceDir, fileName).toPath();
+            Path stagingPath = new File(_stagingDir, fileName).toPath();
+            Files.createDirectories(stagingPath.getParent());
+            try {
+                Files.createLink(stagingPath, sourcePath);
+            } catch (IOException | UnsupportedOperationException ex) {
+                Files.copy(sourcePath, stagingPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+            }
+        }
+    }
+
+    /**
+     * Delete the staging directory.
+     *
+     * @throws IOException if the staging directory can't be deleted.
+     */
+    void unstage() throws IOException {
+        AtlasCache.deleteDir(_stagingRootDir);
+    }
+
+}
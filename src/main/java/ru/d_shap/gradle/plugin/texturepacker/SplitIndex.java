@@ -0,0 +1,92 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import ru.d_shap.gradle.plugin.texturepacker.json.JsonWriter;
+
+/**
+ * The index of the split source directory, lists the sheets, the atlases and the sprites of every group.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class SplitIndex {
+
+    private final String _sourceDirName;
+
+    private final File _indexFile;
+
+    private final List<PackingJob> _packingJobs;
+
+    SplitIndex(final String sourceDirName, final File indexFile) {
+        super();
+        _sourceDirName = sourceDirName;
+        _indexFile = indexFile;
+        _packingJobs = new ArrayList<>();
+    }
+
+    File getIndexFile() {
+        return _indexFile;
+    }
+
+    void addPackingJob(final PackingJob packingJob) {
+        _packingJobs.add(packingJob);
+    }
+
+    /**
+     * Write the index file. The file paths are relative to the directory of the index file.
+     *
+     * @throws IOException if the index file can't be written.
+     */
+    void write() throws IOException {
+        Path indexDirPath = _indexFile.getAbsoluteFile().getParentFile().toPath();
+        JsonWriter jsonWriter = new JsonWriter();
+        jsonWriter.beginObject();
+        jsonWriter.name("name").value(_sourceDirName);
+        jsonWriter.name("sheets").beginArray();
+        for (PackingJob packingJob : _packingJobs) {
+            jsonWriter.beginObject();
+            jsonWriter.name("sheet").value(getRelativePath(indexDirPath, packingJob.getSheetFile()));
+            jsonWriter.name("data").value(getRelativePath(indexDirPath, packingJob.getDataFile()));
+            jsonWriter.name("sprites").beginArray();
+            for (String fileName : packingJob.getSplitGroup().getFileNames()) {
+                jsonWriter.value(fileName);
+            }
+            jsonWriter.endArray();
+            jsonWriter.endObject();
+        }
+        jsonWriter.endArray();
+        jsonWriter.endObject();
+        Files.createDirectories(indexDirPath);
+        Files.write(_indexFile.toPath(), (jsonWriter.toString() + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String getRelativePath(final Path dirPath, final File file) {
+        return dirPath.relativize(file.getAbsoluteFile().toPath()).toString().replace(File.separatorChar, '/');
+    }
+
+}
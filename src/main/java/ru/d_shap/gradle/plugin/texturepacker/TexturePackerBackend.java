@@ -0,0 +1,312 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.exec.CommandLine;
+import org.apache.commons.exec.DefaultExecutor;
+import org.apache.commons.exec.ExecuteException;
+import org.apache.commons.exec.ExecuteStreamHandler;
+import org.apache.commons.exec.PumpStreamHandler;
+
+import ru.d_shap.gradle.plugin.texturepacker.backend.PackerBackend;
+import ru.d_shap.gradle.plugin.texturepacker.backend.PackerLog;
+import ru.d_shap.gradle.plugin.texturepacker.backend.PackerRequest;
+import ru.d_shap.gradle.plugin.texturepacker.backend.PackerResult;
+import ru.d_shap.gradle.plugin.texturepacker.configuration.Parameter;
+
+/**
+ * The packer backend to process the source directory with TexturePacker CLI. TexturePacker is killed,
+ * if the processing takes longer than the timeout, and is run again, if the processing is timed out or
+ * failed with the retry exit code. Every TexturePacker process holds a permit of the build service,
+ * so the number of the TexturePacker processes across the build is limited. No TexturePacker process
+ * is started after the executions are cancelled.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class TexturePackerBackend implements PackerBackend {
+
+    private static final String COMMAND = "TexturePacker";
+
+    private static final long STREAM_STOP_TIMEOUT = 1000L;
+
+    private final ExecutionPolicy _executionPolicy;
+
+    private final ExecutionStatistics _executionStatistics;
+
+    private final ExecutionCancellation _executionCancellation;
+
+    private final TexturePackerProcessService _processService;
+
+    private final Object _versionLock;
+
+    private String _version;
+
+    private boolean _versionResolved;
+
+    TexturePackerBackend(final ExecutionPolicy executionPolicy, final ExecutionStatistics executionStatistics, final ExecutionCancellation executionCancellation, final TexturePackerProcessService processService) {
+        super();
+        _executionPolicy = executionPolicy;
+        _executionStatistics = executionStatistics;
+        _executionCancellation = executionCancellation;
+        _processService = processService;
+        _versionLock = new Object();
+        _version = null;
+        _versionResolved = false;
+    }
+
+    @Override
+    public String getVersion() {
+        synchronized (_versionLock) {
+            if (!_versionResolved) {
+                _version = readVersion();
+                _versionResolved = true;
+            }
+            return _version;
+        }
+    }
+
+    static String readVersion() {
+        try {
+            CommandLine commandLine = new CommandLine(COMMAND);
+            commandLine.addArgument("--version");
+            DefaultExecutor executor = DefaultExecutor.builder().get();
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            ExecuteStreamHandler streamHandler = new PumpStreamHandler(outputStream, new ByteArrayOutputStream());
+            executor.setStreamHandler(streamHandler);
+            executor.execute(commandLine);
+            String version = new String(outputStream.toByteArray(), StandardCharsets.UTF_8).trim();
+            if (Logger.isDebugEnabled()) {
+                Logger.debug("TexturePacker version: " + version);
+            }
+            return version;
+        } catch (IOException ex) {
+            if (Logger.isErrorEnabled()) {
+                Logger.error("TexturePacker version can't be determined, cache is disabled", ex);
+            }
+            return null;
+        }
+    }
+
+    @Override
+    public PackerResult pack(final PackerRequest packerRequest, final PackerLog packerLog) {
+        long startTime = System.currentTimeMillis();
+        long startNanoTime = System.nanoTime();
+        List<String> arguments = createArguments(packerRequest);
+        CommandLine commandLine = createCommandLine(arguments, packerLog);
+        String tag = packerRequest.getPipelineName() + ':' + packerRequest.getName();
+        int retries = _executionPolicy.getRetries();
+        ProcessTimes processTimes = new ProcessTimes();
+        boolean successful = false;
+        int executionCount = 0;
+        for (int retry = 0; retry <= retries; retry++) {
+            if (retry > 0 && !waitBeforeRetry(retry, packerRequest, packerLog)) {
+                break;
+            }
+            executionCount++;
+            ExecutionResult executionResult = runCommandLine(commandLine, tag, _executionPolicy.getTimeout(), packerLog, retry < retries, processTimes);
+            if (executionResult == ExecutionResult.SUCCESS) {
+                successful = true;
+                break;
+            }
+            if (executionResult == ExecutionResult.FAILURE) {
+                break;
+            }
+        }
+        long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanoTime);
+        return new PackerResult(successful, startTime, duration, processTimes.getSpawnDuration(), processTimes.getRunDuration(), processTimes.getPeakMemory(), executionCount);
+    }
+
+    List<String> createArguments(final PackerRequest packerRequest) {
+        List<String> arguments = new ArrayList<>();
+
+        arguments.add("--sheet");
+        arguments.add(packerRequest.getSheetFile().getAbsolutePath());
+        arguments.add("--data");
+        arguments.add(packerRequest.getDataFile().getAbsolutePath());
+
+        for (Parameter parameter : packerRequest.getParameters()) {
+            arguments.add("--" + parameter.getName());
+            String[] args = parameter.getArgs();
+            arguments.addAll(Arrays.asList(args));
+        }
+
+        arguments.add(packerRequest.getSourceDir().getAbsolutePath());
+        return arguments;
+    }
+
+    CommandLine createCommandLine(final List<String> arguments, final PackerLog packerLog) {
+        CommandLine commandLine = new CommandLine(COMMAND);
+        for (String argument : arguments) {
+            commandLine.addArgument(argument);
+        }
+
+        if (packerLog.isDebugEnabled()) {
+            StringBuilder builder = new StringBuilder();
+            builder.append(commandLine.getExecutable());
+            for (String argument : commandLine.getArguments()) {
+                builder.append(' ').append(argument);
+            }
+            packerLog.debug(builder.toString());
+        }
+
+        return commandLine;
+    }
+
+    ExecutionResult runCommandLine(final CommandLine commandLine, final String tag, final long timeout, final PackerLog packerLog, final boolean retryAllowed, final ProcessTimes processTimes) {
+        if (_executionCancellation.isCancelled()) {
+            if (packerLog.isErrorEnabled()) {
+                packerLog.error("TexturePacker process of " + tag + " is cancelled after the failure");
+            }
+            return ExecutionResult.FAILURE;
+        }
+        try {
+            long waitTime = _processService.acquire();
+            _executionStatistics.addProcessWaitTime(waitTime);
+            if (waitTime > 0 && packerLog.isDebugEnabled()) {
+                packerLog.debug("TexturePacker process of " + tag + " waited " + waitTime + " ms for one of " + _processService.getMaxProcesses() + " process slots");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            if (packerLog.isErrorEnabled()) {
+                packerLog.error("Waiting for the TexturePacker process slot of " + tag + " is interrupted", ex);
+            }
+            return ExecutionResult.FAILURE;
+        }
+        try {
+            return executeCommandLine(commandLine, tag, timeout, packerLog, retryAllowed, processTimes);
+        } finally {
+            _processService.release();
+        }
+    }
+
+    private ExecutionResult executeCommandLine(final CommandLine commandLine, final String tag, final long timeout, final PackerLog packerLog, final boolean retryAllowed, final ProcessTimes processTimes) {
+        ProcessOutputSink outputSink = new ProcessOutputSink(tag, false, 0);
+        ProcessOutputSink errorOutputSink = new ProcessOutputSink(tag, true, ProcessOutputSink.DEFAULT_TAIL_SIZE);
+        ProcessTreeWatchdog watchdog = new ProcessTreeWatchdog(timeout);
+        ProcessMemoryMonitor processMemoryMonitor = ProcessMemoryMonitor.start(Arrays.asList(commandLine.getArguments()));
+        try {
+            DefaultExecutor executor = DefaultExecutor.builder().get();
+            PumpStreamHandler streamHandler = new PumpStreamHandler(outputSink, errorOutputSink);
+            if (timeout > 0) {
+                streamHandler.setStopTimeout(Duration.ofMillis(STREAM_STOP_TIMEOUT));
+            }
+            executor.setStreamHandler(new TimedStreamHandler(streamHandler, processTimes));
+            executor.setProcessDestroyer(watchdog);
+            executor.execute(commandLine);
+            return ExecutionResult.SUCCESS;
+        } catch (ExecuteException ex) {
+            if (_executionCancellation.isCancelled()) {
+                if (packerLog.isInfoEnabled()) {
+                    packerLog.info("TexturePacker process of " + tag + " is killed after the failure");
+                }
+                return ExecutionResult.FAILURE;
+            }
+            boolean timedOut = watchdog.killedProcess();
+            String message = getFailureMessage(timedOut, timeout, ex.getExitValue());
+            if (timedOut) {
+                _executionStatistics.incrementTimeoutCount();
+            }
+            if (retryAllowed && (timedOut || _executionPolicy.isRetryExitCode(ex.getExitValue()))) {
+                if (packerLog.isInfoEnabled()) {
+                    packerLog.info(message + getTailMessage(errorOutputSink));
+                }
+                return ExecutionResult.RETRY;
+            }
+            if (packerLog.isErrorEnabled()) {
+                packerLog.error(message + getTailMessage(errorOutputSink), ex);
+            }
+            return ExecutionResult.FAILURE;
+        } catch (IOException ex) {
+            if (packerLog.isErrorEnabled()) {
+                packerLog.error("Exception in TexturePacker execution: " + ex.getMessage() + getTailMessage(errorOutputSink), ex);
+            }
+            return ExecutionResult.FAILURE;
+        } finally {
+            if (processMemoryMonitor != null) {
+                processTimes.addPeakMemory(processMemoryMonitor.stop());
+            }
+            outputSink.close();
+            errorOutputSink.close();
+        }
+    }
+
+    private String getFailureMessage(final boolean timedOut, final long timeout, final int exitValue) {
+        if (timedOut) {
+            return "TexturePacker is killed after the timeout of " + timeout + " ms";
+        } else {
+            return "TexturePacker failed with exit code " + exitValue;
+        }
+    }
+
+    private boolean waitBeforeRetry(final int retry, final PackerRequest packerRequest, final PackerLog packerLog) {
+        long retryDelay = _executionPolicy.getRetryDelay(retry);
+        if (packerLog.isInfoEnabled()) {
+            packerLog.info("Directory " + packerRequest.getSourceDir().getAbsolutePath() + " is retried in " + retryDelay + " ms, retry " + retry + " of " + _executionPolicy.getRetries());
+        }
+        _executionStatistics.incrementRetryCount();
+        try {
+            Thread.sleep(retryDelay);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            if (packerLog.isErrorEnabled()) {
+                packerLog.error("Retry of " + packerRequest.getSourceDir().getAbsolutePath() + " is interrupted", ex);
+            }
+            return false;
+        }
+    }
+
+    private String getTailMessage(final ProcessOutputSink processOutputSink) {
+        List<String> tail = processOutputSink.getTail();
+        if (tail.isEmpty()) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(", last error output:");
+        for (String line : tail) {
+            builder.append('\n').append(line);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * The result of the single TexturePacker execution.
+     *
+     * @author Dmitry Shapovalov
+     */
+    enum ExecutionResult {
+
+        SUCCESS,
+
+        FAILURE,
+
+        RETRY
+
+    }
+
+}
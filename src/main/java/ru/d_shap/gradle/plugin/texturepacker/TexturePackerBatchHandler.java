@@ -0,0 +1,238 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.exec.CommandLine;
+
+import ru.d_shap.gradle.plugin.texturepacker.configuration.Parameter;
+
+/**
+ * The packing job handler to process the source directories in batches. Every packing job is prepared
+ * first: the up-to-date source directories are skipped and the cached files are restored. Then the rest
+ * of the source directories are grouped by the pipeline, and every batch is processed with one
+ * TexturePacker run with one project file per source directory. If the batch run fails, all source
+ * directories of the batch are processed with the separate TexturePacker runs, since the files of the failed
+ * batch run can be incomplete. The source directories
+ * of the pipelines with the other packer backends and the groups of the split source directories are not batched.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class TexturePackerBatchHandler implements PackingJobExecutor.PackingJobHandler, PackingJobExecutor.PackingBatchHandler {
+
+    private static final String PROJECT_FILE_EXTENSION = ".tps";
+
+    private final TexturePackerJobHandler _texturePackerJobHandler;
+
+    private final TexturePackerBackend _texturePackerBackend;
+
+    private final ExecutionPolicy _executionPolicy;
+
+    private final MemoryBudget _memoryBudget;
+
+    private final ExecutionStatistics _executionStatistics;
+
+    private final MetricsRecorder _metricsRecorder;
+
+    private final File _projectDir;
+
+    private final Map<PackingJob, TexturePackerJobHandler.PreparedJob> _preparedJobs;
+
+    TexturePackerBatchHandler(final TexturePackerJobHandler texturePackerJobHandler, final TexturePackerBackend texturePackerBackend, final ExecutionPolicy executionPolicy, final MemoryBudget memoryBudget, final ExecutionStatistics executionStatistics, final MetricsRecorder metricsRecorder, final File projectDir) {
+        super();
+        _texturePackerJobHandler = texturePackerJobHandler;
+        _texturePackerBackend = texturePackerBackend;
+        _executionPolicy = executionPolicy;
+        _memoryBudget = memoryBudget;
+        _executionStatistics = executionStatistics;
+        _metricsRecorder = metricsRecorder;
+        _projectDir = projectDir;
+        _preparedJobs = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void handle(final PackingJob packingJob, final JobLog jobLog) {
+        if (!packingJob.isTexturePacker() || packingJob.getSplitGroup() != null) {
+            _texturePackerJobHandler.handle(packingJob, jobLog);
+            return;
+        }
+        TexturePackerJobHandler.PreparedJob preparedJob = _texturePackerJobHandler.prepare(packingJob, jobLog);
+        if (preparedJob != null) {
+            _preparedJobs.put(packingJob, preparedJob);
+        }
+    }
+
+    @Override
+    public void handle(final PackingBatch packingBatch, final JobLog jobLog) {
+        List<TexturePackerJobHandler.PreparedJob> preparedJobs = new ArrayList<>();
+        for (PackingJob packingJob : packingBatch.getPackingJobs()) {
+            preparedJobs.add(_preparedJobs.get(packingJob));
+        }
+        boolean batchExecuted = preparedJobs.size() > 1 && executeBatch(packingBatch, jobLog);
+        List<String> failures = new ArrayList<>();
+        for (TexturePackerJobHandler.PreparedJob preparedJob : preparedJobs) {
+            PackingJob packingJob = preparedJob.getPackingJob();
+            boolean processed;
+            if (batchExecuted && isProcessed(packingJob)) {
+                _texturePackerJobHandler.logProcessed(packingJob, jobLog);
+                processed = true;
+            } else {
+                processed = _texturePackerJobHandler.execute(preparedJob, jobLog);
+            }
+            try {
+                _texturePackerJobHandler.finish(preparedJob, processed, jobLog);
+            } catch (PackingFailureException ex) {
+                failures.addAll(ex.getFailures());
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new PackingFailureException(failures);
+        }
+    }
+
+    List<PackingBatch> createPackingBatches(final List<PackingJob> packingJobs, final int batchSize, final int workerCount) {
+        Map<String, List<PackingJob>> pipelinePackingJobs = new LinkedHashMap<>();
+        for (PackingJob packingJob : packingJobs) {
+            if (!_preparedJobs.containsKey(packingJob)) {
+                continue;
+            }
+            List<PackingJob> pipelineJobs = pipelinePackingJobs.get(packingJob.getPipelineName());
+            if (pipelineJobs == null) {
+                pipelineJobs = new ArrayList<>();
+                pipelinePackingJobs.put(packingJob.getPipelineName(), pipelineJobs);
+            }
+            pipelineJobs.add(packingJob);
+        }
+
+        List<PackingBatch> packingBatches = new ArrayList<>();
+        for (Map.Entry<String, List<PackingJob>> entry : pipelinePackingJobs.entrySet()) {
+            List<PackingJob> pipelineJobs = entry.getValue();
+            int chunkSize = getChunkSize(pipelineJobs.size(), batchSize, workerCount);
+            for (int i = 0; i < pipelineJobs.size(); i += chunkSize) {
+                List<PackingJob> chunk = new ArrayList<>(pipelineJobs.subList(i, Math.min(i + chunkSize, pipelineJobs.size())));
+                packingBatches.add(new PackingBatch(entry.getKey(), i / chunkSize + 1, chunk));
+            }
+        }
+        return packingBatches;
+    }
+
+    private int getChunkSize(final int jobCount, final int batchSize, final int workerCount) {
+        int workerChunkSize = (jobCount + workerCount - 1) / Math.max(workerCount, 1);
+        return Math.max(Math.min(batchSize, workerChunkSize), 1);
+    }
+
+    private boolean executeBatch(final PackingBatch packingBatch, final JobLog jobLog) {
+        List<String> arguments = new ArrayList<>();
+        List<Parameter> parameters = packingBatch.getPackingJobs().get(0).getParameters();
+        for (Parameter parameter : parameters) {
+            arguments.add("--" + parameter.getName());
+            arguments.addAll(Arrays.asList(parameter.getArgs()));
+        }
+        try {
+            for (PackingJob packingJob : packingBatch.getPackingJobs()) {
+                File projectFile = getProjectFile(packingJob);
+                TpsProjectWriter.write(projectFile, packingJob);
+                arguments.add(projectFile.getAbsolutePath());
+                deleteFile(packingJob.getSheetFile());
+                deleteFile(packingJob.getDataFile());
+            }
+        } catch (IOException ex) {
+            if (jobLog.isErrorEnabled()) {
+                jobLog.error("Exception in project files writing, directories are processed separately", ex);
+            }
+            return false;
+        }
+
+        int jobCount = packingBatch.getPackingJobs().size();
+        if (jobLog.isInfoEnabled()) {
+            jobLog.info("Process " + jobCount + " directories of " + packingBatch.getPipelineName() + " in batch");
+        }
+        CommandLine commandLine = _texturePackerBackend.createCommandLine(arguments, jobLog);
+        long timeout = _executionPolicy.getTimeout() * jobCount;
+        _executionStatistics.incrementExecutionCount();
+        ProcessTimes processTimes = new ProcessTimes();
+        TexturePackerBackend.ExecutionResult executionResult;
+        long reservedMemory = reserveMemory(packingBatch, jobLog);
+        if (reservedMemory < 0L) {
+            executionResult = TexturePackerBackend.ExecutionResult.FAILURE;
+        } else {
+            try {
+                executionResult = _texturePackerBackend.runCommandLine(commandLine, packingBatch.getName(), timeout, jobLog, false, processTimes);
+            } finally {
+                releaseMemory(reservedMemory);
+            }
+        }
+        for (PackingJob packingJob : packingBatch.getPackingJobs()) {
+            _metricsRecorder.getJobMetrics(packingJob).addBatchProcessTimes(processTimes.getSpawnDuration() / jobCount, processTimes.getRunDuration() / jobCount);
+        }
+        if (executionResult == TexturePackerBackend.ExecutionResult.SUCCESS) {
+            return true;
+        }
+        if (jobLog.isInfoEnabled()) {
+            jobLog.info("Batch " + packingBatch.getName() + " failed, directories are processed separately");
+        }
+        return false;
+    }
+
+    private long reserveMemory(final PackingBatch packingBatch, final JobLog jobLog) {
+        if (_memoryBudget == null) {
+            return 0L;
+        }
+        try {
+            return _memoryBudget.acquire(packingBatch.getPackingJobs(), packingBatch.getName(), jobLog);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            if (jobLog.isErrorEnabled()) {
+                jobLog.error("Waiting for the memory of batch " + packingBatch.getName() + " is interrupted", ex);
+            }
+            return -1L;
+        }
+    }
+
+    private void releaseMemory(final long reservedMemory) {
+        if (reservedMemory > 0L) {
+            _memoryBudget.release(reservedMemory);
+        }
+    }
+
+    private File getProjectFile(final PackingJob packingJob) {
+        File pipelineDir = new File(_projectDir, packingJob.getPipelineName());
+        return new File(pipelineDir, packingJob.getName() + PROJECT_FILE_EXTENSION);
+    }
+
+    private void deleteFile(final File file) throws IOException {
+        if (file.exists() && !file.delete()) {
+            throw new IOException("File " + file.getAbsolutePath() + " can't be deleted");
+        }
+    }
+
+    private boolean isProcessed(final PackingJob packingJob) {
+        return packingJob.getSheetFile().isFile() && packingJob.getDataFile().isFile();
+    }
+
+}
@@ -19,218 +19,271 @@
 ///////////////////////////////////////////////////////////////////////////////////////////////////
 package ru.d_shap.gradle.plugin.texturepacker;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
-import org.apache.commons.exec.CommandLine;
-import org.apache.commons.exec.DefaultExecutor;
-import org.apache.commons.exec.ExecuteStreamHandler;
-import org.apache.commons.exec.PumpStreamHandler;
 import org.gradle.api.Action;
-import org.gradle.api.InvalidUserDataException;
-import org.gradle.api.Task;
 
 import ru.d_shap.gradle.plugin.texturepacker.configuration.ExtensionConfiguration;
-import ru.d_shap.gradle.plugin.texturepacker.configuration.Parameter;
-import ru.d_shap.gradle.plugin.texturepacker.configuration.ParametersConfiguration;
-import ru.d_shap.gradle.plugin.texturepacker.configuration.PipelineConfiguration;
-
-import groovy.lang.Closure;
 
 /**
  * TexturePacker gradle action.
  *
  * @author Dmitry Shapovalov
  */
-public class TexturePackerGradleAction implements Action<Task> {
+public class TexturePackerGradleAction implements Action<TexturePackerTask> {
+
+    private static final String MANIFEST_FILE_NAME = "manifest.properties";
+
+    private static final String HISTORY_FILE_NAME = "history.properties";
+
+    private static final String BATCH_DIR_NAME = "batch";
+
+    private static final String METRICS_FILE_NAME = "metrics.json";
 
-    private static final String COMMAND = "TexturePacker";
+    private static final String TRACE_FILE_NAME = "trace.json";
 
-    private final ExtensionConfiguration _extensionConfiguration;
+    private static final String OPTIMIZATION_CACHE_DIR_NAME = "png";
+
+    private static final long BYTES_IN_MEGABYTE = 1024L * 1024L;
 
     /**
      * Create new object.
-     *
-     * @param extensionConfiguration the extension configuration.
      */
-    public TexturePackerGradleAction(final ExtensionConfiguration extensionConfiguration) {
+    public TexturePackerGradleAction() {
         super();
-        _extensionConfiguration = extensionConfiguration;
     }
 
     @Override
-    public void execute(final Task task) {
+    public void execute(final TexturePackerTask task) {
         if (Logger.isInfoEnabled()) {
             Logger.info("Start processing images with TexturePacker");
         }
-        List<PipelineConfiguration> pipelineConfigurations = _extensionConfiguration.getPipelineConfigurations();
-        for (PipelineConfiguration pipelineConfiguration : pipelineConfigurations) {
-            File sourceDir = pipelineConfiguration.getSourceDir();
-            if (sourceDir == null) {
-                throw new InvalidUserDataException("src property must be defined");
-            }
-            File[] sourceFiles = sourceDir.listFiles();
-
-            File destinationDir = pipelineConfiguration.getDestinationDir();
-            if (destinationDir == null) {
-                throw new InvalidUserDataException("dst property must be defined");
-            }
-            destinationDir.mkdirs();
-
-            List<String> include = pipelineConfiguration.getInclude();
-            List<String> exclude = pipelineConfiguration.getExclude();
-            checkConfigurationValid(include, exclude);
+        List<PackingJob> packingJobs = task.getPackingJobs();
+        removeStaleOutputs(task, packingJobs);
+        process(task, packingJobs, packingJobs);
+        if (Logger.isInfoEnabled()) {
+            Logger.info("Finish processing images with TexturePacker");
+        }
+    }
 
-            Closure<?> sheetNameClosure = pipelineConfiguration.getSheetNameClosure();
-            if (sheetNameClosure == null) {
-                throw new InvalidUserDataException("Property sheet is udefined");
+    void process(final AbstractTexturePackerTask task, final List<PackingJob> plannedPackingJobs, final List<PackingJob> allPackingJobs) {
+        PackingJobDeduplicator packingJobDeduplicator = new PackingJobDeduplicator(allPackingJobs);
+        List<PackingJob> uniquePackingJobs = packingJobDeduplicator.getUniqueJobs();
+        PackingJobScheduler packingJobScheduler = new PackingJobScheduler(JobHistory.load(getHistoryFile(task)));
+        List<PackingJob> packingJobs = packingJobScheduler.schedule(uniquePackingJobs);
+        File manifestFile = getManifestFile(task);
+        JobManifest jobManifest = JobManifest.load(manifestFile);
+        boolean incremental = isIncremental(task);
+        AtlasCache atlasCache = createAtlasCache(task);
+        int workerCount = getWorkerCount(task);
+        SheetOptimizer sheetOptimizer = createSheetOptimizer(task, workerCount);
+        ExecutionPolicy executionPolicy = createExecutionPolicy(task);
+        ExecutionStatistics executionStatistics = new ExecutionStatistics();
+        ExecutionCancellation executionCancellation = new ExecutionCancellation();
+        PackerBackends packerBackends = new PackerBackends(executionPolicy, executionStatistics, executionCancellation, task.getProcessService().get());
+        packerBackends.resolve(packingJobs);
+        MetricsRecorder metricsRecorder = new MetricsRecorder(allPackingJobs, task.getMetrics().get());
+        MemoryBudget memoryBudget = createMemoryBudget(task, packingJobScheduler, executionStatistics);
+        TexturePackerJobHandler texturePackerJobHandler = new TexturePackerJobHandler(jobManifest, incremental, atlasCache, sheetOptimizer, packerBackends, memoryBudget, executionStatistics, metricsRecorder);
+        PackingJobExecutor packingJobExecutor = new PackingJobExecutor(task.getWorkerExecutor(), workerCount, task.getFailFast().get(), executionCancellation, metricsRecorder);
+        try {
+            if (task.getBatch().get()) {
+                File projectDir = new File(task.getWorkDir().get().getAsFile(), BATCH_DIR_NAME);
+                TexturePackerBatchHandler texturePackerBatchHandler = new TexturePackerBatchHandler(texturePackerJobHandler, packerBackends.getTexturePackerBackend(), executionPolicy, memoryBudget, executionStatistics, metricsRecorder, projectDir);
+                packingJobExecutor.execute(packingJobs, packingJobDeduplicator.createJobHandler(texturePackerBatchHandler, metricsRecorder, jobManifest));
+                List<PackingBatch> packingBatches = texturePackerBatchHandler.createPackingBatches(uniquePackingJobs, task.getBatchSize().get(), workerCount);
+                packingBatches = packingJobScheduler.scheduleBatches(packingBatches);
+                packingJobExecutor.executeBatches(packingBatches, packingJobDeduplicator.createBatchHandler(texturePackerBatchHandler, metricsRecorder, jobManifest));
+            } else {
+                packingJobExecutor.execute(packingJobs, packingJobDeduplicator.createJobHandler(texturePackerJobHandler, metricsRecorder, jobManifest));
             }
-            Closure<?> dataNameClosure = pipelineConfiguration.getDataNameClosure();
-            if (dataNameClosure == null) {
-                throw new InvalidUserDataException("Property data is udefined");
+        } finally {
+            jobManifest.save();
+            packingJobScheduler.recordHistory(uniquePackingJobs, plannedPackingJobs, metricsRecorder);
+            finishAtlasCache(atlasCache);
+            finishSheetOptimizer(sheetOptimizer);
+            if (Logger.isInfoEnabled()) {
+                Logger.info("TexturePacker statistics: " + executionStatistics);
             }
+            writeMetrics(task, metricsRecorder, workerCount);
+        }
+    }
 
-            ParametersConfiguration parametersConfiguration = pipelineConfiguration.getParameterConfiguration();
-
-            if (sourceFiles != null) {
-                for (File sourceFile : sourceFiles) {
-                    if (shouldProcessSourceDir(sourceFile, include, exclude)) {
-                        if (Logger.isDebugEnabled()) {
-                            StringBuilder builder = new StringBuilder();
-                            String name = sourceFile.getName();
-                            builder.append("Start processing source ").append(name);
-                            builder.append(", include: ").append(include);
-                            builder.append(", exclude: ").append(exclude);
-                            Logger.debug(builder.toString());
-                        }
-                        processSourceDir(sourceFile, destinationDir, sheetNameClosure, dataNameClosure, parametersConfiguration);
-                    } else {
-                        if (Logger.isDebugEnabled()) {
-                            StringBuilder builder = new StringBuilder();
-                            String name = sourceFile.getName();
-                            builder.append("Skip processing source ").append(name);
-                            builder.append(", include: ").append(include);
-                            builder.append(", exclude: ").append(exclude);
-                            Logger.debug(builder.toString());
-                        }
-                    }
-                }
-            }
+    void removeStaleOutputs(final AbstractTexturePackerTask task, final List<PackingJob> packingJobs) {
+        JobManifest jobManifest = JobManifest.load(getManifestFile(task));
+        List<File> staleOutputFiles = getStaleOutputFiles(jobManifest, packingJobs);
+        for (File staleOutputFile : staleOutputFiles) {
+            deleteStaleOutput(staleOutputFile);
         }
-        if (Logger.isInfoEnabled()) {
-            Logger.info("Finish processing images with TexturePacker");
+        if (!staleOutputFiles.isEmpty()) {
+            jobManifest.save();
         }
     }
 
-    private void checkConfigurationValid(final List<String> include, final List<String> exclude) {
-        if ((include == null || include.isEmpty()) && (exclude == null || exclude.isEmpty())) {
-            return;
+    static List<File> getStaleOutputFiles(final JobManifest jobManifest, final List<PackingJob> packingJobs) {
+        Set<String> keys = new HashSet<>();
+        Set<File> outputFiles = new HashSet<>();
+        for (PackingJob packingJob : packingJobs) {
+            keys.add(TexturePackerJobHandler.getManifestKey(packingJob));
+            for (File outputFile : packingJob.getOutputFiles()) {
+                outputFiles.add(outputFile.getAbsoluteFile());
+            }
         }
-        if (include != null && !include.isEmpty() && exclude != null && !exclude.isEmpty()) {
-            throw new InvalidUserDataException("Configuration can't have both include and exclude");
+        List<File> staleOutputFiles = new ArrayList<>();
+        for (JobManifest.Entry staleEntry : jobManifest.removeStaleEntries(keys)) {
+            for (String output : staleEntry.getOutputs()) {
+                File outputFile = new File(output).getAbsoluteFile();
+                if (!outputFiles.contains(outputFile) && outputFile.isFile()) {
+                    staleOutputFiles.add(outputFile);
+                }
+            }
         }
+        return staleOutputFiles;
     }
 
-    private boolean shouldProcessSourceDir(final File sourceFile, final List<String> include, final List<String> exclude) {
-        if (!sourceFile.isDirectory()) {
-            return false;
+    private void deleteStaleOutput(final File outputFile) {
+        try {
+            if (Files.deleteIfExists(outputFile.toPath()) && Logger.isInfoEnabled()) {
+                Logger.info("File " + outputFile.getAbsolutePath() + " is deleted");
+            }
+        } catch (IOException ex) {
+            if (Logger.isErrorEnabled()) {
+                Logger.error("Stale file " + outputFile.getAbsolutePath() + " can't be deleted", ex);
+            }
         }
+    }
+
+    File getManifestFile(final AbstractTexturePackerTask task) {
+        File workDir = task.getWorkDir().get().getAsFile();
+        return new File(workDir, MANIFEST_FILE_NAME);
+    }
+
+    private File getHistoryFile(final AbstractTexturePackerTask task) {
+        File workDir = task.getWorkDir().get().getAsFile();
+        return new File(workDir, HISTORY_FILE_NAME);
+    }
 
-        String name = sourceFile.getName();
-        if (include != null && include.contains(name)) {
-            return true;
+    private AtlasCache createAtlasCache(final AbstractTexturePackerTask task) {
+        if (!task.getCache().get()) {
+            return null;
         }
-        if (exclude != null && exclude.contains(name)) {
-            return false;
+        File cacheDir = task.getCacheDir().get().getAsFile();
+        long maxSize = task.getCacheSize().get() * BYTES_IN_MEGABYTE;
+        RemoteCache remoteCache = createRemoteCache(task);
+        return new AtlasCache(cacheDir, maxSize, remoteCache, task.getRemoteCachePush().get(), new CacheStatistics());
+    }
+
+    private RemoteCache createRemoteCache(final AbstractTexturePackerTask task) {
+        String remoteCache = task.getRemoteCache().getOrNull();
+        if (remoteCache == null) {
+            return null;
         }
-        if (include != null && !include.isEmpty()) {
-            return false;
+        if (remoteCache.contains(ExtensionConfiguration.URL_SCHEME_SEPARATOR)) {
+            return new HttpRemoteCache(remoteCache);
+        } else {
+            return new FileRemoteCache(new File(remoteCache));
         }
-        return true;
     }
 
-    private void processSourceDir(final File sourceDir, final File destinationDir, final Closure<?> sheetNameClosure, final Closure<?> dataNameClosure, final ParametersConfiguration parametersConfiguration) {
-        String sourceDirName = sourceDir.getName();
-        String sheetAbsolutePath = getAbsolutePath(sourceDirName, sheetNameClosure, destinationDir);
-        String dataAbsolutePath = getAbsolutePath(sourceDirName, dataNameClosure, destinationDir);
-        String sourceDirAbsolutePath = sourceDir.getAbsolutePath();
-        CommandLine commandLine = createCommandLine(sheetAbsolutePath, dataAbsolutePath, parametersConfiguration, sourceDirAbsolutePath);
-        executeCommandLine(commandLine, sheetAbsolutePath, dataAbsolutePath, sourceDirAbsolutePath);
+    private SheetOptimizer createSheetOptimizer(final AbstractTexturePackerTask task, final int workerCount) {
+        if (!task.getOptimizePng().get()) {
+            return null;
+        }
+        File cacheDir = new File(task.getWorkDir().get().getAsFile(), OPTIMIZATION_CACHE_DIR_NAME);
+        long maxSize = task.getCacheSize().get() * BYTES_IN_MEGABYTE;
+        return new SheetOptimizer(cacheDir, maxSize, workerCount);
     }
 
-    private String getAbsolutePath(final String sourceDirName, final Closure<?> closure, final File destinationDir) {
-        Object callResult = closure.call(sourceDirName);
-        String fileName;
-        if (callResult instanceof String) {
-            fileName = (String) callResult;
-        } else {
-            fileName = callResult.toString();
+    private MemoryBudget createMemoryBudget(final AbstractTexturePackerTask task, final PackingJobScheduler packingJobScheduler, final ExecutionStatistics executionStatistics) {
+        TexturePackerProcessService processService = task.getProcessService().get();
+        if (processService.getMaxMemory() <= 0L) {
+            return null;
         }
-        File file = new File(destinationDir, fileName);
-        return file.getAbsolutePath();
+        return new MemoryBudget(packingJobScheduler, processService, executionStatistics);
     }
 
-    private CommandLine createCommandLine(final String sheetAbsolutePath, final String dataAbsolutePath, final ParametersConfiguration parametersConfiguration, final String sourceDirAbsolutePath) {
-        CommandLine commandLine = new CommandLine(COMMAND);
-
-        commandLine.addArgument("--sheet");
-        commandLine.addArgument(sheetAbsolutePath);
-        commandLine.addArgument("--data");
-        commandLine.addArgument(dataAbsolutePath);
+    private ExecutionPolicy createExecutionPolicy(final AbstractTexturePackerTask task) {
+        long timeout = task.getProcessTimeout().get();
+        int retries = task.getRetries().get();
+        List<Integer> retryExitCodes = task.getRetryExitCodes().get();
+        long retryDelay = task.getRetryDelay().get();
+        return new ExecutionPolicy(timeout, retries, retryExitCodes, retryDelay);
+    }
 
-        List<Parameter> parameters = parametersConfiguration.getParameters();
-        for (Parameter parameter : parameters) {
-            commandLine.addArgument("--" + parameter.getName());
-            String[] args = parameter.getArgs();
-            for (String arg : args) {
-                commandLine.addArgument(arg);
+    private void writeMetrics(final AbstractTexturePackerTask task, final MetricsRecorder metricsRecorder, final int workerCount) {
+        if (task.getMetrics().get()) {
+            File workDir = task.getWorkDir().get().getAsFile();
+            File summaryFile = new File(workDir, METRICS_FILE_NAME);
+            File traceFile = new File(workDir, TRACE_FILE_NAME);
+            try {
+                metricsRecorder.write(summaryFile, traceFile, workerCount);
+                if (Logger.isInfoEnabled()) {
+                    Logger.info("Metrics are written to " + summaryFile.getAbsolutePath() + " and " + traceFile.getAbsolutePath());
+                }
+            } catch (IOException ex) {
+                if (Logger.isErrorEnabled()) {
+                    Logger.error("Exception in metrics writing", ex);
+                }
             }
         }
+        if (task.getBuildScanValues().get()) {
+            BuildScanValues.add(task.getBuildScanService().get().getBuildScanExtension(), metricsRecorder);
+        }
+    }
 
-        commandLine.addArgument(sourceDirAbsolutePath);
-
-        if (Logger.isDebugEnabled()) {
-            StringBuilder builder = new StringBuilder();
-            builder.append(commandLine.getExecutable());
-            for (String argument : commandLine.getArguments()) {
-                builder.append(' ').append(argument);
+    private void finishAtlasCache(final AtlasCache atlasCache) {
+        if (atlasCache == null) {
+            return;
+        }
+        atlasCache.awaitUploads();
+        if (Logger.isInfoEnabled()) {
+            Logger.info("TexturePacker cache statistics: " + atlasCache.getCacheStatistics());
+        }
+        try {
+            atlasCache.evict();
+        } catch (IOException ex) {
+            if (Logger.isErrorEnabled()) {
+                Logger.error("Exception in cache eviction", ex);
             }
-            Logger.debug(builder.toString());
         }
-
-        return commandLine;
     }
 
-    private void executeCommandLine(final CommandLine commandLine, final String sheetAbsolutePath, final String dataAbsolutePath, final String sourceDirAbsolutePath) {
+    private void finishSheetOptimizer(final SheetOptimizer sheetOptimizer) {
+        if (sheetOptimizer == null) {
+            return;
+        }
+        sheetOptimizer.shutdown();
         try {
-            DefaultExecutor executor = DefaultExecutor.builder().get();
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            ByteArrayOutputStream errorOutputStream = new ByteArrayOutputStream();
-            ExecuteStreamHandler streamHandler = new PumpStreamHandler(outputStream, errorOutputStream);
-            executor.setStreamHandler(streamHandler);
-            executor.execute(commandLine);
-
-            String outputStr = new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
-            if (outputStr.length() > 0 && Logger.isDebugEnabled()) {
-                Logger.debug(outputStr);
-            }
-            String errorOutputStr = new String(errorOutputStream.toByteArray(), StandardCharsets.UTF_8);
-            if (errorOutputStr.length() > 0 && Logger.isErrorEnabled()) {
-                Logger.error(errorOutputStr);
-            }
-            if (Logger.isInfoEnabled()) {
-                Logger.info("Directory " + sourceDirAbsolutePath + " is processed");
-                Logger.info("File " + sheetAbsolutePath + " is created");
-                Logger.info("File " + dataAbsolutePath + " is created");
-            }
+            sheetOptimizer.evict();
         } catch (IOException ex) {
             if (Logger.isErrorEnabled()) {
-                Logger.error("Exception in TexturePacker execution", ex);
+                Logger.error("Exception in optimization cache eviction", ex);
             }
         }
     }
 
+    boolean isIncremental(final AbstractTexturePackerTask task) {
+        if (!task.getIncremental().get()) {
+            return false;
+        }
+        return !task.getRerunTasks().get();
+    }
+
+    private int getWorkerCount(final AbstractTexturePackerTask task) {
+        if (!task.getParallel().get()) {
+            return 1;
+        }
+        int workers = task.getWorkers().get();
+        if (workers > 0) {
+            return workers;
+        }
+        return task.getMaxWorkerCount().get();
+    }
+
 }
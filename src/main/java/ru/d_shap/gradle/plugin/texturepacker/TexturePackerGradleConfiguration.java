@@ -19,83 +19,128 @@
 ///////////////////////////////////////////////////////////////////////////////////////////////////
 package ru.d_shap.gradle.plugin.texturepacker;
 
-import java.io.File;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.Collections;
+import java.util.concurrent.Callable;
 
+import org.gradle.StartParameter;
 import org.gradle.api.Action;
 import org.gradle.api.Project;
-import org.gradle.api.Task;
-import org.gradle.api.tasks.TaskInputs;
-import org.gradle.api.tasks.TaskOutputs;
+import org.gradle.api.execution.TaskExecutionGraph;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.TaskContainer;
 
 import ru.d_shap.gradle.plugin.texturepacker.configuration.ExtensionConfiguration;
-import ru.d_shap.gradle.plugin.texturepacker.configuration.PipelineConfiguration;
 
 /**
- * TexturePacker gradle configuration.
+ * TexturePacker gradle configuration, configures the task when the task is realized.
  *
  * @author Dmitry Shapovalov
  */
-final class TexturePackerGradleConfiguration implements Action<Project> {
+final class TexturePackerGradleConfiguration implements Action<AbstractTexturePackerTask> {
 
-    private final Task _task;
+    private final Project _project;
 
     private final ExtensionConfiguration _extensionConfiguration;
 
-    TexturePackerGradleConfiguration(final Task task, final ExtensionConfiguration extensionConfiguration) {
+    private final Provider<TexturePackerProcessService> _processServiceProvider;
+
+    private final Provider<BuildScanService> _buildScanServiceProvider;
+
+    TexturePackerGradleConfiguration(final Project project, final ExtensionConfiguration extensionConfiguration, final Provider<TexturePackerProcessService> processServiceProvider, final Provider<BuildScanService> buildScanServiceProvider) {
         super();
-        _task = task;
+        _project = project;
         _extensionConfiguration = extensionConfiguration;
+        _processServiceProvider = processServiceProvider;
+        _buildScanServiceProvider = buildScanServiceProvider;
     }
 
     @Override
-    public void execute(final Project project) {
-        addInputs();
-        addOutputs();
+    public void execute(final AbstractTexturePackerTask task) {
+        task.getParallel().set(_extensionConfiguration.getParallel());
+        task.getWorkers().set(_extensionConfiguration.getWorkers());
+        task.getIncremental().set(_extensionConfiguration.getIncremental());
+        task.getCache().set(_extensionConfiguration.getCache());
+        task.getCacheDir().set(_extensionConfiguration.getCacheDir());
+        task.getCacheSize().set(_extensionConfiguration.getCacheSize());
+        task.getRemoteCache().set(_extensionConfiguration.getRemoteCache());
+        task.getRemoteCachePush().set(_extensionConfiguration.getRemoteCachePush());
+        task.getOptimizePng().set(_extensionConfiguration.getOptimizePng());
+        task.getProcessTimeout().set(_extensionConfiguration.getProcessTimeout());
+        task.getRetries().set(_extensionConfiguration.getRetries());
+        task.getRetryExitCodes().set(_extensionConfiguration.getRetryExitCodes());
+        task.getRetryDelay().set(_extensionConfiguration.getRetryDelay());
+        task.getFailFast().set(_extensionConfiguration.getFailFast());
+        task.getBatch().set(_extensionConfiguration.getBatch());
+        task.getBatchSize().set(_extensionConfiguration.getBatchSize());
+        task.getMetrics().set(_extensionConfiguration.getMetrics());
+        task.getBuildScanValues().set(_extensionConfiguration.getBuildScanValues());
+        task.getWatchDebounce().set(_extensionConfiguration.getWatchDebounce());
+        task.getWatchMarker().set(_extensionConfiguration.getWatchMarker());
+
+        StartParameter startParameter = _project.getGradle().getStartParameter();
+        task.getMaxWorkerCount().set(startParameter.getMaxWorkerCount());
+        task.getRerunTasks().set(startParameter.isRerunTasks());
+        task.getProcessService().set(_processServiceProvider);
+        task.getWorkDir().set(_project.getLayout().getBuildDirectory().dir(TexturePackerGradlePlugin.BUILD_DIR_NAME));
+        task.getBuildScanService().set(_buildScanServiceProvider);
+        Object buildScanExtension = _project.getRootProject().getExtensions().findByName(BuildScanValues.EXTENSION_NAME);
+        if (buildScanExtension != null) {
+            _buildScanServiceProvider.get().setBuildScanExtension(buildScanExtension);
+        }
+        _project.getGradle().getTaskGraph().whenReady(new PackingJobsReset(task));
+
+        TaskContainer tasks = _project.getTasks();
+        task.mustRunAfter(new OptionalTaskCallable(tasks, "imageMagick"));
     }
 
-    private void addInputs() {
-        TaskInputs taskInputs = _task.getInputs();
-        Set<String> uniquePaths = new HashSet<>();
-        List<PipelineConfiguration> pipelineConfigurations = _extensionConfiguration.getPipelineConfigurations();
-        for (PipelineConfiguration pipelineConfiguration : pipelineConfigurations) {
-            File file = pipelineConfiguration.getSourceDir();
-            if (file == null) {
-                continue;
-            }
-            String path = file.getAbsolutePath();
-            if (uniquePaths.contains(path)) {
-                continue;
-            }
-            uniquePaths.add(path);
-            taskInputs.dir(file);
-            if (Logger.isDebugEnabled()) {
-                Logger.debug("Input \"" + path + "\" is added");
-            }
+    /**
+     * Action to reset the packing jobs, created while the task graph is built, so the packing jobs are created
+     * again, when the task is executed.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class PackingJobsReset implements Action<TaskExecutionGraph> {
+
+        private final AbstractTexturePackerTask _task;
+
+        PackingJobsReset(final AbstractTexturePackerTask task) {
+            super();
+            _task = task;
         }
+
+        @Override
+        public void execute(final TaskExecutionGraph taskExecutionGraph) {
+            _task.resetPackingJobs();
+        }
+
     }
 
-    private void addOutputs() {
-        TaskOutputs taskOutputs = _task.getOutputs();
-        Set<String> uniquePaths = new HashSet<>();
-        List<PipelineConfiguration> pipelineConfigurations = _extensionConfiguration.getPipelineConfigurations();
-        for (PipelineConfiguration pipelineConfiguration : pipelineConfigurations) {
-            File file = pipelineConfiguration.getDestinationDir();
-            if (file == null) {
-                continue;
-            }
-            String path = file.getAbsolutePath();
-            if (uniquePaths.contains(path)) {
-                continue;
-            }
-            uniquePaths.add(path);
-            taskOutputs.dir(file);
-            if (Logger.isDebugEnabled()) {
-                Logger.debug("Output \"" + path + "\" is added");
+    /**
+     * Callable to resolve the task, if the task exists.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class OptionalTaskCallable implements Callable<Object> {
+
+        private final TaskContainer _tasks;
+
+        private final String _taskName;
+
+        OptionalTaskCallable(final TaskContainer tasks, final String taskName) {
+            super();
+            _tasks = tasks;
+            _taskName = taskName;
+        }
+
+        @Override
+        public Object call() {
+            if (_tasks.getNames().contains(_taskName)) {
+                return _tasks.named(_taskName);
+            } else {
+                return Collections.emptyList();
             }
         }
+
     }
 
 }
@@ -19,13 +19,26 @@
 ///////////////////////////////////////////////////////////////////////////////////////////////////
 package ru.d_shap.gradle.plugin.texturepacker;
 
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.gradle.api.Action;
+import org.gradle.api.InvalidUserDataException;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
 import org.gradle.api.Task;
-import org.gradle.api.UnknownTaskException;
+import org.gradle.api.file.Directory;
+import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.plugins.ExtensionContainer;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.api.services.BuildServiceRegistry;
+import org.gradle.api.services.BuildServiceSpec;
 import org.gradle.api.tasks.TaskContainer;
+import org.gradle.api.tasks.TaskProvider;
 
 import ru.d_shap.gradle.plugin.texturepacker.configuration.ExtensionConfiguration;
 
@@ -38,8 +51,18 @@ public class TexturePackerGradlePlugin implements Plugin<Project> {
 
     static final String TASK_NAME = "texturePacker";
 
+    static final String WATCH_TASK_NAME = "texturePackerWatch";
+
+    static final String PLAN_TASK_NAME = "texturePackerPlan";
+
+    static final String CLEAN_CACHE_TASK_NAME = "cleanTexturePackerCache";
+
     static final String EXTENSION_NAME = "texturepacker";
 
+    static final String BUILD_DIR_NAME = "texturepacker";
+
+    private static final String CACHES_DIR_NAME = "caches";
+
     /**
      * Create new object.
      */
@@ -49,53 +72,178 @@ public class TexturePackerGradlePlugin implements Plugin<Project> {
 
     @Override
     public void apply(final Project project) {
-        Task task = project.task(TASK_NAME);
-        addDependencies(project, task);
-
         ExtensionConfiguration extensionConfiguration = getExtensionConfiguration(project);
+        setCacheDirConvention(project, extensionConfiguration);
+        Provider<TexturePackerProcessService> processServiceProvider = registerProcessService(project);
+        Provider<BuildScanService> buildScanServiceProvider = registerBuildScanService(project);
+
+        TaskContainer tasks = project.getTasks();
+        TaskProvider<TexturePackerTask> taskProvider = tasks.register(TASK_NAME, TexturePackerTask.class, extensionConfiguration.getPipelineConfigurations());
+        taskProvider.configure(new TexturePackerGradleConfiguration(project, extensionConfiguration, processServiceProvider, buildScanServiceProvider));
+        addDependencies(tasks, taskProvider);
+
+        TaskProvider<TexturePackerWatchTask> watchTaskProvider = tasks.register(WATCH_TASK_NAME, TexturePackerWatchTask.class, extensionConfiguration.getPipelineConfigurations());
+        watchTaskProvider.configure(new TexturePackerGradleConfiguration(project, extensionConfiguration, processServiceProvider, buildScanServiceProvider));
 
-        addTaskAction(task, extensionConfiguration);
-        addProjectAction(project, task, extensionConfiguration);
+        TaskProvider<TexturePackerPlanTask> planTaskProvider = tasks.register(PLAN_TASK_NAME, TexturePackerPlanTask.class, extensionConfiguration.getPipelineConfigurations());
+        planTaskProvider.configure(new TexturePackerGradleConfiguration(project, extensionConfiguration, processServiceProvider, buildScanServiceProvider));
+
+        TaskProvider<Task> cleanCacheTaskProvider = tasks.register(CLEAN_CACHE_TASK_NAME);
+        cleanCacheTaskProvider.configure(new CleanCacheTaskConfiguration(extensionConfiguration.getCacheDir()));
     }
 
-    private void addDependencies(final Project project, final Task task) {
-        TaskContainer tasks = project.getTasks();
-        addDependency(tasks, "processResources", task);
-        addDependency(tasks, "compileJava", task);
-        addMustRunAfter(tasks, "imageMagick", task);
+    private ExtensionConfiguration getExtensionConfiguration(final Project project) {
+        ExtensionContainer extensions = project.getExtensions();
+        return extensions.create(EXTENSION_NAME, ExtensionConfiguration.class);
+    }
+
+    private void setCacheDirConvention(final Project project, final ExtensionConfiguration extensionConfiguration) {
+        File gradleUserHomeDir = project.getGradle().getGradleUserHomeDir();
+        File cachesDir = new File(gradleUserHomeDir, CACHES_DIR_NAME);
+        File cacheDir = new File(cachesDir, BUILD_DIR_NAME);
+        Directory cacheDirectory = project.getLayout().getProjectDirectory().dir(cacheDir.getAbsolutePath());
+        extensionConfiguration.getCacheDir().convention(cacheDirectory);
     }
 
-    private void addDependency(final TaskContainer tasks, final String otherTaskName, final Task task) {
+    private Provider<TexturePackerProcessService> registerProcessService(final Project project) {
+        BuildServiceRegistry sharedServices = project.getGradle().getSharedServices();
+        int maxProcesses = getMaxProcesses(project);
+        long memoryBudget = getMemoryBudget(project);
+        return sharedServices.registerIfAbsent(TexturePackerProcessService.NAME, TexturePackerProcessService.class, new ProcessServiceConfiguration(maxProcesses, memoryBudget));
+    }
+
+    private Provider<BuildScanService> registerBuildScanService(final Project project) {
+        BuildServiceRegistry sharedServices = project.getGradle().getSharedServices();
+        return sharedServices.registerIfAbsent(BuildScanService.NAME, BuildScanService.class, new BuildScanServiceConfiguration());
+    }
+
+    private int getMaxProcesses(final Project project) {
+        Object value = project.getRootProject().findProperty(TexturePackerProcessService.MAX_PROCESSES_PROPERTY_NAME);
+        if (value == null) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        int maxProcesses;
         try {
-            Task otherTask = tasks.getByName(otherTaskName);
-            otherTask.dependsOn(task);
-        } catch (UnknownTaskException ex) {
-            // Ignore
+            maxProcesses = Integer.parseInt(value.toString().trim());
+        } catch (NumberFormatException ex) {
+            throw new InvalidUserDataException("Property " + TexturePackerProcessService.MAX_PROCESSES_PROPERTY_NAME + " should be a number: " + value, ex);
+        }
+        if (maxProcesses <= 0) {
+            throw new InvalidUserDataException("Property " + TexturePackerProcessService.MAX_PROCESSES_PROPERTY_NAME + " should be positive: " + value);
         }
+        return maxProcesses;
     }
 
-    private void addMustRunAfter(final TaskContainer tasks, final String otherTaskName, final Task task) {
+    private long getMemoryBudget(final Project project) {
+        Object value = project.getRootProject().findProperty(TexturePackerProcessService.MEMORY_BUDGET_PROPERTY_NAME);
+        if (value == null) {
+            return 0L;
+        }
+        long memoryBudget;
         try {
-            Task otherTask = tasks.getByName(otherTaskName);
-            task.mustRunAfter(otherTask);
-        } catch (UnknownTaskException ex) {
-            // Ignore
+            memoryBudget = Long.parseLong(value.toString().trim());
+        } catch (NumberFormatException ex) {
+            throw new InvalidUserDataException("Property " + TexturePackerProcessService.MEMORY_BUDGET_PROPERTY_NAME + " should be a number: " + value, ex);
+        }
+        if (memoryBudget < 0L) {
+            throw new InvalidUserDataException("Property " + TexturePackerProcessService.MEMORY_BUDGET_PROPERTY_NAME + " should not be negative: " + value);
         }
+        return memoryBudget;
     }
 
-    private ExtensionConfiguration getExtensionConfiguration(final Project project) {
-        ExtensionContainer extensions = project.getExtensions();
-        return extensions.create(EXTENSION_NAME, ExtensionConfiguration.class, project);
+    private void addDependencies(final TaskContainer tasks, final TaskProvider<TexturePackerTask> taskProvider) {
+        Set<String> dependentTaskNames = new HashSet<>(Arrays.asList("processResources", "compileJava"));
+        tasks.configureEach(new DependsOnAction(Collections.unmodifiableSet(dependentTaskNames), taskProvider));
     }
 
-    private void addTaskAction(final Task task, final ExtensionConfiguration extensionConfiguration) {
-        Action<Task> action = new TexturePackerGradleAction(extensionConfiguration);
-        task.doLast(action);
+    /**
+     * Action to add the dependency on the TexturePacker task to the dependent tasks, when they are realized.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class DependsOnAction implements Action<Task> {
+
+        private final Set<String> _dependentTaskNames;
+
+        private final TaskProvider<TexturePackerTask> _taskProvider;
+
+        DependsOnAction(final Set<String> dependentTaskNames, final TaskProvider<TexturePackerTask> taskProvider) {
+            super();
+            _dependentTaskNames = dependentTaskNames;
+            _taskProvider = taskProvider;
+        }
+
+        @Override
+        public void execute(final Task task) {
+            if (_dependentTaskNames.contains(task.getName())) {
+                task.dependsOn(_taskProvider);
+            }
+        }
+
+    }
+
+    /**
+     * Action to configure the build service to limit the number of the TexturePacker processes.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class ProcessServiceConfiguration implements Action<BuildServiceSpec<TexturePackerProcessService.Parameters>> {
+
+        private final int _maxProcesses;
+
+        private final long _memoryBudget;
+
+        ProcessServiceConfiguration(final int maxProcesses, final long memoryBudget) {
+            super();
+            _maxProcesses = maxProcesses;
+            _memoryBudget = memoryBudget;
+        }
+
+        @Override
+        public void execute(final BuildServiceSpec<TexturePackerProcessService.Parameters> spec) {
+            spec.getParameters().getMaxProcesses().set(_maxProcesses);
+            spec.getParameters().getMemoryBudget().set(_memoryBudget);
+        }
+
     }
 
-    private void addProjectAction(final Project project, final Task task, final ExtensionConfiguration extensionConfiguration) {
-        Action<Project> action = new TexturePackerGradleConfiguration(task, extensionConfiguration);
-        project.afterEvaluate(action);
+    /**
+     * Action to configure the build service to keep the build scan extension.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class BuildScanServiceConfiguration implements Action<BuildServiceSpec<BuildServiceParameters.None>> {
+
+        BuildScanServiceConfiguration() {
+            super();
+        }
+
+        @Override
+        public void execute(final BuildServiceSpec<BuildServiceParameters.None> spec) {
+            // The build service has no parameters
+        }
+
+    }
+
+    /**
+     * Action to configure the task to delete the local cache.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class CleanCacheTaskConfiguration implements Action<Task> {
+
+        private final DirectoryProperty _cacheDir;
+
+        CleanCacheTaskConfiguration(final DirectoryProperty cacheDir) {
+            super();
+            _cacheDir = cacheDir;
+        }
+
+        @Override
+        public void execute(final Task task) {
+            task.doLast(new CleanCacheAction(_cacheDir));
+        }
+
     }
 
 }
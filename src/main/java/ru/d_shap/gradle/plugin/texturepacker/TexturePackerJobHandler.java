@@ -0,0 +1,501 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import ru.d_shap.gradle.plugin.texturepacker.backend.PackerBackend;
+import ru.d_shap.gradle.plugin.texturepacker.backend.PackerRequest;
+import ru.d_shap.gradle.plugin.texturepacker.backend.PackerResult;
+import ru.d_shap.gradle.plugin.texturepacker.binary.BinaryAtlasConverter;
+import ru.d_shap.gradle.plugin.texturepacker.configuration.Parameter;
+import ru.d_shap.gradle.plugin.texturepacker.png.PngOptimizer;
+
+/**
+ * The packing job handler to process the source directory with the packer backend of the pipeline.
+ * The source directory is skipped if neither the directory content nor the parameters are changed since
+ * the last run, and the created files still exist.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class TexturePackerJobHandler implements PackingJobExecutor.PackingJobHandler {
+
+    static final String REASON_NOT_INCREMENTAL = "not incremental";
+
+    static final String REASON_NEW = "new";
+
+    static final String REASON_INPUTS_CHANGED = "inputs changed";
+
+    static final String REASON_PARAMETERS_CHANGED = "parameters changed";
+
+    static final String REASON_OUTPUT_MISSING = "output missing";
+
+    static final String REASON_FAILED = "failed";
+
+    private final JobManifest _jobManifest;
+
+    private final boolean _incremental;
+
+    private final AtlasCache _atlasCache;
+
+    private final SheetOptimizer _sheetOptimizer;
+
+    private final PackerBackends _packerBackends;
+
+    private final MemoryBudget _memoryBudget;
+
+    private final ExecutionStatistics _executionStatistics;
+
+    private final MetricsRecorder _metricsRecorder;
+
+    TexturePackerJobHandler(final JobManifest jobManifest, final boolean incremental, final AtlasCache atlasCache, final SheetOptimizer sheetOptimizer, final PackerBackends packerBackends, final MemoryBudget memoryBudget, final ExecutionStatistics executionStatistics, final MetricsRecorder metricsRecorder) {
+        super();
+        _jobManifest = jobManifest;
+        _incremental = incremental;
+        _atlasCache = atlasCache;
+        _sheetOptimizer = sheetOptimizer;
+        _packerBackends = packerBackends;
+        _memoryBudget = memoryBudget;
+        _executionStatistics = executionStatistics;
+        _metricsRecorder = metricsRecorder;
+    }
+
+    @Override
+    public void handle(final PackingJob packingJob, final JobLog jobLog) {
+        PreparedJob preparedJob = prepare(packingJob, jobLog);
+        if (preparedJob != null) {
+            boolean processed = execute(preparedJob, jobLog);
+            finish(preparedJob, processed, jobLog);
+        }
+    }
+
+    PreparedJob prepare(final PackingJob packingJob, final JobLog jobLog) {
+        String inputsFingerprint = getInputsFingerprint(packingJob, jobLog);
+        String parametersFingerprint = getParametersFingerprint(packingJob, _sheetOptimizer != null);
+        String reason = getReason(_jobManifest, _incremental, packingJob, inputsFingerprint, parametersFingerprint);
+        if (reason == null) {
+            if (jobLog.isInfoEnabled()) {
+                jobLog.info("Directory " + packingJob.getSourceDir().getAbsolutePath() + " is up-to-date");
+            }
+            _metricsRecorder.getJobMetrics(packingJob).setOutcome(JobMetrics.OUTCOME_UP_TO_DATE);
+            return null;
+        }
+        if (jobLog.isDebugEnabled()) {
+            jobLog.debug("Directory " + packingJob.getSourceDir().getAbsolutePath() + " is processed, reason: " + reason);
+        }
+
+        _jobManifest.putIncompleteEntry(getManifestKey(packingJob), packingJob.getOutputFiles());
+        packingJob.getSheetFile().getParentFile().mkdirs();
+        packingJob.getDataFile().getParentFile().mkdirs();
+        String cacheKey = getCacheKey(packingJob, jobLog);
+        PreparedJob preparedJob = new PreparedJob(packingJob, inputsFingerprint, parametersFingerprint, cacheKey);
+        if (restoreFromCache(cacheKey, packingJob, jobLog)) {
+            if (writeBinaryData(packingJob, jobLog) && writeIndex(packingJob, jobLog)) {
+                putManifestEntry(preparedJob);
+                _metricsRecorder.getJobMetrics(packingJob).setOutcome(JobMetrics.OUTCOME_CACHED);
+                return null;
+            } else {
+                _executionStatistics.incrementFailureCount();
+                _metricsRecorder.getJobMetrics(packingJob).setOutcome(JobMetrics.OUTCOME_FAILED);
+                throw createFailure(packingJob, jobLog);
+            }
+        }
+        return preparedJob;
+    }
+
+    boolean execute(final PreparedJob preparedJob, final JobLog jobLog) {
+        jobLog.takeLastErrorMessage();
+        PackingJob packingJob = preparedJob.getPackingJob();
+        PackerBackend packerBackend = _packerBackends.get(packingJob.getPacker());
+        File sourceDir = stage(packingJob, jobLog);
+        if (sourceDir == null) {
+            _executionStatistics.incrementFailureCount();
+            return false;
+        }
+        PackerRequest packerRequest = new PackerRequest(packingJob.getPipelineName(), packingJob.getName(), sourceDir, packingJob.getSheetFile(), packingJob.getDataFile(), packingJob.getParameters());
+        PackerResult packerResult;
+        long reservedMemory = 0L;
+        try {
+            reservedMemory = reserveMemory(packingJob, jobLog);
+            if (reservedMemory < 0L) {
+                _executionStatistics.incrementFailureCount();
+                return false;
+            }
+            packerResult = packerBackend.pack(packerRequest, jobLog);
+        } finally {
+            releaseMemory(reservedMemory);
+            unstage(packingJob, jobLog);
+        }
+        _executionStatistics.addExecutionCount(packerResult.getExecutionCount());
+        _metricsRecorder.getJobMetrics(packingJob).addPackerResult(packerResult);
+        if (packerResult.isSuccessful()) {
+            if (jobLog.isDebugEnabled()) {
+                jobLog.debug("Directory " + packingJob.getSourceDir().getAbsolutePath() + " is processed with " + packingJob.getPacker() + " in " + packerResult.getDuration() + " ms");
+            }
+            logProcessed(packingJob, jobLog);
+            return true;
+        } else {
+            _executionStatistics.incrementFailureCount();
+            return false;
+        }
+    }
+
+    private long reserveMemory(final PackingJob packingJob, final JobLog jobLog) {
+        if (_memoryBudget == null || !packingJob.isTexturePacker()) {
+            return 0L;
+        }
+        try {
+            return _memoryBudget.acquire(Collections.singletonList(packingJob), packingJob.getPipelineName() + ':' + packingJob.getName(), jobLog);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            if (jobLog.isErrorEnabled()) {
+                jobLog.error("Waiting for the memory of " + packingJob.getSourceDir().getAbsolutePath() + " is interrupted", ex);
+            }
+            return -1L;
+        }
+    }
+
+    private void releaseMemory(final long reservedMemory) {
+        if (reservedMemory > 0L) {
+            _memoryBudget.release(reservedMemory);
+        }
+    }
+
+    void finish(final PreparedJob preparedJob, final boolean processed, final JobLog jobLog) {
+        PackingJob packingJob = preparedJob.getPackingJob();
+        JobMetrics jobMetrics = _metricsRecorder.getJobMetrics(packingJob);
+        if (!processed) {
+            jobMetrics.setOutcome(JobMetrics.OUTCOME_FAILED);
+            throw createFailure(packingJob, jobLog);
+        }
+        if (_sheetOptimizer != null) {
+            _sheetOptimizer.optimize(packingJob, jobLog);
+        }
+        storeToCache(preparedJob.getCacheKey(), packingJob, jobLog);
+        if (writeBinaryData(packingJob, jobLog) && writeIndex(packingJob, jobLog)) {
+            putManifestEntry(preparedJob);
+            jobMetrics.setOutcome(JobMetrics.OUTCOME_PROCESSED);
+        } else {
+            _executionStatistics.incrementFailureCount();
+            jobMetrics.setOutcome(JobMetrics.OUTCOME_FAILED);
+            throw createFailure(packingJob, jobLog);
+        }
+    }
+
+    private File stage(final PackingJob packingJob, final JobLog jobLog) {
+        SplitGroup splitGroup = packingJob.getSplitGroup();
+        if (splitGroup == null) {
+            return packingJob.getSourceDir();
+        }
+        try {
+            splitGroup.stage(packingJob.getSourceDir());
+            if (jobLog.isDebugEnabled()) {
+                jobLog.debug("Group " + splitGroup.getNumber() + " of " + packingJob.getSourceDir().getAbsolutePath() + " is staged with " + splitGroup.getFileNames().size() + " files");
+            }
+            return splitGroup.getStagingDir();
+        } catch (IOException ex) {
+            if (jobLog.isErrorEnabled()) {
+                jobLog.error("Exception in group " + splitGroup.getNumber() + " staging for " + packingJob.getSourceDir().getAbsolutePath(), ex);
+            }
+            return null;
+        }
+    }
+
+    private void unstage(final PackingJob packingJob, final JobLog jobLog) {
+        SplitGroup splitGroup = packingJob.getSplitGroup();
+        if (splitGroup == null) {
+            return;
+        }
+        try {
+            splitGroup.unstage();
+        } catch (IOException ex) {
+            if (jobLog.isDebugEnabled()) {
+                jobLog.debug("Staging directory " + splitGroup.getStagingDir().getAbsolutePath() + " can't be deleted: " + ex);
+            }
+        }
+    }
+
+    private PackingFailureException createFailure(final PackingJob packingJob, final JobLog jobLog) {
+        String message = jobLog.takeLastErrorMessage();
+        if (message == null) {
+            message = "Directory is not processed with " + packingJob.getPacker();
+        }
+        String failure = packingJob.getSourceDir().getAbsolutePath();
+        if (packingJob.getSplitGroup() != null) {
+            failure += " (group " + packingJob.getSplitGroup().getNumber() + ")";
+        }
+        failure += ": " + message;
+        return new PackingFailureException(Collections.singletonList(failure));
+    }
+
+    private boolean writeBinaryData(final PackingJob packingJob, final JobLog jobLog) {
+        File binaryFile = packingJob.getBinaryFile();
+        if (binaryFile == null) {
+            return true;
+        }
+        try {
+            BinaryAtlasConverter.convert(packingJob.getDataFile(), binaryFile);
+            if (jobLog.isInfoEnabled()) {
+                jobLog.info("File " + binaryFile.getAbsolutePath() + " is created");
+            }
+            return true;
+        } catch (IOException ex) {
+            if (jobLog.isErrorEnabled()) {
+                jobLog.error("Exception in binary atlas writing for " + packingJob.getDataFile().getAbsolutePath(), ex);
+            }
+            return false;
+        }
+    }
+
+    private boolean writeIndex(final PackingJob packingJob, final JobLog jobLog) {
+        File indexFile = packingJob.getIndexFile();
+        if (indexFile == null) {
+            return true;
+        }
+        try {
+            packingJob.getSplitGroup().getSplitIndex().write();
+            if (jobLog.isInfoEnabled()) {
+                jobLog.info("File " + indexFile.getAbsolutePath() + " is created");
+            }
+            return true;
+        } catch (IOException ex) {
+            if (jobLog.isErrorEnabled()) {
+                jobLog.error("Exception in index writing for " + packingJob.getSourceDir().getAbsolutePath(), ex);
+            }
+            return false;
+        }
+    }
+
+    private void putManifestEntry(final PreparedJob preparedJob) {
+        if (preparedJob.getInputsFingerprint() == null) {
+            return;
+        }
+        PackingJob packingJob = preparedJob.getPackingJob();
+        List<String> outputs = new ArrayList<>();
+        for (File outputFile : packingJob.getOutputFiles()) {
+            outputs.add(outputFile.getAbsolutePath());
+        }
+        JobManifest.Entry entry = new JobManifest.Entry(preparedJob.getInputsFingerprint(), preparedJob.getParametersFingerprint(), outputs);
+        _jobManifest.putEntry(getManifestKey(packingJob), entry);
+    }
+
+    static String getManifestKey(final PackingJob packingJob) {
+        return packingJob.getSheetFile().getAbsolutePath();
+    }
+
+    static String getInputsFingerprint(final PackingJob packingJob, final JobLog jobLog) {
+        try {
+            return Fingerprints.getDirFingerprint(packingJob.getSourceDir());
+        } catch (IOException ex) {
+            if (jobLog.isDebugEnabled()) {
+                jobLog.debug("Fingerprint of " + packingJob.getSourceDir().getAbsolutePath() + " can't be computed: " + ex);
+            }
+            return null;
+        }
+    }
+
+    static String getParametersFingerprint(final PackingJob packingJob, final boolean optimizePng) {
+        List<String> values = new ArrayList<>();
+        values.add(packingJob.getPacker());
+        values.add("--sheet");
+        values.add(packingJob.getSheetFile().getAbsolutePath());
+        values.add("--data");
+        values.add(packingJob.getDataFile().getAbsolutePath());
+        if (packingJob.getBinaryFile() != null) {
+            values.add("--binary");
+            values.add(packingJob.getBinaryFile().getAbsolutePath());
+        }
+        for (Parameter parameter : packingJob.getParameters()) {
+            values.add("--" + parameter.getName());
+            values.addAll(Arrays.asList(parameter.getArgs()));
+        }
+        if (packingJob.getIndexFile() != null) {
+            values.add("--index");
+            values.add(packingJob.getIndexFile().getAbsolutePath());
+        }
+        values.add(packingJob.getSourceDir().getAbsolutePath());
+        addSplitGroup(values, packingJob);
+        addOptimizePng(values, optimizePng);
+        return Fingerprints.getFingerprint(values);
+    }
+
+    private static void addSplitGroup(final List<String> values, final PackingJob packingJob) {
+        SplitGroup splitGroup = packingJob.getSplitGroup();
+        if (splitGroup == null) {
+            return;
+        }
+        values.add("--split-group");
+        values.add(String.valueOf(splitGroup.getNumber()));
+        values.addAll(splitGroup.getFileNames());
+    }
+
+    private static void addOptimizePng(final List<String> values, final boolean optimizePng) {
+        if (!optimizePng) {
+            return;
+        }
+        values.add("--optimize-png");
+        values.add(PngOptimizer.VERSION);
+    }
+
+    static String getReason(final JobManifest jobManifest, final boolean incremental, final PackingJob packingJob, final String inputsFingerprint, final String parametersFingerprint) {
+        if (!incremental) {
+            return REASON_NOT_INCREMENTAL;
+        }
+        JobManifest.Entry entry = jobManifest.getEntry(getManifestKey(packingJob));
+        if (entry == null) {
+            return REASON_NEW;
+        }
+        if (entry.isIncomplete()) {
+            return REASON_FAILED;
+        }
+        if (inputsFingerprint == null || !inputsFingerprint.equals(entry.getInputs())) {
+            return REASON_INPUTS_CHANGED;
+        }
+        if (!parametersFingerprint.equals(entry.getParameters())) {
+            return REASON_PARAMETERS_CHANGED;
+        }
+        for (String output : entry.getOutputs()) {
+            if (!new File(output).isFile()) {
+                return REASON_OUTPUT_MISSING;
+            }
+        }
+        return null;
+    }
+
+    private String getCacheKey(final PackingJob packingJob, final JobLog jobLog) {
+        if (_atlasCache == null) {
+            return null;
+        }
+        String version = _packerBackends.get(packingJob.getPacker()).getVersion();
+        if (version == null) {
+            return null;
+        }
+        try {
+            List<String> values = new ArrayList<>();
+            values.add(Fingerprints.getDirContentFingerprint(packingJob.getSourceDir()));
+            values.add(version);
+            Path dataDirPath = packingJob.getDataFile().getAbsoluteFile().getParentFile().toPath();
+            Path sheetPath = packingJob.getSheetFile().getAbsoluteFile().toPath();
+            values.add(dataDirPath.relativize(sheetPath).toString().replace(File.separatorChar, '/'));
+            values.add(packingJob.getDataFile().getName());
+            for (Parameter parameter : packingJob.getParameters()) {
+                values.add("--" + parameter.getName());
+                values.addAll(Arrays.asList(parameter.getArgs()));
+            }
+            addSplitGroup(values, packingJob);
+            addOptimizePng(values, _sheetOptimizer != null);
+            return Fingerprints.getFingerprint(values);
+        } catch (IOException ex) {
+            if (jobLog.isDebugEnabled()) {
+                jobLog.debug("Cache key of " + packingJob.getSourceDir().getAbsolutePath() + " can't be computed: " + ex);
+            }
+            return null;
+        }
+    }
+
+    private boolean restoreFromCache(final String cacheKey, final PackingJob packingJob, final JobLog jobLog) {
+        if (cacheKey == null) {
+            return false;
+        }
+        try {
+            boolean restored = _atlasCache.restore(cacheKey, packingJob);
+            if (restored && jobLog.isInfoEnabled()) {
+                jobLog.info("Directory " + packingJob.getSourceDir().getAbsolutePath() + " is restored from cache");
+                jobLog.info("File " + packingJob.getSheetFile().getAbsolutePath() + " is created");
+                jobLog.info("File " + packingJob.getDataFile().getAbsolutePath() + " is created");
+            }
+            return restored;
+        } catch (IOException ex) {
+            if (jobLog.isErrorEnabled()) {
+                jobLog.error("Exception in cache entry restoring", ex);
+            }
+            return false;
+        }
+    }
+
+    private void storeToCache(final String cacheKey, final PackingJob packingJob, final JobLog jobLog) {
+        if (cacheKey == null) {
+            return;
+        }
+        try {
+            _atlasCache.store(cacheKey, packingJob);
+        } catch (IOException ex) {
+            if (jobLog.isErrorEnabled()) {
+                jobLog.error("Exception in cache entry storing", ex);
+            }
+        }
+    }
+
+    void logProcessed(final PackingJob packingJob, final JobLog jobLog) {
+        if (jobLog.isInfoEnabled()) {
+            jobLog.info("Directory " + packingJob.getSourceDir().getAbsolutePath() + " is processed");
+            jobLog.info("File " + packingJob.getSheetFile().getAbsolutePath() + " is created");
+            jobLog.info("File " + packingJob.getDataFile().getAbsolutePath() + " is created");
+        }
+    }
+
+    /**
+     * The source directory to process with the packer backend, that is neither up-to-date nor restored from the cache.
+     *
+     * @author Dmitry Shapovalov
+     */
+    static final class PreparedJob {
+
+        private final PackingJob _packingJob;
+
+        private final String _inputsFingerprint;
+
+        private final String _parametersFingerprint;
+
+        private final String _cacheKey;
+
+        PreparedJob(final PackingJob packingJob, final String inputsFingerprint, final String parametersFingerprint, final String cacheKey) {
+            super();
+            _packingJob = packingJob;
+            _inputsFingerprint = inputsFingerprint;
+            _parametersFingerprint = parametersFingerprint;
+            _cacheKey = cacheKey;
+        }
+
+        PackingJob getPackingJob() {
+            return _packingJob;
+        }
+
+        String getInputsFingerprint() {
+            return _inputsFingerprint;
+        }
+
+        String getParametersFingerprint() {
+            return _parametersFingerprint;
+        }
+
+        String getCacheKey() {
+            return _cacheKey;
+        }
+
+    }
+
+}
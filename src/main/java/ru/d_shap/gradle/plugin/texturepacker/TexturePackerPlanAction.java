@@ -0,0 +1,158 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.gradle.api.Action;
+import org.gradle.api.GradleException;
+
+import ru.d_shap.gradle.plugin.texturepacker.json.JsonWriter;
+
+/**
+ * TexturePacker gradle plan action. The source directories are planned and compared with the last run,
+ * every source directory is logged with the reason to process it. The plan is written to the JSON file.
+ * TexturePacker is not run, so the source directories, that can be restored from the cache, are also
+ * planned to process.
+ *
+ * @author Dmitry Shapovalov
+ */
+public class TexturePackerPlanAction implements Action<TexturePackerPlanTask> {
+
+    private static final String ACTION_PROCESS = "process";
+
+    private static final String ACTION_UP_TO_DATE = "up-to-date";
+
+    private static final String ACTION_COPY = "copy";
+
+    private static final String ACTION_SHARED = "shared";
+
+    /**
+     * Create new object.
+     */
+    public TexturePackerPlanAction() {
+        super();
+    }
+
+    @Override
+    public void execute(final TexturePackerPlanTask task) {
+        TexturePackerGradleAction action = new TexturePackerGradleAction();
+        List<PackingJob> packingJobs = task.createPackingJobs();
+        PackingJobDeduplicator packingJobDeduplicator = new PackingJobDeduplicator(packingJobs);
+        JobManifest jobManifest = JobManifest.load(action.getManifestFile(task));
+        boolean incremental = action.isIncremental(task);
+
+        JsonWriter jsonWriter = new JsonWriter();
+        jsonWriter.beginObject();
+        jsonWriter.name("directories").value(packingJobs.size());
+        jsonWriter.name("jobs").beginArray();
+        int processCount = 0;
+        for (PackingJob packingJob : packingJobs) {
+            jsonWriter.beginObject();
+            writePackingJob(jsonWriter, packingJob);
+            PackingJob uniqueJob = packingJobDeduplicator.getUniqueJob(packingJob);
+            if (uniqueJob == null) {
+                String inputsFingerprint = TexturePackerJobHandler.getInputsFingerprint(packingJob, new JobLog());
+                String parametersFingerprint = TexturePackerJobHandler.getParametersFingerprint(packingJob, task.getOptimizePng().get());
+                String reason = TexturePackerJobHandler.getReason(jobManifest, incremental, packingJob, inputsFingerprint, parametersFingerprint);
+                if (reason == null) {
+                    jsonWriter.name("action").value(ACTION_UP_TO_DATE);
+                    logPackingJob(packingJob, ACTION_UP_TO_DATE);
+                } else {
+                    processCount++;
+                    jsonWriter.name("action").value(ACTION_PROCESS);
+                    jsonWriter.name("reason").value(reason);
+                    logPackingJob(packingJob, ACTION_PROCESS + ", " + reason);
+                }
+            } else if (packingJobDeduplicator.isSameOutputJob(packingJob)) {
+                jsonWriter.name("action").value(ACTION_SHARED);
+                jsonWriter.name("sharedWith").value(uniqueJob.getPipelineName());
+                logPackingJob(packingJob, ACTION_SHARED + " with " + uniqueJob.getPipelineName());
+            } else {
+                jsonWriter.name("action").value(ACTION_COPY);
+                jsonWriter.name("copyFrom").value(uniqueJob.getPipelineName());
+                logPackingJob(packingJob, ACTION_COPY + " from " + uniqueJob.getPipelineName());
+            }
+            jsonWriter.endObject();
+        }
+        jsonWriter.endArray();
+
+        List<File> staleOutputFiles = TexturePackerGradleAction.getStaleOutputFiles(jobManifest, packingJobs);
+        jsonWriter.name("staleFiles").beginArray();
+        for (File staleOutputFile : staleOutputFiles) {
+            jsonWriter.value(staleOutputFile.getAbsolutePath());
+            if (Logger.isLifecycleEnabled()) {
+                Logger.lifecycle("File " + staleOutputFile.getAbsolutePath() + ": delete, stale");
+            }
+        }
+        jsonWriter.endArray();
+        jsonWriter.endObject();
+
+        File planFile = task.getPlanFile();
+        writePlan(planFile, jsonWriter.toString());
+        if (Logger.isLifecycleEnabled()) {
+            Logger.lifecycle(processCount + " of " + packingJobs.size() + " directories are planned to process, " + staleOutputFiles.size() + " stale files are planned to delete, the plan is written to " + planFile.getAbsolutePath());
+        }
+    }
+
+    private void writePackingJob(final JsonWriter jsonWriter, final PackingJob packingJob) {
+        jsonWriter.name("pipeline").value(packingJob.getPipelineName());
+        jsonWriter.name("name").value(packingJob.getName());
+        jsonWriter.name("sourceDir").value(packingJob.getSourceDir().getAbsolutePath());
+        jsonWriter.name("packer").value(packingJob.getPacker());
+        jsonWriter.name("sheet").value(packingJob.getSheetFile().getAbsolutePath());
+        jsonWriter.name("data").value(packingJob.getDataFile().getAbsolutePath());
+        if (packingJob.getBinaryFile() != null) {
+            jsonWriter.name("binary").value(packingJob.getBinaryFile().getAbsolutePath());
+        }
+        if (packingJob.getSplitGroup() != null) {
+            jsonWriter.name("group").value(packingJob.getSplitGroup().getNumber());
+        }
+        if (packingJob.getIndexFile() != null) {
+            jsonWriter.name("index").value(packingJob.getIndexFile().getAbsolutePath());
+        }
+    }
+
+    private void logPackingJob(final PackingJob packingJob, final String action) {
+        if (Logger.isLifecycleEnabled()) {
+            StringBuilder builder = new StringBuilder();
+            builder.append("Directory ").append(packingJob.getSourceDir().getAbsolutePath());
+            if (packingJob.getSplitGroup() != null) {
+                builder.append(" (group ").append(packingJob.getSplitGroup().getNumber()).append(')');
+            }
+            builder.append(" of pipeline ").append(packingJob.getPipelineName()).append(": ").append(action);
+            Logger.lifecycle(builder.toString());
+        }
+    }
+
+    private void writePlan(final File planFile, final String plan) {
+        try {
+            planFile.getAbsoluteFile().getParentFile().mkdirs();
+            Files.write(planFile.toPath(), (plan + "\n").getBytes(StandardCharsets.UTF_8));
+        } catch (IOException ex) {
+            throw new GradleException("Plan " + planFile.getAbsolutePath() + " can't be written", ex);
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.util.List;
+
+import javax.inject.Inject;
+
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.specs.Specs;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkerExecutor;
+
+import ru.d_shap.gradle.plugin.texturepacker.configuration.PipelineConfiguration;
+
+/**
+ * TexturePacker gradle plan task, logs the source directories to process without running TexturePacker.
+ * The plan depends on the state of the previous runs, so the task runs every time and is never cached.
+ *
+ * @author Dmitry Shapovalov
+ */
+public class TexturePackerPlanTask extends AbstractTexturePackerTask {
+
+    private static final String PLAN_FILE_NAME = "plan.json";
+
+    /**
+     * Create new object.
+     *
+     * @param pipelineConfigurations the pipeline configurations.
+     * @param objectFactory          the object factory.
+     * @param workerExecutor         the worker executor.
+     */
+    @Inject
+    public TexturePackerPlanTask(final List<PipelineConfiguration> pipelineConfigurations, final ObjectFactory objectFactory, final WorkerExecutor workerExecutor) {
+        super(pipelineConfigurations, objectFactory, workerExecutor);
+        getOutputs().upToDateWhen(Specs.SATISFIES_NONE);
+    }
+
+    /**
+     * Get the file to write the plan.
+     *
+     * @return the file to write the plan.
+     */
+    @OutputFile
+    public File getPlanFile() {
+        return new File(getWorkDir().get().getAsFile(), PLAN_FILE_NAME);
+    }
+
+    /**
+     * Plan the source directories and log the reason to process every source directory.
+     */
+    @TaskAction
+    public void process() {
+        TexturePackerPlanAction action = new TexturePackerPlanAction();
+        action.execute(this);
+    }
+
+}
@@ -0,0 +1,143 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.gradle.api.provider.Property;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+/**
+ * The build service, shared by all TexturePacker tasks of the build, to limit the number of the
+ * TexturePacker processes, running at the same time across all projects of the build. The service also
+ * keeps the memory reservations of the TexturePacker processes of all projects against the single memory
+ * budget of the build.
+ *
+ * @author Dmitry Shapovalov
+ */
+public abstract class TexturePackerProcessService implements BuildService<TexturePackerProcessService.Parameters> {
+
+    static final String NAME = "texturePackerProcesses";
+
+    static final String MAX_PROCESSES_PROPERTY_NAME = "texturepacker.maxProcesses";
+
+    static final String MEMORY_BUDGET_PROPERTY_NAME = "texturepacker.memoryBudget";
+
+    private static final long BYTES_IN_MEGABYTE = 1024L * 1024L;
+
+    private final AtomicReference<Semaphore> _semaphore;
+
+    private final Object _memoryLock;
+
+    private long _reservedMemory;
+
+    /**
+     * Create new object.
+     */
+    public TexturePackerProcessService() {
+        super();
+        _semaphore = new AtomicReference<>();
+        _memoryLock = new Object();
+        _reservedMemory = 0L;
+    }
+
+    /**
+     * Get the maximum number of the TexturePacker processes, running at the same time.
+     *
+     * @return the maximum number of the TexturePacker processes.
+     */
+    public int getMaxProcesses() {
+        return getParameters().getMaxProcesses().get();
+    }
+
+    /**
+     * Get the memory budget of the TexturePacker processes, running at the same time.
+     *
+     * @return the memory budget in bytes, zero means no budget.
+     */
+    public long getMaxMemory() {
+        return getParameters().getMemoryBudget().get() * BYTES_IN_MEGABYTE;
+    }
+
+    long acquire() throws InterruptedException {
+        long startNanoTime = System.nanoTime();
+        getSemaphore().acquire();
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanoTime);
+    }
+
+    void release() {
+        getSemaphore().release();
+    }
+
+    long acquireMemory(final long memory) throws InterruptedException {
+        long maxMemory = getMaxMemory();
+        long startNanoTime = System.nanoTime();
+        synchronized (_memoryLock) {
+            while (_reservedMemory + memory > maxMemory) {
+                _memoryLock.wait();
+            }
+            _reservedMemory += memory;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanoTime);
+    }
+
+    void releaseMemory(final long memory) {
+        synchronized (_memoryLock) {
+            _reservedMemory -= memory;
+            _memoryLock.notifyAll();
+        }
+    }
+
+    private Semaphore getSemaphore() {
+        Semaphore semaphore = _semaphore.get();
+        if (semaphore == null) {
+            _semaphore.compareAndSet(null, new Semaphore(getMaxProcesses(), true));
+            semaphore = _semaphore.get();
+        }
+        return semaphore;
+    }
+
+    /**
+     * The parameters of the build service.
+     *
+     * @author Dmitry Shapovalov
+     */
+    public interface Parameters extends BuildServiceParameters {
+
+        /**
+         * Get the maximum number of the TexturePacker processes, running at the same time.
+         *
+         * @return the maximum number of the TexturePacker processes.
+         */
+        Property<Integer> getMaxProcesses();
+
+        /**
+         * Get the memory budget of the TexturePacker processes, running at the same time, in megabytes.
+         *
+         * @return the memory budget in megabytes, zero means no budget.
+         */
+        Property<Long> getMemoryBudget();
+
+    }
+
+}
@@ -0,0 +1,261 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+
+import javax.inject.Inject;
+
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.ConfigurableFileTree;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.file.FileTree;
+import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.ProviderFactory;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputFiles;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkerExecutor;
+
+import ru.d_shap.gradle.plugin.texturepacker.configuration.Parameter;
+import ru.d_shap.gradle.plugin.texturepacker.configuration.PipelineConfiguration;
+import ru.d_shap.gradle.plugin.texturepacker.png.PngOptimizer;
+
+/**
+ * TexturePacker gradle task.
+ *
+ * @author Dmitry Shapovalov
+ */
+@CacheableTask
+public class TexturePackerTask extends AbstractTexturePackerTask {
+
+    private static final String UNKNOWN_VERSION = "unknown";
+
+    private final ObjectFactory _objectFactory;
+
+    private final File _projectDir;
+
+    private final ProviderFactory _providerFactory;
+
+    /**
+     * Create new object.
+     *
+     * @param pipelineConfigurations the pipeline configurations.
+     * @param objectFactory          the object factory.
+     * @param projectLayout          the project layout.
+     * @param providerFactory        the provider factory.
+     * @param workerExecutor         the worker executor.
+     */
+    @Inject
+    public TexturePackerTask(final List<PipelineConfiguration> pipelineConfigurations, final ObjectFactory objectFactory, final ProjectLayout projectLayout, final ProviderFactory providerFactory, final WorkerExecutor workerExecutor) {
+        super(pipelineConfigurations, objectFactory, workerExecutor);
+        _objectFactory = objectFactory;
+        _projectDir = projectLayout.getProjectDirectory().getAsFile();
+        _providerFactory = providerFactory;
+    }
+
+    /**
+     * Get the flag to optimize the created PNG sheets.
+     *
+     * @return the flag to optimize the created PNG sheets.
+     */
+    @Input
+    @Override
+    public Property<Boolean> getOptimizePng() {
+        return super.getOptimizePng();
+    }
+
+    /**
+     * Get the version of the PNG optimizer, if the created PNG sheets are optimized.
+     *
+     * @return the version of the PNG optimizer or null, if the created PNG sheets are not optimized.
+     */
+    @Input
+    @Optional
+    public String getPngOptimizerVersion() {
+        if (getOptimizePng().get()) {
+            return PngOptimizer.VERSION;
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Get the images of the source directories to process.
+     *
+     * @return the images of the source directories to process.
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public FileCollection getSourceFiles() {
+        ConfigurableFileCollection sourceFiles = _objectFactory.fileCollection();
+        sourceFiles.from(_providerFactory.provider(new SourceFilesCallable()));
+        return sourceFiles;
+    }
+
+    /**
+     * Get the packers, the split flags and the parameters of the pipelines.
+     *
+     * @return the packers, the split flags and the parameters of the pipelines.
+     */
+    @Input
+    public List<String> getParameters() {
+        List<String> result = new ArrayList<>();
+        for (PipelineConfiguration pipelineConfiguration : getPipelineConfigurations()) {
+            StringBuilder builder = new StringBuilder();
+            builder.append(pipelineConfiguration.getName()).append(" (").append(pipelineConfiguration.getPacker().get());
+            if (pipelineConfiguration.getSplit().get()) {
+                builder.append(", split");
+            }
+            builder.append("):");
+            for (Parameter parameter : pipelineConfiguration.getParameterConfiguration().getParameters()) {
+                builder.append(" --").append(parameter.getName());
+                for (String arg : parameter.getArgs()) {
+                    builder.append(' ').append(arg);
+                }
+            }
+            result.add(builder.toString());
+        }
+        return result;
+    }
+
+    /**
+     * Get the versions of the packers of the pipelines. The task is processed again after the packer is
+     * updated, the unknown version is used if the version of TexturePacker can't be determined.
+     *
+     * @return the versions of the packers of the pipelines.
+     */
+    @Input
+    public List<String> getPackerVersions() {
+        Set<String> packers = new TreeSet<>();
+        for (PipelineConfiguration pipelineConfiguration : getPipelineConfigurations()) {
+            packers.add(pipelineConfiguration.getPacker().get());
+        }
+        List<String> result = new ArrayList<>();
+        for (String packer : packers) {
+            String version = PackerBackends.getVersion(packer);
+            if (version == null) {
+                version = UNKNOWN_VERSION;
+            }
+            result.add(packer + ": " + version);
+        }
+        return result;
+    }
+
+    /**
+     * Get the resolved sheet, atlas, binary atlas and index file names of the source directories to process.
+     *
+     * @return the resolved sheet, atlas, binary atlas and index file names.
+     */
+    @Input
+    public List<String> getOutputNames() {
+        List<String> result = new ArrayList<>();
+        for (PackingJob packingJob : getPackingJobs()) {
+            StringBuilder builder = new StringBuilder();
+            builder.append(packingJob.getPipelineName()).append(':').append(packingJob.getName());
+            builder.append(" -> ").append(getRelativePath(packingJob.getSheetFile()));
+            builder.append(", ").append(getRelativePath(packingJob.getDataFile()));
+            if (packingJob.getBinaryFile() != null) {
+                builder.append(", ").append(getRelativePath(packingJob.getBinaryFile()));
+            }
+            if (packingJob.getIndexFile() != null) {
+                builder.append(", ").append(getRelativePath(packingJob.getIndexFile()));
+            }
+            result.add(builder.toString());
+        }
+        return result;
+    }
+
+    private String getRelativePath(final File file) {
+        String relativePath = _projectDir.toPath().relativize(file.toPath()).toString();
+        return relativePath.replace(File.separatorChar, '/');
+    }
+
+    /**
+     * Get the sheet, atlas, binary atlas and index files to create.
+     *
+     * @return the sheet, atlas, binary atlas and index files to create.
+     */
+    @OutputFiles
+    public Map<String, File> getOutputFiles() {
+        Map<String, File> result = new LinkedHashMap<>();
+        for (PackingJob packingJob : getPackingJobs()) {
+            String key = packingJob.getPipelineName() + ':' + packingJob.getName();
+            result.put(key + ":sheet", packingJob.getSheetFile());
+            result.put(key + ":data", packingJob.getDataFile());
+            if (packingJob.getBinaryFile() != null) {
+                result.put(key + ":binary", packingJob.getBinaryFile());
+            }
+            if (packingJob.getIndexFile() != null) {
+                result.put(key + ":index", packingJob.getIndexFile());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Process the source directories with TexturePacker.
+     */
+    @TaskAction
+    public void process() {
+        TexturePackerGradleAction action = new TexturePackerGradleAction();
+        action.execute(this);
+    }
+
+    /**
+     * The callable to create the images of the source directories to process.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private final class SourceFilesCallable implements Callable<List<FileTree>> {
+
+        SourceFilesCallable() {
+            super();
+        }
+
+        @Override
+        public List<FileTree> call() {
+            List<FileTree> fileTrees = new ArrayList<>();
+            for (PackingJob packingJob : getPackingJobs()) {
+                ConfigurableFileTree fileTree = _objectFactory.fileTree();
+                fileTree.from(packingJob.getRootDir());
+                fileTree.include(packingJob.getSourceDirName() + "/**");
+                fileTrees.add(fileTree);
+            }
+            return fileTrees;
+        }
+
+    }
+
+}
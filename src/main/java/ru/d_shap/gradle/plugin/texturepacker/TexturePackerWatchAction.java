@@ -0,0 +1,154 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.gradle.api.Action;
+import org.gradle.api.GradleException;
+
+import ru.d_shap.gradle.plugin.texturepacker.configuration.PipelineConfiguration;
+
+/**
+ * TexturePacker gradle watch action. All source directories are processed once, then the source
+ * directories are watched and only the changed source directories are processed again, until the
+ * build is cancelled.
+ *
+ * @author Dmitry Shapovalov
+ */
+public class TexturePackerWatchAction implements Action<TexturePackerWatchTask> {
+
+    /**
+     * Create new object.
+     */
+    public TexturePackerWatchAction() {
+        super();
+    }
+
+    @Override
+    public void execute(final TexturePackerWatchTask task) {
+        TexturePackerGradleAction action = new TexturePackerGradleAction();
+        List<PackingJob> initialPackingJobs = task.createPackingJobs();
+        action.removeStaleOutputs(task, initialPackingJobs);
+        processPackingJobs(task, action, initialPackingJobs, initialPackingJobs);
+        List<File> rootDirs = getRootDirs(task);
+        long debounce = task.getWatchDebounce().get();
+        try (SourceDirWatcher sourceDirWatcher = new SourceDirWatcher()) {
+            sourceDirWatcher.register(rootDirs);
+            if (Logger.isLifecycleEnabled()) {
+                Logger.lifecycle("Watching " + sourceDirWatcher.getWatchedDirCount() + " directories for changes, cancel the build to stop");
+            }
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<Path> changedPaths = sourceDirWatcher.awaitChanges(debounce);
+                sourceDirWatcher.register(rootDirs);
+                List<PackingJob> packingJobs = task.createPackingJobs();
+                action.removeStaleOutputs(task, packingJobs);
+                List<PackingJob> changedPackingJobs = getChangedPackingJobs(packingJobs, changedPaths);
+                if (!changedPackingJobs.isEmpty()) {
+                    processPackingJobs(task, action, packingJobs, changedPackingJobs);
+                }
+            }
+        } catch (IOException ex) {
+            throw new GradleException("Source directories can't be watched", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            if (Logger.isInfoEnabled()) {
+                Logger.info("Watching of the source directories is stopped");
+            }
+        }
+    }
+
+    private void processPackingJobs(final TexturePackerWatchTask task, final TexturePackerGradleAction action, final List<PackingJob> plannedPackingJobs, final List<PackingJob> packingJobs) {
+        long startTime = System.currentTimeMillis();
+        try {
+            action.process(task, plannedPackingJobs, packingJobs);
+            touchWatchMarker(task);
+            if (Logger.isLifecycleEnabled()) {
+                Logger.lifecycle("Processed " + packingJobs.size() + " directories in " + (System.currentTimeMillis() - startTime) + " ms");
+            }
+        } catch (GradleException ex) {
+            if (Logger.isErrorEnabled()) {
+                Logger.error("Exception in TexturePacker execution, the source directories are still watched", ex);
+            }
+        }
+    }
+
+    private void touchWatchMarker(final TexturePackerWatchTask task) {
+        File watchMarkerFile = task.getWatchMarker().getAsFile().getOrNull();
+        if (watchMarkerFile == null) {
+            return;
+        }
+        try {
+            File parentDir = watchMarkerFile.getParentFile();
+            if (parentDir != null && !parentDir.isDirectory() && !parentDir.mkdirs()) {
+                throw new IOException("Directory " + parentDir.getAbsolutePath() + " can't be created");
+            }
+            if (!watchMarkerFile.createNewFile() && !watchMarkerFile.setLastModified(System.currentTimeMillis())) {
+                throw new IOException("File " + watchMarkerFile.getAbsolutePath() + " can't be touched");
+            }
+        } catch (IOException ex) {
+            if (Logger.isErrorEnabled()) {
+                Logger.error("Exception in watch marker touching", ex);
+            }
+        }
+    }
+
+    private List<File> getRootDirs(final TexturePackerWatchTask task) {
+        List<File> rootDirs = new ArrayList<>();
+        for (PipelineConfiguration pipelineConfiguration : task.getPipelineConfigurations()) {
+            File sourceDir = pipelineConfiguration.getSourceDir().getAsFile().getOrNull();
+            if (sourceDir != null) {
+                rootDirs.add(sourceDir.getAbsoluteFile());
+            }
+        }
+        return rootDirs;
+    }
+
+    /**
+     * Get the packing jobs, affected by the changed paths. The packing job is affected, if the changed path
+     * is inside the source directory of the packing job, or if the source directory of the packing job is
+     * inside the changed path. The second case covers the created, deleted or renamed parent directories and
+     * the lost events of the watched directory, that is reported as the changed path itself.
+     *
+     * @param packingJobs  the packing jobs.
+     * @param changedPaths the changed paths.
+     *
+     * @return the affected packing jobs.
+     */
+    static List<PackingJob> getChangedPackingJobs(final List<PackingJob> packingJobs, final Set<Path> changedPaths) {
+        List<PackingJob> changedPackingJobs = new ArrayList<>();
+        for (PackingJob packingJob : packingJobs) {
+            Path sourceDir = packingJob.getSourceDir().getAbsoluteFile().toPath();
+            for (Path changedPath : changedPaths) {
+                if (changedPath.startsWith(sourceDir) || sourceDir.startsWith(changedPath)) {
+                    changedPackingJobs.add(packingJob);
+                    break;
+                }
+            }
+        }
+        return changedPackingJobs;
+    }
+
+}
@@ -0,0 +1,61 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.util.List;
+
+import javax.inject.Inject;
+
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkerExecutor;
+
+import ru.d_shap.gradle.plugin.texturepacker.configuration.PipelineConfiguration;
+
+/**
+ * TexturePacker gradle watch task, processes the changed source directories until the build is cancelled.
+ * The task declares no outputs, so it runs every time and is never cached.
+ *
+ * @author Dmitry Shapovalov
+ */
+public class TexturePackerWatchTask extends AbstractTexturePackerTask {
+
+    /**
+     * Create new object.
+     *
+     * @param pipelineConfigurations the pipeline configurations.
+     * @param objectFactory          the object factory.
+     * @param workerExecutor         the worker executor.
+     */
+    @Inject
+    public TexturePackerWatchTask(final List<PipelineConfiguration> pipelineConfigurations, final ObjectFactory objectFactory, final WorkerExecutor workerExecutor) {
+        super(pipelineConfigurations, objectFactory, workerExecutor);
+    }
+
+    /**
+     * Process the source directories with TexturePacker and watch the source directories for changes.
+     */
+    @TaskAction
+    public void process() {
+        TexturePackerWatchAction action = new TexturePackerWatchAction();
+        action.execute(this);
+    }
+
+}
@@ -0,0 +1,85 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.commons.exec.ExecuteStreamHandler;
+
+/**
+ * The stream handler to measure the process durations. The executor passes the process streams to the
+ * stream handler right after the process is started, and stops the stream handler after the process
+ * is finished. The stream handler should be created right before the process execution.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class TimedStreamHandler implements ExecuteStreamHandler {
+
+    private final ExecuteStreamHandler _executeStreamHandler;
+
+    private final ProcessTimes _processTimes;
+
+    private final long _createNanoTime;
+
+    private long _spawnNanoTime;
+
+    TimedStreamHandler(final ExecuteStreamHandler executeStreamHandler, final ProcessTimes processTimes) {
+        super();
+        _executeStreamHandler = executeStreamHandler;
+        _processTimes = processTimes;
+        _createNanoTime = System.nanoTime();
+        _spawnNanoTime = 0L;
+    }
+
+    @Override
+    public void setProcessInputStream(final OutputStream outputStream) throws IOException {
+        _spawnNanoTime = System.nanoTime();
+        _executeStreamHandler.setProcessInputStream(outputStream);
+    }
+
+    @Override
+    public void setProcessErrorStream(final InputStream inputStream) throws IOException {
+        _executeStreamHandler.setProcessErrorStream(inputStream);
+    }
+
+    @Override
+    public void setProcessOutputStream(final InputStream inputStream) throws IOException {
+        _executeStreamHandler.setProcessOutputStream(inputStream);
+    }
+
+    @Override
+    public void start() throws IOException {
+        _executeStreamHandler.start();
+    }
+
+    @Override
+    public void stop() throws IOException {
+        try {
+            _executeStreamHandler.stop();
+        } finally {
+            if (_spawnNanoTime > 0L) {
+                _processTimes.add(_spawnNanoTime - _createNanoTime, System.nanoTime() - _spawnNanoTime);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * The writer of TexturePacker project files. The project file defines the source directory, the sheet
+ * file and the data file of the packing job, the other parameters are passed with the command line.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class TpsProjectWriter {
+
+    private static final int FILE_FORMAT_VERSION = 6;
+
+    private static final int BUFFER_SIZE = 1024;
+
+    private TpsProjectWriter() {
+        super();
+    }
+
+    static void write(final File projectFile, final PackingJob packingJob) throws IOException {
+        StringBuilder builder = new StringBuilder(BUFFER_SIZE);
+        builder.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        builder.append("<data version=\"1.0\">\n");
+        builder.append("    <struct type=\"Settings\">\n");
+        builder.append("        <key>fileFormatVersion</key>\n");
+        builder.append("        <int>").append(FILE_FORMAT_VERSION).append("</int>\n");
+        builder.append("        <key>textureFileName</key>\n");
+        appendFileName(builder, "        ", packingJob.getSheetFile());
+        builder.append("        <key>dataFileNames</key>\n");
+        builder.append("        <map type=\"GFileNameMap\">\n");
+        builder.append("            <key>data</key>\n");
+        builder.append("            <struct type=\"DataFile\">\n");
+        builder.append("                <key>name</key>\n");
+        appendFileName(builder, "                ", packingJob.getDataFile());
+        builder.append("            </struct>\n");
+        builder.append("        </map>\n");
+        builder.append("        <key>fileList</key>\n");
+        builder.append("        <array>\n");
+        appendFileName(builder, "            ", packingJob.getSourceDir());
+        builder.append("        </array>\n");
+        builder.append("    </struct>\n");
+        builder.append("</data>\n");
+
+        projectFile.getParentFile().mkdirs();
+        Files.write(projectFile.toPath(), builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void appendFileName(final StringBuilder builder, final String indent, final File file) {
+        builder.append(indent).append("<filename>");
+        appendEscaped(builder, file.getAbsolutePath());
+        builder.append("</filename>\n");
+    }
+
+    private static void appendEscaped(final StringBuilder builder, final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '&') {
+                builder.append("&amp;");
+            } else if (ch == '<') {
+                builder.append("&lt;");
+            } else if (ch == '>') {
+                builder.append("&gt;");
+            } else if (ch == '"') {
+                builder.append("&quot;");
+            } else {
+                builder.append(ch);
+            }
+        }
+    }
+
+}
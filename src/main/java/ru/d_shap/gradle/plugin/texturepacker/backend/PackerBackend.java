@@ -0,0 +1,50 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.backend;
+
+/**
+ * The packer backend, processes the single source directory and creates the sheet file and the data file.
+ * The backend is selected for the pipeline with the packer name: texturepacker, builtin, stub or the fully
+ * qualified name of the class, that implements this interface and has the public no-argument constructor.
+ * The backend is shared between the worker threads and should be thread-safe.
+ *
+ * @author Dmitry Shapovalov
+ */
+public interface PackerBackend {
+
+    /**
+     * Get the backend version. The created files are restored from the cache only if they are created by
+     * the backend of the same version.
+     *
+     * @return the backend version or null, if the version can't be determined and the cache should not be used.
+     */
+    String getVersion();
+
+    /**
+     * Process the source directory.
+     *
+     * @param packerRequest the source directory to process.
+     * @param packerLog     the log of the source directory processing.
+     *
+     * @return the processing result.
+     */
+    PackerResult pack(PackerRequest packerRequest, PackerLog packerLog);
+
+}
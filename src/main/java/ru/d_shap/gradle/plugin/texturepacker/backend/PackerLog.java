@@ -0,0 +1,80 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.backend;
+
+/**
+ * The log of the source directory processing. The messages of the concurrent source directories are
+ * not mixed.
+ *
+ * @author Dmitry Shapovalov
+ */
+public interface PackerLog {
+
+    /**
+     * Check if the debug level is enabled.
+     *
+     * @return true if the debug level is enabled.
+     */
+    boolean isDebugEnabled();
+
+    /**
+     * Log the message with the debug level.
+     *
+     * @param message the message.
+     */
+    void debug(String message);
+
+    /**
+     * Check if the info level is enabled.
+     *
+     * @return true if the info level is enabled.
+     */
+    boolean isInfoEnabled();
+
+    /**
+     * Log the message with the info level.
+     *
+     * @param message the message.
+     */
+    void info(String message);
+
+    /**
+     * Check if the error level is enabled.
+     *
+     * @return true if the error level is enabled.
+     */
+    boolean isErrorEnabled();
+
+    /**
+     * Log the message with the error level.
+     *
+     * @param message the message.
+     */
+    void error(String message);
+
+    /**
+     * Log the message with the error level.
+     *
+     * @param message   the message.
+     * @param throwable the cause.
+     */
+    void error(String message, Throwable throwable);
+
+}
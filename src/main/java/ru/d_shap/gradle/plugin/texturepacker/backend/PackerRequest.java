@@ -0,0 +1,122 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.backend;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import ru.d_shap.gradle.plugin.texturepacker.configuration.Parameter;
+
+/**
+ * The source directory to process with the packer backend.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class PackerRequest {
+
+    private final String _pipelineName;
+
+    private final String _name;
+
+    private final File _sourceDir;
+
+    private final File _sheetFile;
+
+    private final File _dataFile;
+
+    private final List<Parameter> _parameters;
+
+    /**
+     * Create new object.
+     *
+     * @param pipelineName the pipeline name.
+     * @param name         the source directory name.
+     * @param sourceDir    the source directory.
+     * @param sheetFile    the sheet file to create.
+     * @param dataFile     the data file to create.
+     * @param parameters   the pipeline parameters.
+     */
+    public PackerRequest(final String pipelineName, final String name, final File sourceDir, final File sheetFile, final File dataFile, final List<Parameter> parameters) {
+        super();
+        _pipelineName = pipelineName;
+        _name = name;
+        _sourceDir = sourceDir;
+        _sheetFile = sheetFile;
+        _dataFile = dataFile;
+        _parameters = Collections.unmodifiableList(new ArrayList<>(parameters));
+    }
+
+    /**
+     * Get the pipeline name.
+     *
+     * @return the pipeline name.
+     */
+    public String getPipelineName() {
+        return _pipelineName;
+    }
+
+    /**
+     * Get the source directory name.
+     *
+     * @return the source directory name.
+     */
+    public String getName() {
+        return _name;
+    }
+
+    /**
+     * Get the source directory.
+     *
+     * @return the source directory.
+     */
+    public File getSourceDir() {
+        return _sourceDir;
+    }
+
+    /**
+     * Get the sheet file to create.
+     *
+     * @return the sheet file to create.
+     */
+    public File getSheetFile() {
+        return _sheetFile;
+    }
+
+    /**
+     * Get the data file to create.
+     *
+     * @return the data file to create.
+     */
+    public File getDataFile() {
+        return _dataFile;
+    }
+
+    /**
+     * Get the pipeline parameters.
+     *
+     * @return the pipeline parameters.
+     */
+    public List<Parameter> getParameters() {
+        return _parameters;
+    }
+
+}
@@ -0,0 +1,154 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.backend;
+
+/**
+ * The result of the source directory processing with the packer backend.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class PackerResult {
+
+    private final boolean _successful;
+
+    private final long _startTime;
+
+    private final long _duration;
+
+    private final long _spawnDuration;
+
+    private final long _runDuration;
+
+    private final long _peakMemory;
+
+    private final int _executionCount;
+
+    /**
+     * Create new object. The packer runs inside the gradle process, so the run duration is the processing duration.
+     *
+     * @param successful     true if the sheet file and the data file are created.
+     * @param startTime      the processing start time in milliseconds since the epoch.
+     * @param duration       the processing duration in milliseconds, including all retries.
+     * @param executionCount the number of the packer executions, including all retries.
+     */
+    public PackerResult(final boolean successful, final long startTime, final long duration, final int executionCount) {
+        this(successful, startTime, duration, 0L, duration, executionCount);
+    }
+
+    /**
+     * Create new object.
+     *
+     * @param successful     true if the sheet file and the data file are created.
+     * @param startTime      the processing start time in milliseconds since the epoch.
+     * @param duration       the processing duration in milliseconds, including all retries.
+     * @param spawnDuration  the duration in milliseconds to start the packer processes.
+     * @param runDuration    the duration in milliseconds of the packer processes, excluding the start.
+     * @param executionCount the number of the packer executions, including all retries.
+     */
+    public PackerResult(final boolean successful, final long startTime, final long duration, final long spawnDuration, final long runDuration, final int executionCount) {
+        this(successful, startTime, duration, spawnDuration, runDuration, 0L, executionCount);
+    }
+
+    /**
+     * Create new object.
+     *
+     * @param successful     true if the sheet file and the data file are created.
+     * @param startTime      the processing start time in milliseconds since the epoch.
+     * @param duration       the processing duration in milliseconds, including all retries.
+     * @param spawnDuration  the duration in milliseconds to start the packer processes.
+     * @param runDuration    the duration in milliseconds of the packer processes, excluding the start.
+     * @param peakMemory     the peak resident memory in bytes of the packer processes, 0 if not measured.
+     * @param executionCount the number of the packer executions, including all retries.
+     */
+    public PackerResult(final boolean successful, final long startTime, final long duration, final long spawnDuration, final long runDuration, final long peakMemory, final int executionCount) {
+        super();
+        _successful = successful;
+        _startTime = startTime;
+        _duration = duration;
+        _spawnDuration = spawnDuration;
+        _runDuration = runDuration;
+        _peakMemory = peakMemory;
+        _executionCount = executionCount;
+    }
+
+    /**
+     * Check if the sheet file and the data file are created.
+     *
+     * @return true if the sheet file and the data file are created.
+     */
+    public boolean isSuccessful() {
+        return _successful;
+    }
+
+    /**
+     * Get the processing start time in milliseconds since the epoch.
+     *
+     * @return the processing start time.
+     */
+    public long getStartTime() {
+        return _startTime;
+    }
+
+    /**
+     * Get the processing duration in milliseconds, including all retries.
+     *
+     * @return the processing duration.
+     */
+    public long getDuration() {
+        return _duration;
+    }
+
+    /**
+     * Get the duration in milliseconds to start the packer processes, 0 if the packer runs inside the gradle process.
+     *
+     * @return the duration to start the packer processes.
+     */
+    public long getSpawnDuration() {
+        return _spawnDuration;
+    }
+
+    /**
+     * Get the duration in milliseconds of the packer processes, excluding the start and the delays between the retries.
+     *
+     * @return the duration of the packer processes.
+     */
+    public long getRunDuration() {
+        return _runDuration;
+    }
+
+    /**
+     * Get the peak resident memory in bytes of the packer processes, 0 if the peak memory is not measured.
+     *
+     * @return the peak resident memory of the packer processes.
+     */
+    public long getPeakMemory() {
+        return _peakMemory;
+    }
+
+    /**
+     * Get the number of the packer executions, including all retries.
+     *
+     * @return the number of the packer executions.
+     */
+    public int getExecutionCount() {
+        return _executionCount;
+    }
+
+}
@@ -0,0 +1,181 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.backend;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import ru.d_shap.gradle.plugin.texturepacker.configuration.Parameter;
+import ru.d_shap.gradle.plugin.texturepacker.json.JsonWriter;
+
+/**
+ * The packer backend to measure the plugin overhead without the real packing. The backend creates the
+ * transparent sheet of 1x1 pixels and the data file with the list of the source directory files. The
+ * created files depend only on the source directory file names, so the backend is deterministic. The
+ * packing cost is simulated with the stub-delay parameter, the delay in milliseconds per the source
+ * directory, and the stub-file-delay parameter, the delay in milliseconds per the source directory file.
+ * All other parameters are ignored.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class StubPackerBackend implements PackerBackend {
+
+    /**
+     * The backend version.
+     */
+    public static final String VERSION = "stub-1";
+
+    private static final String PARAMETER_DELAY = "stub-delay";
+
+    private static final String PARAMETER_FILE_DELAY = "stub-file-delay";
+
+    private static final String SHEET_FORMAT = "png";
+
+    /**
+     * Create new object.
+     */
+    public StubPackerBackend() {
+        super();
+    }
+
+    @Override
+    public String getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public PackerResult pack(final PackerRequest packerRequest, final PackerLog packerLog) {
+        long startTime = System.currentTimeMillis();
+        long startNanoTime = System.nanoTime();
+        boolean successful;
+        try {
+            List<String> fileNames = getFileNames(packerRequest.getSourceDir());
+            long delay = getDelay(packerRequest.getParameters(), PARAMETER_DELAY) + getDelay(packerRequest.getParameters(), PARAMETER_FILE_DELAY) * fileNames.size();
+            Thread.sleep(delay);
+            writeSheet(packerRequest.getSheetFile());
+            writeData(packerRequest.getDataFile(), fileNames);
+            successful = true;
+        } catch (IOException ex) {
+            if (packerLog.isErrorEnabled()) {
+                packerLog.error("Exception in stub packer execution", ex);
+            }
+            successful = false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            if (packerLog.isErrorEnabled()) {
+                packerLog.error("Stub packer execution is interrupted", ex);
+            }
+            successful = false;
+        }
+        long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanoTime);
+        return new PackerResult(successful, startTime, duration, 1);
+    }
+
+    private List<String> getFileNames(final File sourceDir) throws IOException {
+        Path sourcePath = sourceDir.toPath();
+        FileNameVisitor fileNameVisitor = new FileNameVisitor(sourcePath);
+        Files.walkFileTree(sourcePath, fileNameVisitor);
+        List<String> fileNames = fileNameVisitor.getFileNames();
+        Collections.sort(fileNames);
+        return fileNames;
+    }
+
+    private long getDelay(final List<Parameter> parameters, final String name) throws IOException {
+        for (Parameter parameter : parameters) {
+            if (name.equals(parameter.getName())) {
+                try {
+                    return Math.max(Long.parseLong(parameter.getArgs()[0]), 0L);
+                } catch (NumberFormatException | ArrayIndexOutOfBoundsException ex) {
+                    throw new IOException("Parameter " + name + " should be the number of milliseconds", ex);
+                }
+            }
+        }
+        return 0L;
+    }
+
+    private void writeSheet(final File sheetFile) throws IOException {
+        BufferedImage sheet = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        sheetFile.getAbsoluteFile().getParentFile().mkdirs();
+        if (!ImageIO.write(sheet, SHEET_FORMAT, sheetFile)) {
+            throw new IOException("Sheet " + sheetFile.getAbsolutePath() + " can't be written");
+        }
+    }
+
+    private void writeData(final File dataFile, final List<String> fileNames) throws IOException {
+        JsonWriter jsonWriter = new JsonWriter();
+        jsonWriter.beginObject();
+        jsonWriter.name("frames").beginArray();
+        for (String fileName : fileNames) {
+            jsonWriter.value(fileName);
+        }
+        jsonWriter.endArray();
+        jsonWriter.name("meta").beginObject();
+        jsonWriter.name("app").value(VERSION);
+        jsonWriter.endObject();
+        jsonWriter.endObject();
+        dataFile.getAbsoluteFile().getParentFile().mkdirs();
+        Files.write(dataFile.toPath(), (jsonWriter + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The file visitor to collect the relative file names.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class FileNameVisitor extends SimpleFileVisitor<Path> {
+
+        private final Path _sourcePath;
+
+        private final List<String> _fileNames;
+
+        FileNameVisitor(final Path sourcePath) {
+            super();
+            _sourcePath = sourcePath;
+            _fileNames = new ArrayList<>();
+        }
+
+        List<String> getFileNames() {
+            return _fileNames;
+        }
+
+        @Override
+        public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+            if (attrs.isRegularFile()) {
+                _fileNames.add(_sourcePath.relativize(file).toString().replace(File.separatorChar, '/'));
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+    }
+
+}
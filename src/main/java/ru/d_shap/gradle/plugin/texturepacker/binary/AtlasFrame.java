@@ -0,0 +1,102 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.binary;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The frame of the atlas.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class AtlasFrame implements Comparable<AtlasFrame> {
+
+    private static final int FNV_OFFSET_BASIS = 0x811C9DC5;
+
+    private static final int FNV_PRIME = 0x01000193;
+
+    private final byte[] _name;
+
+    private final int _hash;
+
+    private final int[] _values;
+
+    private final int _flags;
+
+    AtlasFrame(final String name, final int[] values, final int flags) {
+        super();
+        _name = name.getBytes(StandardCharsets.UTF_8);
+        _hash = getNameHash(_name);
+        _values = values.clone();
+        _flags = flags;
+    }
+
+    static int getNameHash(final byte[] bytes) {
+        int hash = FNV_OFFSET_BASIS;
+        for (byte value : bytes) {
+            hash ^= value & 0xFF;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    byte[] getName() {
+        return _name;
+    }
+
+    int getHash() {
+        return _hash;
+    }
+
+    int[] getValues() {
+        return _values.clone();
+    }
+
+    int getFlags() {
+        return _flags;
+    }
+
+    @Override
+    public int compareTo(final AtlasFrame other) {
+        int result = Integer.compare(_hash, other._hash);
+        if (result != 0) {
+            return result;
+        }
+        int length = Math.min(_name.length, other._name.length);
+        for (int i = 0; i < length; i++) {
+            result = Integer.compare(_name[i] & 0xFF, other._name[i] & 0xFF);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(_name.length, other._name.length);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return obj instanceof AtlasFrame && compareTo((AtlasFrame) obj) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return _hash;
+    }
+
+}
@@ -0,0 +1,235 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.binary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import ru.d_shap.gradle.plugin.texturepacker.json.JsonReader;
+
+/**
+ * The converter of the JSON atlas to the binary atlas. The JSON hash, the JSON array and the single
+ * texture Phaser 3 atlases are supported. The binary atlas is the little-endian file:
+ * the header, the frame records sorted by the FNV-1a hash of the frame name and by the frame name,
+ * and the string table with the UTF-8 frame names and the sheet name.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class BinaryAtlasConverter {
+
+    /**
+     * The magic number of the binary atlas.
+     */
+    public static final int MAGIC = 0x42415054;
+
+    /**
+     * The version of the binary atlas format.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The size of the header in bytes.
+     */
+    public static final int HEADER_SIZE = 32;
+
+    /**
+     * The size of the frame record in bytes.
+     */
+    public static final int RECORD_SIZE = 48;
+
+    /**
+     * The flag of the rotated frame.
+     */
+    public static final int FLAG_ROTATED = 1;
+
+    /**
+     * The flag of the trimmed frame.
+     */
+    public static final int FLAG_TRIMMED = 2;
+
+    private static final String KEY_FRAMES = "frames";
+
+    private static final String KEY_TEXTURES = "textures";
+
+    private static final String KEY_META = "meta";
+
+    private static final String KEY_IMAGE = "image";
+
+    private static final String KEY_SIZE = "size";
+
+    private static final String KEY_FILENAME = "filename";
+
+    private static final String KEY_FRAME = "frame";
+
+    private static final String KEY_SPRITE_SOURCE_SIZE = "spriteSourceSize";
+
+    private static final String KEY_SOURCE_SIZE = "sourceSize";
+
+    private static final String KEY_X = "x";
+
+    private static final String KEY_Y = "y";
+
+    private static final String KEY_W = "w";
+
+    private static final String KEY_H = "h";
+
+    private BinaryAtlasConverter() {
+        super();
+    }
+
+    /**
+     * Convert the JSON atlas to the binary atlas.
+     *
+     * @param dataFile   the JSON atlas.
+     * @param binaryFile the binary atlas.
+     *
+     * @throws IOException if the JSON atlas can't be read or converted, or the binary atlas can't be written.
+     */
+    public static void convert(final File dataFile, final File binaryFile) throws IOException {
+        String json = new String(Files.readAllBytes(dataFile.toPath()), StandardCharsets.UTF_8);
+        Map<?, ?> atlas = getMap(JsonReader.read(json), "Atlas");
+        Object frames = atlas.get(KEY_FRAMES);
+        Map<?, ?> meta = getOptionalMap(atlas.get(KEY_META));
+        if (frames == null && atlas.get(KEY_TEXTURES) instanceof List) {
+            List<?> textures = (List<?>) atlas.get(KEY_TEXTURES);
+            if (textures.size() != 1) {
+                throw new IOException("Atlas with " + textures.size() + " textures can't be converted");
+            }
+            meta = getMap(textures.get(0), "Texture");
+            frames = meta.get(KEY_FRAMES);
+        }
+        List<AtlasFrame> atlasFrames = getAtlasFrames(frames);
+        Collections.sort(atlasFrames);
+
+        String image = "";
+        if (meta.get(KEY_IMAGE) instanceof String) {
+            image = (String) meta.get(KEY_IMAGE);
+        }
+        Map<?, ?> size = getOptionalMap(meta.get(KEY_SIZE));
+        byte[] data = write(atlasFrames, image, getInt(size, KEY_W, 0), getInt(size, KEY_H, 0));
+        binaryFile.getAbsoluteFile().getParentFile().mkdirs();
+        Files.write(binaryFile.toPath(), data);
+    }
+
+    private static List<AtlasFrame> getAtlasFrames(final Object frames) throws IOException {
+        List<AtlasFrame> result = new ArrayList<>();
+        if (frames instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) frames).entrySet()) {
+                result.add(createAtlasFrame(String.valueOf(entry.getKey()), getMap(entry.getValue(), "Frame")));
+            }
+        } else if (frames instanceof List) {
+            for (Object frame : (List<?>) frames) {
+                Map<?, ?> frameMap = getMap(frame, "Frame");
+                if (!(frameMap.get(KEY_FILENAME) instanceof String)) {
+                    throw new IOException("Frame has no filename");
+                }
+                result.add(createAtlasFrame((String) frameMap.get(KEY_FILENAME), frameMap));
+            }
+        } else {
+            throw new IOException("Atlas has no frames");
+        }
+        return result;
+    }
+
+    private static AtlasFrame createAtlasFrame(final String name, final Map<?, ?> frameMap) throws IOException {
+        Map<?, ?> frame = getMap(frameMap.get(KEY_FRAME), "Frame " + name + " rectangle");
+        Map<?, ?> spriteSourceSize = getOptionalMap(frameMap.get(KEY_SPRITE_SOURCE_SIZE));
+        Map<?, ?> sourceSize = getOptionalMap(frameMap.get(KEY_SOURCE_SIZE));
+        int width = getInt(frame, KEY_W, 0);
+        int height = getInt(frame, KEY_H, 0);
+        int[] values = {getInt(frame, KEY_X, 0), getInt(frame, KEY_Y, 0), width, height, getInt(spriteSourceSize, KEY_X, 0), getInt(spriteSourceSize, KEY_Y, 0), getInt(sourceSize, KEY_W, width), getInt(sourceSize, KEY_H, height)};
+        int flags = 0;
+        if (Boolean.TRUE.equals(frameMap.get("rotated"))) {
+            flags |= FLAG_ROTATED;
+        }
+        if (Boolean.TRUE.equals(frameMap.get("trimmed"))) {
+            flags |= FLAG_TRIMMED;
+        }
+        return new AtlasFrame(name, values, flags);
+    }
+
+    private static byte[] write(final List<AtlasFrame> atlasFrames, final String image, final int width, final int height) {
+        ByteArrayOutputStream strings = new ByteArrayOutputStream();
+        ByteBuffer records = ByteBuffer.allocate(atlasFrames.size() * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        for (AtlasFrame atlasFrame : atlasFrames) {
+            byte[] name = atlasFrame.getName();
+            records.putInt(atlasFrame.getHash());
+            records.putInt(strings.size());
+            records.putInt(name.length);
+            for (int value : atlasFrame.getValues()) {
+                records.putInt(value);
+            }
+            records.putInt(atlasFrame.getFlags());
+            strings.write(name, 0, name.length);
+        }
+        byte[] imageBytes = image.getBytes(StandardCharsets.UTF_8);
+        int imageOffset = strings.size();
+        strings.write(imageBytes, 0, imageBytes.length);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC);
+        header.putShort((short) VERSION);
+        header.putShort((short) HEADER_SIZE);
+        header.putInt(atlasFrames.size());
+        header.putInt(width);
+        header.putInt(height);
+        header.putInt(imageOffset);
+        header.putInt(imageBytes.length);
+        header.putInt(HEADER_SIZE + records.capacity());
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream(HEADER_SIZE + records.capacity() + strings.size());
+        result.write(header.array(), 0, HEADER_SIZE);
+        result.write(records.array(), 0, records.capacity());
+        result.write(strings.toByteArray(), 0, strings.size());
+        return result.toByteArray();
+    }
+
+    private static Map<?, ?> getMap(final Object value, final String name) throws IOException {
+        if (value instanceof Map) {
+            return (Map<?, ?>) value;
+        }
+        throw new IOException(name + " is not a JSON object");
+    }
+
+    private static Map<?, ?> getOptionalMap(final Object value) {
+        if (value instanceof Map) {
+            return (Map<?, ?>) value;
+        }
+        return Collections.emptyMap();
+    }
+
+    private static int getInt(final Map<?, ?> map, final String key, final int defaultValue) {
+        Object value = map.get(key);
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        return defaultValue;
+    }
+
+}
@@ -0,0 +1,159 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.builtin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import ru.d_shap.gradle.plugin.texturepacker.json.JsonWriter;
+
+/**
+ * The writer of the data file in the JSON hash, JSON array or Phaser 3 format.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class AtlasDataWriter {
+
+    private static final String APP = "https://github.com/d-shap/texturepacker-gradle-plugin";
+
+    private static final String VERSION = "1.0";
+
+    private static final String PIXEL_FORMAT = "RGBA8888";
+
+    private static final double PIVOT = 0.5;
+
+    private static final String KEY_FRAMES = "frames";
+
+    private static final String KEY_IMAGE = "image";
+
+    private static final String KEY_FORMAT = "format";
+
+    private static final String KEY_SIZE = "size";
+
+    private static final String KEY_SCALE = "scale";
+
+    private static final String KEY_VERSION = "version";
+
+    private AtlasDataWriter() {
+        super();
+    }
+
+    static void write(final File dataFile, final String imageName, final List<Sprite> sprites, final AtlasLayout atlasLayout, final String format) throws IOException {
+        JsonWriter jsonWriter = new JsonWriter();
+        if (PackerSettings.FORMAT_PHASER.equals(format)) {
+            writePhaser(jsonWriter, imageName, sprites, atlasLayout);
+        } else {
+            writeJson(jsonWriter, imageName, sprites, atlasLayout, PackerSettings.FORMAT_JSON_ARRAY.equals(format));
+        }
+        dataFile.getAbsoluteFile().getParentFile().mkdirs();
+        Files.write(dataFile.toPath(), (jsonWriter + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeJson(final JsonWriter jsonWriter, final String imageName, final List<Sprite> sprites, final AtlasLayout atlasLayout, final boolean array) {
+        jsonWriter.beginObject();
+        jsonWriter.name(KEY_FRAMES);
+        if (array) {
+            jsonWriter.beginArray();
+        } else {
+            jsonWriter.beginObject();
+        }
+        for (int i = 0; i < sprites.size(); i++) {
+            Sprite sprite = sprites.get(i);
+            if (array) {
+                jsonWriter.beginObject();
+                jsonWriter.name("filename").value(sprite.getName());
+            } else {
+                jsonWriter.name(sprite.getName()).beginObject();
+            }
+            writeFrame(jsonWriter, sprite, atlasLayout, i);
+            jsonWriter.name("pivot").beginObject().name("x").value(PIVOT).name("y").value(PIVOT).endObject();
+            jsonWriter.endObject();
+        }
+        if (array) {
+            jsonWriter.endArray();
+        } else {
+            jsonWriter.endObject();
+        }
+        jsonWriter.name("meta").beginObject();
+        jsonWriter.name("app").value(APP);
+        jsonWriter.name(KEY_VERSION).value(VERSION);
+        jsonWriter.name(KEY_IMAGE).value(imageName);
+        jsonWriter.name(KEY_FORMAT).value(PIXEL_FORMAT);
+        writeSize(jsonWriter, KEY_SIZE, atlasLayout.getWidth(), atlasLayout.getHeight());
+        jsonWriter.name(KEY_SCALE).value("1");
+        jsonWriter.endObject();
+        jsonWriter.endObject();
+    }
+
+    private static void writePhaser(final JsonWriter jsonWriter, final String imageName, final List<Sprite> sprites, final AtlasLayout atlasLayout) {
+        jsonWriter.beginObject();
+        jsonWriter.name("textures").beginArray();
+        jsonWriter.beginObject();
+        jsonWriter.name(KEY_IMAGE).value(imageName);
+        jsonWriter.name(KEY_FORMAT).value(PIXEL_FORMAT);
+        writeSize(jsonWriter, KEY_SIZE, atlasLayout.getWidth(), atlasLayout.getHeight());
+        jsonWriter.name(KEY_SCALE).value(1L);
+        jsonWriter.name(KEY_FRAMES).beginArray();
+        for (int i = 0; i < sprites.size(); i++) {
+            Sprite sprite = sprites.get(i);
+            jsonWriter.beginObject();
+            jsonWriter.name("filename").value(sprite.getName());
+            writeFrame(jsonWriter, sprite, atlasLayout, i);
+            jsonWriter.endObject();
+        }
+        jsonWriter.endArray();
+        jsonWriter.endObject();
+        jsonWriter.endArray();
+        jsonWriter.name("meta").beginObject();
+        jsonWriter.name("app").value(APP);
+        jsonWriter.name(KEY_VERSION).value(VERSION);
+        jsonWriter.endObject();
+        jsonWriter.endObject();
+    }
+
+    private static void writeFrame(final JsonWriter jsonWriter, final Sprite sprite, final AtlasLayout atlasLayout, final int index) {
+        jsonWriter.name("frame").beginObject();
+        jsonWriter.name("x").value(atlasLayout.getFrameX(index));
+        jsonWriter.name("y").value(atlasLayout.getFrameY(index));
+        jsonWriter.name("w").value(sprite.getWidth());
+        jsonWriter.name("h").value(sprite.getHeight());
+        jsonWriter.endObject();
+        jsonWriter.name("rotated").value(atlasLayout.isRotated(index));
+        jsonWriter.name("trimmed").value(sprite.isTrimmed());
+        jsonWriter.name("spriteSourceSize").beginObject();
+        jsonWriter.name("x").value(sprite.getOffsetX());
+        jsonWriter.name("y").value(sprite.getOffsetY());
+        jsonWriter.name("w").value(sprite.getWidth());
+        jsonWriter.name("h").value(sprite.getHeight());
+        jsonWriter.endObject();
+        writeSize(jsonWriter, "sourceSize", sprite.getSourceWidth(), sprite.getSourceHeight());
+    }
+
+    private static void writeSize(final JsonWriter jsonWriter, final String name, final int width, final int height) {
+        jsonWriter.name(name).beginObject();
+        jsonWriter.name("w").value(width);
+        jsonWriter.name("h").value(height);
+        jsonWriter.endObject();
+    }
+
+}
@@ -0,0 +1,67 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.builtin;
+
+import java.util.List;
+
+/**
+ * The layout of the sprites on the sheet.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class AtlasLayout {
+
+    private final int _width;
+
+    private final int _height;
+
+    private final List<MaxRectsBin.Placement> _placements;
+
+    private final int _offset;
+
+    AtlasLayout(final int width, final int height, final List<MaxRectsBin.Placement> placements, final int offset) {
+        super();
+        _width = width;
+        _height = height;
+        _placements = placements;
+        _offset = offset;
+    }
+
+    int getWidth() {
+        return _width;
+    }
+
+    int getHeight() {
+        return _height;
+    }
+
+    int getFrameX(final int index) {
+        return _placements.get(index).getX() + _offset;
+    }
+
+    int getFrameY(final int index) {
+        return _placements.get(index).getY() + _offset;
+    }
+
+    boolean isRotated(final int index) {
+        return _placements.get(index).isRotated();
+    }
+
+}
@@ -0,0 +1,217 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.builtin;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The packer to find the smallest sheet for the sprites. Every candidate sheet width is tried with every
+ * configured MaxRects heuristic, and the layout with the smallest sheet area is chosen.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class AtlasPacker {
+
+    private static final int WIDTH_STEP_COUNT = 32;
+
+    private final PackerSettings _packerSettings;
+
+    AtlasPacker(final PackerSettings packerSettings) {
+        super();
+        _packerSettings = packerSettings;
+    }
+
+    AtlasLayout pack(final List<Sprite> sprites) throws IOException {
+        List<Integer> packingOrder = getPackingOrder(sprites);
+        AtlasLayout bestAtlasLayout = null;
+        for (MaxRectsBin.Heuristic heuristic : _packerSettings.getHeuristics()) {
+            for (int width : getCandidateWidths(sprites)) {
+                AtlasLayout atlasLayout = packIntoSheet(sprites, packingOrder, width, getCandidateHeight(width), heuristic);
+                if (isBetter(atlasLayout, bestAtlasLayout)) {
+                    bestAtlasLayout = atlasLayout;
+                }
+            }
+        }
+        if (bestAtlasLayout == null) {
+            throw new IOException("Images don't fit into the sheet of the maximum size " + _packerSettings.getMaxWidth() + "x" + _packerSettings.getMaxHeight());
+        }
+        return bestAtlasLayout;
+    }
+
+    private List<Integer> getPackingOrder(final List<Sprite> sprites) {
+        List<Integer> packingOrder = new ArrayList<>(sprites.size());
+        for (int i = 0; i < sprites.size(); i++) {
+            packingOrder.add(i);
+        }
+        Collections.sort(packingOrder, new PackingOrderComparator(sprites));
+        return packingOrder;
+    }
+
+    private List<Integer> getCandidateWidths(final List<Sprite> sprites) {
+        if (_packerSettings.getWidth() > 0) {
+            return Collections.singletonList(_packerSettings.getWidth());
+        }
+        int minWidth = 1;
+        for (Sprite sprite : sprites) {
+            int paddedWidth = getPaddedWidth(sprite);
+            if (_packerSettings.isRotation()) {
+                paddedWidth = Math.min(paddedWidth, getPaddedHeight(sprite));
+            }
+            minWidth = Math.max(minWidth, paddedWidth - _packerSettings.getShapePadding() + 2 * _packerSettings.getBorderPadding());
+        }
+        int maxWidth = _packerSettings.getMaxWidth();
+        List<Integer> candidateWidths = new ArrayList<>();
+        if (_packerSettings.isPowerOfTwo()) {
+            for (int width = 1; width <= maxWidth; width *= 2) {
+                if (width >= minWidth) {
+                    candidateWidths.add(width);
+                }
+            }
+        } else if (minWidth <= maxWidth) {
+            int step = Math.max((maxWidth - minWidth) / WIDTH_STEP_COUNT, 1);
+            for (int width = minWidth; width < maxWidth; width += step) {
+                candidateWidths.add(width);
+            }
+            candidateWidths.add(maxWidth);
+        }
+        return candidateWidths;
+    }
+
+    private int getCandidateHeight(final int width) {
+        if (_packerSettings.getHeight() > 0) {
+            return _packerSettings.getHeight();
+        }
+        if (_packerSettings.isForceSquared()) {
+            return Math.min(width, _packerSettings.getMaxHeight());
+        }
+        return _packerSettings.getMaxHeight();
+    }
+
+    private AtlasLayout packIntoSheet(final List<Sprite> sprites, final List<Integer> packingOrder, final int width, final int height, final MaxRectsBin.Heuristic heuristic) {
+        int shapePadding = _packerSettings.getShapePadding();
+        int borderPadding = _packerSettings.getBorderPadding();
+        int binWidth = width - 2 * borderPadding + shapePadding;
+        int binHeight = height - 2 * borderPadding + shapePadding;
+        if (binWidth <= 0 || binHeight <= 0) {
+            return null;
+        }
+        MaxRectsBin maxRectsBin = new MaxRectsBin(binWidth, binHeight, _packerSettings.isRotation());
+        MaxRectsBin.Placement[] placements = new MaxRectsBin.Placement[sprites.size()];
+        for (int index : packingOrder) {
+            Sprite sprite = sprites.get(index);
+            MaxRectsBin.Placement placement = maxRectsBin.insert(getPaddedWidth(sprite), getPaddedHeight(sprite), heuristic);
+            if (placement == null) {
+                return null;
+            }
+            placements[index] = placement;
+        }
+
+        int sheetWidth = getSheetSize(_packerSettings.getWidth(), maxRectsBin.getUsedWidth());
+        int sheetHeight = getSheetSize(_packerSettings.getHeight(), maxRectsBin.getUsedHeight());
+        if (_packerSettings.isForceSquared()) {
+            sheetWidth = Math.max(sheetWidth, sheetHeight);
+            sheetHeight = sheetWidth;
+        }
+        if (sheetWidth > Math.max(width, _packerSettings.getMaxWidth()) || sheetHeight > Math.max(height, _packerSettings.getMaxHeight())) {
+            return null;
+        }
+        int offset = borderPadding + _packerSettings.getExtrude();
+        return new AtlasLayout(sheetWidth, sheetHeight, Arrays.asList(placements), offset);
+    }
+
+    private int getSheetSize(final int fixedSize, final int usedSize) {
+        if (fixedSize > 0) {
+            return fixedSize;
+        }
+        int size = usedSize - _packerSettings.getShapePadding() + 2 * _packerSettings.getBorderPadding();
+        if (_packerSettings.isPowerOfTwo()) {
+            int powerOfTwoSize = 1;
+            while (powerOfTwoSize < size) {
+                powerOfTwoSize *= 2;
+            }
+            return powerOfTwoSize;
+        }
+        return size;
+    }
+
+    private boolean isBetter(final AtlasLayout atlasLayout, final AtlasLayout bestAtlasLayout) {
+        if (atlasLayout == null) {
+            return false;
+        }
+        if (bestAtlasLayout == null) {
+            return true;
+        }
+        long area = (long) atlasLayout.getWidth() * atlasLayout.getHeight();
+        long bestArea = (long) bestAtlasLayout.getWidth() * bestAtlasLayout.getHeight();
+        if (area != bestArea) {
+            return area < bestArea;
+        }
+        int side = Math.max(atlasLayout.getWidth(), atlasLayout.getHeight());
+        int bestSide = Math.max(bestAtlasLayout.getWidth(), bestAtlasLayout.getHeight());
+        return side < bestSide;
+    }
+
+    private int getPaddedWidth(final Sprite sprite) {
+        return sprite.getWidth() + 2 * _packerSettings.getExtrude() + _packerSettings.getShapePadding();
+    }
+
+    private int getPaddedHeight(final Sprite sprite) {
+        return sprite.getHeight() + 2 * _packerSettings.getExtrude() + _packerSettings.getShapePadding();
+    }
+
+    /**
+     * Comparator to pack the larger sprites first.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class PackingOrderComparator implements Comparator<Integer> {
+
+        private final List<Sprite> _sprites;
+
+        PackingOrderComparator(final List<Sprite> sprites) {
+            super();
+            _sprites = sprites;
+        }
+
+        @Override
+        public int compare(final Integer index1, final Integer index2) {
+            Sprite sprite1 = _sprites.get(index1);
+            Sprite sprite2 = _sprites.get(index2);
+            int side1 = Math.max(sprite1.getWidth(), sprite1.getHeight());
+            int side2 = Math.max(sprite2.getWidth(), sprite2.getHeight());
+            if (side1 != side2) {
+                return side2 - side1;
+            }
+            int area1 = sprite1.getWidth() * sprite1.getHeight();
+            int area2 = sprite2.getWidth() * sprite2.getHeight();
+            if (area1 != area2) {
+                return area2 - area1;
+            }
+            return index1 - index2;
+        }
+
+    }
+
+}
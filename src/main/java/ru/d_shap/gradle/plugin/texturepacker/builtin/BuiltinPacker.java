@@ -0,0 +1,97 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.builtin;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import ru.d_shap.gradle.plugin.texturepacker.configuration.Parameter;
+
+/**
+ * The builtin packer, packs the images of the source directory into the sheet without TexturePacker.
+ * The images are packed with the MaxRects algorithm, the sheet is written in PNG format, the data file
+ * is written in JSON hash, JSON array or Phaser 3 format. The packer is configured with the same
+ * parameters as TexturePacker, the parameters not supported by the packer are ignored.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class BuiltinPacker {
+
+    /**
+     * The packer version, the created files are not restored from the cache of the other versions.
+     */
+    public static final String VERSION = "builtin-1";
+
+    private static final String SHEET_FORMAT = "png";
+
+    private final PackerSettings _packerSettings;
+
+    /**
+     * Create new object.
+     *
+     * @param parameters the TexturePacker parameters.
+     */
+    public BuiltinPacker(final List<Parameter> parameters) {
+        super();
+        _packerSettings = new PackerSettings(parameters);
+    }
+
+    /**
+     * Get the names of the parameters, that are not supported by the builtin packer.
+     *
+     * @return the names of the parameters, that are not supported by the builtin packer.
+     */
+    public List<String> getIgnoredParameters() {
+        return _packerSettings.getIgnoredParameters();
+    }
+
+    /**
+     * Pack the images of the source directory.
+     *
+     * @param sourceDir the source directory.
+     * @param sheetFile the sheet file to create.
+     * @param dataFile  the data file to create.
+     *
+     * @throws IOException if the images can't be read, or don't fit into the sheet, or the files can't be written.
+     */
+    public void pack(final File sourceDir, final File sheetFile, final File dataFile) throws IOException {
+        List<Sprite> sprites = SpriteLoader.load(sourceDir, _packerSettings);
+        AtlasLayout atlasLayout = new AtlasPacker(_packerSettings).pack(sprites);
+        BufferedImage sheet = SheetRenderer.render(sprites, atlasLayout, _packerSettings.getExtrude());
+        sheetFile.getAbsoluteFile().getParentFile().mkdirs();
+        if (!ImageIO.write(sheet, SHEET_FORMAT, sheetFile)) {
+            throw new IOException("Sheet " + sheetFile.getAbsolutePath() + " can't be written");
+        }
+        String imageName = getImageName(sheetFile, dataFile);
+        AtlasDataWriter.write(dataFile, imageName, sprites, atlasLayout, _packerSettings.getFormat());
+    }
+
+    private String getImageName(final File sheetFile, final File dataFile) {
+        Path dataDirPath = dataFile.getAbsoluteFile().getParentFile().toPath();
+        Path sheetPath = sheetFile.getAbsoluteFile().toPath();
+        return dataDirPath.relativize(sheetPath).toString().replace(File.separatorChar, '/');
+    }
+
+}
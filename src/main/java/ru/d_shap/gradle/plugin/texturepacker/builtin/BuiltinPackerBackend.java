@@ -0,0 +1,73 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.builtin;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import ru.d_shap.gradle.plugin.texturepacker.backend.PackerBackend;
+import ru.d_shap.gradle.plugin.texturepacker.backend.PackerLog;
+import ru.d_shap.gradle.plugin.texturepacker.backend.PackerRequest;
+import ru.d_shap.gradle.plugin.texturepacker.backend.PackerResult;
+
+/**
+ * The packer backend to process the source directory with the builtin packer inside the gradle process.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class BuiltinPackerBackend implements PackerBackend {
+
+    /**
+     * Create new object.
+     */
+    public BuiltinPackerBackend() {
+        super();
+    }
+
+    @Override
+    public String getVersion() {
+        return BuiltinPacker.VERSION;
+    }
+
+    @Override
+    public PackerResult pack(final PackerRequest packerRequest, final PackerLog packerLog) {
+        long startTime = System.currentTimeMillis();
+        long startNanoTime = System.nanoTime();
+        BuiltinPacker builtinPacker = new BuiltinPacker(packerRequest.getParameters());
+        List<String> ignoredParameters = builtinPacker.getIgnoredParameters();
+        if (!ignoredParameters.isEmpty() && packerLog.isInfoEnabled()) {
+            packerLog.info("Parameters " + ignoredParameters + " are not supported by builtin packer and are ignored");
+        }
+        boolean successful;
+        try {
+            builtinPacker.pack(packerRequest.getSourceDir(), packerRequest.getSheetFile(), packerRequest.getDataFile());
+            successful = true;
+        } catch (IOException ex) {
+            if (packerLog.isErrorEnabled()) {
+                packerLog.error("Exception in builtin packer execution", ex);
+            }
+            successful = false;
+        }
+        long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanoTime);
+        return new PackerResult(successful, startTime, duration, 1);
+    }
+
+}
@@ -0,0 +1,304 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.builtin;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The bin for the MaxRects packing algorithm. The bin keeps the list of the maximal free rectangles,
+ * every new rectangle is placed into the free rectangle chosen by the heuristic, and the free rectangles
+ * are split by the placed rectangle.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class MaxRectsBin {
+
+    private final int _width;
+
+    private final int _height;
+
+    private final boolean _rotation;
+
+    private final List<Rectangle> _usedRectangles;
+
+    private final List<Rectangle> _freeRectangles;
+
+    private int _usedWidth;
+
+    private int _usedHeight;
+
+    MaxRectsBin(final int width, final int height, final boolean rotation) {
+        super();
+        _width = width;
+        _height = height;
+        _rotation = rotation;
+        _usedRectangles = new ArrayList<>();
+        _freeRectangles = new ArrayList<>();
+        _freeRectangles.add(new Rectangle(0, 0, width, height));
+        _usedWidth = 0;
+        _usedHeight = 0;
+    }
+
+    int getUsedWidth() {
+        return _usedWidth;
+    }
+
+    int getUsedHeight() {
+        return _usedHeight;
+    }
+
+    Placement insert(final int width, final int height, final Heuristic heuristic) {
+        Placement bestPlacement = null;
+        for (Rectangle freeRectangle : _freeRectangles) {
+            if (freeRectangle.width >= width && freeRectangle.height >= height) {
+                Placement placement = createPlacement(freeRectangle, width, height, false, heuristic);
+                bestPlacement = getBetterPlacement(bestPlacement, placement);
+            }
+            if (_rotation && width != height && freeRectangle.width >= height && freeRectangle.height >= width) {
+                Placement placement = createPlacement(freeRectangle, height, width, true, heuristic);
+                bestPlacement = getBetterPlacement(bestPlacement, placement);
+            }
+        }
+        if (bestPlacement != null) {
+            placeRectangle(new Rectangle(bestPlacement.getX(), bestPlacement.getY(), bestPlacement.getWidth(), bestPlacement.getHeight()));
+        }
+        return bestPlacement;
+    }
+
+    private Placement createPlacement(final Rectangle freeRectangle, final int width, final int height, final boolean rotated, final Heuristic heuristic) {
+        int leftoverHorizontal = freeRectangle.width - width;
+        int leftoverVertical = freeRectangle.height - height;
+        int shortSideFit = Math.min(leftoverHorizontal, leftoverVertical);
+        int longSideFit = Math.max(leftoverHorizontal, leftoverVertical);
+        int primaryScore;
+        int secondaryScore;
+        switch (heuristic) {
+            case BEST_LONG_SIDE_FIT:
+                primaryScore = longSideFit;
+                secondaryScore = shortSideFit;
+                break;
+            case BEST_AREA_FIT:
+                primaryScore = freeRectangle.width * freeRectangle.height - width * height;
+                secondaryScore = shortSideFit;
+                break;
+            case BOTTOM_LEFT:
+                primaryScore = freeRectangle.y + height;
+                secondaryScore = freeRectangle.x;
+                break;
+            case CONTACT_POINT:
+                primaryScore = -getContactPointScore(freeRectangle.x, freeRectangle.y, width, height);
+                secondaryScore = freeRectangle.y;
+                break;
+            default:
+                primaryScore = shortSideFit;
+                secondaryScore = longSideFit;
+                break;
+        }
+        return new Placement(freeRectangle.x, freeRectangle.y, width, height, rotated, primaryScore, secondaryScore);
+    }
+
+    private Placement getBetterPlacement(final Placement bestPlacement, final Placement placement) {
+        if (bestPlacement == null) {
+            return placement;
+        }
+        if (placement._primaryScore < bestPlacement._primaryScore) {
+            return placement;
+        }
+        if (placement._primaryScore == bestPlacement._primaryScore && placement._secondaryScore < bestPlacement._secondaryScore) {
+            return placement;
+        }
+        return bestPlacement;
+    }
+
+    private int getContactPointScore(final int left, final int top, final int width, final int height) {
+        int score = 0;
+        if (left == 0 || left + width == _width) {
+            score += height;
+        }
+        if (top == 0 || top + height == _height) {
+            score += width;
+        }
+        for (Rectangle usedRectangle : _usedRectangles) {
+            if (usedRectangle.x == left + width || usedRectangle.x + usedRectangle.width == left) {
+                score += getCommonIntervalLength(usedRectangle.y, usedRectangle.y + usedRectangle.height, top, top + height);
+            }
+            if (usedRectangle.y == top + height || usedRectangle.y + usedRectangle.height == top) {
+                score += getCommonIntervalLength(usedRectangle.x, usedRectangle.x + usedRectangle.width, left, left + width);
+            }
+        }
+        return score;
+    }
+
+    private int getCommonIntervalLength(final int start1, final int end1, final int start2, final int end2) {
+        if (end1 < start2 || end2 < start1) {
+            return 0;
+        }
+        return Math.min(end1, end2) - Math.max(start1, start2);
+    }
+
+    private void placeRectangle(final Rectangle rectangle) {
+        List<Rectangle> newFreeRectangles = new ArrayList<>();
+        for (int i = _freeRectangles.size() - 1; i >= 0; i--) {
+            if (splitFreeRectangle(_freeRectangles.get(i), rectangle, newFreeRectangles)) {
+                _freeRectangles.remove(i);
+            }
+        }
+        _freeRectangles.addAll(newFreeRectangles);
+        pruneFreeRectangles();
+        _usedRectangles.add(rectangle);
+        _usedWidth = Math.max(_usedWidth, rectangle.x + rectangle.width);
+        _usedHeight = Math.max(_usedHeight, rectangle.y + rectangle.height);
+    }
+
+    private boolean splitFreeRectangle(final Rectangle freeRectangle, final Rectangle usedRectangle, final List<Rectangle> newFreeRectangles) {
+        if (!freeRectangle.intersects(usedRectangle)) {
+            return false;
+        }
+        int freeRight = freeRectangle.x + freeRectangle.width;
+        int freeBottom = freeRectangle.y + freeRectangle.height;
+        int usedRight = usedRectangle.x + usedRectangle.width;
+        int usedBottom = usedRectangle.y + usedRectangle.height;
+        if (usedRectangle.x < freeRight && usedRight > freeRectangle.x) {
+            if (usedRectangle.y > freeRectangle.y) {
+                newFreeRectangles.add(new Rectangle(freeRectangle.x, freeRectangle.y, freeRectangle.width, usedRectangle.y - freeRectangle.y));
+            }
+            if (usedBottom < freeBottom) {
+                newFreeRectangles.add(new Rectangle(freeRectangle.x, usedBottom, freeRectangle.width, freeBottom - usedBottom));
+            }
+        }
+        if (usedRectangle.y < freeBottom && usedBottom > freeRectangle.y) {
+            if (usedRectangle.x > freeRectangle.x) {
+                newFreeRectangles.add(new Rectangle(freeRectangle.x, freeRectangle.y, usedRectangle.x - freeRectangle.x, freeRectangle.height));
+            }
+            if (usedRight < freeRight) {
+                newFreeRectangles.add(new Rectangle(usedRight, freeRectangle.y, freeRight - usedRight, freeRectangle.height));
+            }
+        }
+        return true;
+    }
+
+    private void pruneFreeRectangles() {
+        int index = 0;
+        while (index < _freeRectangles.size()) {
+            if (isContainedInOther(index)) {
+                _freeRectangles.remove(index);
+            } else {
+                index++;
+            }
+        }
+    }
+
+    private boolean isContainedInOther(final int index) {
+        Rectangle rectangle = _freeRectangles.get(index);
+        for (int i = 0; i < _freeRectangles.size(); i++) {
+            Rectangle otherRectangle = _freeRectangles.get(i);
+            if (i != index && otherRectangle.contains(rectangle) && (i < index || !otherRectangle.equals(rectangle))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The heuristic to choose the free rectangle for the new rectangle.
+     *
+     * @author Dmitry Shapovalov
+     */
+    enum Heuristic {
+
+        BEST_SHORT_SIDE_FIT("ShortSideFit"),
+
+        BEST_LONG_SIDE_FIT("LongSideFit"),
+
+        BEST_AREA_FIT("AreaFit"),
+
+        BOTTOM_LEFT("BottomLeft"),
+
+        CONTACT_POINT("ContactPoint");
+
+        private final String _name;
+
+        Heuristic(final String name) {
+            _name = name;
+        }
+
+        String getName() {
+            return _name;
+        }
+
+    }
+
+    /**
+     * The placement of the rectangle in the bin.
+     *
+     * @author Dmitry Shapovalov
+     */
+    static final class Placement {
+
+        private final int _x;
+
+        private final int _y;
+
+        private final int _width;
+
+        private final int _height;
+
+        private final boolean _rotated;
+
+        private final int _primaryScore;
+
+        private final int _secondaryScore;
+
+        Placement(final int left, final int top, final int width, final int height, final boolean rotated, final int primaryScore, final int secondaryScore) {
+            super();
+            _x = left;
+            _y = top;
+            _width = width;
+            _height = height;
+            _rotated = rotated;
+            _primaryScore = primaryScore;
+            _secondaryScore = secondaryScore;
+        }
+
+        int getX() {
+            return _x;
+        }
+
+        int getY() {
+            return _y;
+        }
+
+        int getWidth() {
+            return _width;
+        }
+
+        int getHeight() {
+            return _height;
+        }
+
+        boolean isRotated() {
+            return _rotated;
+        }
+
+    }
+
+}
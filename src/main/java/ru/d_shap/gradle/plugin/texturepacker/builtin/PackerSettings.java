@@ -0,0 +1,335 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.builtin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.gradle.api.InvalidUserDataException;
+
+import ru.d_shap.gradle.plugin.texturepacker.configuration.Parameter;
+
+/**
+ * The settings of the builtin packer. The settings are read from the TexturePacker command line
+ * parameters, so the same pipeline parameters can be used with both packers.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class PackerSettings {
+
+    static final String FORMAT_JSON_HASH = "json-hash";
+
+    static final String FORMAT_JSON_ARRAY = "json-array";
+
+    static final String FORMAT_PHASER = "phaser";
+
+    private static final List<String> JSON_HASH_FORMATS = Collections.unmodifiableList(Arrays.asList("json", FORMAT_JSON_HASH, "phaser-json-hash"));
+
+    private static final List<String> JSON_ARRAY_FORMATS = Collections.unmodifiableList(Arrays.asList(FORMAT_JSON_ARRAY, "phaser-json-array"));
+
+    private static final int DEFAULT_MAX_SIZE = 2048;
+
+    private static final int DEFAULT_PADDING = 2;
+
+    private static final int DEFAULT_EXTRUDE = 1;
+
+    private static final int DEFAULT_TRIM_THRESHOLD = 1;
+
+    private static final int MAX_ALPHA = 255;
+
+    private String _format;
+
+    private int _width;
+
+    private int _height;
+
+    private int _maxWidth;
+
+    private int _maxHeight;
+
+    private boolean _powerOfTwo;
+
+    private boolean _forceSquared;
+
+    private boolean _trim;
+
+    private int _trimThreshold;
+
+    private int _shapePadding;
+
+    private int _borderPadding;
+
+    private int _extrude;
+
+    private boolean _rotation;
+
+    private List<MaxRectsBin.Heuristic> _heuristics;
+
+    private boolean _trimSpriteNames;
+
+    private boolean _prependFolderName;
+
+    private final List<String> _ignoredParameters;
+
+    PackerSettings(final List<Parameter> parameters) {
+        super();
+        _format = FORMAT_JSON_HASH;
+        _width = 0;
+        _height = 0;
+        _maxWidth = DEFAULT_MAX_SIZE;
+        _maxHeight = DEFAULT_MAX_SIZE;
+        _powerOfTwo = false;
+        _forceSquared = false;
+        _trim = true;
+        _trimThreshold = DEFAULT_TRIM_THRESHOLD;
+        _shapePadding = DEFAULT_PADDING;
+        _borderPadding = DEFAULT_PADDING;
+        _extrude = DEFAULT_EXTRUDE;
+        _rotation = true;
+        _heuristics = Arrays.asList(MaxRectsBin.Heuristic.values());
+        _trimSpriteNames = false;
+        _prependFolderName = false;
+        _ignoredParameters = new ArrayList<>();
+        for (Parameter parameter : parameters) {
+            applyParameter(parameter.getName(), parameter.getArgs());
+        }
+    }
+
+    private void applyParameter(final String name, final String[] args) {
+        switch (name) {
+            case "format":
+                _format = parseFormat(getArg(name, args));
+                break;
+            case "width":
+                _width = parseSize(name, args);
+                break;
+            case "height":
+                _height = parseSize(name, args);
+                break;
+            case "max-width":
+                _maxWidth = parseSize(name, args);
+                break;
+            case "max-height":
+                _maxHeight = parseSize(name, args);
+                break;
+            case "max-size":
+                _maxWidth = parseSize(name, args);
+                _maxHeight = _maxWidth;
+                break;
+            case "size-constraints":
+                _powerOfTwo = parsePowerOfTwo(getArg(name, args));
+                break;
+            case "force-squared":
+                _forceSquared = true;
+                break;
+            case "trim-mode":
+                _trim = parseTrim(getArg(name, args));
+                break;
+            case "trim-threshold":
+                _trimThreshold = Math.min(Math.max(parseNumber(name, args), 1), MAX_ALPHA);
+                break;
+            case "shape-padding":
+                _shapePadding = parseNumber(name, args);
+                break;
+            case "border-padding":
+                _borderPadding = parseNumber(name, args);
+                break;
+            case "padding":
+                _shapePadding = parseNumber(name, args);
+                _borderPadding = _shapePadding;
+                break;
+            case "extrude":
+                _extrude = parseNumber(name, args);
+                break;
+            case "enable-rotation":
+                _rotation = true;
+                break;
+            case "disable-rotation":
+                _rotation = false;
+                break;
+            case "algorithm":
+                parseAlgorithm(getArg(name, args));
+                break;
+            case "maxrects-heuristics":
+                _heuristics = parseHeuristics(getArg(name, args));
+                break;
+            case "trim-sprite-names":
+                _trimSpriteNames = true;
+                break;
+            case "prepend-folder-name":
+                _prependFolderName = true;
+                break;
+            default:
+                _ignoredParameters.add(name);
+                break;
+        }
+    }
+
+    private String getArg(final String name, final String[] args) {
+        if (args.length != 1) {
+            throw new InvalidUserDataException("Parameter " + name + " must have one argument");
+        }
+        return args[0];
+    }
+
+    private int parseNumber(final String name, final String[] args) {
+        String arg = getArg(name, args);
+        int value;
+        try {
+            value = Integer.parseInt(arg.trim());
+        } catch (NumberFormatException ex) {
+            throw new InvalidUserDataException("Parameter " + name + " must be a number: " + arg, ex);
+        }
+        if (value < 0) {
+            throw new InvalidUserDataException("Parameter " + name + " must not be negative: " + arg);
+        }
+        return value;
+    }
+
+    private int parseSize(final String name, final String[] args) {
+        int value = parseNumber(name, args);
+        if (value == 0) {
+            throw new InvalidUserDataException("Parameter " + name + " must be positive");
+        }
+        return value;
+    }
+
+    private String parseFormat(final String format) {
+        if (JSON_HASH_FORMATS.contains(format)) {
+            return FORMAT_JSON_HASH;
+        }
+        if (JSON_ARRAY_FORMATS.contains(format)) {
+            return FORMAT_JSON_ARRAY;
+        }
+        if (FORMAT_PHASER.equals(format)) {
+            return FORMAT_PHASER;
+        }
+        throw new InvalidUserDataException("Format " + format + " is not supported by builtin packer, supported formats: " + JSON_HASH_FORMATS + ", " + JSON_ARRAY_FORMATS + ", " + FORMAT_PHASER);
+    }
+
+    private boolean parsePowerOfTwo(final String sizeConstraints) {
+        if ("POT".equals(sizeConstraints)) {
+            return true;
+        }
+        if ("AnySize".equals(sizeConstraints)) {
+            return false;
+        }
+        throw new InvalidUserDataException("Size constraints " + sizeConstraints + " is not supported by builtin packer, supported size constraints: POT, AnySize");
+    }
+
+    private boolean parseTrim(final String trimMode) {
+        if ("Trim".equals(trimMode)) {
+            return true;
+        }
+        if ("None".equals(trimMode)) {
+            return false;
+        }
+        throw new InvalidUserDataException("Trim mode " + trimMode + " is not supported by builtin packer, supported trim modes: Trim, None");
+    }
+
+    private void parseAlgorithm(final String algorithm) {
+        if (!"MaxRects".equals(algorithm)) {
+            throw new InvalidUserDataException("Algorithm " + algorithm + " is not supported by builtin packer, supported algorithms: MaxRects");
+        }
+    }
+
+    private List<MaxRectsBin.Heuristic> parseHeuristics(final String heuristics) {
+        if ("Best".equals(heuristics)) {
+            return Arrays.asList(MaxRectsBin.Heuristic.values());
+        }
+        for (MaxRectsBin.Heuristic heuristic : MaxRectsBin.Heuristic.values()) {
+            if (heuristic.getName().equals(heuristics)) {
+                return Collections.singletonList(heuristic);
+            }
+        }
+        throw new InvalidUserDataException("MaxRects heuristics " + heuristics + " is not supported by builtin packer");
+    }
+
+    String getFormat() {
+        return _format;
+    }
+
+    int getWidth() {
+        return _width;
+    }
+
+    int getHeight() {
+        return _height;
+    }
+
+    int getMaxWidth() {
+        return _maxWidth;
+    }
+
+    int getMaxHeight() {
+        return _maxHeight;
+    }
+
+    boolean isPowerOfTwo() {
+        return _powerOfTwo;
+    }
+
+    boolean isForceSquared() {
+        return _forceSquared;
+    }
+
+    boolean isTrim() {
+        return _trim;
+    }
+
+    int getTrimThreshold() {
+        return _trimThreshold;
+    }
+
+    int getShapePadding() {
+        return _shapePadding;
+    }
+
+    int getBorderPadding() {
+        return _borderPadding;
+    }
+
+    int getExtrude() {
+        return _extrude;
+    }
+
+    boolean isRotation() {
+        return _rotation;
+    }
+
+    List<MaxRectsBin.Heuristic> getHeuristics() {
+        return _heuristics;
+    }
+
+    boolean isTrimSpriteNames() {
+        return _trimSpriteNames;
+    }
+
+    boolean isPrependFolderName() {
+        return _prependFolderName;
+    }
+
+    List<String> getIgnoredParameters() {
+        return _ignoredParameters;
+    }
+
+}
@@ -0,0 +1,86 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.builtin;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * The renderer of the sheet. The sprites are copied to the sheet, rotated clockwise if needed, and the
+ * border pixels of every sprite are repeated on all sides, if the extrude is configured.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class SheetRenderer {
+
+    private SheetRenderer() {
+        super();
+    }
+
+    static BufferedImage render(final List<Sprite> sprites, final AtlasLayout atlasLayout, final int extrude) {
+        BufferedImage sheet = new BufferedImage(atlasLayout.getWidth(), atlasLayout.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        for (int i = 0; i < sprites.size(); i++) {
+            Sprite sprite = sprites.get(i);
+            boolean rotated = atlasLayout.isRotated(i);
+            int frameX = atlasLayout.getFrameX(i);
+            int frameY = atlasLayout.getFrameY(i);
+            int frameWidth = getFrameWidth(sprite, rotated);
+            int frameHeight = getFrameHeight(sprite, rotated);
+            for (int y = -extrude; y < frameHeight + extrude; y++) {
+                int clampedY = clamp(y, frameHeight);
+                for (int x = -extrude; x < frameWidth + extrude; x++) {
+                    int clampedX = clamp(x, frameWidth);
+                    int pixel = getPixel(sprite, rotated, clampedX, clampedY);
+                    sheet.setRGB(frameX + x, frameY + y, pixel);
+                }
+            }
+        }
+        return sheet;
+    }
+
+    private static int getFrameWidth(final Sprite sprite, final boolean rotated) {
+        if (rotated) {
+            return sprite.getHeight();
+        } else {
+            return sprite.getWidth();
+        }
+    }
+
+    private static int getFrameHeight(final Sprite sprite, final boolean rotated) {
+        if (rotated) {
+            return sprite.getWidth();
+        } else {
+            return sprite.getHeight();
+        }
+    }
+
+    private static int clamp(final int value, final int size) {
+        return Math.min(Math.max(value, 0), size - 1);
+    }
+
+    private static int getPixel(final Sprite sprite, final boolean rotated, final int column, final int row) {
+        if (rotated) {
+            return sprite.getPixel(row, sprite.getHeight() - 1 - column);
+        } else {
+            return sprite.getPixel(column, row);
+        }
+    }
+
+}
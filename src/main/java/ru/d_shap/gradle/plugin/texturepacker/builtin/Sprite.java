@@ -0,0 +1,93 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.builtin;
+
+/**
+ * The sprite, the trimmed image to pack.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class Sprite {
+
+    private final String _name;
+
+    private final int[] _pixels;
+
+    private final int _width;
+
+    private final int _height;
+
+    private final int _sourceWidth;
+
+    private final int _sourceHeight;
+
+    private final int _offsetX;
+
+    private final int _offsetY;
+
+    Sprite(final String name, final int[] pixels, final int width, final int height, final int sourceWidth, final int sourceHeight, final int offsetX, final int offsetY) {
+        super();
+        _name = name;
+        _pixels = pixels;
+        _width = width;
+        _height = height;
+        _sourceWidth = sourceWidth;
+        _sourceHeight = sourceHeight;
+        _offsetX = offsetX;
+        _offsetY = offsetY;
+    }
+
+    String getName() {
+        return _name;
+    }
+
+    int getPixel(final int column, final int row) {
+        return _pixels[row * _width + column];
+    }
+
+    int getWidth() {
+        return _width;
+    }
+
+    int getHeight() {
+        return _height;
+    }
+
+    int getSourceWidth() {
+        return _sourceWidth;
+    }
+
+    int getSourceHeight() {
+        return _sourceHeight;
+    }
+
+    int getOffsetX() {
+        return _offsetX;
+    }
+
+    int getOffsetY() {
+        return _offsetY;
+    }
+
+    boolean isTrimmed() {
+        return _width != _sourceWidth || _height != _sourceHeight;
+    }
+
+}
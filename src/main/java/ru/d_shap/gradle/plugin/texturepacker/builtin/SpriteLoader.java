@@ -0,0 +1,175 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.builtin;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import javax.imageio.ImageIO;
+
+/**
+ * The loader of the sprites from the source directory.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class SpriteLoader {
+
+    private static final List<String> IMAGE_EXTENSIONS = Collections.unmodifiableList(Arrays.asList(".png", ".jpg", ".jpeg", ".gif", ".bmp"));
+
+    private static final int ALPHA_SHIFT = 24;
+
+    private static final int ALPHA_MASK = 0xFF;
+
+    private SpriteLoader() {
+        super();
+    }
+
+    static List<Sprite> load(final File sourceDir, final PackerSettings packerSettings) throws IOException {
+        List<Path> imagePaths = findImages(sourceDir.toPath());
+        if (imagePaths.isEmpty()) {
+            throw new IOException("No images found in " + sourceDir.getAbsolutePath());
+        }
+        List<Sprite> sprites = new ArrayList<>(imagePaths.size());
+        Set<String> names = new HashSet<>();
+        for (Path imagePath : imagePaths) {
+            String name = getSpriteName(sourceDir, imagePath, packerSettings);
+            if (!names.add(name)) {
+                throw new IOException("Duplicate sprite name " + name + " in " + sourceDir.getAbsolutePath());
+            }
+            sprites.add(loadSprite(name, imagePath, packerSettings));
+        }
+        return sprites;
+    }
+
+    private static List<Path> findImages(final Path sourcePath) throws IOException {
+        ImageFileVisitor imageFileVisitor = new ImageFileVisitor();
+        Files.walkFileTree(sourcePath, imageFileVisitor);
+        List<Path> imagePaths = imageFileVisitor.getImagePaths();
+        List<String> relativePaths = new ArrayList<>(imagePaths.size());
+        for (Path imagePath : imagePaths) {
+            relativePaths.add(getRelativePath(sourcePath, imagePath));
+        }
+        Collections.sort(relativePaths);
+        List<Path> result = new ArrayList<>(relativePaths.size());
+        for (String relativePath : relativePaths) {
+            result.add(sourcePath.resolve(relativePath));
+        }
+        return result;
+    }
+
+    private static String getRelativePath(final Path sourcePath, final Path path) {
+        return sourcePath.relativize(path).toString().replace(File.separatorChar, '/');
+    }
+
+    private static String getSpriteName(final File sourceDir, final Path imagePath, final PackerSettings packerSettings) {
+        String name = getRelativePath(sourceDir.toPath(), imagePath);
+        if (packerSettings.isTrimSpriteNames()) {
+            name = name.substring(0, name.lastIndexOf('.'));
+        }
+        if (packerSettings.isPrependFolderName()) {
+            name = sourceDir.getName() + "/" + name;
+        }
+        return name;
+    }
+
+    private static Sprite loadSprite(final String name, final Path imagePath, final PackerSettings packerSettings) throws IOException {
+        BufferedImage image = ImageIO.read(imagePath.toFile());
+        if (image == null) {
+            throw new IOException("Image " + imagePath + " can't be read");
+        }
+        int sourceWidth = image.getWidth();
+        int sourceHeight = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, sourceWidth, sourceHeight, null, 0, sourceWidth);
+        if (!packerSettings.isTrim()) {
+            return new Sprite(name, pixels, sourceWidth, sourceHeight, sourceWidth, sourceHeight, 0, 0);
+        }
+
+        int threshold = packerSettings.getTrimThreshold();
+        int minX = sourceWidth;
+        int minY = sourceHeight;
+        int maxX = -1;
+        int maxY = -1;
+        for (int y = 0; y < sourceHeight; y++) {
+            for (int x = 0; x < sourceWidth; x++) {
+                int alpha = pixels[y * sourceWidth + x] >>> ALPHA_SHIFT & ALPHA_MASK;
+                if (alpha >= threshold) {
+                    minX = Math.min(minX, x);
+                    minY = Math.min(minY, y);
+                    maxX = Math.max(maxX, x);
+                    maxY = Math.max(maxY, y);
+                }
+            }
+        }
+        if (maxX < 0) {
+            return new Sprite(name, new int[1], 1, 1, sourceWidth, sourceHeight, 0, 0);
+        }
+        int width = maxX - minX + 1;
+        int height = maxY - minY + 1;
+        int[] trimmedPixels = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            System.arraycopy(pixels, (minY + y) * sourceWidth + minX, trimmedPixels, y * width, width);
+        }
+        return new Sprite(name, trimmedPixels, width, height, sourceWidth, sourceHeight, minX, minY);
+    }
+
+    /**
+     * File visitor to find the images.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class ImageFileVisitor extends SimpleFileVisitor<Path> {
+
+        private final List<Path> _imagePaths;
+
+        ImageFileVisitor() {
+            super();
+            _imagePaths = new ArrayList<>();
+        }
+
+        List<Path> getImagePaths() {
+            return _imagePaths;
+        }
+
+        @Override
+        public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+            String fileName = file.getFileName().toString().toLowerCase(Locale.ENGLISH);
+            int index = fileName.lastIndexOf('.');
+            if (attrs.isRegularFile() && index >= 0 && IMAGE_EXTENSIONS.contains(fileName.substring(index))) {
+                _imagePaths.add(file);
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+    }
+
+}
@@ -19,14 +19,21 @@
 ///////////////////////////////////////////////////////////////////////////////////////////////////
 package ru.d_shap.gradle.plugin.texturepacker.configuration;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 
 import javax.inject.Inject;
 
 import org.gradle.api.InvalidUserDataException;
-import org.gradle.api.Project;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
 
 import groovy.lang.Closure;
 
@@ -37,20 +44,101 @@ import groovy.lang.Closure;
  */
 public class ExtensionConfiguration {
 
-    private final Project _project;
+    /**
+     * The separator of the URL scheme, the remote cache location with this separator is the HTTP URL.
+     */
+    public static final String URL_SCHEME_SEPARATOR = "://";
+
+    private static final long DEFAULT_CACHE_SIZE = 1024L;
+
+    private static final String HTTP_URL_PREFIX = "http" + URL_SCHEME_SEPARATOR;
+
+    private static final String HTTPS_URL_PREFIX = "https" + URL_SCHEME_SEPARATOR;
+
+    private static final long DEFAULT_RETRY_DELAY = 1000L;
+
+    private static final int DEFAULT_BATCH_SIZE = 50;
+
+    private static final long DEFAULT_WATCH_DEBOUNCE = 300L;
+
+    private final ObjectFactory _objectFactory;
+
+    private final File _projectDir;
 
     private final List<PipelineConfiguration> _pipelineConfigurations;
 
+    private final Property<Boolean> _parallel;
+
+    private final Property<Integer> _workers;
+
+    private final Property<Boolean> _incremental;
+
+    private final Property<Boolean> _cache;
+
+    private final DirectoryProperty _cacheDir;
+
+    private final Property<Long> _cacheSize;
+
+    private final Property<String> _remoteCache;
+
+    private final Property<Boolean> _remoteCachePush;
+
+    private final Property<Boolean> _optimizePng;
+
+    private final Property<Long> _processTimeout;
+
+    private final Property<Integer> _retries;
+
+    private final ListProperty<Integer> _retryExitCodes;
+
+    private final Property<Long> _retryDelay;
+
+    private final Property<Boolean> _failFast;
+
+    private final Property<Boolean> _batch;
+
+    private final Property<Integer> _batchSize;
+
+    private final Property<Boolean> _metrics;
+
+    private final Property<Boolean> _buildScanValues;
+
+    private final Property<Long> _watchDebounce;
+
+    private final RegularFileProperty _watchMarker;
+
     /**
      * Create new object.
      *
-     * @param project the project.
+     * @param objectFactory the object factory.
+     * @param projectLayout the project layout.
      */
     @Inject
-    public ExtensionConfiguration(final Project project) {
+    public ExtensionConfiguration(final ObjectFactory objectFactory, final ProjectLayout projectLayout) {
         super();
-        _project = project;
+        _objectFactory = objectFactory;
+        _projectDir = projectLayout.getProjectDirectory().getAsFile();
         _pipelineConfigurations = new ArrayList<>();
+        _parallel = objectFactory.property(Boolean.class).convention(false);
+        _workers = objectFactory.property(Integer.class).convention(0);
+        _incremental = objectFactory.property(Boolean.class).convention(true);
+        _cache = objectFactory.property(Boolean.class).convention(false);
+        _cacheDir = objectFactory.directoryProperty();
+        _cacheSize = objectFactory.property(Long.class).convention(DEFAULT_CACHE_SIZE);
+        _remoteCache = objectFactory.property(String.class);
+        _remoteCachePush = objectFactory.property(Boolean.class).convention(false);
+        _optimizePng = objectFactory.property(Boolean.class).convention(false);
+        _processTimeout = objectFactory.property(Long.class).convention(0L);
+        _retries = objectFactory.property(Integer.class).convention(0);
+        _retryExitCodes = objectFactory.listProperty(Integer.class).empty();
+        _retryDelay = objectFactory.property(Long.class).convention(DEFAULT_RETRY_DELAY);
+        _failFast = objectFactory.property(Boolean.class).convention(false);
+        _batch = objectFactory.property(Boolean.class).convention(false);
+        _batchSize = objectFactory.property(Integer.class).convention(DEFAULT_BATCH_SIZE);
+        _metrics = objectFactory.property(Boolean.class).convention(true);
+        _buildScanValues = objectFactory.property(Boolean.class).convention(false);
+        _watchDebounce = objectFactory.property(Long.class).convention(DEFAULT_WATCH_DEBOUNCE);
+        _watchMarker = objectFactory.fileProperty();
     }
 
     /**
@@ -62,6 +150,410 @@ public class ExtensionConfiguration {
         return _pipelineConfigurations;
     }
 
+    /**
+     * Get the flag to process the source directories in parallel.
+     *
+     * @return the flag to process the source directories in parallel.
+     */
+    public Property<Boolean> getParallel() {
+        return _parallel;
+    }
+
+    /**
+     * Set the flag to process the source directories in parallel.
+     *
+     * @param parallel true, if the source directories should be processed in parallel.
+     */
+    public void parallel(final boolean parallel) {
+        _parallel.set(parallel);
+    }
+
+    /**
+     * Get the maximum number of the parallel workers, zero means the gradle max workers count.
+     *
+     * @return the maximum number of the parallel workers.
+     */
+    public Property<Integer> getWorkers() {
+        return _workers;
+    }
+
+    /**
+     * Set the maximum number of the parallel workers.
+     *
+     * @param workers the maximum number of the parallel workers, zero means the gradle max workers count.
+     */
+    public void workers(final int workers) {
+        if (workers < 0) {
+            throw new InvalidUserDataException("Property workers must not be negative");
+        }
+        _workers.set(workers);
+    }
+
+    /**
+     * Get the flag to process only the changed source directories.
+     *
+     * @return the flag to process only the changed source directories.
+     */
+    public Property<Boolean> getIncremental() {
+        return _incremental;
+    }
+
+    /**
+     * Set the flag to process only the changed source directories.
+     *
+     * @param incremental true, if only the changed source directories should be processed.
+     */
+    public void incremental(final boolean incremental) {
+        _incremental.set(incremental);
+    }
+
+    /**
+     * Get the flag to store the created files to the local cache and restore them from it.
+     *
+     * @return the flag to store the created files to the local cache and restore them from it.
+     */
+    public Property<Boolean> getCache() {
+        return _cache;
+    }
+
+    /**
+     * Set the flag to store the created files to the local cache and restore them from it.
+     *
+     * @param cache true, if the created files should be stored to the local cache and restored from it.
+     */
+    public void cache(final boolean cache) {
+        _cache.set(cache);
+    }
+
+    /**
+     * Get the local cache directory.
+     *
+     * @return the local cache directory.
+     */
+    public DirectoryProperty getCacheDir() {
+        return _cacheDir;
+    }
+
+    /**
+     * Set the local cache directory.
+     *
+     * @param cacheDir the local cache directory.
+     */
+    public void cacheDir(final String cacheDir) {
+        File cacheFile = new File(cacheDir);
+        if (cacheFile.isAbsolute()) {
+            _cacheDir.set(cacheFile);
+        } else {
+            _cacheDir.set(new File(_projectDir, cacheDir));
+        }
+    }
+
+    /**
+     * Get the maximum size of the local cache in megabytes.
+     *
+     * @return the maximum size of the local cache in megabytes.
+     */
+    public Property<Long> getCacheSize() {
+        return _cacheSize;
+    }
+
+    /**
+     * Set the maximum size of the local cache in megabytes.
+     *
+     * @param cacheSize the maximum size of the local cache in megabytes.
+     */
+    public void cacheSize(final long cacheSize) {
+        if (cacheSize <= 0) {
+            throw new InvalidUserDataException("Property cacheSize must be positive");
+        }
+        _cacheSize.set(cacheSize);
+    }
+
+    /**
+     * Get the location of the remote cache, the HTTP URL or the directory.
+     *
+     * @return the location of the remote cache, the HTTP URL or the directory.
+     */
+    public Property<String> getRemoteCache() {
+        return _remoteCache;
+    }
+
+    /**
+     * Set the location of the remote cache, the HTTP URL or the directory.
+     *
+     * @param remoteCache the location of the remote cache, the HTTP URL or the directory.
+     */
+    public void remoteCache(final String remoteCache) {
+        if (remoteCache.contains(URL_SCHEME_SEPARATOR)) {
+            String lowerCaseRemoteCache = remoteCache.toLowerCase(Locale.ENGLISH);
+            if (!lowerCaseRemoteCache.startsWith(HTTP_URL_PREFIX) && !lowerCaseRemoteCache.startsWith(HTTPS_URL_PREFIX)) {
+                throw new InvalidUserDataException("Property remoteCache must be HTTP URL or directory: " + remoteCache);
+            }
+            _remoteCache.set(remoteCache);
+        } else {
+            File remoteCacheDir = new File(remoteCache);
+            if (remoteCacheDir.isAbsolute()) {
+                _remoteCache.set(remoteCacheDir.getAbsolutePath());
+            } else {
+                _remoteCache.set(new File(_projectDir, remoteCache).getAbsolutePath());
+            }
+        }
+    }
+
+    /**
+     * Get the flag to upload the created sheets and atlases to the remote cache.
+     *
+     * @return the flag to upload the created sheets and atlases to the remote cache.
+     */
+    public Property<Boolean> getRemoteCachePush() {
+        return _remoteCachePush;
+    }
+
+    /**
+     * Set the flag to upload the created sheets and atlases to the remote cache.
+     *
+     * @param remoteCachePush true to upload the created sheets and atlases to the remote cache.
+     */
+    public void remoteCachePush(final boolean remoteCachePush) {
+        _remoteCachePush.set(remoteCachePush);
+    }
+
+    /**
+     * Get the flag to optimize the created PNG sheets.
+     *
+     * @return the flag to optimize the created PNG sheets.
+     */
+    public Property<Boolean> getOptimizePng() {
+        return _optimizePng;
+    }
+
+    /**
+     * Set the flag to optimize the created PNG sheets.
+     *
+     * @param optimizePng true to optimize the created PNG sheets.
+     */
+    public void optimizePng(final boolean optimizePng) {
+        _optimizePng.set(optimizePng);
+    }
+
+    /**
+     * Get the maximum time of the source directory processing in seconds, zero means no timeout.
+     *
+     * @return the maximum time of the source directory processing in seconds.
+     */
+    public Property<Long> getProcessTimeout() {
+        return _processTimeout;
+    }
+
+    /**
+     * Set the maximum time of the source directory processing in seconds.
+     *
+     * @param processTimeout the maximum time of the source directory processing in seconds, zero means no timeout.
+     */
+    public void processTimeout(final long processTimeout) {
+        if (processTimeout < 0) {
+            throw new InvalidUserDataException("Property processTimeout must not be negative");
+        }
+        _processTimeout.set(processTimeout);
+    }
+
+    /**
+     * Get the maximum number of the retries, if TexturePacker is timed out or failed with the retry exit code.
+     *
+     * @return the maximum number of the retries.
+     */
+    public Property<Integer> getRetries() {
+        return _retries;
+    }
+
+    /**
+     * Set the maximum number of the retries, if TexturePacker is timed out or failed with the retry exit code.
+     *
+     * @param retries the maximum number of the retries.
+     */
+    public void retries(final int retries) {
+        if (retries < 0) {
+            throw new InvalidUserDataException("Property retries must not be negative");
+        }
+        _retries.set(retries);
+    }
+
+    /**
+     * Get the TexturePacker exit codes to retry the source directory processing.
+     *
+     * @return the TexturePacker exit codes to retry the source directory processing.
+     */
+    public ListProperty<Integer> getRetryExitCodes() {
+        return _retryExitCodes;
+    }
+
+    /**
+     * Set the TexturePacker exit codes to retry the source directory processing.
+     *
+     * @param retryExitCodes the TexturePacker exit codes to retry the source directory processing.
+     */
+    public void retryExitCodes(final Integer... retryExitCodes) {
+        _retryExitCodes.set(Arrays.asList(retryExitCodes));
+    }
+
+    /**
+     * Get the delay before the first retry in milliseconds, the delay is doubled before every next retry.
+     *
+     * @return the delay before the first retry in milliseconds.
+     */
+    public Property<Long> getRetryDelay() {
+        return _retryDelay;
+    }
+
+    /**
+     * Set the delay before the first retry in milliseconds, the delay is doubled before every next retry.
+     *
+     * @param retryDelay the delay before the first retry in milliseconds.
+     */
+    public void retryDelay(final long retryDelay) {
+        if (retryDelay < 0) {
+            throw new InvalidUserDataException("Property retryDelay must not be negative");
+        }
+        _retryDelay.set(retryDelay);
+    }
+
+    /**
+     * Get the flag to cancel the processing of all source directories after the first failure.
+     *
+     * @return the flag to cancel the processing of all source directories after the first failure.
+     */
+    public Property<Boolean> getFailFast() {
+        return _failFast;
+    }
+
+    /**
+     * Set the flag to cancel the processing of all source directories after the first failure.
+     *
+     * @param failFast true, if the processing of all source directories should be cancelled after the first failure.
+     */
+    public void failFast(final boolean failFast) {
+        _failFast.set(failFast);
+    }
+
+    /**
+     * Get the flag to process the source directories of the pipeline with one TexturePacker run.
+     *
+     * @return the flag to process the source directories of the pipeline with one TexturePacker run.
+     */
+    public Property<Boolean> getBatch() {
+        return _batch;
+    }
+
+    /**
+     * Set the flag to process the source directories of the pipeline with one TexturePacker run.
+     *
+     * @param batch true, if the source directories of the pipeline should be processed with one TexturePacker run.
+     */
+    public void batch(final boolean batch) {
+        _batch.set(batch);
+    }
+
+    /**
+     * Get the maximum number of the source directories to process with one TexturePacker run.
+     *
+     * @return the maximum number of the source directories to process with one TexturePacker run.
+     */
+    public Property<Integer> getBatchSize() {
+        return _batchSize;
+    }
+
+    /**
+     * Set the maximum number of the source directories to process with one TexturePacker run.
+     *
+     * @param batchSize the maximum number of the source directories to process with one TexturePacker run.
+     */
+    public void batchSize(final int batchSize) {
+        if (batchSize <= 0) {
+            throw new InvalidUserDataException("Property batchSize must be positive");
+        }
+        _batchSize.set(batchSize);
+    }
+
+    /**
+     * Get the flag to write the metrics of the source directories processing.
+     *
+     * @return the flag to write the metrics of the source directories processing.
+     */
+    public Property<Boolean> getMetrics() {
+        return _metrics;
+    }
+
+    /**
+     * Set the flag to write the metrics of the source directories processing.
+     *
+     * @param metrics true, if the metrics of the source directories processing should be written.
+     */
+    public void metrics(final boolean metrics) {
+        _metrics.set(metrics);
+    }
+
+    /**
+     * Get the flag to add the metrics of the slowest source directories to the build scan.
+     *
+     * @return the flag to add the metrics of the slowest source directories to the build scan.
+     */
+    public Property<Boolean> getBuildScanValues() {
+        return _buildScanValues;
+    }
+
+    /**
+     * Set the flag to add the metrics of the slowest source directories to the build scan.
+     *
+     * @param buildScanValues true, if the metrics of the slowest source directories should be added to the build scan.
+     */
+    public void buildScanValues(final boolean buildScanValues) {
+        _buildScanValues.set(buildScanValues);
+    }
+
+    /**
+     * Get the time in milliseconds without changes of the source directory, after which the source directory is processed in watch mode.
+     *
+     * @return the time in milliseconds without changes of the source directory, after which the source directory is processed in watch mode.
+     */
+    public Property<Long> getWatchDebounce() {
+        return _watchDebounce;
+    }
+
+    /**
+     * Set the time in milliseconds without changes of the source directory, after which the source directory is processed in watch mode.
+     *
+     * @param watchDebounce the time in milliseconds without changes of the source directory.
+     */
+    public void watchDebounce(final long watchDebounce) {
+        if (watchDebounce < 0) {
+            throw new InvalidUserDataException("Property watchDebounce must not be negative");
+        }
+        _watchDebounce.set(watchDebounce);
+    }
+
+    /**
+     * Get the marker file, that is touched in watch mode after the source directories are processed.
+     *
+     * @return the marker file.
+     */
+    public RegularFileProperty getWatchMarker() {
+        return _watchMarker;
+    }
+
+    /**
+     * Set the marker file, that is touched in watch mode after the source directories are processed.
+     *
+     * @param watchMarker the marker file.
+     */
+    public void watchMarker(final String watchMarker) {
+        File watchMarkerFile = new File(watchMarker);
+        if (watchMarkerFile.isAbsolute()) {
+            _watchMarker.set(watchMarkerFile);
+        } else {
+            _watchMarker.set(new File(_projectDir, watchMarker));
+        }
+    }
+
     /**
      * Add the pipeline configuration.
      *
@@ -70,8 +562,7 @@ public class ExtensionConfiguration {
      */
     public void methodMissing(final String name, final Object args) {
         if (args instanceof Object[] && ((Object[]) args).length == 1 && ((Object[]) args)[0] instanceof Closure) {
-            ObjectFactory objects = _project.getObjects();
-            PipelineConfiguration pipelineConfiguration = objects.newInstance(PipelineConfiguration.class, _project, name);
+            PipelineConfiguration pipelineConfiguration = _objectFactory.newInstance(PipelineConfiguration.class, name);
 
             Closure<?> closure = (Closure<?>) ((Object[]) args)[0];
             closure.setDelegate(pipelineConfiguration);
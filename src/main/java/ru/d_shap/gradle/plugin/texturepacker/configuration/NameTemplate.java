@@ -0,0 +1,90 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.configuration;
+
+import org.gradle.api.InvalidUserDataException;
+
+import groovy.lang.Closure;
+
+/**
+ * Helper class to work with the file name templates. The file name template is a string with the
+ * {name} placeholder, the placeholder is replaced with the source directory name.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class NameTemplate {
+
+    /**
+     * The placeholder for the source directory name.
+     */
+    public static final String PLACEHOLDER = "{name}";
+
+    private static final String FIRST_MARKER = "\u0000a\u0000";
+
+    private static final String SECOND_MARKER = "\u0000B\u0000";
+
+    private NameTemplate() {
+        super();
+    }
+
+    /**
+     * Create the file name template from the closure. The closure is called at configuration time with
+     * the marker instead of the source directory name, so the closure must only concatenate the source
+     * directory name with constant strings.
+     *
+     * @param closure the closure.
+     *
+     * @return the file name template.
+     */
+    public static String fromClosure(final Closure<?> closure) {
+        String firstResult = callClosure(closure, FIRST_MARKER);
+        String secondResult = callClosure(closure, SECOND_MARKER);
+        if (!firstResult.replace(FIRST_MARKER, SECOND_MARKER).equals(secondResult)) {
+            throw new InvalidUserDataException("File name closure must only concatenate the directory name with constant strings, use a string template with " + PLACEHOLDER + " placeholder instead");
+        }
+        String template = firstResult.replace(FIRST_MARKER, PLACEHOLDER);
+        if (template.indexOf('\u0000') >= 0) {
+            throw new InvalidUserDataException("File name closure must not modify the directory name, use a string template with " + PLACEHOLDER + " placeholder instead");
+        }
+        return template;
+    }
+
+    private static String callClosure(final Closure<?> closure, final String marker) {
+        Object callResult = closure.call(marker);
+        if (callResult instanceof String) {
+            return (String) callResult;
+        } else {
+            return String.valueOf(callResult);
+        }
+    }
+
+    /**
+     * Resolve the file name template for the source directory.
+     *
+     * @param template the file name template.
+     * @param name     the source directory name.
+     *
+     * @return the file name.
+     */
+    public static String resolve(final String template, final String name) {
+        return template.replace(PLACEHOLDER, name);
+    }
+
+}
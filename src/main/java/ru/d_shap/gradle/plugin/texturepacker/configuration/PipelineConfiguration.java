@@ -21,13 +21,16 @@ package ru.d_shap.gradle.plugin.texturepacker.configuration;
 
 import java.io.File;
 import java.util.Arrays;
-import java.util.List;
+import java.util.Collections;
 
 import javax.inject.Inject;
 
-import org.gradle.api.Project;
-import org.gradle.api.file.ConfigurableFileTree;
+import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.ProjectLayout;
 import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
 
 import groovy.lang.Closure;
 
@@ -38,43 +41,73 @@ import groovy.lang.Closure;
  */
 public class PipelineConfiguration {
 
-    private final Project _project;
+    /**
+     * The packer to process the source directories with TexturePacker.
+     */
+    public static final String PACKER_TEXTUREPACKER = "texturepacker";
+
+    /**
+     * The packer to process the source directories with the builtin packer.
+     */
+    public static final String PACKER_BUILTIN = "builtin";
+
+    /**
+     * The packer to process the source directories with the stub packer, that doesn't pack the images.
+     */
+    public static final String PACKER_STUB = "stub";
 
     private final String _name;
 
-    private File _sourceDir;
+    private final File _projectDir;
+
+    private final DirectoryProperty _buildDir;
+
+    private final DirectoryProperty _sourceDir;
 
-    private List<String> _include;
+    private final ListProperty<String> _include;
 
-    private List<String> _exclude;
+    private final ListProperty<String> _exclude;
 
-    private File _destinationDir;
+    private final Property<Boolean> _recursive;
 
-    private Closure<?> _sheetNameClosure;
+    private final Property<Boolean> _split;
 
-    private Closure<?> _dataNameClosure;
+    private final DirectoryProperty _destinationDir;
+
+    private final Property<String> _sheetName;
+
+    private final Property<String> _dataName;
+
+    private final Property<String> _binaryName;
+
+    private final Property<String> _packer;
 
     private final ParametersConfiguration _parametersConfiguration;
 
     /**
      * Create new object.
      *
-     * @param project the project.
-     * @param name    the pipeline name.
+     * @param name          the pipeline name.
+     * @param objectFactory the object factory.
+     * @param projectLayout the project layout.
      */
     @Inject
-    public PipelineConfiguration(final Project project, final String name) {
+    public PipelineConfiguration(final String name, final ObjectFactory objectFactory, final ProjectLayout projectLayout) {
         super();
-        _project = project;
         _name = name;
-        _sourceDir = null;
-        _include = null;
-        _exclude = null;
-        _destinationDir = null;
-        _sheetNameClosure = null;
-        _dataNameClosure = null;
-        ObjectFactory objects = _project.getObjects();
-        _parametersConfiguration = objects.newInstance(ParametersConfiguration.class);
+        _projectDir = projectLayout.getProjectDirectory().getAsFile();
+        _buildDir = projectLayout.getBuildDirectory();
+        _sourceDir = objectFactory.directoryProperty();
+        _include = objectFactory.listProperty(String.class).empty();
+        _exclude = objectFactory.listProperty(String.class).empty();
+        _recursive = objectFactory.property(Boolean.class).convention(false);
+        _split = objectFactory.property(Boolean.class).convention(false);
+        _destinationDir = objectFactory.directoryProperty();
+        _sheetName = objectFactory.property(String.class);
+        _dataName = objectFactory.property(String.class);
+        _binaryName = objectFactory.property(String.class);
+        _packer = objectFactory.property(String.class).convention(PACKER_TEXTUREPACKER);
+        _parametersConfiguration = objectFactory.newInstance(ParametersConfiguration.class);
     }
 
     /**
@@ -91,7 +124,7 @@ public class PipelineConfiguration {
      *
      * @return the source directory.
      */
-    public File getSourceDir() {
+    public DirectoryProperty getSourceDir() {
         return _sourceDir;
     }
 
@@ -101,61 +134,102 @@ public class PipelineConfiguration {
      * @param sourceDir the source directory.
      */
     public void src(final String sourceDir) {
-        ConfigurableFileTree fileTree = _project.fileTree(sourceDir);
-        File sourceFile = fileTree.getDir();
-        _sourceDir = sourceFile.getAbsoluteFile();
+        File sourceFile = new File(sourceDir);
+        if (sourceFile.isAbsolute()) {
+            _sourceDir.set(sourceFile);
+        } else {
+            _sourceDir.set(new File(_projectDir, sourceDir));
+        }
     }
 
     /**
-     * Get the source directories to include.
+     * Get the patterns of the source directories to include.
      *
-     * @return the source directories to include.
+     * @return the patterns of the source directories to include.
      */
-    public List<String> getInclude() {
+    public ListProperty<String> getInclude() {
         return _include;
     }
 
     /**
-     * Set the source directories to include.
+     * Set the patterns of the source directories to include: the Ant-style patterns or the regular
+     * expressions with the regex: prefix.
      *
-     * @param include the source directories to include.
+     * @param include the patterns of the source directories to include.
      */
     public void include(final String... include) {
         if (include == null) {
-            _include = null;
+            _include.set(Collections.<String>emptyList());
         } else {
-            _include = Arrays.asList(include);
+            _include.set(Arrays.asList(include));
         }
     }
 
     /**
-     * Get the source directories to exclude.
+     * Get the patterns of the source directories to exclude.
      *
-     * @return the source directories to exclude.
+     * @return the patterns of the source directories to exclude.
      */
-    public List<String> getExclude() {
+    public ListProperty<String> getExclude() {
         return _exclude;
     }
 
     /**
-     * Set the source directories to exclude.
+     * Set the patterns of the source directories to exclude: the Ant-style patterns or the regular
+     * expressions with the regex: prefix. The subdirectories of the excluded directories are excluded too.
      *
-     * @param exclude the source directories to exclude.
+     * @param exclude the patterns of the source directories to exclude.
      */
     public void exclude(final String... exclude) {
         if (exclude == null) {
-            _exclude = null;
+            _exclude.set(Collections.<String>emptyList());
         } else {
-            _exclude = Arrays.asList(exclude);
+            _exclude.set(Arrays.asList(exclude));
         }
     }
 
+    /**
+     * Get the flag to find the source directories in the subdirectories of the source directory.
+     *
+     * @return the flag to find the source directories in the subdirectories of the source directory.
+     */
+    public Property<Boolean> getRecursive() {
+        return _recursive;
+    }
+
+    /**
+     * Set the flag to find the source directories in the subdirectories of the source directory.
+     *
+     * @param recursive true to find the source directories in the subdirectories of the source directory.
+     */
+    public void recursive(final boolean recursive) {
+        _recursive.set(recursive);
+    }
+
+    /**
+     * Get the flag to split the source directory into several sheets if the sprites don't fit in one sheet.
+     *
+     * @return the flag to split the source directory into several sheets.
+     */
+    public Property<Boolean> getSplit() {
+        return _split;
+    }
+
+    /**
+     * Set the flag to split the source directory into several sheets if the sprites don't fit in one sheet.
+     *
+     * @param split true to split the source directory into several sheets.
+     */
+    public void split(final boolean split) {
+        _split.set(split);
+    }
+
     /**
      * Get the destination directory.
      *
      * @return the destination directory.
      */
-    public File getDestinationDir() {
+    public DirectoryProperty getDestinationDir() {
         return _destinationDir;
     }
 
@@ -165,45 +239,114 @@ public class PipelineConfiguration {
      * @param destinationDir the destination directory.
      */
     public void dst(final String destinationDir) {
-        File buildDir = _project.getBuildDir();
-        File buildFile = buildDir.getAbsoluteFile();
-        _destinationDir = new File(buildFile, destinationDir);
+        _destinationDir.set(_buildDir.dir(destinationDir));
     }
 
     /**
-     * Get the sheet name closure.
+     * Get the sheet file name template.
      *
-     * @return the sheet name closure.
+     * @return the sheet file name template.
      */
-    public Closure<?> getSheetNameClosure() {
-        return _sheetNameClosure;
+    public Property<String> getSheetName() {
+        return _sheetName;
     }
 
     /**
-     * Set the sheet name closure.
+     * Set the sheet file name closure. The closure is converted to the file name template.
      *
      * @param closure the closure.
      */
     public void sheet(final Closure<?> closure) {
-        _sheetNameClosure = closure;
+        _sheetName.set(NameTemplate.fromClosure(closure));
     }
 
     /**
-     * Get the data name closure.
+     * Set the sheet file name template.
      *
-     * @return the data name closure.
+     * @param template the template.
      */
-    public Closure<?> getDataNameClosure() {
-        return _dataNameClosure;
+    public void sheet(final String template) {
+        _sheetName.set(template);
     }
 
     /**
-     * Set the data name closure.
+     * Get the data file name template.
+     *
+     * @return the data file name template.
+     */
+    public Property<String> getDataName() {
+        return _dataName;
+    }
+
+    /**
+     * Set the data file name closure. The closure is converted to the file name template.
      *
      * @param closure the closure.
      */
     public void data(final Closure<?> closure) {
-        _dataNameClosure = closure;
+        _dataName.set(NameTemplate.fromClosure(closure));
+    }
+
+    /**
+     * Set the data file name template.
+     *
+     * @param template the template.
+     */
+    public void data(final String template) {
+        _dataName.set(template);
+    }
+
+    /**
+     * Get the binary atlas file name template.
+     *
+     * @return the binary atlas file name template.
+     */
+    public Property<String> getBinaryName() {
+        return _binaryName;
+    }
+
+    /**
+     * Set the binary atlas file name closure. The closure is converted to the file name template.
+     *
+     * @param closure the closure.
+     */
+    public void binary(final Closure<?> closure) {
+        _binaryName.set(NameTemplate.fromClosure(closure));
+    }
+
+    /**
+     * Set the binary atlas file name template.
+     *
+     * @param template the template.
+     */
+    public void binary(final String template) {
+        _binaryName.set(template);
+    }
+
+    /**
+     * Get the packer to process the source directories.
+     *
+     * @return the packer to process the source directories.
+     */
+    public Property<String> getPacker() {
+        return _packer;
+    }
+
+    /**
+     * Set the packer to process the source directories.
+     *
+     * @param packer the packer to process the source directories: texturepacker, builtin, stub or the fully
+     *               qualified name of the packer backend class.
+     */
+    public void packer(final String packer) {
+        if (!PACKER_TEXTUREPACKER.equals(packer) && !PACKER_BUILTIN.equals(packer) && !PACKER_STUB.equals(packer) && !isClassName(packer)) {
+            throw new InvalidUserDataException("Packer " + packer + " is not supported, supported packers: " + PACKER_TEXTUREPACKER + ", " + PACKER_BUILTIN + ", " + PACKER_STUB + " or the packer backend class name");
+        }
+        _packer.set(packer);
+    }
+
+    private boolean isClassName(final String packer) {
+        return packer != null && packer.indexOf('.') > 0 && !packer.endsWith(".");
     }
 
     /**
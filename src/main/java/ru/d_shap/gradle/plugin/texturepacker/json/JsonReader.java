@@ -0,0 +1,232 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The simple JSON reader. The JSON object is read as the map, the JSON array is read as the list,
+ * the JSON number is read as the double value.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class JsonReader {
+
+    private static final int HEX_RADIX = 16;
+
+    private final String _json;
+
+    private int _position;
+
+    private JsonReader(final String json) {
+        super();
+        _json = json;
+        _position = 0;
+    }
+
+    /**
+     * Read the JSON value.
+     *
+     * @param json the JSON string.
+     *
+     * @return the value: the map, the list, the string, the double value, the boolean value or null.
+     *
+     * @throws IOException if the JSON string is not valid.
+     */
+    public static Object read(final String json) throws IOException {
+        JsonReader jsonReader = new JsonReader(json);
+        Object value = jsonReader.readValue();
+        jsonReader.skipWhitespace();
+        if (jsonReader._position != json.length()) {
+            throw jsonReader.createException("End of JSON expected");
+        }
+        return value;
+    }
+
+    private Object readValue() throws IOException {
+        skipWhitespace();
+        if (_position >= _json.length()) {
+            throw createException("Value expected");
+        }
+        char ch = _json.charAt(_position);
+        switch (ch) {
+            case '{':
+                return readObject();
+            case '[':
+                return readArray();
+            case '"':
+                return readString();
+            case 't':
+                readLiteral("true");
+                return Boolean.TRUE;
+            case 'f':
+                readLiteral("false");
+                return Boolean.FALSE;
+            case 'n':
+                readLiteral("null");
+                return null;
+            default:
+                return readNumber();
+        }
+    }
+
+    private Map<String, Object> readObject() throws IOException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        _position++;
+        skipWhitespace();
+        if (consume('}')) {
+            return result;
+        }
+        do {
+            skipWhitespace();
+            if (_position >= _json.length() || _json.charAt(_position) != '"') {
+                throw createException("Name expected");
+            }
+            String name = readString();
+            skipWhitespace();
+            if (!consume(':')) {
+                throw createException("Colon expected");
+            }
+            result.put(name, readValue());
+            skipWhitespace();
+        } while (consume(','));
+        if (!consume('}')) {
+            throw createException("End of object expected");
+        }
+        return result;
+    }
+
+    private List<Object> readArray() throws IOException {
+        List<Object> result = new ArrayList<>();
+        _position++;
+        skipWhitespace();
+        if (consume(']')) {
+            return result;
+        }
+        do {
+            result.add(readValue());
+            skipWhitespace();
+        } while (consume(','));
+        if (!consume(']')) {
+            throw createException("End of array expected");
+        }
+        return result;
+    }
+
+    private String readString() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        _position++;
+        while (_position < _json.length()) {
+            char ch = _json.charAt(_position);
+            _position++;
+            if (ch == '"') {
+                return builder.toString();
+            }
+            if (ch == '\\') {
+                builder.append(readEscapedChar());
+            } else {
+                builder.append(ch);
+            }
+        }
+        throw createException("End of string expected");
+    }
+
+    private char readEscapedChar() throws IOException {
+        if (_position >= _json.length()) {
+            throw createException("Escaped character expected");
+        }
+        char ch = _json.charAt(_position);
+        _position++;
+        switch (ch) {
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                if (_position + 4 > _json.length()) {
+                    throw createException("Unicode escape expected");
+                }
+                try {
+                    char result = (char) Integer.parseInt(_json.substring(_position, _position + 4), HEX_RADIX);
+                    _position += 4;
+                    return result;
+                } catch (NumberFormatException ex) {
+                    throw createException("Unicode escape expected", ex);
+                }
+            default:
+                return ch;
+        }
+    }
+
+    private Double readNumber() throws IOException {
+        int start = _position;
+        while (_position < _json.length() && "+-0123456789.eE".indexOf(_json.charAt(_position)) >= 0) {
+            _position++;
+        }
+        if (start == _position) {
+            throw createException("Value expected");
+        }
+        try {
+            return Double.valueOf(_json.substring(start, _position));
+        } catch (NumberFormatException ex) {
+            throw createException("Number expected", ex);
+        }
+    }
+
+    private void readLiteral(final String literal) throws IOException {
+        if (!_json.startsWith(literal, _position)) {
+            throw createException(literal + " expected");
+        }
+        _position += literal.length();
+    }
+
+    private boolean consume(final char ch) {
+        if (_position < _json.length() && _json.charAt(_position) == ch) {
+            _position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (_position < _json.length() && Character.isWhitespace(_json.charAt(_position))) {
+            _position++;
+        }
+    }
+
+    private IOException createException(final String message) {
+        return new IOException(message + " at position " + _position);
+    }
+
+    private IOException createException(final String message, final Throwable cause) {
+        return new IOException(message + " at position " + _position, cause);
+    }
+
+}
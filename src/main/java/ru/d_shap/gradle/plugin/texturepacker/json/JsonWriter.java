@@ -0,0 +1,217 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.json;
+
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * The simple JSON writer.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class JsonWriter {
+
+    private static final String INDENT = "    ";
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private static final int UNICODE_ESCAPE_LIMIT = 0x20;
+
+    private final StringWriter _writer;
+
+    private final Deque<Boolean> _emptyScopes;
+
+    private boolean _afterName;
+
+    /**
+     * Create new object.
+     */
+    public JsonWriter() {
+        super();
+        _writer = new StringWriter(BUFFER_SIZE);
+        _emptyScopes = new ArrayDeque<>();
+        _afterName = false;
+    }
+
+    /**
+     * Begin the object.
+     *
+     * @return the writer.
+     */
+    public JsonWriter beginObject() {
+        beforeValue();
+        _writer.append('{');
+        _emptyScopes.push(true);
+        return this;
+    }
+
+    /**
+     * End the object.
+     *
+     * @return the writer.
+     */
+    public JsonWriter endObject() {
+        endScope();
+        _writer.append('}');
+        return this;
+    }
+
+    /**
+     * Begin the array.
+     *
+     * @return the writer.
+     */
+    public JsonWriter beginArray() {
+        beforeValue();
+        _writer.append('[');
+        _emptyScopes.push(true);
+        return this;
+    }
+
+    /**
+     * End the array.
+     *
+     * @return the writer.
+     */
+    public JsonWriter endArray() {
+        endScope();
+        _writer.append(']');
+        return this;
+    }
+
+    /**
+     * Write the name of the object member.
+     *
+     * @param name the name.
+     *
+     * @return the writer.
+     */
+    public JsonWriter name(final String name) {
+        beforeValue();
+        appendString(name);
+        _writer.append(": ");
+        _afterName = true;
+        return this;
+    }
+
+    /**
+     * Write the string value.
+     *
+     * @param value the value.
+     *
+     * @return the writer.
+     */
+    public JsonWriter value(final String value) {
+        beforeValue();
+        appendString(value);
+        return this;
+    }
+
+    /**
+     * Write the number value.
+     *
+     * @param value the value.
+     *
+     * @return the writer.
+     */
+    public JsonWriter value(final long value) {
+        beforeValue();
+        _writer.append(String.valueOf(value));
+        return this;
+    }
+
+    /**
+     * Write the number value.
+     *
+     * @param value the value.
+     *
+     * @return the writer.
+     */
+    public JsonWriter value(final double value) {
+        beforeValue();
+        _writer.append(String.valueOf(value));
+        return this;
+    }
+
+    /**
+     * Write the boolean value.
+     *
+     * @param value the value.
+     *
+     * @return the writer.
+     */
+    public JsonWriter value(final boolean value) {
+        beforeValue();
+        _writer.append(String.valueOf(value));
+        return this;
+    }
+
+    private void beforeValue() {
+        if (_afterName) {
+            _afterName = false;
+            return;
+        }
+        if (_emptyScopes.isEmpty()) {
+            return;
+        }
+        if (!_emptyScopes.pop()) {
+            _writer.append(',');
+        }
+        _emptyScopes.push(false);
+        appendNewLine();
+    }
+
+    private void endScope() {
+        boolean empty = _emptyScopes.pop();
+        if (!empty) {
+            appendNewLine();
+        }
+    }
+
+    private void appendNewLine() {
+        _writer.append('\n');
+        for (int i = 0; i < _emptyScopes.size(); i++) {
+            _writer.append(INDENT);
+        }
+    }
+
+    private void appendString(final String value) {
+        _writer.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '"' || ch == '\\') {
+                _writer.append('\\').append(ch);
+            } else if (ch < UNICODE_ESCAPE_LIMIT) {
+                _writer.append(String.format("\\u%04x", (int) ch));
+            } else {
+                _writer.append(ch);
+            }
+        }
+        _writer.append('"');
+    }
+
+    @Override
+    public String toString() {
+        return _writer.toString();
+    }
+
+}
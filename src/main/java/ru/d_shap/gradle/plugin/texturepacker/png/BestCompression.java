@@ -0,0 +1,71 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.png;
+
+/**
+ * The best compressed image data of the concurrent encodings. The encodings are abandoned as soon as
+ * the compressed data is larger than the best compressed data, so at most one compressed image data of
+ * every encoding in progress is held in memory. The compressed image data of the same length are ordered
+ * by the encoding order, so the result does not depend on the order of the encodings completion.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class BestCompression {
+
+    private final Object _lock;
+
+    private volatile int _maxLength;
+
+    private byte[] _compressedPixels;
+
+    private int _order;
+
+    BestCompression(final int maxLength) {
+        super();
+        _lock = new Object();
+        _maxLength = maxLength;
+        _compressedPixels = null;
+        _order = 0;
+    }
+
+    int getMaxLength() {
+        return _maxLength;
+    }
+
+    void offer(final byte[] compressedPixels, final int order) {
+        if (compressedPixels == null) {
+            return;
+        }
+        synchronized (_lock) {
+            if (_compressedPixels == null || compressedPixels.length < _compressedPixels.length || compressedPixels.length == _compressedPixels.length && order < _order) {
+                _compressedPixels = compressedPixels;
+                _order = order;
+                _maxLength = compressedPixels.length;
+            }
+        }
+    }
+
+    byte[] getCompressedPixels() {
+        synchronized (_lock) {
+            return _compressedPixels;
+        }
+    }
+
+}
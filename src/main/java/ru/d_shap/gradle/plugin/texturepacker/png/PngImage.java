@@ -0,0 +1,430 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.png;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The decoded non-interlaced PNG image: the header, the palette, the transparency and the unfiltered
+ * image rows. Only these chunks are kept, the other ancillary chunks are dropped.
+ *
+ * @author Dmitry Shapovalov
+ */
+final class PngImage {
+
+    static final int FILTER_NONE = 0;
+
+    static final int FILTER_SUB = 1;
+
+    static final int FILTER_UP = 2;
+
+    static final int FILTER_AVERAGE = 3;
+
+    static final int FILTER_PAETH = 4;
+
+    static final int FILTER_ADAPTIVE = 5;
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private static final String CHUNK_HEADER = "IHDR";
+
+    private static final String CHUNK_PALETTE = "PLTE";
+
+    private static final String CHUNK_TRANSPARENCY = "tRNS";
+
+    private static final String CHUNK_DATA = "IDAT";
+
+    private static final String CHUNK_END = "IEND";
+
+    private static final int HEADER_LENGTH = 13;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final byte[] _header;
+
+    private final byte[] _palette;
+
+    private final byte[] _transparency;
+
+    private final int _height;
+
+    private final int _rowLength;
+
+    private final int _pixelLength;
+
+    private final byte[] _pixels;
+
+    private PngImage(final byte[] header, final byte[] palette, final byte[] transparency, final int height, final int rowLength, final int pixelLength, final byte[] pixels) {
+        super();
+        _header = header;
+        _palette = palette;
+        _transparency = transparency;
+        _height = height;
+        _rowLength = rowLength;
+        _pixelLength = pixelLength;
+        _pixels = pixels;
+    }
+
+    /**
+     * Decode the PNG image.
+     *
+     * @param data the PNG image.
+     *
+     * @return the decoded image, or null if the image is not a PNG image, is interlaced or contains the unknown
+     *         critical chunk.
+     *
+     * @throws IOException if the image is corrupted.
+     */
+    static PngImage read(final byte[] data) throws IOException {
+        if (data.length < SIGNATURE.length || !Arrays.equals(SIGNATURE, Arrays.copyOf(data, SIGNATURE.length))) {
+            return null;
+        }
+        byte[] header = null;
+        byte[] palette = null;
+        byte[] transparency = null;
+        List<int[]> dataChunks = new ArrayList<>();
+        int offset = SIGNATURE.length;
+        while (true) {
+            if (offset + 8 > data.length) {
+                throw new IOException("PNG image is truncated");
+            }
+            int length = readInt(data, offset);
+            String type = new String(data, offset + 4, 4, StandardCharsets.US_ASCII);
+            int dataOffset = offset + 8;
+            if (length < 0 || dataOffset + length + 4 > data.length) {
+                throw new IOException("PNG image is truncated");
+            }
+            if (CHUNK_END.equals(type)) {
+                break;
+            }
+            if (CHUNK_HEADER.equals(type)) {
+                header = Arrays.copyOfRange(data, dataOffset, dataOffset + length);
+            } else if (CHUNK_PALETTE.equals(type)) {
+                palette = Arrays.copyOfRange(data, dataOffset, dataOffset + length);
+            } else if (CHUNK_TRANSPARENCY.equals(type)) {
+                transparency = Arrays.copyOfRange(data, dataOffset, dataOffset + length);
+            } else if (CHUNK_DATA.equals(type)) {
+                dataChunks.add(new int[]{dataOffset, length});
+            } else if (Character.isUpperCase(type.charAt(0))) {
+                return null;
+            }
+            offset = dataOffset + length + 4;
+        }
+        if (header == null || header.length != HEADER_LENGTH) {
+            throw new IOException("PNG image has no header");
+        }
+        return create(header, palette, transparency, data, dataChunks);
+    }
+
+    private static PngImage create(final byte[] header, final byte[] palette, final byte[] transparency, final byte[] data, final List<int[]> dataChunks) throws IOException {
+        int width = readInt(header, 0);
+        int height = readInt(header, 4);
+        int bitDepth = header[8] & 0xFF;
+        int channelCount = getChannelCount(header[9] & 0xFF);
+        int interlace = header[12] & 0xFF;
+        if (interlace != 0 || channelCount == 0) {
+            return null;
+        }
+        int bitsPerPixel = channelCount * bitDepth;
+        long rowLength = ((long) width * bitsPerPixel + 7L) / 8L;
+        if (rowLength * height > Integer.MAX_VALUE) {
+            return null;
+        }
+        int pixelLength = Math.max(1, bitsPerPixel / 8);
+        byte[] pixels = decode(data, dataChunks, height, (int) rowLength, pixelLength);
+        return new PngImage(header, palette, transparency, height, (int) rowLength, pixelLength, pixels);
+    }
+
+    private static int getChannelCount(final int colorType) {
+        switch (colorType) {
+            case 0:
+                return 1;
+            case 2:
+                return 3;
+            case 3:
+                return 1;
+            case 4:
+                return 2;
+            case 6:
+                return 4;
+            default:
+                return 0;
+        }
+    }
+
+    private static byte[] decode(final byte[] data, final List<int[]> dataChunks, final int height, final int rowLength, final int pixelLength) throws IOException {
+        byte[] pixels = new byte[rowLength * height];
+        byte[] filteredRow = new byte[rowLength + 1];
+        Inflater inflater = new Inflater();
+        try {
+            int chunkIndex = 0;
+            for (int row = 0; row < height; row++) {
+                int length = 0;
+                while (length < filteredRow.length) {
+                    if (inflater.needsInput()) {
+                        if (chunkIndex >= dataChunks.size()) {
+                            throw new IOException("PNG image data is truncated");
+                        }
+                        int[] dataChunk = dataChunks.get(chunkIndex);
+                        inflater.setInput(data, dataChunk[0], dataChunk[1]);
+                        chunkIndex++;
+                        continue;
+                    }
+                    int count = inflater.inflate(filteredRow, length, filteredRow.length - length);
+                    if (count == 0 && (inflater.finished() || inflater.needsDictionary())) {
+                        throw new IOException("PNG image data is truncated");
+                    }
+                    length += count;
+                }
+                unfilterRow(filteredRow, pixels, row * rowLength, rowLength, pixelLength);
+            }
+            return pixels;
+        } catch (DataFormatException ex) {
+            throw new IOException("PNG image data is corrupted", ex);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void unfilterRow(final byte[] filteredRow, final byte[] pixels, final int rowOffset, final int rowLength, final int pixelLength) throws IOException {
+        int filterType = filteredRow[0] & 0xFF;
+        for (int i = 0; i < rowLength; i++) {
+            int left = getLeft(pixels, rowOffset, i, pixelLength);
+            int up = getUp(pixels, rowOffset, i, rowLength);
+            int upLeft = getUpLeft(pixels, rowOffset, i, rowLength, pixelLength);
+            int predictor = getPredictor(filterType, left, up, upLeft);
+            if (predictor < 0) {
+                throw new IOException("PNG image filter " + filterType + " is not supported");
+            }
+            pixels[rowOffset + i] = (byte) (filteredRow[1 + i] + predictor);
+        }
+    }
+
+    /**
+     * Encode the image with the filter type and every deflate strategy. The filtered rows are compressed
+     * one by one, so the filtered image is never held in memory. The compression with the strategy is
+     * abandoned, when the compressed data is larger than the best compressed data.
+     *
+     * @param filterType      the filter type, or the adaptive filter to choose the best filter for every row.
+     * @param strategies      the deflate strategies.
+     * @param bestCompression the best compressed image data of all encodings.
+     *
+     * @return the smallest compressed image data, or null if every compressed image data is larger than
+     *         the best compressed image data.
+     */
+    byte[] compress(final int filterType, final int[] strategies, final BestCompression bestCompression) {
+        Deflater[] deflaters = new Deflater[strategies.length];
+        ByteArrayOutputStream[] outputStreams = new ByteArrayOutputStream[strategies.length];
+        try {
+            for (int i = 0; i < strategies.length; i++) {
+                deflaters[i] = new Deflater(Deflater.BEST_COMPRESSION);
+                deflaters[i].setStrategy(strategies[i]);
+                outputStreams[i] = new ByteArrayOutputStream();
+            }
+            byte[] filteredRow = new byte[_rowLength + 1];
+            byte[] buffer = new byte[BUFFER_SIZE];
+            for (int row = 0; row < _height; row++) {
+                if (filterType == FILTER_ADAPTIVE) {
+                    filterRow(row, getBestFilterType(row), filteredRow);
+                } else {
+                    filterRow(row, filterType, filteredRow);
+                }
+                for (int i = 0; i < deflaters.length; i++) {
+                    if (outputStreams[i] != null) {
+                        deflaters[i].setInput(filteredRow);
+                        outputStreams[i] = deflate(deflaters[i], buffer, outputStreams[i], bestCompression, false);
+                    }
+                }
+            }
+            byte[] bestCompressedPixels = null;
+            for (int i = 0; i < deflaters.length; i++) {
+                if (outputStreams[i] != null) {
+                    deflaters[i].finish();
+                    ByteArrayOutputStream outputStream = deflate(deflaters[i], buffer, outputStreams[i], bestCompression, true);
+                    if (outputStream != null && (bestCompressedPixels == null || outputStream.size() < bestCompressedPixels.length)) {
+                        bestCompressedPixels = outputStream.toByteArray();
+                    }
+                }
+            }
+            return bestCompressedPixels;
+        } finally {
+            for (Deflater deflater : deflaters) {
+                if (deflater != null) {
+                    deflater.end();
+                }
+            }
+        }
+    }
+
+    private static ByteArrayOutputStream deflate(final Deflater deflater, final byte[] buffer, final ByteArrayOutputStream outputStream, final BestCompression bestCompression, final boolean finish) {
+        while (!isDeflated(deflater, finish)) {
+            int count = deflater.deflate(buffer);
+            outputStream.write(buffer, 0, count);
+            if (outputStream.size() > bestCompression.getMaxLength()) {
+                return null;
+            }
+        }
+        return outputStream;
+    }
+
+    private static boolean isDeflated(final Deflater deflater, final boolean finish) {
+        if (finish) {
+            return deflater.finished();
+        }
+        return deflater.needsInput();
+    }
+
+    private int getBestFilterType(final int row) {
+        int rowOffset = row * _rowLength;
+        int bestFilterType = FILTER_NONE;
+        long bestSum = Long.MAX_VALUE;
+        for (int filterType = FILTER_NONE; filterType <= FILTER_PAETH; filterType++) {
+            long sum = 0L;
+            for (int i = 0; i < _rowLength && sum < bestSum; i++) {
+                byte value = getFilteredValue(filterType, rowOffset, i);
+                sum += Math.abs((int) value);
+            }
+            if (sum < bestSum) {
+                bestSum = sum;
+                bestFilterType = filterType;
+            }
+        }
+        return bestFilterType;
+    }
+
+    private void filterRow(final int row, final int filterType, final byte[] filteredRow) {
+        int rowOffset = row * _rowLength;
+        filteredRow[0] = (byte) filterType;
+        for (int i = 0; i < _rowLength; i++) {
+            filteredRow[1 + i] = getFilteredValue(filterType, rowOffset, i);
+        }
+    }
+
+    private byte getFilteredValue(final int filterType, final int rowOffset, final int index) {
+        int left = getLeft(_pixels, rowOffset, index, _pixelLength);
+        int up = getUp(_pixels, rowOffset, index, _rowLength);
+        int upLeft = getUpLeft(_pixels, rowOffset, index, _rowLength, _pixelLength);
+        return (byte) (_pixels[rowOffset + index] - getPredictor(filterType, left, up, upLeft));
+    }
+
+    private static int getLeft(final byte[] pixels, final int rowOffset, final int index, final int pixelLength) {
+        if (index < pixelLength) {
+            return 0;
+        }
+        return pixels[rowOffset + index - pixelLength] & 0xFF;
+    }
+
+    private static int getUp(final byte[] pixels, final int rowOffset, final int index, final int rowLength) {
+        if (rowOffset == 0) {
+            return 0;
+        }
+        return pixels[rowOffset - rowLength + index] & 0xFF;
+    }
+
+    private static int getUpLeft(final byte[] pixels, final int rowOffset, final int index, final int rowLength, final int pixelLength) {
+        if (rowOffset == 0 || index < pixelLength) {
+            return 0;
+        }
+        return pixels[rowOffset - rowLength + index - pixelLength] & 0xFF;
+    }
+
+    private static int getPredictor(final int filterType, final int left, final int up, final int upLeft) {
+        switch (filterType) {
+            case FILTER_NONE:
+                return 0;
+            case FILTER_SUB:
+                return left;
+            case FILTER_UP:
+                return up;
+            case FILTER_AVERAGE:
+                return (left + up) / 2;
+            case FILTER_PAETH:
+                return getPaethPredictor(left, up, upLeft);
+            default:
+                return -1;
+        }
+    }
+
+    private static int getPaethPredictor(final int left, final int up, final int upLeft) {
+        int estimate = left + up - upLeft;
+        int leftDistance = Math.abs(estimate - left);
+        int upDistance = Math.abs(estimate - up);
+        int upLeftDistance = Math.abs(estimate - upLeft);
+        if (leftDistance <= upDistance && leftDistance <= upLeftDistance) {
+            return left;
+        }
+        if (upDistance <= upLeftDistance) {
+            return up;
+        }
+        return upLeft;
+    }
+
+    /**
+     * Encode the PNG image with the compressed image data.
+     *
+     * @param compressedPixels the compressed image data.
+     *
+     * @return the PNG image.
+     *
+     * @throws IOException if the image can't be written.
+     */
+    byte[] write(final byte[] compressedPixels) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(compressedPixels.length + 1024);
+        DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+        dataOutputStream.write(SIGNATURE);
+        writeChunk(dataOutputStream, CHUNK_HEADER, _header);
+        if (_palette != null) {
+            writeChunk(dataOutputStream, CHUNK_PALETTE, _palette);
+        }
+        if (_transparency != null) {
+            writeChunk(dataOutputStream, CHUNK_TRANSPARENCY, _transparency);
+        }
+        writeChunk(dataOutputStream, CHUNK_DATA, compressedPixels);
+        writeChunk(dataOutputStream, CHUNK_END, new byte[0]);
+        dataOutputStream.flush();
+        return outputStream.toByteArray();
+    }
+
+    private static void writeChunk(final DataOutputStream dataOutputStream, final String type, final byte[] data) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc32 = new CRC32();
+        crc32.update(typeBytes);
+        crc32.update(data);
+        dataOutputStream.writeInt(data.length);
+        dataOutputStream.write(typeBytes);
+        dataOutputStream.write(data);
+        dataOutputStream.writeInt((int) crc32.getValue());
+    }
+
+    private static int readInt(final byte[] data, final int offset) {
+        return (data[offset] & 0xFF) << 24 | (data[offset + 1] & 0xFF) << 16 | (data[offset + 2] & 0xFF) << 8 | data[offset + 3] & 0xFF;
+    }
+
+}
@@ -0,0 +1,156 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.png;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.zip.Deflater;
+
+/**
+ * The lossless PNG optimizer. The image is encoded with every filter type and with the adaptive filter,
+ * every encoding is compressed with the maximum compression level and the default and the filtered
+ * deflate strategies. The encodings of the different filter types are executed concurrently, and every
+ * encoding is abandoned as soon as it is larger than the best encoding. The ancillary chunks except
+ * the transparency are dropped. The smallest encoding is used, if it is smaller than the source image.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class PngOptimizer {
+
+    /**
+     * The version of the optimizer, should be changed if the optimized image is changed.
+     */
+    public static final String VERSION = "1";
+
+    private static final int[] FILTER_TYPES = {PngImage.FILTER_NONE, PngImage.FILTER_SUB, PngImage.FILTER_UP, PngImage.FILTER_AVERAGE, PngImage.FILTER_PAETH, PngImage.FILTER_ADAPTIVE};
+
+    private static final int[] STRATEGIES = {Deflater.DEFAULT_STRATEGY, Deflater.FILTERED};
+
+    private PngOptimizer() {
+        super();
+    }
+
+    /**
+     * Optimize the PNG image in the current thread.
+     *
+     * @param data the PNG image.
+     *
+     * @return the optimized PNG image, or null if the image can't be optimized or the optimized image is not smaller.
+     *
+     * @throws IOException if the image is corrupted.
+     */
+    public static byte[] optimize(final byte[] data) throws IOException {
+        return optimize(data, null);
+    }
+
+    /**
+     * Optimize the PNG image with the executor service.
+     *
+     * @param data            the PNG image.
+     * @param executorService the executor service to execute the encodings concurrently, or null to execute
+     *                        the encodings in the current thread.
+     *
+     * @return the optimized PNG image, or null if the image can't be optimized or the optimized image is not smaller.
+     *
+     * @throws IOException if the image is corrupted.
+     */
+    public static byte[] optimize(final byte[] data, final ExecutorService executorService) throws IOException {
+        PngImage pngImage = PngImage.read(data);
+        if (pngImage == null) {
+            return null;
+        }
+        BestCompression bestCompression = new BestCompression(data.length);
+        List<FutureTask<Void>> futureTasks = new ArrayList<>();
+        for (int i = 0; i < FILTER_TYPES.length; i++) {
+            FutureTask<Void> futureTask = new FutureTask<>(new CompressCallable(pngImage, FILTER_TYPES[i], i, bestCompression));
+            futureTasks.add(futureTask);
+            if (executorService == null) {
+                futureTask.run();
+            } else {
+                executorService.execute(futureTask);
+            }
+        }
+        try {
+            for (FutureTask<Void> futureTask : futureTasks) {
+                futureTask.get();
+            }
+        } catch (InterruptedException ex) {
+            cancel(futureTasks);
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException ex) {
+            cancel(futureTasks);
+            throw new IOException("PNG image can't be optimized", ex);
+        }
+        byte[] bestCompressedPixels = bestCompression.getCompressedPixels();
+        if (bestCompressedPixels == null) {
+            return null;
+        }
+        byte[] result = pngImage.write(bestCompressedPixels);
+        if (result.length < data.length) {
+            return result;
+        }
+        return null;
+    }
+
+    private static void cancel(final List<FutureTask<Void>> futureTasks) {
+        for (FutureTask<Void> futureTask : futureTasks) {
+            futureTask.cancel(true);
+        }
+    }
+
+    /**
+     * The encoding of the image with the filter type and every deflate strategy.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class CompressCallable implements Callable<Void> {
+
+        private final PngImage _pngImage;
+
+        private final int _filterType;
+
+        private final int _order;
+
+        private final BestCompression _bestCompression;
+
+        CompressCallable(final PngImage pngImage, final int filterType, final int order, final BestCompression bestCompression) {
+            super();
+            _pngImage = pngImage;
+            _filterType = filterType;
+            _order = order;
+            _bestCompression = bestCompression;
+        }
+
+        @Override
+        public Void call() {
+            byte[] compressedPixels = _pngImage.compress(_filterType, STRATEGIES, _bestCompression);
+            _bestCompression.offer(compressedPixels, _order);
+            return null;
+        }
+
+    }
+
+}
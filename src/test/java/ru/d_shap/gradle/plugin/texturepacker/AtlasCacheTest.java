@@ -0,0 +1,204 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ru.d_shap.gradle.plugin.texturepacker.configuration.Parameter;
+
+/**
+ * Tests for {@link AtlasCache}.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class AtlasCacheTest {
+
+    private static final String KEY = "0123456789abcdef";
+
+    private static final String OTHER_KEY = "fedcba9876543210";
+
+    private static final long ENTRY_SIZE = 9L;
+
+    private static final long WAIT_TIME = 200L;
+
+    private static final long MAX_SIZE = 1024L * 1024L;
+
+    /**
+     * Temporary folder for the caches and the packing jobs.
+     */
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Test class constructor.
+     */
+    public AtlasCacheTest() {
+        super();
+    }
+
+    /**
+     * {@link AtlasCache} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void createdEntryIsUploadedTest() throws IOException {
+        FileRemoteCache remoteCache = new FileRemoteCache(new File(_temporaryFolder.getRoot(), "remote"));
+        AtlasCache atlasCache = createAtlasCache("local1", remoteCache);
+        atlasCache.store(KEY, createPackingJob("job1", true));
+        atlasCache.awaitUploads();
+        Assert.assertTrue(remoteCache.contains(KEY));
+        Assert.assertEquals(1, atlasCache.getCacheStatistics().getUploadCount());
+
+        AtlasCache otherAtlasCache = createAtlasCache("local2", remoteCache);
+        PackingJob packingJob = createPackingJob("job2", false);
+        Assert.assertTrue(otherAtlasCache.restore(KEY, packingJob));
+        otherAtlasCache.awaitUploads();
+        Assert.assertEquals(1, otherAtlasCache.getCacheStatistics().getRemoteHitCount());
+        Assert.assertEquals(0, otherAtlasCache.getCacheStatistics().getUploadCount());
+        Assert.assertEquals("sheet", FileRemoteCacheTest.readFile(packingJob.getSheetFile()));
+        Assert.assertEquals("data", FileRemoteCacheTest.readFile(packingJob.getDataFile()));
+    }
+
+    /**
+     * {@link AtlasCache} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void localHitIsUploadedTest() throws IOException {
+        createAtlasCache("local", null).store(KEY, createPackingJob("job1", true));
+        FileRemoteCache remoteCache = new FileRemoteCache(new File(_temporaryFolder.getRoot(), "remote"));
+        AtlasCache atlasCache = createAtlasCache("local", remoteCache);
+        Assert.assertTrue(atlasCache.restore(KEY, createPackingJob("job2", false)));
+        Assert.assertTrue(atlasCache.restore(KEY, createPackingJob("job3", false)));
+        atlasCache.awaitUploads();
+        Assert.assertEquals(2, atlasCache.getCacheStatistics().getLocalHitCount());
+        Assert.assertEquals(1, atlasCache.getCacheStatistics().getUploadCount());
+        Assert.assertTrue(remoteCache.contains(KEY));
+
+        AtlasCache nextAtlasCache = createAtlasCache("local", remoteCache);
+        Assert.assertTrue(nextAtlasCache.restore(KEY, createPackingJob("job4", false)));
+        nextAtlasCache.awaitUploads();
+        Assert.assertEquals(0, nextAtlasCache.getCacheStatistics().getUploadCount());
+    }
+
+    /**
+     * {@link AtlasCache} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void missTest() throws IOException {
+        FileRemoteCache remoteCache = new FileRemoteCache(new File(_temporaryFolder.getRoot(), "remote"));
+        AtlasCache atlasCache = createAtlasCache("local", remoteCache);
+        Assert.assertFalse(atlasCache.restore(KEY, createPackingJob("job", false)));
+        atlasCache.awaitUploads();
+        Assert.assertEquals(1, atlasCache.getCacheStatistics().getMissCount());
+        Assert.assertEquals(0, atlasCache.getCacheStatistics().getRemoteErrorCount());
+        Assert.assertArrayEquals(new String[]{CacheLock.LOCK_FILE_NAME}, new File(_temporaryFolder.getRoot(), "local").list());
+    }
+
+    /**
+     * {@link AtlasCache} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void evictTest() throws IOException {
+        AtlasCache atlasCache = createAtlasCache("local", null, ENTRY_SIZE);
+        atlasCache.store(KEY, createPackingJob("job1", true));
+        atlasCache.store(OTHER_KEY, createPackingJob("job2", true));
+        File cacheDir = atlasCache.getCacheDir();
+        Assert.assertTrue(new File(cacheDir, KEY).setLastModified(System.currentTimeMillis() - 60 * 1000L));
+        File tempDir = new File(cacheDir, "tmp-dir");
+        Files.createDirectories(tempDir.toPath());
+        Files.write(new File(tempDir, "sheet").toPath(), "sheet".getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(cacheDir, "tmp-file").toPath(), "data".getBytes(StandardCharsets.UTF_8));
+
+        atlasCache.evict();
+        String[] fileNames = cacheDir.list();
+        Arrays.sort(fileNames);
+        Assert.assertArrayEquals(new String[]{CacheLock.LOCK_FILE_NAME, OTHER_KEY}, fileNames);
+    }
+
+    /**
+     * {@link AtlasCache} class test.
+     *
+     * @throws Exception exception.
+     */
+    @Test
+    public void evictWaitsForRestoreTest() throws Exception {
+        final AtlasCache atlasCache = createAtlasCache("local", null, 0L);
+        atlasCache.store(KEY, createPackingJob("job", true));
+        Thread thread = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    atlasCache.evict();
+                } catch (IOException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+
+        });
+        try (CacheLock.Lease lease = CacheLock.get(atlasCache.getCacheDir()).lockShared()) {
+            thread.start();
+            thread.join(WAIT_TIME);
+            Assert.assertTrue(thread.isAlive());
+            Assert.assertTrue(new File(atlasCache.getCacheDir(), KEY).isDirectory());
+        }
+        thread.join();
+        Assert.assertFalse(new File(atlasCache.getCacheDir(), KEY).exists());
+    }
+
+    private AtlasCache createAtlasCache(final String name, final RemoteCache remoteCache) {
+        return createAtlasCache(name, remoteCache, MAX_SIZE);
+    }
+
+    private AtlasCache createAtlasCache(final String name, final RemoteCache remoteCache, final long maxSize) {
+        File cacheDir = new File(_temporaryFolder.getRoot(), name);
+        return new AtlasCache(cacheDir, maxSize, remoteCache, true, new CacheStatistics());
+    }
+
+    private PackingJob createPackingJob(final String name, final boolean created) throws IOException {
+        File outputDir = new File(_temporaryFolder.getRoot(), name);
+        File sheetFile = new File(outputDir, "sheet.png");
+        File dataFile = new File(outputDir, "sheet.json");
+        if (created) {
+            Files.createDirectories(outputDir.toPath());
+            Files.write(sheetFile.toPath(), "sheet".getBytes(StandardCharsets.UTF_8));
+            Files.write(dataFile.toPath(), "data".getBytes(StandardCharsets.UTF_8));
+        }
+        return new PackingJob("pipeline", _temporaryFolder.getRoot(), name, sheetFile, dataFile, null, "texturepacker", Collections.<Parameter>emptyList());
+    }
+
+}
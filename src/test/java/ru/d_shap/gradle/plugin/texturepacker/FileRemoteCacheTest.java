@@ -0,0 +1,113 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link FileRemoteCache}.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class FileRemoteCacheTest {
+
+    private static final String KEY = "0123456789abcdef";
+
+    /**
+     * Temporary folder for the caches.
+     */
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Test class constructor.
+     */
+    public FileRemoteCacheTest() {
+        super();
+    }
+
+    /**
+     * {@link FileRemoteCache} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void storeLoadTest() throws IOException {
+        File cacheDir = new File(_temporaryFolder.getRoot(), "remote");
+        FileRemoteCache remoteCache = new FileRemoteCache(cacheDir);
+        Assert.assertEquals(cacheDir.getAbsolutePath(), remoteCache.getLocation());
+        Assert.assertFalse(remoteCache.contains(KEY));
+        remoteCache.store(KEY, createFile("entry", "content"));
+        Assert.assertTrue(remoteCache.contains(KEY));
+        Assert.assertArrayEquals(new String[]{KEY + ".zip"}, cacheDir.list());
+
+        File entryFile = new File(_temporaryFolder.getRoot(), "loaded");
+        Assert.assertTrue(remoteCache.load(KEY, entryFile));
+        Assert.assertEquals("content", readFile(entryFile));
+    }
+
+    /**
+     * {@link FileRemoteCache} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void missingEntryTest() throws IOException {
+        FileRemoteCache remoteCache = new FileRemoteCache(new File(_temporaryFolder.getRoot(), "remote"));
+        File entryFile = new File(_temporaryFolder.getRoot(), "loaded");
+        Assert.assertFalse(remoteCache.contains(KEY));
+        Assert.assertFalse(remoteCache.load(KEY, entryFile));
+        Assert.assertFalse(entryFile.exists());
+    }
+
+    /**
+     * {@link FileRemoteCache} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void existingEntryIsNotReplacedTest() throws IOException {
+        FileRemoteCache remoteCache = new FileRemoteCache(new File(_temporaryFolder.getRoot(), "remote"));
+        remoteCache.store(KEY, createFile("entry1", "content1"));
+        remoteCache.store(KEY, createFile("entry2", "content2"));
+        File entryFile = new File(_temporaryFolder.getRoot(), "loaded");
+        Assert.assertTrue(remoteCache.load(KEY, entryFile));
+        Assert.assertEquals("content1", readFile(entryFile));
+    }
+
+    private File createFile(final String name, final String content) throws IOException {
+        File file = _temporaryFolder.newFile(name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    static String readFile(final File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+}
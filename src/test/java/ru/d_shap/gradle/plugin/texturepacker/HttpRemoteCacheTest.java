@@ -0,0 +1,252 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link HttpRemoteCache}.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class HttpRemoteCacheTest {
+
+    private static final String CONTEXT_PATH = "/cache/";
+
+    private static final String KEY = "0123456789abcdef";
+
+    private static final int HTTP_OK = 200;
+
+    private static final int HTTP_CREATED = 201;
+
+    private static final int HTTP_NOT_FOUND = 404;
+
+    private static final int HTTP_BAD_METHOD = 405;
+
+    private static final int HTTP_INTERNAL_ERROR = 500;
+
+    /**
+     * Temporary folder for the cache entries.
+     */
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+    private HttpServer _httpServer;
+
+    private CacheHandler _cacheHandler;
+
+    /**
+     * Test class constructor.
+     */
+    public HttpRemoteCacheTest() {
+        super();
+    }
+
+    /**
+     * Start the HTTP server.
+     *
+     * @throws IOException IO exception.
+     */
+    @Before
+    public void startServer() throws IOException {
+        _httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        _cacheHandler = new CacheHandler();
+        _httpServer.createContext(CONTEXT_PATH, _cacheHandler);
+        _httpServer.start();
+    }
+
+    /**
+     * Stop the HTTP server.
+     */
+    @After
+    public void stopServer() {
+        _httpServer.stop(0);
+    }
+
+    /**
+     * {@link HttpRemoteCache} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void storeLoadTest() throws IOException {
+        HttpRemoteCache remoteCache = new HttpRemoteCache(getUrl());
+        Assert.assertEquals(getUrl() + "/", remoteCache.getLocation());
+        Assert.assertFalse(remoteCache.contains(KEY));
+        remoteCache.store(KEY, createFile("entry", "content"));
+        Assert.assertTrue(remoteCache.contains(KEY));
+        Assert.assertEquals("content", new String(_cacheHandler.getEntries().get(KEY), StandardCharsets.UTF_8));
+
+        File entryFile = new File(_temporaryFolder.getRoot(), "loaded");
+        Assert.assertTrue(remoteCache.load(KEY, entryFile));
+        Assert.assertEquals("content", FileRemoteCacheTest.readFile(entryFile));
+    }
+
+    /**
+     * {@link HttpRemoteCache} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void missingEntryTest() throws IOException {
+        HttpRemoteCache remoteCache = new HttpRemoteCache(getUrl() + "/");
+        File entryFile = new File(_temporaryFolder.getRoot(), "loaded");
+        Assert.assertFalse(remoteCache.contains(KEY));
+        Assert.assertFalse(remoteCache.load(KEY, entryFile));
+        Assert.assertFalse(entryFile.exists());
+    }
+
+    /**
+     * {@link HttpRemoteCache} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test(expected = IOException.class)
+    public void loadErrorTest() throws IOException {
+        _cacheHandler.setFailure(true);
+        new HttpRemoteCache(getUrl()).load(KEY, new File(_temporaryFolder.getRoot(), "loaded"));
+    }
+
+    /**
+     * {@link HttpRemoteCache} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test(expected = IOException.class)
+    public void containsErrorTest() throws IOException {
+        _cacheHandler.setFailure(true);
+        new HttpRemoteCache(getUrl()).contains(KEY);
+    }
+
+    /**
+     * {@link HttpRemoteCache} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test(expected = IOException.class)
+    public void storeErrorTest() throws IOException {
+        _cacheHandler.setFailure(true);
+        new HttpRemoteCache(getUrl()).store(KEY, createFile("entry", "content"));
+    }
+
+    private String getUrl() {
+        return "http://" + _httpServer.getAddress().getHostString() + ":" + _httpServer.getAddress().getPort() + "/cache";
+    }
+
+    private File createFile(final String name, final String content) throws IOException {
+        File file = _temporaryFolder.newFile(name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    /**
+     * The HTTP cache handler, that keeps the entries in memory.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class CacheHandler implements HttpHandler {
+
+        private final Map<String, byte[]> _entries;
+
+        private volatile boolean _failure;
+
+        CacheHandler() {
+            super();
+            _entries = new ConcurrentHashMap<>();
+            _failure = false;
+        }
+
+        Map<String, byte[]> getEntries() {
+            return _entries;
+        }
+
+        void setFailure(final boolean failure) {
+            _failure = failure;
+        }
+
+        @Override
+        public void handle(final HttpExchange httpExchange) throws IOException {
+            try {
+                String key = httpExchange.getRequestURI().getPath().substring(CONTEXT_PATH.length());
+                String method = httpExchange.getRequestMethod();
+                byte[] requestBody = drain(httpExchange.getRequestBody());
+                if (_failure) {
+                    httpExchange.sendResponseHeaders(HTTP_INTERNAL_ERROR, -1);
+                } else if ("PUT".equals(method)) {
+                    _entries.put(key, requestBody);
+                    httpExchange.sendResponseHeaders(HTTP_CREATED, -1);
+                } else if ("GET".equals(method) || "HEAD".equals(method)) {
+                    sendEntry(httpExchange, _entries.get(key), "GET".equals(method));
+                } else {
+                    httpExchange.sendResponseHeaders(HTTP_BAD_METHOD, -1);
+                }
+            } finally {
+                httpExchange.close();
+            }
+        }
+
+        private void sendEntry(final HttpExchange httpExchange, final byte[] entry, final boolean body) throws IOException {
+            if (entry == null) {
+                httpExchange.sendResponseHeaders(HTTP_NOT_FOUND, -1);
+            } else if (body) {
+                httpExchange.sendResponseHeaders(HTTP_OK, entry.length);
+                try (OutputStream outputStream = httpExchange.getResponseBody()) {
+                    outputStream.write(entry);
+                }
+            } else {
+                httpExchange.sendResponseHeaders(HTTP_OK, -1);
+            }
+        }
+
+        private byte[] drain(final InputStream inputStream) throws IOException {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read = inputStream.read(buffer);
+            while (read >= 0) {
+                outputStream.write(buffer, 0, read);
+                read = inputStream.read(buffer);
+            }
+            return outputStream.toByteArray();
+        }
+
+    }
+
+}
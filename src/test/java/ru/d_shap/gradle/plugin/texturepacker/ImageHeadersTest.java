@@ -0,0 +1,138 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import javax.imageio.ImageIO;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link ImageHeaders}.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class ImageHeadersTest {
+
+    /**
+     * Temporary folder for the images.
+     */
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Test class constructor.
+     */
+    public ImageHeadersTest() {
+        super();
+    }
+
+    /**
+     * {@link ImageHeaders} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void pngTest() throws IOException {
+        File file = writeImage("image.png", "png", 37, 512);
+        Assert.assertArrayEquals(new int[]{37, 512}, ImageHeaders.readSize(file.toPath()));
+    }
+
+    /**
+     * {@link ImageHeaders} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void jpegTest() throws IOException {
+        File file = writeImage("image.jpg", "jpg", 640, 33);
+        Assert.assertArrayEquals(new int[]{640, 33}, ImageHeaders.readSize(file.toPath()));
+    }
+
+    /**
+     * {@link ImageHeaders} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void jpegMarkersTest() throws IOException {
+        byte[] bytes = toBytes(0xFF, 0xD8, 0xFF, 0xE1, 0x00, 0x04, 0x12, 0x34, 0xFF, 0xFF, 0xFF, 0xC2, 0x00, 0x11, 0x08, 0x01, 0x02, 0x03, 0x04);
+        Assert.assertArrayEquals(new int[]{0x0304, 0x0102}, ImageHeaders.readSize(writeFile("image.jpg", bytes).toPath()));
+    }
+
+    /**
+     * {@link ImageHeaders} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void jpegWithoutFrameTest() throws IOException {
+        byte[] bytes = toBytes(0xFF, 0xD8, 0xFF, 0xE0, 0x00, 0x04, 0x12, 0x34, 0xFF, 0xD9);
+        Assert.assertNull(ImageHeaders.readSize(writeFile("eoi.jpg", bytes).toPath()));
+        bytes = toBytes(0xFF, 0xD8, 0xFF, 0xE0, 0x00, 0x10);
+        Assert.assertNull(ImageHeaders.readSize(writeFile("truncated.jpg", bytes).toPath()));
+        bytes = toBytes(0xFF, 0xD8, 0xFF, 0xE0, 0x00, 0x01);
+        Assert.assertNull(ImageHeaders.readSize(writeFile("length.jpg", bytes).toPath()));
+    }
+
+    /**
+     * {@link ImageHeaders} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void notImageTest() throws IOException {
+        Assert.assertNull(ImageHeaders.readSize(writeFile("empty.png", new byte[0]).toPath()));
+        Assert.assertNull(ImageHeaders.readSize(writeFile("one.png", new byte[]{1}).toPath()));
+        Assert.assertNull(ImageHeaders.readSize(writeFile("text.txt", "not an image file at all".getBytes("UTF-8")).toPath()));
+        byte[] bytes = Files.readAllBytes(writeImage("image.png", "png", 10, 10).toPath());
+        Assert.assertNull(ImageHeaders.readSize(writeFile("truncated.png", Arrays.copyOf(bytes, 20)).toPath()));
+    }
+
+    private File writeImage(final String name, final String format, final int width, final int height) throws IOException {
+        File file = new File(_temporaryFolder.getRoot(), name);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Assert.assertTrue(ImageIO.write(image, format, file));
+        return file;
+    }
+
+    private File writeFile(final String name, final byte[] bytes) throws IOException {
+        File file = new File(_temporaryFolder.getRoot(), name);
+        Files.write(file.toPath(), bytes);
+        return file;
+    }
+
+    private static byte[] toBytes(final int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+}
@@ -0,0 +1,260 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ru.d_shap.gradle.plugin.texturepacker.configuration.Parameter;
+
+/**
+ * Tests for {@link JobManifest}.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class JobManifestTest {
+
+    /**
+     * Temporary folder for the manifest and the packing jobs.
+     */
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Test class constructor.
+     */
+    public JobManifestTest() {
+        super();
+    }
+
+    /**
+     * {@link JobManifest} class test.
+     */
+    @Test
+    public void saveAndLoadTest() {
+        File manifestFile = new File(_temporaryFolder.getRoot(), "build/manifest.properties");
+        JobManifest jobManifest = JobManifest.load(manifestFile);
+        Assert.assertNull(jobManifest.getEntry("key1"));
+        jobManifest.putEntry("key2", new JobManifest.Entry("inputs2", "parameters2", Arrays.asList("sheet2.png", "sheet2.json")));
+        jobManifest.putEntry("key1", new JobManifest.Entry("inputs1", "parameters1", Collections.<String>emptyList()));
+        jobManifest.save();
+        Assert.assertTrue(manifestFile.isFile());
+        Assert.assertArrayEquals(new String[]{"manifest.properties"}, manifestFile.getParentFile().list());
+
+        jobManifest = JobManifest.load(manifestFile);
+        JobManifest.Entry entry1 = jobManifest.getEntry("key1");
+        Assert.assertEquals("inputs1", entry1.getInputs());
+        Assert.assertEquals("parameters1", entry1.getParameters());
+        Assert.assertEquals(Collections.<String>emptyList(), entry1.getOutputs());
+        JobManifest.Entry entry2 = jobManifest.getEntry("key2");
+        Assert.assertEquals("inputs2", entry2.getInputs());
+        Assert.assertEquals("parameters2", entry2.getParameters());
+        Assert.assertEquals(Arrays.asList("sheet2.png", "sheet2.json"), entry2.getOutputs());
+        Assert.assertNull(jobManifest.getEntry("key3"));
+    }
+
+    /**
+     * {@link JobManifest} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void malformedCountTest() throws IOException {
+        File manifestFile = writeManifest("count=abc", "0.key=key", "0.inputs=inputs", "0.parameters=parameters");
+        JobManifest jobManifest = JobManifest.load(manifestFile);
+        Assert.assertNull(jobManifest.getEntry("key"));
+    }
+
+    /**
+     * {@link JobManifest} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void incompletePropertiesTest() throws IOException {
+        File manifestFile = writeManifest("count=4", "0.key=key0", "0.inputs=inputs0", "0.parameters=parameters0", "1.key=key1", "1.inputs=inputs1", "2.key=key2", "2.parameters=parameters2", "3.inputs=inputs3", "3.parameters=parameters3");
+        JobManifest jobManifest = JobManifest.load(manifestFile);
+        Assert.assertEquals("inputs0", jobManifest.getEntry("key0").getInputs());
+        Assert.assertEquals(Collections.<String>emptyList(), jobManifest.getEntry("key0").getOutputs());
+        Assert.assertNull(jobManifest.getEntry("key1"));
+        Assert.assertNull(jobManifest.getEntry("key2"));
+    }
+
+    /**
+     * {@link JobManifest} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void unreadableManifestTest() throws IOException {
+        File manifestFile = writeManifest("count=1", "0.key=key", "0.inputs=inputs", "0.parameters=\\uZZZZ");
+        JobManifest jobManifest = JobManifest.load(manifestFile);
+        Assert.assertNull(jobManifest.getEntry("key"));
+        jobManifest.putEntry("key", new JobManifest.Entry("inputs", "parameters", Collections.<String>emptyList()));
+        jobManifest.save();
+        Assert.assertEquals("parameters", JobManifest.load(manifestFile).getEntry("key").getParameters());
+    }
+
+    /**
+     * {@link JobManifest} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void reasonTest() throws IOException {
+        JobManifest jobManifest = JobManifest.load(new File(_temporaryFolder.getRoot(), "manifest.properties"));
+        PackingJob packingJob = createPackingJob("dir");
+        String key = TexturePackerJobHandler.getManifestKey(packingJob);
+        Assert.assertEquals(TexturePackerJobHandler.REASON_NEW, TexturePackerJobHandler.getReason(jobManifest, true, packingJob, "inputs", "parameters"));
+        jobManifest.putEntry(key, new JobManifest.Entry("inputs", "parameters", Collections.singletonList(packingJob.getSheetFile().getAbsolutePath())));
+        Assert.assertEquals(TexturePackerJobHandler.REASON_NOT_INCREMENTAL, TexturePackerJobHandler.getReason(jobManifest, false, packingJob, "inputs", "parameters"));
+        Assert.assertEquals(TexturePackerJobHandler.REASON_INPUTS_CHANGED, TexturePackerJobHandler.getReason(jobManifest, true, packingJob, "other", "parameters"));
+        Assert.assertEquals(TexturePackerJobHandler.REASON_INPUTS_CHANGED, TexturePackerJobHandler.getReason(jobManifest, true, packingJob, null, "parameters"));
+        Assert.assertEquals(TexturePackerJobHandler.REASON_PARAMETERS_CHANGED, TexturePackerJobHandler.getReason(jobManifest, true, packingJob, "inputs", "other"));
+        Assert.assertEquals(TexturePackerJobHandler.REASON_OUTPUT_MISSING, TexturePackerJobHandler.getReason(jobManifest, true, packingJob, "inputs", "parameters"));
+        _temporaryFolder.newFolder("output");
+        Assert.assertTrue(packingJob.getSheetFile().createNewFile());
+        Assert.assertNull(TexturePackerJobHandler.getReason(jobManifest, true, packingJob, "inputs", "parameters"));
+    }
+
+    /**
+     * {@link JobManifest} class test.
+     */
+    @Test
+    public void incompleteEntryTest() {
+        File manifestFile = new File(_temporaryFolder.getRoot(), "manifest.properties");
+        JobManifest jobManifest = JobManifest.load(manifestFile);
+        jobManifest.putEntry("key", new JobManifest.Entry("inputs", "parameters", Arrays.asList("old.png", "old.json")));
+        jobManifest.putIncompleteEntry("key", Arrays.asList(new File("new.png").getAbsoluteFile(), new File("old.json").getAbsoluteFile()));
+        jobManifest.putIncompleteEntry("other", Collections.singletonList(new File("other.png").getAbsoluteFile()));
+        jobManifest.save();
+
+        jobManifest = JobManifest.load(manifestFile);
+        JobManifest.Entry entry = jobManifest.getEntry("key");
+        Assert.assertTrue(entry.isIncomplete());
+        Assert.assertEquals(Arrays.asList("old.png", "old.json", new File("new.png").getAbsolutePath(), new File("old.json").getAbsolutePath()), entry.getOutputs());
+        Assert.assertTrue(jobManifest.getEntry("other").isIncomplete());
+        Assert.assertFalse(new JobManifest.Entry("inputs", "parameters", Collections.<String>emptyList()).isIncomplete());
+    }
+
+    /**
+     * {@link JobManifest} class test.
+     */
+    @Test
+    public void incompleteEntryIsProcessedTest() {
+        JobManifest jobManifest = JobManifest.load(new File(_temporaryFolder.getRoot(), "manifest.properties"));
+        PackingJob packingJob = createPackingJob("dir");
+        String key = TexturePackerJobHandler.getManifestKey(packingJob);
+        jobManifest.putEntry(key, new JobManifest.Entry("inputs", "parameters", Collections.<String>emptyList()));
+        Assert.assertNull(TexturePackerJobHandler.getReason(jobManifest, true, packingJob, "inputs", "parameters"));
+        jobManifest.putIncompleteEntry(key, packingJob.getOutputFiles());
+        Assert.assertEquals(TexturePackerJobHandler.REASON_FAILED, TexturePackerJobHandler.getReason(jobManifest, true, packingJob, "inputs", "parameters"));
+    }
+
+    /**
+     * {@link JobManifest} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void staleIncompleteEntryTest() throws IOException {
+        JobManifest jobManifest = JobManifest.load(new File(_temporaryFolder.getRoot(), "manifest.properties"));
+        PackingJob packingJob = createPackingJob("dir");
+        _temporaryFolder.newFolder("output");
+        Assert.assertTrue(packingJob.getSheetFile().createNewFile());
+        Assert.assertTrue(packingJob.getDataFile().createNewFile());
+        jobManifest.putIncompleteEntry(TexturePackerJobHandler.getManifestKey(packingJob), packingJob.getOutputFiles());
+        List<File> staleOutputFiles = TexturePackerGradleAction.getStaleOutputFiles(jobManifest, Collections.<PackingJob>emptyList());
+        Assert.assertEquals(packingJob.getOutputFiles(), staleOutputFiles);
+    }
+
+    /**
+     * {@link JobManifest} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void staleOutputFilesTest() throws IOException {
+        JobManifest jobManifest = JobManifest.load(new File(_temporaryFolder.getRoot(), "manifest.properties"));
+        PackingJob plannedPackingJob = createPackingJob("planned");
+        PackingJob stalePackingJob = createPackingJob("stale");
+        PackingJob movedPackingJob = createPackingJob("moved");
+        _temporaryFolder.newFolder("output");
+        Assert.assertTrue(plannedPackingJob.getSheetFile().createNewFile());
+        Assert.assertTrue(stalePackingJob.getSheetFile().createNewFile());
+        Assert.assertTrue(movedPackingJob.getSheetFile().createNewFile());
+        jobManifest.putEntry(TexturePackerJobHandler.getManifestKey(plannedPackingJob), new JobManifest.Entry("inputs", "parameters", getOutputs(plannedPackingJob)));
+        jobManifest.putEntry(TexturePackerJobHandler.getManifestKey(stalePackingJob), new JobManifest.Entry("inputs", "parameters", getOutputs(stalePackingJob)));
+        jobManifest.putEntry("removed:moved", new JobManifest.Entry("inputs", "parameters", getOutputs(movedPackingJob)));
+
+        List<File> staleOutputFiles = TexturePackerGradleAction.getStaleOutputFiles(jobManifest, Arrays.asList(plannedPackingJob, movedPackingJob));
+        Assert.assertEquals(Collections.singletonList(stalePackingJob.getSheetFile().getAbsoluteFile()), staleOutputFiles);
+        Assert.assertNotNull(jobManifest.getEntry(TexturePackerJobHandler.getManifestKey(plannedPackingJob)));
+        Assert.assertNull(jobManifest.getEntry(TexturePackerJobHandler.getManifestKey(stalePackingJob)));
+        Assert.assertNull(jobManifest.getEntry("removed:moved"));
+        Assert.assertEquals(Collections.<File>emptyList(), TexturePackerGradleAction.getStaleOutputFiles(jobManifest, Arrays.asList(plannedPackingJob, movedPackingJob)));
+    }
+
+    /**
+     * {@link JobManifest} class test.
+     */
+    @Test
+    public void noStaleOutputFilesTest() {
+        JobManifest jobManifest = JobManifest.load(new File(_temporaryFolder.getRoot(), "manifest.properties"));
+        PackingJob packingJob = createPackingJob("dir");
+        jobManifest.putEntry(TexturePackerJobHandler.getManifestKey(packingJob), new JobManifest.Entry("inputs", "parameters", getOutputs(packingJob)));
+        List<JobManifest.Entry> staleEntries = jobManifest.removeStaleEntries(Collections.<String>emptySet());
+        Assert.assertEquals(1, staleEntries.size());
+        Assert.assertEquals(Collections.<File>emptyList(), TexturePackerGradleAction.getStaleOutputFiles(jobManifest, Collections.<PackingJob>emptyList()));
+    }
+
+    private List<String> getOutputs(final PackingJob packingJob) {
+        List<String> outputs = new ArrayList<>();
+        for (File outputFile : packingJob.getOutputFiles()) {
+            outputs.add(outputFile.getAbsolutePath());
+        }
+        return outputs;
+    }
+
+    private File writeManifest(final String... lines) throws IOException {
+        File manifestFile = new File(_temporaryFolder.getRoot(), "manifest.properties");
+        Files.write(manifestFile.toPath(), Arrays.asList(lines), StandardCharsets.ISO_8859_1);
+        return manifestFile;
+    }
+
+    private PackingJob createPackingJob(final String name) {
+        File outputDir = new File(_temporaryFolder.getRoot(), "output");
+        File sheetFile = new File(outputDir, name + ".png");
+        File dataFile = new File(outputDir, name + ".json");
+        return new PackingJob("pipeline", _temporaryFolder.getRoot(), name, sheetFile, dataFile, null, "texturepacker", Collections.<Parameter>emptyList());
+    }
+
+}
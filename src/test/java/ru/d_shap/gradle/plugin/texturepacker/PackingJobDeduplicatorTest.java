@@ -0,0 +1,217 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.gradle.api.InvalidUserDataException;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ru.d_shap.gradle.plugin.texturepacker.configuration.Parameter;
+import ru.d_shap.gradle.plugin.texturepacker.configuration.ParametersConfiguration;
+
+/**
+ * Tests for {@link PackingJobDeduplicator}.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class PackingJobDeduplicatorTest {
+
+    /**
+     * Temporary folder for the source and the destination directories.
+     */
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Test class constructor.
+     */
+    public PackingJobDeduplicatorTest() {
+        super();
+    }
+
+    /**
+     * {@link PackingJobDeduplicator} class test.
+     */
+    @Test
+    public void uniqueJobsTest() {
+        PackingJob packingJob1 = createPackingJob("pipeline1", "ui", "dst", createParameters(512));
+        PackingJob packingJob2 = createPackingJob("pipeline2", "ui", "dst2", createParameters(1024));
+        PackingJob packingJob3 = createPackingJob("pipeline1", "fx", "dst", createParameters(512));
+        PackingJobDeduplicator packingJobDeduplicator = new PackingJobDeduplicator(Arrays.asList(packingJob1, packingJob2, packingJob3));
+        Assert.assertEquals(Arrays.asList(packingJob1, packingJob2, packingJob3), packingJobDeduplicator.getUniqueJobs());
+        Assert.assertNull(packingJobDeduplicator.getUniqueJob(packingJob1));
+        Assert.assertNull(packingJobDeduplicator.getUniqueJob(packingJob2));
+        Assert.assertNull(packingJobDeduplicator.getUniqueJob(packingJob3));
+    }
+
+    /**
+     * {@link PackingJobDeduplicator} class test.
+     */
+    @Test
+    public void duplicateJobsTest() {
+        PackingJob packingJob1 = createPackingJob("pipeline1", "ui", "dst1", createParameters(512));
+        PackingJob packingJob2 = createPackingJob("pipeline2", "ui", "dst2", createParameters(512));
+        PackingJob packingJob3 = createPackingJob("pipeline3", "ui", "dst1", createParameters(512));
+        PackingJobDeduplicator packingJobDeduplicator = new PackingJobDeduplicator(Arrays.asList(packingJob1, packingJob2, packingJob3));
+        Assert.assertEquals(Collections.singletonList(packingJob1), packingJobDeduplicator.getUniqueJobs());
+        Assert.assertSame(packingJob1, packingJobDeduplicator.getUniqueJob(packingJob2));
+        Assert.assertFalse(packingJobDeduplicator.isSameOutputJob(packingJob2));
+        Assert.assertSame(packingJob1, packingJobDeduplicator.getUniqueJob(packingJob3));
+        Assert.assertTrue(packingJobDeduplicator.isSameOutputJob(packingJob3));
+    }
+
+    /**
+     * {@link PackingJobDeduplicator} class test.
+     */
+    @Test
+    public void sameFileDifferentParametersFailTest() {
+        PackingJob packingJob1 = createPackingJob("pipeline1", "ui", "dst", createParameters(512));
+        PackingJob packingJob2 = createPackingJob("pipeline2", "ui", "dst", createParameters(1024));
+        try {
+            new PackingJobDeduplicator(Arrays.asList(packingJob1, packingJob2));
+            Assert.fail("Conflict is not detected");
+        } catch (InvalidUserDataException ex) {
+            Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("pipeline1"));
+            Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("pipeline2"));
+        }
+    }
+
+    /**
+     * {@link PackingJobDeduplicator} class test.
+     */
+    @Test(expected = InvalidUserDataException.class)
+    public void sameFileDifferentSourceDirsFailTest() {
+        PackingJob packingJob1 = createPackingJob("pipeline1", "ui", "dst", createParameters(512));
+        PackingJob packingJob2 = new PackingJob("pipeline2", new File(_temporaryFolder.getRoot(), "src2"), "ui", packingJob1.getSheetFile(), new File(_temporaryFolder.getRoot(), "dst2/ui.json"), null, "texturepacker", createParameters(512));
+        new PackingJobDeduplicator(Arrays.asList(packingJob1, packingJob2));
+    }
+
+    /**
+     * {@link PackingJobDeduplicator} class test.
+     */
+    @Test(expected = InvalidUserDataException.class)
+    public void duplicateOutputConflictFailTest() {
+        PackingJob packingJob1 = createPackingJob("pipeline1", "ui", "dst1", createParameters(512));
+        PackingJob packingJob2 = createPackingJob("pipeline2", "ui", "dst2", createParameters(512));
+        PackingJob packingJob3 = createPackingJob("pipeline3", "ui", "dst2", createParameters(1024));
+        new PackingJobDeduplicator(Arrays.asList(packingJob1, packingJob2, packingJob3));
+    }
+
+    /**
+     * {@link PackingJobDeduplicator} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void copyDuplicateFilesTest() throws IOException {
+        PackingJob packingJob1 = createPackingJob("pipeline1", "ui", "dst1", createParameters(512));
+        PackingJob packingJob2 = createPackingJob("pipeline2", "ui", "dst2", createParameters(512));
+        PackingJob packingJob3 = createPackingJob("pipeline3", "ui", "dst1", createParameters(512));
+        List<PackingJob> packingJobs = Arrays.asList(packingJob1, packingJob2, packingJob3);
+        PackingJobDeduplicator packingJobDeduplicator = new PackingJobDeduplicator(packingJobs);
+        MetricsRecorder metricsRecorder = new MetricsRecorder(packingJobs, false);
+        JobManifest jobManifest = JobManifest.load(new File(_temporaryFolder.getRoot(), "manifest.properties"));
+        createOutputFiles(packingJob1);
+        metricsRecorder.getJobMetrics(packingJob1).setOutcome(JobMetrics.OUTCOME_PROCESSED);
+        jobManifest.putEntry(TexturePackerJobHandler.getManifestKey(packingJob1), new JobManifest.Entry("inputs", "parameters", Collections.<String>emptyList()));
+
+        List<String> failures = packingJobDeduplicator.copyDuplicateFiles(packingJob1, metricsRecorder, jobManifest, new JobLog());
+        Assert.assertEquals(Collections.<String>emptyList(), failures);
+        Assert.assertEquals("sheet", new String(Files.readAllBytes(packingJob2.getSheetFile().toPath()), StandardCharsets.UTF_8));
+        Assert.assertEquals("data", new String(Files.readAllBytes(packingJob2.getDataFile().toPath()), StandardCharsets.UTF_8));
+        Assert.assertEquals(JobMetrics.OUTCOME_COPIED, metricsRecorder.getJobMetrics(packingJob2).getOutcome());
+        Assert.assertEquals(JobMetrics.OUTCOME_PROCESSED, metricsRecorder.getJobMetrics(packingJob3).getOutcome());
+        JobManifest.Entry entry = jobManifest.getEntry(TexturePackerJobHandler.getManifestKey(packingJob2));
+        Assert.assertEquals("inputs", entry.getInputs());
+        Assert.assertEquals("parameters", entry.getParameters());
+        Assert.assertEquals(Arrays.asList(packingJob2.getSheetFile().getAbsolutePath(), packingJob2.getDataFile().getAbsolutePath()), entry.getOutputs());
+    }
+
+    /**
+     * {@link PackingJobDeduplicator} class test.
+     */
+    @Test
+    public void failedUniqueJobTest() {
+        PackingJob packingJob1 = createPackingJob("pipeline1", "ui", "dst1", createParameters(512));
+        PackingJob packingJob2 = createPackingJob("pipeline2", "ui", "dst2", createParameters(512));
+        List<PackingJob> packingJobs = Arrays.asList(packingJob1, packingJob2);
+        PackingJobDeduplicator packingJobDeduplicator = new PackingJobDeduplicator(packingJobs);
+        MetricsRecorder metricsRecorder = new MetricsRecorder(packingJobs, false);
+        JobManifest jobManifest = JobManifest.load(new File(_temporaryFolder.getRoot(), "manifest.properties"));
+        metricsRecorder.getJobMetrics(packingJob1).setOutcome(JobMetrics.OUTCOME_FAILED);
+
+        List<String> failures = packingJobDeduplicator.copyDuplicateFiles(packingJob1, metricsRecorder, jobManifest, new JobLog());
+        Assert.assertEquals(Collections.<String>emptyList(), failures);
+        Assert.assertEquals(JobMetrics.OUTCOME_FAILED, metricsRecorder.getJobMetrics(packingJob2).getOutcome());
+        Assert.assertFalse(packingJob2.getSheetFile().exists());
+        Assert.assertNull(jobManifest.getEntry(TexturePackerJobHandler.getManifestKey(packingJob2)));
+    }
+
+    /**
+     * {@link PackingJobDeduplicator} class test.
+     */
+    @Test
+    public void copyFailureTest() {
+        PackingJob packingJob1 = createPackingJob("pipeline1", "ui", "dst1", createParameters(512));
+        PackingJob packingJob2 = createPackingJob("pipeline2", "ui", "dst2", createParameters(512));
+        List<PackingJob> packingJobs = Arrays.asList(packingJob1, packingJob2);
+        PackingJobDeduplicator packingJobDeduplicator = new PackingJobDeduplicator(packingJobs);
+        MetricsRecorder metricsRecorder = new MetricsRecorder(packingJobs, false);
+        JobManifest jobManifest = JobManifest.load(new File(_temporaryFolder.getRoot(), "manifest.properties"));
+        metricsRecorder.getJobMetrics(packingJob1).setOutcome(JobMetrics.OUTCOME_PROCESSED);
+
+        List<String> failures = packingJobDeduplicator.copyDuplicateFiles(packingJob1, metricsRecorder, jobManifest, new JobLog());
+        Assert.assertEquals(1, failures.size());
+        Assert.assertTrue(failures.get(0), failures.get(0).contains("pipeline2"));
+        Assert.assertEquals(JobMetrics.OUTCOME_FAILED, metricsRecorder.getJobMetrics(packingJob2).getOutcome());
+        Assert.assertTrue(jobManifest.getEntry(TexturePackerJobHandler.getManifestKey(packingJob2)).isIncomplete());
+    }
+
+    private PackingJob createPackingJob(final String pipelineName, final String name, final String destinationDirName, final List<Parameter> parameters) {
+        File sourceDir = new File(_temporaryFolder.getRoot(), "src");
+        File destinationDir = new File(_temporaryFolder.getRoot(), destinationDirName);
+        File sheetFile = new File(destinationDir, name + ".png");
+        File dataFile = new File(destinationDir, name + ".json");
+        return new PackingJob(pipelineName, sourceDir, name, sheetFile, dataFile, null, "texturepacker", parameters);
+    }
+
+    private List<Parameter> createParameters(final int width) {
+        ParametersConfiguration parametersConfiguration = new ParametersConfiguration();
+        parametersConfiguration.methodMissing("width", new Object[]{width});
+        return parametersConfiguration.getParameters();
+    }
+
+    private void createOutputFiles(final PackingJob packingJob) throws IOException {
+        Files.createDirectories(packingJob.getSheetFile().getParentFile().toPath());
+        Files.write(packingJob.getSheetFile().toPath(), "sheet".getBytes(StandardCharsets.UTF_8));
+        Files.write(packingJob.getDataFile().toPath(), "data".getBytes(StandardCharsets.UTF_8));
+    }
+
+}
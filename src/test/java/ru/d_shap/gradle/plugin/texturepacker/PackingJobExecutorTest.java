@@ -0,0 +1,298 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.gradle.api.Action;
+import org.gradle.api.GradleException;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkQueue;
+import org.gradle.workers.WorkerExecutor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import ru.d_shap.gradle.plugin.texturepacker.configuration.Parameter;
+
+/**
+ * Tests for {@link PackingJobExecutor}.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class PackingJobExecutorTest {
+
+    /**
+     * Test class constructor.
+     */
+    public PackingJobExecutorTest() {
+        super();
+    }
+
+    /**
+     * {@link PackingJobExecutor} class test.
+     */
+    @Test
+    public void executeTest() {
+        List<PackingJob> packingJobs = createPackingJobs(5);
+        FakeWorkers fakeWorkers = new FakeWorkers(true, false);
+        RecordingHandler recordingHandler = new RecordingHandler(null);
+        createExecutor(fakeWorkers, packingJobs).execute(packingJobs, recordingHandler);
+        Assert.assertEquals(5, recordingHandler.getHandledJobs().size());
+        Assert.assertEquals(2, fakeWorkers.getExecutionIds().size());
+        assertCompleted(fakeWorkers);
+    }
+
+    /**
+     * {@link PackingJobExecutor} class test.
+     */
+    @Test
+    public void failureTest() {
+        List<PackingJob> packingJobs = createPackingJobs(3);
+        FakeWorkers fakeWorkers = new FakeWorkers(true, false);
+        RecordingHandler recordingHandler = new RecordingHandler(packingJobs.get(1));
+        try {
+            createExecutor(fakeWorkers, packingJobs).execute(packingJobs, recordingHandler);
+            Assert.fail("GradleException expected");
+        } catch (GradleException ex) {
+            Assert.assertTrue(ex.getMessage(), ex.getMessage().startsWith("TexturePacker failed to process 1 directories:"));
+        }
+        Assert.assertEquals(3, recordingHandler.getHandledJobs().size());
+        assertCompleted(fakeWorkers);
+    }
+
+    /**
+     * {@link PackingJobExecutor} class test.
+     */
+    @Test
+    public void unclaimedJobsTest() {
+        List<PackingJob> packingJobs = createPackingJobs(3);
+        FakeWorkers fakeWorkers = new FakeWorkers(false, false);
+        try {
+            createExecutor(fakeWorkers, packingJobs).execute(packingJobs, new RecordingHandler(null));
+            Assert.fail("GradleException expected");
+        } catch (GradleException ex) {
+            Assert.assertTrue(ex.getMessage(), ex.getMessage().startsWith("TexturePacker failed to process 3 jobs"));
+        }
+        assertCompleted(fakeWorkers);
+    }
+
+    /**
+     * {@link PackingJobExecutor} class test.
+     */
+    @Test
+    public void awaitFailureTest() {
+        List<PackingJob> packingJobs = createPackingJobs(3);
+        FakeWorkers fakeWorkers = new FakeWorkers(true, true);
+        try {
+            createExecutor(fakeWorkers, packingJobs).execute(packingJobs, new RecordingHandler(null));
+            Assert.fail("IllegalStateException expected");
+        } catch (IllegalStateException ex) {
+            Assert.assertEquals("await", ex.getMessage());
+        }
+        assertCompleted(fakeWorkers);
+    }
+
+    private PackingJobExecutor createExecutor(final FakeWorkers fakeWorkers, final List<PackingJob> packingJobs) {
+        WorkerExecutor workerExecutor = (WorkerExecutor) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{WorkerExecutor.class}, fakeWorkers);
+        return new PackingJobExecutor(workerExecutor, 2, false, new ExecutionCancellation(), new MetricsRecorder(packingJobs, false));
+    }
+
+    private List<PackingJob> createPackingJobs(final int count) {
+        List<PackingJob> packingJobs = new ArrayList<>();
+        File rootDir = new File("executor-root").getAbsoluteFile();
+        for (int i = 0; i < count; i++) {
+            String name = "dir" + i;
+            packingJobs.add(new PackingJob("pipeline", rootDir, name, new File(rootDir, name + ".png"), new File(rootDir, name + ".json"), null, "texturepacker", Collections.<Parameter>emptyList()));
+        }
+        return packingJobs;
+    }
+
+    private void assertCompleted(final FakeWorkers fakeWorkers) {
+        for (String executionId : fakeWorkers.getExecutionIds()) {
+            try {
+                PackingJobExecutor.runWorkerLoop(executionId);
+                Assert.fail("IllegalStateException expected");
+            } catch (IllegalStateException ex) {
+                Assert.assertTrue(ex.getMessage(), ex.getMessage().endsWith("is already completed"));
+            }
+        }
+    }
+
+    /**
+     * The packing job handler, that records the handled packing jobs.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class RecordingHandler implements PackingJobExecutor.PackingJobHandler {
+
+        private final PackingJob _failedJob;
+
+        private final Set<PackingJob> _handledJobs;
+
+        RecordingHandler(final PackingJob failedJob) {
+            super();
+            _failedJob = failedJob;
+            _handledJobs = Collections.newSetFromMap(new ConcurrentHashMap<PackingJob, Boolean>());
+        }
+
+        Set<PackingJob> getHandledJobs() {
+            return _handledJobs;
+        }
+
+        @Override
+        public void handle(final PackingJob packingJob, final JobLog jobLog) {
+            _handledJobs.add(packingJob);
+            if (packingJob == _failedJob) {
+                throw new PackingFailureException(Collections.singletonList(packingJob.getName() + ": failed"));
+            }
+        }
+
+    }
+
+    /**
+     * The fake gradle workers, that run the submitted work actions in the separate threads on await.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class FakeWorkers implements InvocationHandler {
+
+        private final boolean _runWorkers;
+
+        private final boolean _failAwait;
+
+        private final List<String> _executionIds;
+
+        FakeWorkers(final boolean runWorkers, final boolean failAwait) {
+            super();
+            _runWorkers = runWorkers;
+            _failAwait = failAwait;
+            _executionIds = new ArrayList<>();
+        }
+
+        List<String> getExecutionIds() {
+            return _executionIds;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws InterruptedException {
+            if ("noIsolation".equals(method.getName())) {
+                return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{WorkQueue.class}, this);
+            }
+            if ("submit".equals(method.getName())) {
+                submit(args[1]);
+                return null;
+            }
+            if ("await".equals(method.getName())) {
+                await();
+                return null;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        }
+
+        @SuppressWarnings("unchecked")
+        private void submit(final Object action) {
+            ParameterHandler parameterHandler = new ParameterHandler();
+            PackingWorkAction.Parameters parameters = (PackingWorkAction.Parameters) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{PackingWorkAction.Parameters.class, Property.class}, parameterHandler);
+            ((Action<PackingWorkAction.Parameters>) action).execute(parameters);
+            _executionIds.add(parameterHandler.getValue());
+        }
+
+        private void await() throws InterruptedException {
+            if (_runWorkers) {
+                List<Thread> threads = new ArrayList<>();
+                for (final String executionId : _executionIds) {
+                    threads.add(new Thread(new WorkerRunnable(executionId)));
+                }
+                for (Thread thread : threads) {
+                    thread.start();
+                }
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+            }
+            if (_failAwait) {
+                throw new IllegalStateException("await");
+            }
+        }
+
+    }
+
+    /**
+     * The runnable of the fake gradle worker.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class WorkerRunnable implements Runnable {
+
+        private final String _executionId;
+
+        WorkerRunnable(final String executionId) {
+            super();
+            _executionId = executionId;
+        }
+
+        @Override
+        public void run() {
+            PackingJobExecutor.runWorkerLoop(_executionId);
+        }
+
+    }
+
+    /**
+     * The fake work parameters, that are also the fake execution ID property.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class ParameterHandler implements InvocationHandler {
+
+        private String _value;
+
+        ParameterHandler() {
+            super();
+            _value = null;
+        }
+
+        String getValue() {
+            return _value;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) {
+            if ("getExecutionId".equals(method.getName())) {
+                return proxy;
+            }
+            if ("set".equals(method.getName())) {
+                _value = (String) args[0];
+                return null;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        }
+
+    }
+
+}
@@ -0,0 +1,133 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ru.d_shap.gradle.plugin.texturepacker.configuration.Parameter;
+import ru.d_shap.gradle.plugin.texturepacker.configuration.PipelineConfiguration;
+
+/**
+ * Tests for {@link PackingJobPlanner}.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class PackingJobPlannerTest {
+
+    /**
+     * Temporary folder for the source and the destination directories.
+     */
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Test class constructor.
+     */
+    public PackingJobPlannerTest() {
+        super();
+    }
+
+    /**
+     * {@link PackingJobPlanner} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void childDirsTest() throws IOException {
+        File sourceDir = createSourceDir();
+        List<PackingJob> packingJobs = createPackingJobs(sourceDir, Collections.<String>emptyList(), Collections.<String>emptyList(), false);
+        Assert.assertEquals(Arrays.asList("fx", "tmp", "ui"), getNames(packingJobs));
+    }
+
+    /**
+     * {@link PackingJobPlanner} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void recursiveDirsTest() throws IOException {
+        File sourceDir = createSourceDir();
+        List<PackingJob> packingJobs = createPackingJobs(sourceDir, Arrays.asList("ui/*", "**/fire"), Arrays.asList("ui/menu", "tmp"), true);
+        Assert.assertEquals(Arrays.asList("fx/particles/fire", "ui/buttons"), getNames(packingJobs));
+        PackingJob packingJob = packingJobs.get(1);
+        File destinationDir = new File(_temporaryFolder.getRoot(), "dst");
+        Assert.assertEquals(new File(destinationDir, "ui/buttons.png").getAbsoluteFile(), packingJob.getSheetFile());
+        Assert.assertEquals(new File(destinationDir, "ui/buttons.json").getAbsoluteFile(), packingJob.getDataFile());
+        Assert.assertEquals(new File(sourceDir, "ui/buttons"), packingJob.getSourceDir());
+    }
+
+    /**
+     * {@link PackingJobPlanner} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void includedDirIsNotWalkedTest() throws IOException {
+        File sourceDir = createSourceDir();
+        List<PackingJob> packingJobs = createPackingJobs(sourceDir, Arrays.asList("fx/**", "**/buttons"), Collections.<String>emptyList(), true);
+        Assert.assertEquals(Arrays.asList("fx", "ui/buttons"), getNames(packingJobs));
+    }
+
+    /**
+     * {@link PackingJobPlanner} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void excludedDirIsNotWalkedTest() throws IOException {
+        File sourceDir = createSourceDir();
+        List<PackingJob> packingJobs = createPackingJobs(sourceDir, Collections.singletonList("regex:.*/.*/.*"), Arrays.asList("fx", "tmp", "ui/buttons"), true);
+        Assert.assertEquals(Collections.singletonList("ui/menu/main"), getNames(packingJobs));
+    }
+
+    private File createSourceDir() throws IOException {
+        File sourceDir = _temporaryFolder.newFolder("src");
+        for (String path : new String[]{"ui/buttons/small", "ui/menu/main", "fx/particles/fire", "tmp/fire"}) {
+            Assert.assertTrue(new File(sourceDir, path).mkdirs());
+        }
+        Assert.assertTrue(new File(sourceDir, "readme.txt").createNewFile());
+        return sourceDir;
+    }
+
+    private List<PackingJob> createPackingJobs(final File sourceDir, final List<String> include, final List<String> exclude, final boolean recursive) {
+        PackingJobPlanner packingJobPlanner = new PackingJobPlanner(Collections.<PipelineConfiguration>emptyList(), new File(_temporaryFolder.getRoot(), "split"));
+        File destinationDir = new File(_temporaryFolder.getRoot(), "dst");
+        return packingJobPlanner.createPackingJobs("pipeline", sourceDir, destinationDir, include, exclude, recursive, false, "{name}.png", "{name}.json", null, PipelineConfiguration.PACKER_TEXTUREPACKER, Collections.<Parameter>emptyList());
+    }
+
+    private List<String> getNames(final List<PackingJob> packingJobs) {
+        List<String> names = new ArrayList<>();
+        for (PackingJob packingJob : packingJobs) {
+            names.add(packingJob.getName());
+        }
+        return names;
+    }
+
+}
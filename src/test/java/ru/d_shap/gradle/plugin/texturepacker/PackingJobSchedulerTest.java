@@ -0,0 +1,86 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ru.d_shap.gradle.plugin.texturepacker.configuration.Parameter;
+
+/**
+ * Tests for {@link PackingJobScheduler}.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class PackingJobSchedulerTest {
+
+    /**
+     * Temporary folder for the job history and the packing jobs.
+     */
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Test class constructor.
+     */
+    public PackingJobSchedulerTest() {
+        super();
+    }
+
+    /**
+     * {@link PackingJobScheduler} class test.
+     */
+    @Test
+    public void recordHistoryTest() {
+        File historyFile = new File(_temporaryFolder.getRoot(), "history.properties");
+        PackingJob packingJob1 = createPackingJob("job1");
+        PackingJob packingJob2 = createPackingJob("job2");
+        PackingJob packingJob3 = createPackingJob("job3");
+        JobHistory jobHistory = JobHistory.load(historyFile);
+        for (PackingJob packingJob : Arrays.asList(packingJob1, packingJob2, packingJob3)) {
+            jobHistory.putEntry(TexturePackerJobHandler.getManifestKey(packingJob), new JobHistory.Entry(1L, 1L, 0L, 0L));
+        }
+        jobHistory.save();
+
+        List<PackingJob> changedPackingJobs = Collections.singletonList(packingJob1);
+        MetricsRecorder metricsRecorder = new MetricsRecorder(changedPackingJobs, false);
+        metricsRecorder.getJobMetrics(packingJob1).setOutcome(JobMetrics.OUTCOME_UP_TO_DATE);
+        new PackingJobScheduler(JobHistory.load(historyFile)).recordHistory(changedPackingJobs, Arrays.asList(packingJob1, packingJob2), metricsRecorder);
+
+        jobHistory = JobHistory.load(historyFile);
+        Assert.assertEquals(new HashSet<>(Arrays.asList(TexturePackerJobHandler.getManifestKey(packingJob1), TexturePackerJobHandler.getManifestKey(packingJob2))), jobHistory.getEntries().keySet());
+    }
+
+    private PackingJob createPackingJob(final String name) {
+        File outputDir = new File(_temporaryFolder.getRoot(), name);
+        File sheetFile = new File(outputDir, "sheet.png");
+        File dataFile = new File(outputDir, "sheet.json");
+        return new PackingJob("pipeline", _temporaryFolder.getRoot(), name, sheetFile, dataFile, null, "texturepacker", Collections.<Parameter>emptyList());
+    }
+
+}
@@ -0,0 +1,90 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ProcessMemoryMonitor}.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class ProcessMemoryMonitorTest {
+
+    private static final String THREAD_NAME = "texturepacker-memory-monitor";
+
+    /**
+     * Test class constructor.
+     */
+    public ProcessMemoryMonitorTest() {
+        super();
+    }
+
+    /**
+     * {@link ProcessMemoryMonitor} class test.
+     *
+     * @throws IOException          IO exception.
+     * @throws InterruptedException interrupted exception.
+     */
+    @Test
+    public void sharedPollerTest() throws IOException, InterruptedException {
+        Assume.assumeTrue(new File("/proc/self/status").isFile());
+        List<String> arguments1 = Arrays.asList("-c", "sleep 1; echo monitor1");
+        List<String> arguments2 = Arrays.asList("-c", "sleep 1; echo monitor2");
+        ProcessMemoryMonitor processMemoryMonitor1 = ProcessMemoryMonitor.start(arguments1);
+        ProcessMemoryMonitor processMemoryMonitor2 = ProcessMemoryMonitor.start(arguments2);
+        Process process1 = startProcess(arguments1);
+        Process process2 = startProcess(arguments2);
+        Assert.assertEquals(1, getMonitorThreadCount());
+        Assert.assertEquals(0, process1.waitFor());
+        Assert.assertEquals(0, process2.waitFor());
+        Assert.assertTrue(processMemoryMonitor1.stop() > 0L);
+        Assert.assertTrue(processMemoryMonitor2.stop() > 0L);
+        for (int i = 0; i < 50 && getMonitorThreadCount() > 0; i++) {
+            Thread.sleep(20L);
+        }
+        Assert.assertEquals(0, getMonitorThreadCount());
+    }
+
+    private Process startProcess(final List<String> arguments) throws IOException {
+        ProcessBuilder processBuilder = new ProcessBuilder("sh");
+        processBuilder.command().addAll(arguments);
+        processBuilder.redirectErrorStream(true);
+        return processBuilder.start();
+    }
+
+    private int getMonitorThreadCount() {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (THREAD_NAME.equals(thread.getName())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+}
@@ -0,0 +1,136 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ProcessOutputSink}.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class ProcessOutputSinkTest {
+
+    private static final int MAX_LINE_LENGTH = 8 * 1024;
+
+    /**
+     * Test class constructor.
+     */
+    public ProcessOutputSinkTest() {
+        super();
+    }
+
+    /**
+     * {@link ProcessOutputSink} class test.
+     */
+    @Test
+    public void linesTest() {
+        ProcessOutputSink processOutputSink = new ProcessOutputSink("tag", true, ProcessOutputSink.DEFAULT_TAIL_SIZE);
+        write(processOutputSink, "first\nsec");
+        write(processOutputSink, "ond\r\n\n\r\nthird");
+        Assert.assertEquals(Arrays.asList("first", "second"), processOutputSink.getTail());
+        processOutputSink.close();
+        Assert.assertEquals(Arrays.asList("first", "second", "third"), processOutputSink.getTail());
+        processOutputSink.flush();
+        Assert.assertEquals(Arrays.asList("first", "second", "third"), processOutputSink.getTail());
+    }
+
+    /**
+     * {@link ProcessOutputSink} class test.
+     */
+    @Test
+    public void singleByteTest() {
+        ProcessOutputSink processOutputSink = new ProcessOutputSink("tag", true, ProcessOutputSink.DEFAULT_TAIL_SIZE);
+        for (byte value : "line1\nline2\n".getBytes(StandardCharsets.UTF_8)) {
+            processOutputSink.write(value);
+        }
+        Assert.assertEquals(Arrays.asList("line1", "line2"), processOutputSink.getTail());
+    }
+
+    /**
+     * {@link ProcessOutputSink} class test.
+     */
+    @Test
+    public void utf8Test() {
+        ProcessOutputSink processOutputSink = new ProcessOutputSink("tag", true, ProcessOutputSink.DEFAULT_TAIL_SIZE);
+        byte[] bytes = "\u0444\u0430\u0439\u043b\n".getBytes(StandardCharsets.UTF_8);
+        processOutputSink.write(bytes, 0, 3);
+        processOutputSink.write(bytes, 3, bytes.length - 3);
+        Assert.assertEquals(Collections.singletonList("\u0444\u0430\u0439\u043b"), processOutputSink.getTail());
+    }
+
+    /**
+     * {@link ProcessOutputSink} class test.
+     */
+    @Test
+    public void tailTest() {
+        ProcessOutputSink processOutputSink = new ProcessOutputSink("tag", true, 3);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 1; i <= 10; i++) {
+            builder.append("line").append(i).append('\n');
+        }
+        write(processOutputSink, builder.toString());
+        Assert.assertEquals(Arrays.asList("line8", "line9", "line10"), processOutputSink.getTail());
+    }
+
+    /**
+     * {@link ProcessOutputSink} class test.
+     */
+    @Test
+    public void noTailTest() {
+        ProcessOutputSink processOutputSink = new ProcessOutputSink("tag", false, 0);
+        write(processOutputSink, "line1\nline2\n");
+        processOutputSink.close();
+        Assert.assertEquals(Collections.<String>emptyList(), processOutputSink.getTail());
+    }
+
+    /**
+     * {@link ProcessOutputSink} class test.
+     */
+    @Test
+    public void longLineTest() {
+        ProcessOutputSink processOutputSink = new ProcessOutputSink("tag", true, ProcessOutputSink.DEFAULT_TAIL_SIZE);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < MAX_LINE_LENGTH * 2 + 10; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        String line = builder.toString();
+        write(processOutputSink, line + "\nnext\n");
+        List<String> expected = new ArrayList<>();
+        expected.add(line.substring(0, MAX_LINE_LENGTH));
+        expected.add(line.substring(MAX_LINE_LENGTH, MAX_LINE_LENGTH * 2));
+        expected.add(line.substring(MAX_LINE_LENGTH * 2));
+        expected.add("next");
+        Assert.assertEquals(expected, processOutputSink.getTail());
+    }
+
+    private void write(final ProcessOutputSink processOutputSink, final String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        processOutputSink.write(bytes, 0, bytes.length);
+    }
+
+}
@@ -0,0 +1,231 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.gradle.api.InvalidUserDataException;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ru.d_shap.gradle.plugin.texturepacker.configuration.Parameter;
+import ru.d_shap.gradle.plugin.texturepacker.configuration.ParametersConfiguration;
+
+/**
+ * Tests for {@link SheetSplitter}.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class SheetSplitterTest {
+
+    /**
+     * Temporary folder for the source directories.
+     */
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Test class constructor.
+     */
+    public SheetSplitterTest() {
+        super();
+    }
+
+    /**
+     * {@link SheetSplitter} class test.
+     */
+    @Test
+    public void sheetSizeTest() {
+        SheetSplitter sheetSplitter = new SheetSplitter(Collections.<Parameter>emptyList());
+        Assert.assertEquals(2048, sheetSplitter.getSheetWidth());
+        Assert.assertEquals(2048, sheetSplitter.getSheetHeight());
+        sheetSplitter = new SheetSplitter(createParameters("max_size", "1024"));
+        Assert.assertEquals(1024, sheetSplitter.getSheetWidth());
+        Assert.assertEquals(1024, sheetSplitter.getSheetHeight());
+        sheetSplitter = new SheetSplitter(createParameters("max_width", "512", "max_height", "256"));
+        Assert.assertEquals(512, sheetSplitter.getSheetWidth());
+        Assert.assertEquals(256, sheetSplitter.getSheetHeight());
+        sheetSplitter = new SheetSplitter(createParameters("max_size", "1024", "width", " 128 ", "height", "0", "format", "phaser-json-hash"));
+        Assert.assertEquals(128, sheetSplitter.getSheetWidth());
+        Assert.assertEquals(1024, sheetSplitter.getSheetHeight());
+    }
+
+    /**
+     * {@link SheetSplitter} class test.
+     */
+    @Test(expected = InvalidUserDataException.class)
+    public void notNumberFailTest() {
+        new SheetSplitter(createParameters("width", "wide"));
+    }
+
+    /**
+     * {@link SheetSplitter} class test.
+     */
+    @Test(expected = InvalidUserDataException.class)
+    public void noArgumentFailTest() {
+        ParametersConfiguration parametersConfiguration = new ParametersConfiguration();
+        parametersConfiguration.methodMissing("padding", new Object[0]);
+        new SheetSplitter(parametersConfiguration.getParameters());
+    }
+
+    /**
+     * {@link SheetSplitter} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void oneSheetTest() throws IOException {
+        File sourceDir = _temporaryFolder.newFolder("ui");
+        writeImage(sourceDir, "b.png", 100, 100);
+        writeImage(sourceDir, "sub/a.png", 100, 100);
+        writeImage(sourceDir, "c.jpg", 100, 100);
+        Assert.assertTrue(new File(sourceDir, "readme.txt").createNewFile());
+        List<List<String>> groups = new SheetSplitter(createParameters("max_size", "256", "padding", "0", "extrude", "0")).split(sourceDir);
+        Assert.assertEquals(Collections.singletonList(Arrays.asList("b.png", "c.jpg", "readme.txt", "sub/a.png")), groups);
+    }
+
+    /**
+     * {@link SheetSplitter} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void splitTest() throws IOException {
+        File sourceDir = _temporaryFolder.newFolder("ui");
+        for (String name : new String[]{"f", "e", "d", "c", "b", "a"}) {
+            writeImage(sourceDir, name + ".png", 128, 128);
+        }
+        List<List<String>> groups = new SheetSplitter(createParameters("max_size", "256", "padding", "0", "extrude", "0")).split(sourceDir);
+        Assert.assertEquals(Arrays.asList(Arrays.asList("a.png", "c.png", "e.png"), Arrays.asList("b.png", "d.png", "f.png")), groups);
+    }
+
+    /**
+     * {@link SheetSplitter} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void paddingTest() throws IOException {
+        File sourceDir = _temporaryFolder.newFolder("ui");
+        for (String name : new String[]{"a", "b", "c", "d"}) {
+            writeImage(sourceDir, name + ".png", 100, 100);
+        }
+        List<List<String>> groups = new SheetSplitter(createParameters("max_size", "256", "padding", "0", "extrude", "0")).split(sourceDir);
+        Assert.assertEquals(1, groups.size());
+        groups = new SheetSplitter(createParameters("max_size", "256", "shape_padding", "20", "border_padding", "0", "extrude", "0")).split(sourceDir);
+        Assert.assertEquals(2, groups.size());
+        groups = new SheetSplitter(createParameters("max_size", "256", "padding", "0", "extrude", "10")).split(sourceDir);
+        Assert.assertEquals(2, groups.size());
+        groups = new SheetSplitter(createParameters("max_size", "256", "shape_padding", "0", "border_padding", "20", "extrude", "0")).split(sourceDir);
+        Assert.assertEquals(2, groups.size());
+    }
+
+    /**
+     * {@link SheetSplitter} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void oversizedSpriteTest() throws IOException {
+        File sourceDir = _temporaryFolder.newFolder("ui");
+        writeImage(sourceDir, "big.png", 300, 300);
+        for (String name : new String[]{"s1", "s2", "s3", "s4"}) {
+            writeImage(sourceDir, name + ".png", 100, 100);
+        }
+        List<List<String>> groups = new SheetSplitter(createParameters("max_size", "256", "padding", "0", "extrude", "0")).split(sourceDir);
+        Assert.assertEquals(Arrays.asList(Collections.singletonList("big.png"), Arrays.asList("s1.png", "s3.png"), Arrays.asList("s2.png", "s4.png")), groups);
+    }
+
+    /**
+     * {@link SheetSplitter} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void singleSpriteTest() throws IOException {
+        File sourceDir = _temporaryFolder.newFolder("ui");
+        writeImage(sourceDir, "big.png", 300, 300);
+        List<List<String>> groups = new SheetSplitter(createParameters("max_size", "256")).split(sourceDir);
+        Assert.assertEquals(Collections.singletonList(Collections.singletonList("big.png")), groups);
+    }
+
+    /**
+     * {@link SheetSplitter} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void allSpritesGroupedTest() throws IOException {
+        File sourceDir = _temporaryFolder.newFolder("ui");
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String name = "sprite" + i + ".png";
+            writeImage(sourceDir, name, 10 + i * 3, 20 + i % 7 * 11);
+            names.add(name);
+        }
+        SheetSplitter sheetSplitter = new SheetSplitter(createParameters("max_size", "128"));
+        List<List<String>> groups = sheetSplitter.split(sourceDir);
+        Assert.assertTrue(groups.size() > 1);
+        List<String> groupedNames = new ArrayList<>();
+        for (List<String> group : groups) {
+            Assert.assertFalse(group.isEmpty());
+            List<String> sortedGroup = new ArrayList<>(group);
+            Collections.sort(sortedGroup);
+            Assert.assertEquals(sortedGroup, group);
+            groupedNames.addAll(group);
+        }
+        Collections.sort(groupedNames);
+        Collections.sort(names);
+        Assert.assertEquals(names, groupedNames);
+        Assert.assertEquals(groups, sheetSplitter.split(sourceDir));
+    }
+
+    private List<Parameter> createParameters(final String... namesAndValues) {
+        ParametersConfiguration parametersConfiguration = new ParametersConfiguration();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            parametersConfiguration.methodMissing(namesAndValues[i], new Object[]{namesAndValues[i + 1]});
+        }
+        return parametersConfiguration.getParameters();
+    }
+
+    private void writeImage(final File sourceDir, final String name, final int width, final int height) throws IOException {
+        File file = new File(sourceDir, name);
+        file.getParentFile().mkdirs();
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        String format;
+        if (name.endsWith(".jpg")) {
+            format = "jpg";
+        } else {
+            format = "png";
+        }
+        Assert.assertTrue(ImageIO.write(image, format, file));
+    }
+
+}
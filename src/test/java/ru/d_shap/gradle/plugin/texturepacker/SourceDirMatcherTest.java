@@ -0,0 +1,196 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.gradle.api.InvalidUserDataException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link SourceDirMatcher}.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class SourceDirMatcherTest {
+
+    /**
+     * Test class constructor.
+     */
+    public SourceDirMatcherTest() {
+        super();
+    }
+
+    /**
+     * {@link SourceDirMatcher} class test.
+     */
+    @Test
+    public void noPatternsTest() {
+        SourceDirMatcher sourceDirMatcher = new SourceDirMatcher(null, null);
+        Assert.assertTrue(sourceDirMatcher.isIncluded("ui"));
+        Assert.assertTrue(sourceDirMatcher.isIncluded("ui/icons"));
+        Assert.assertFalse(sourceDirMatcher.isExcluded("ui"));
+        Assert.assertTrue(sourceDirMatcher.isIncludedDescendantPossible("ui"));
+    }
+
+    /**
+     * {@link SourceDirMatcher} class test.
+     */
+    @Test
+    public void globTest() {
+        SourceDirMatcher sourceDirMatcher = createSourceDirMatcher("ui", "fx/*", "level?", "*.atlas");
+        Assert.assertTrue(sourceDirMatcher.isIncluded("ui"));
+        Assert.assertFalse(sourceDirMatcher.isIncluded("ui/icons"));
+        Assert.assertFalse(sourceDirMatcher.isIncluded("uix"));
+        Assert.assertTrue(sourceDirMatcher.isIncluded("fx/fire"));
+        Assert.assertFalse(sourceDirMatcher.isIncluded("fx"));
+        Assert.assertFalse(sourceDirMatcher.isIncluded("fx/fire/smoke"));
+        Assert.assertTrue(sourceDirMatcher.isIncluded("level1"));
+        Assert.assertFalse(sourceDirMatcher.isIncluded("level"));
+        Assert.assertFalse(sourceDirMatcher.isIncluded("level10"));
+        Assert.assertTrue(sourceDirMatcher.isIncluded("menu.atlas"));
+        Assert.assertTrue(sourceDirMatcher.isIncluded(".atlas"));
+        Assert.assertFalse(sourceDirMatcher.isIncluded("menuXatlas"));
+        Assert.assertFalse(sourceDirMatcher.isIncluded("ui/menu.atlas"));
+    }
+
+    /**
+     * {@link SourceDirMatcher} class test.
+     */
+    @Test
+    public void anyDirsGlobTest() {
+        SourceDirMatcher sourceDirMatcher = createSourceDirMatcher("**/icons", "ui/**/buttons", "fx/**");
+        Assert.assertTrue(sourceDirMatcher.isIncluded("icons"));
+        Assert.assertTrue(sourceDirMatcher.isIncluded("ui/icons"));
+        Assert.assertTrue(sourceDirMatcher.isIncluded("ui/menu/icons"));
+        Assert.assertFalse(sourceDirMatcher.isIncluded("ui/icons/small"));
+        Assert.assertFalse(sourceDirMatcher.isIncluded("myicons"));
+        Assert.assertTrue(sourceDirMatcher.isIncluded("ui/buttons"));
+        Assert.assertTrue(sourceDirMatcher.isIncluded("ui/menu/main/buttons"));
+        Assert.assertFalse(sourceDirMatcher.isIncluded("buttons"));
+        Assert.assertTrue(sourceDirMatcher.isIncluded("fx"));
+        Assert.assertTrue(sourceDirMatcher.isIncluded("fx/fire/smoke"));
+    }
+
+    /**
+     * {@link SourceDirMatcher} class test.
+     */
+    @Test
+    public void windowsSeparatorGlobTest() {
+        SourceDirMatcher sourceDirMatcher = createSourceDirMatcher("ui\\icons", "/fx//fire/");
+        Assert.assertTrue(sourceDirMatcher.isIncluded("ui/icons"));
+        Assert.assertTrue(sourceDirMatcher.isIncluded("fx/fire"));
+    }
+
+    /**
+     * {@link SourceDirMatcher} class test.
+     */
+    @Test
+    public void specialCharactersGlobTest() {
+        SourceDirMatcher sourceDirMatcher = createSourceDirMatcher("ui (old)+[1]", "a.b");
+        Assert.assertTrue(sourceDirMatcher.isIncluded("ui (old)+[1]"));
+        Assert.assertFalse(sourceDirMatcher.isIncluded("ui old+1"));
+        Assert.assertTrue(sourceDirMatcher.isIncluded("a.b"));
+        Assert.assertFalse(sourceDirMatcher.isIncluded("aXb"));
+    }
+
+    /**
+     * {@link SourceDirMatcher} class test.
+     */
+    @Test
+    public void regexTest() {
+        SourceDirMatcher sourceDirMatcher = createSourceDirMatcher("regex:level[0-9]+", "regex:ui/.*/icons");
+        Assert.assertTrue(sourceDirMatcher.isIncluded("level1"));
+        Assert.assertTrue(sourceDirMatcher.isIncluded("level10"));
+        Assert.assertFalse(sourceDirMatcher.isIncluded("level"));
+        Assert.assertFalse(sourceDirMatcher.isIncluded("level1/icons"));
+        Assert.assertTrue(sourceDirMatcher.isIncluded("ui/menu/icons"));
+        Assert.assertTrue(sourceDirMatcher.isIncluded("ui/menu/main/icons"));
+        Assert.assertFalse(sourceDirMatcher.isIncluded("ui/icons"));
+        Assert.assertTrue(sourceDirMatcher.isIncludedDescendantPossible("other"));
+    }
+
+    /**
+     * {@link SourceDirMatcher} class test.
+     */
+    @Test
+    public void excludeTest() {
+        SourceDirMatcher sourceDirMatcher = new SourceDirMatcher(Collections.<String>emptyList(), Arrays.asList("**/tmp", "regex:.*-old"));
+        Assert.assertTrue(sourceDirMatcher.isIncluded("ui"));
+        Assert.assertFalse(sourceDirMatcher.isExcluded("ui"));
+        Assert.assertTrue(sourceDirMatcher.isExcluded("tmp"));
+        Assert.assertTrue(sourceDirMatcher.isExcluded("ui/tmp"));
+        Assert.assertTrue(sourceDirMatcher.isExcluded("ui-old"));
+        Assert.assertTrue(sourceDirMatcher.isExcluded("fx/fire-old"));
+        Assert.assertFalse(sourceDirMatcher.isExcluded("ui/tmp/icons"));
+    }
+
+    /**
+     * {@link SourceDirMatcher} class test.
+     */
+    @Test
+    public void includedDescendantPossibleTest() {
+        SourceDirMatcher sourceDirMatcher = createSourceDirMatcher("ui/*/icons", "fx/fire");
+        Assert.assertTrue(sourceDirMatcher.isIncludedDescendantPossible("ui"));
+        Assert.assertTrue(sourceDirMatcher.isIncludedDescendantPossible("ui/menu"));
+        Assert.assertFalse(sourceDirMatcher.isIncludedDescendantPossible("ui/menu/icons"));
+        Assert.assertFalse(sourceDirMatcher.isIncludedDescendantPossible("ui/menu/other"));
+        Assert.assertTrue(sourceDirMatcher.isIncludedDescendantPossible("fx"));
+        Assert.assertFalse(sourceDirMatcher.isIncludedDescendantPossible("fx/fire"));
+        Assert.assertFalse(sourceDirMatcher.isIncludedDescendantPossible("fx/smoke"));
+        Assert.assertFalse(sourceDirMatcher.isIncludedDescendantPossible("other"));
+    }
+
+    /**
+     * {@link SourceDirMatcher} class test.
+     */
+    @Test
+    public void anyDirsDescendantPossibleTest() {
+        SourceDirMatcher sourceDirMatcher = createSourceDirMatcher("ui/**/icons");
+        Assert.assertTrue(sourceDirMatcher.isIncludedDescendantPossible("ui"));
+        Assert.assertTrue(sourceDirMatcher.isIncludedDescendantPossible("ui/menu/main"));
+        Assert.assertFalse(sourceDirMatcher.isIncludedDescendantPossible("fx"));
+    }
+
+    /**
+     * {@link SourceDirMatcher} class test.
+     */
+    @Test(expected = InvalidUserDataException.class)
+    public void emptyPatternFailTest() {
+        createSourceDirMatcher("ui", "");
+    }
+
+    /**
+     * {@link SourceDirMatcher} class test.
+     */
+    @Test(expected = InvalidUserDataException.class)
+    public void invalidRegexFailTest() {
+        createSourceDirMatcher("regex:ui[");
+    }
+
+    private SourceDirMatcher createSourceDirMatcher(final String... include) {
+        List<String> exclude = Collections.emptyList();
+        return new SourceDirMatcher(Arrays.asList(include), exclude);
+    }
+
+}
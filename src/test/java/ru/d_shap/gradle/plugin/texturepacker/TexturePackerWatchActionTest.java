@@ -0,0 +1,92 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ru.d_shap.gradle.plugin.texturepacker.configuration.Parameter;
+
+/**
+ * Tests for {@link TexturePackerWatchAction}.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class TexturePackerWatchActionTest {
+
+    private static final File ROOT_DIR = new File("watch-root").getAbsoluteFile();
+
+    /**
+     * Test class constructor.
+     */
+    public TexturePackerWatchActionTest() {
+        super();
+    }
+
+    /**
+     * {@link TexturePackerWatchAction} class test.
+     */
+    @Test
+    public void changedFileTest() {
+        List<PackingJob> packingJobs = createPackingJobs();
+        Assert.assertEquals(Collections.singletonList(packingJobs.get(0)), getChangedPackingJobs(packingJobs, "dir1/image.png"));
+        Assert.assertEquals(Collections.singletonList(packingJobs.get(1)), getChangedPackingJobs(packingJobs, "dir10/sub/image.png"));
+        Assert.assertEquals(Collections.singletonList(packingJobs.get(2)), getChangedPackingJobs(packingJobs, "group/dir2"));
+        Assert.assertEquals(Collections.emptyList(), getChangedPackingJobs(packingJobs, "image.png"));
+        Assert.assertEquals(Collections.emptyList(), getChangedPackingJobs(packingJobs, "group/image.png"));
+    }
+
+    /**
+     * {@link TexturePackerWatchAction} class test.
+     */
+    @Test
+    public void changedParentDirTest() {
+        List<PackingJob> packingJobs = createPackingJobs();
+        Assert.assertEquals(packingJobs, getChangedPackingJobs(packingJobs, ""));
+        Assert.assertEquals(packingJobs.subList(2, 4), getChangedPackingJobs(packingJobs, "group"));
+        Assert.assertEquals(packingJobs.subList(2, 4), getChangedPackingJobs(packingJobs, "group", "group/dir3/image.png"));
+    }
+
+    private List<PackingJob> createPackingJobs() {
+        return Arrays.asList(createPackingJob("dir1"), createPackingJob("dir10"), createPackingJob("group/dir2"), createPackingJob("group/dir3"));
+    }
+
+    private PackingJob createPackingJob(final String name) {
+        File outputDir = new File(new File(ROOT_DIR.getParentFile(), "watch-output"), name);
+        return new PackingJob("pipeline", ROOT_DIR, name, new File(outputDir, "sheet.png"), new File(outputDir, "sheet.json"), null, "texturepacker", Collections.<Parameter>emptyList());
+    }
+
+    private List<PackingJob> getChangedPackingJobs(final List<PackingJob> packingJobs, final String... changedPaths) {
+        Set<Path> paths = new HashSet<>();
+        for (String changedPath : changedPaths) {
+            paths.add(ROOT_DIR.toPath().resolve(changedPath));
+        }
+        return TexturePackerWatchAction.getChangedPackingJobs(packingJobs, paths);
+    }
+
+}
@@ -0,0 +1,204 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.binary;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ru.d_shap.texturepacker.atlas.BinaryAtlas;
+
+/**
+ * Tests for {@link BinaryAtlasConverter} and {@link BinaryAtlas}.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class BinaryAtlasConverterTest {
+
+    private static final int FRAME_COUNT = 500;
+
+    private static final int JSON_CAPACITY = 100 * FRAME_COUNT;
+
+    /**
+     * Temporary folder for the atlases.
+     */
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Test class constructor.
+     */
+    public BinaryAtlasConverterTest() {
+        super();
+    }
+
+    /**
+     * {@link BinaryAtlasConverter} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void jsonHashRoundTripTest() throws IOException {
+        StringBuilder json = new StringBuilder(JSON_CAPACITY);
+        json.append("{\"frames\":{");
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("\"frame").append(i).append(".png\":{\"frame\":{\"x\":").append(i).append(",\"y\":").append(i * 2).append(",\"w\":").append(i + 1).append(",\"h\":").append(i + 2).append("}}");
+        }
+        json.append("},\"meta\":{\"image\":\"sheet.png\",\"size\":{\"w\":1024,\"h\":512}}}");
+        BinaryAtlas binaryAtlas = convert(json.toString());
+        Assert.assertEquals(FRAME_COUNT, binaryAtlas.getFrameCount());
+        Assert.assertEquals("sheet.png", binaryAtlas.getSheetName());
+        Assert.assertEquals(1024, binaryAtlas.getSheetWidth());
+        Assert.assertEquals(512, binaryAtlas.getSheetHeight());
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            String name = "frame" + i + ".png";
+            int frame = binaryAtlas.findFrame(name);
+            Assert.assertTrue(name, frame >= 0);
+            Assert.assertEquals(name, binaryAtlas.getFrameName(frame));
+            Assert.assertEquals(i, binaryAtlas.getX(frame));
+            Assert.assertEquals(i * 2, binaryAtlas.getY(frame));
+            Assert.assertEquals(i + 1, binaryAtlas.getWidth(frame));
+            Assert.assertEquals(i + 2, binaryAtlas.getHeight(frame));
+            Assert.assertEquals(0, binaryAtlas.getSourceX(frame));
+            Assert.assertEquals(0, binaryAtlas.getSourceY(frame));
+            Assert.assertEquals(i + 1, binaryAtlas.getSourceWidth(frame));
+            Assert.assertEquals(i + 2, binaryAtlas.getSourceHeight(frame));
+            Assert.assertFalse(binaryAtlas.isRotated(frame));
+            Assert.assertFalse(binaryAtlas.isTrimmed(frame));
+        }
+        Assert.assertEquals(-1, binaryAtlas.findFrame("frame.png"));
+        Assert.assertEquals(-1, binaryAtlas.findFrame(""));
+    }
+
+    /**
+     * {@link BinaryAtlasConverter} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void jsonArrayRoundTripTest() throws IOException {
+        String json = "{\"frames\":[{\"filename\":\"a.png\",\"rotated\":true,\"trimmed\":true,\"frame\":{\"x\":1,\"y\":2,\"w\":3,\"h\":4},\"spriteSourceSize\":{\"x\":5,\"y\":6,\"w\":3,\"h\":4},\"sourceSize\":{\"w\":7,\"h\":8}},"
+            + "{\"filename\":\"b.png\",\"frame\":{\"x\":9,\"y\":10,\"w\":11,\"h\":12}}],\"meta\":{\"image\":\"sheet.png\"}}";
+        BinaryAtlas binaryAtlas = convert(json);
+        Assert.assertEquals(2, binaryAtlas.getFrameCount());
+        int frame = binaryAtlas.findFrame("a.png");
+        Assert.assertTrue(frame >= 0);
+        Assert.assertEquals(1, binaryAtlas.getX(frame));
+        Assert.assertEquals(2, binaryAtlas.getY(frame));
+        Assert.assertEquals(3, binaryAtlas.getWidth(frame));
+        Assert.assertEquals(4, binaryAtlas.getHeight(frame));
+        Assert.assertEquals(5, binaryAtlas.getSourceX(frame));
+        Assert.assertEquals(6, binaryAtlas.getSourceY(frame));
+        Assert.assertEquals(7, binaryAtlas.getSourceWidth(frame));
+        Assert.assertEquals(8, binaryAtlas.getSourceHeight(frame));
+        Assert.assertTrue(binaryAtlas.isRotated(frame));
+        Assert.assertTrue(binaryAtlas.isTrimmed(frame));
+        frame = binaryAtlas.findFrame("b.png");
+        Assert.assertTrue(frame >= 0);
+        Assert.assertEquals(9, binaryAtlas.getX(frame));
+        Assert.assertEquals(11, binaryAtlas.getSourceWidth(frame));
+        Assert.assertFalse(binaryAtlas.isRotated(frame));
+    }
+
+    /**
+     * {@link BinaryAtlasConverter} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void singleTextureRoundTripTest() throws IOException {
+        String json = "{\"textures\":[{\"image\":\"sheet.png\",\"size\":{\"w\":64,\"h\":32},\"frames\":[{\"filename\":\"a.png\",\"frame\":{\"x\":1,\"y\":2,\"w\":3,\"h\":4}}]}]}";
+        BinaryAtlas binaryAtlas = convert(json);
+        Assert.assertEquals("sheet.png", binaryAtlas.getSheetName());
+        Assert.assertEquals(64, binaryAtlas.getSheetWidth());
+        Assert.assertEquals(32, binaryAtlas.getSheetHeight());
+        Assert.assertEquals(0, binaryAtlas.findFrame("a.png"));
+    }
+
+    /**
+     * {@link BinaryAtlasConverter} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test(expected = IOException.class)
+    public void multipleTexturesTest() throws IOException {
+        convert("{\"textures\":[{\"frames\":[]},{\"frames\":[]}]}");
+    }
+
+    /**
+     * {@link BinaryAtlasConverter} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void unicodeNameTest() throws IOException {
+        String[] names = {"\u043a\u043d\u043e\u043f\u043a\u0430.png", "\u6309\u94ae.png", "\ud83d\ude00.png", "high\uD800.png", "low\uDC00.png", "swapped\uDC00\uD800.png"};
+        StringBuilder json = new StringBuilder(JSON_CAPACITY);
+        json.append("{\"frames\":{");
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"').append(escape(names[i])).append("\":{\"frame\":{\"x\":").append(i).append(",\"y\":0,\"w\":1,\"h\":1}}");
+        }
+        json.append("}}");
+        BinaryAtlas binaryAtlas = convert(json.toString());
+        for (int i = 0; i < names.length; i++) {
+            int frame = binaryAtlas.findFrame(names[i]);
+            Assert.assertTrue(escape(names[i]), frame >= 0);
+            Assert.assertEquals(i, binaryAtlas.getX(frame));
+            String encodedName = new String(names[i].getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+            Assert.assertEquals(escape(names[i]), encodedName, binaryAtlas.getFrameName(frame));
+            Assert.assertEquals(escape(names[i]), frame, binaryAtlas.findFrame(encodedName));
+        }
+        Assert.assertEquals(-1, binaryAtlas.findFrame("\ud83d\ude01.png"));
+    }
+
+    private BinaryAtlas convert(final String json) throws IOException {
+        File dataFile = _temporaryFolder.newFile("atlas.json");
+        Files.write(dataFile.toPath(), json.getBytes(StandardCharsets.UTF_8));
+        File binaryFile = new File(_temporaryFolder.getRoot(), "atlas.bin");
+        BinaryAtlasConverter.convert(dataFile, binaryFile);
+        return BinaryAtlas.open(binaryFile);
+    }
+
+    private static String escape(final String value) {
+        StringBuilder result = new StringBuilder(value.length() * 6);
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch < 0x80) {
+                result.append(ch);
+            } else {
+                result.append(String.format("\\u%04x", (int) ch));
+            }
+        }
+        return result.toString();
+    }
+
+}
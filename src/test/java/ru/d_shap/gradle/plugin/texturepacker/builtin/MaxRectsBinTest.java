@@ -0,0 +1,192 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.builtin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link MaxRectsBin}.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class MaxRectsBinTest {
+
+    private static final int BIN_SIZE = 512;
+
+    private static final int RECTANGLE_COUNT = 200;
+
+    private static final int MAX_RECTANGLE_SIZE = 48;
+
+    private static final long SEED = 12345L;
+
+    /**
+     * Test class constructor.
+     */
+    public MaxRectsBinTest() {
+        super();
+    }
+
+    /**
+     * {@link MaxRectsBin} class test.
+     */
+    @Test
+    public void placementsDoNotOverlapTest() {
+        for (MaxRectsBin.Heuristic heuristic : MaxRectsBin.Heuristic.values()) {
+            for (boolean rotation : new boolean[]{false, true}) {
+                List<MaxRectsBin.Placement> placements = insertRandomRectangles(rotation, heuristic);
+                Assert.assertFalse(heuristic.getName(), placements.isEmpty());
+                assertNotOverlapped(heuristic, placements);
+            }
+        }
+    }
+
+    /**
+     * {@link MaxRectsBin} class test.
+     */
+    @Test
+    public void placementsAreInsideBinTest() {
+        for (MaxRectsBin.Heuristic heuristic : MaxRectsBin.Heuristic.values()) {
+            for (boolean rotation : new boolean[]{false, true}) {
+                MaxRectsBin maxRectsBin = new MaxRectsBin(BIN_SIZE, BIN_SIZE, rotation);
+                List<MaxRectsBin.Placement> placements = insertRandomRectangles(maxRectsBin, heuristic);
+                int usedWidth = 0;
+                int usedHeight = 0;
+                for (MaxRectsBin.Placement placement : placements) {
+                    Assert.assertTrue(heuristic.getName(), placement.getX() >= 0);
+                    Assert.assertTrue(heuristic.getName(), placement.getY() >= 0);
+                    Assert.assertTrue(heuristic.getName(), placement.getX() + placement.getWidth() <= BIN_SIZE);
+                    Assert.assertTrue(heuristic.getName(), placement.getY() + placement.getHeight() <= BIN_SIZE);
+                    usedWidth = Math.max(usedWidth, placement.getX() + placement.getWidth());
+                    usedHeight = Math.max(usedHeight, placement.getY() + placement.getHeight());
+                }
+                Assert.assertEquals(heuristic.getName(), usedWidth, maxRectsBin.getUsedWidth());
+                Assert.assertEquals(heuristic.getName(), usedHeight, maxRectsBin.getUsedHeight());
+            }
+        }
+    }
+
+    /**
+     * {@link MaxRectsBin} class test.
+     */
+    @Test
+    public void rotationTest() {
+        for (MaxRectsBin.Heuristic heuristic : MaxRectsBin.Heuristic.values()) {
+            MaxRectsBin rotatedBin = new MaxRectsBin(10, 100, true);
+            MaxRectsBin.Placement rotatedPlacement = rotatedBin.insert(100, 10, heuristic);
+            Assert.assertNotNull(heuristic.getName(), rotatedPlacement);
+            Assert.assertTrue(heuristic.getName(), rotatedPlacement.isRotated());
+            Assert.assertEquals(heuristic.getName(), 10, rotatedPlacement.getWidth());
+            Assert.assertEquals(heuristic.getName(), 100, rotatedPlacement.getHeight());
+
+            MaxRectsBin.Placement placement = rotatedBin.insert(5, 5, heuristic);
+            Assert.assertNull(heuristic.getName(), placement);
+
+            MaxRectsBin fixedBin = new MaxRectsBin(10, 100, false);
+            Assert.assertNull(heuristic.getName(), fixedBin.insert(100, 10, heuristic));
+            MaxRectsBin.Placement fixedPlacement = fixedBin.insert(10, 100, heuristic);
+            Assert.assertNotNull(heuristic.getName(), fixedPlacement);
+            Assert.assertFalse(heuristic.getName(), fixedPlacement.isRotated());
+        }
+    }
+
+    /**
+     * {@link MaxRectsBin} class test.
+     */
+    @Test
+    public void squareIsNotRotatedTest() {
+        MaxRectsBin maxRectsBin = new MaxRectsBin(64, 64, true);
+        MaxRectsBin.Placement placement = maxRectsBin.insert(32, 32, MaxRectsBin.Heuristic.BEST_SHORT_SIDE_FIT);
+        Assert.assertNotNull(placement);
+        Assert.assertFalse(placement.isRotated());
+    }
+
+    /**
+     * {@link MaxRectsBin} class test.
+     */
+    @Test
+    public void overflowTest() {
+        for (MaxRectsBin.Heuristic heuristic : MaxRectsBin.Heuristic.values()) {
+            MaxRectsBin maxRectsBin = new MaxRectsBin(64, 64, true);
+            Assert.assertNull(heuristic.getName(), maxRectsBin.insert(65, 1, heuristic));
+            Assert.assertNull(heuristic.getName(), maxRectsBin.insert(1, 65, heuristic));
+            Assert.assertEquals(heuristic.getName(), 0, maxRectsBin.getUsedWidth());
+            Assert.assertEquals(heuristic.getName(), 0, maxRectsBin.getUsedHeight());
+
+            for (int i = 0; i < 4; i++) {
+                Assert.assertNotNull(heuristic.getName(), maxRectsBin.insert(32, 32, heuristic));
+            }
+            Assert.assertEquals(heuristic.getName(), 64, maxRectsBin.getUsedWidth());
+            Assert.assertEquals(heuristic.getName(), 64, maxRectsBin.getUsedHeight());
+            Assert.assertNull(heuristic.getName(), maxRectsBin.insert(1, 1, heuristic));
+        }
+    }
+
+    /**
+     * {@link MaxRectsBin} class test.
+     */
+    @Test
+    public void exactFitTest() {
+        for (MaxRectsBin.Heuristic heuristic : MaxRectsBin.Heuristic.values()) {
+            MaxRectsBin maxRectsBin = new MaxRectsBin(64, 32, false);
+            MaxRectsBin.Placement placement = maxRectsBin.insert(64, 32, heuristic);
+            Assert.assertNotNull(heuristic.getName(), placement);
+            Assert.assertEquals(heuristic.getName(), 0, placement.getX());
+            Assert.assertEquals(heuristic.getName(), 0, placement.getY());
+            Assert.assertNull(heuristic.getName(), maxRectsBin.insert(1, 1, heuristic));
+        }
+    }
+
+    private List<MaxRectsBin.Placement> insertRandomRectangles(final boolean rotation, final MaxRectsBin.Heuristic heuristic) {
+        return insertRandomRectangles(new MaxRectsBin(BIN_SIZE, BIN_SIZE, rotation), heuristic);
+    }
+
+    private List<MaxRectsBin.Placement> insertRandomRectangles(final MaxRectsBin maxRectsBin, final MaxRectsBin.Heuristic heuristic) {
+        Random random = new Random(SEED);
+        List<MaxRectsBin.Placement> placements = new ArrayList<>();
+        for (int i = 0; i < RECTANGLE_COUNT; i++) {
+            int width = random.nextInt(MAX_RECTANGLE_SIZE) + 1;
+            int height = random.nextInt(MAX_RECTANGLE_SIZE) + 1;
+            MaxRectsBin.Placement placement = maxRectsBin.insert(width, height, heuristic);
+            if (placement != null) {
+                Assert.assertTrue(placement.getWidth() == width && placement.getHeight() == height || placement.isRotated() && placement.getWidth() == height && placement.getHeight() == width);
+                placements.add(placement);
+            }
+        }
+        return placements;
+    }
+
+    private void assertNotOverlapped(final MaxRectsBin.Heuristic heuristic, final List<MaxRectsBin.Placement> placements) {
+        for (int i = 0; i < placements.size(); i++) {
+            for (int j = i + 1; j < placements.size(); j++) {
+                Assert.assertFalse(heuristic.getName() + ": " + i + ", " + j, isOverlapped(placements.get(i), placements.get(j)));
+            }
+        }
+    }
+
+    private boolean isOverlapped(final MaxRectsBin.Placement placement1, final MaxRectsBin.Placement placement2) {
+        return placement1.getX() < placement2.getX() + placement2.getWidth() && placement2.getX() < placement1.getX() + placement1.getWidth() && placement1.getY() < placement2.getY() + placement2.getHeight() && placement2.getY() < placement1.getY() + placement1.getHeight();
+    }
+
+}
@@ -0,0 +1,147 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.configuration;
+
+import org.gradle.api.InvalidUserDataException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import groovy.lang.Closure;
+
+/**
+ * Tests for {@link NameTemplate}.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class NameTemplateTest {
+
+    /**
+     * Test class constructor.
+     */
+    public NameTemplateTest() {
+        super();
+    }
+
+    /**
+     * {@link NameTemplate} class test.
+     */
+    @Test
+    public void resolveTest() {
+        Assert.assertEquals("ui.png", NameTemplate.resolve("{name}.png", "ui"));
+        Assert.assertEquals("ui/menu.png", NameTemplate.resolve("{name}.png", "ui/menu"));
+        Assert.assertEquals("atlas/ui/ui.json", NameTemplate.resolve("atlas/{name}/{name}.json", "ui"));
+        Assert.assertEquals("sheet.png", NameTemplate.resolve("sheet.png", "ui"));
+        Assert.assertEquals("ui-1.png", NameTemplate.resolve("{name}.png", "ui-1"));
+    }
+
+    /**
+     * {@link NameTemplate} class test.
+     */
+    @Test
+    public void fromClosureTest() {
+        Assert.assertEquals("{name}.png", NameTemplate.fromClosure(new ConcatClosure("", ".png")));
+        Assert.assertEquals("atlas/{name}.json", NameTemplate.fromClosure(new ConcatClosure("atlas/", ".json")));
+        Assert.assertEquals("ui/menu.png", NameTemplate.resolve(NameTemplate.fromClosure(new ConcatClosure("", ".png")), "ui/menu"));
+    }
+
+    /**
+     * {@link NameTemplate} class test.
+     */
+    @Test
+    public void constantClosureTest() {
+        Assert.assertEquals("sheet.png", NameTemplate.fromClosure(new ConstantClosure()));
+        Assert.assertEquals("sheet.png", NameTemplate.resolve(NameTemplate.fromClosure(new ConstantClosure()), "ui"));
+    }
+
+    /**
+     * {@link NameTemplate} class test.
+     */
+    @Test(expected = InvalidUserDataException.class)
+    public void modifyingClosureFailTest() {
+        NameTemplate.fromClosure(new SubstringClosure());
+    }
+
+    /**
+     * The closure to concatenate the directory name with the constant strings.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class ConcatClosure extends Closure<String> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String _prefix;
+
+        private final String _suffix;
+
+        ConcatClosure(final String prefix, final String suffix) {
+            super(null);
+            _prefix = prefix;
+            _suffix = suffix;
+        }
+
+        @Override
+        public String call(final Object... args) {
+            return _prefix + args[0] + _suffix;
+        }
+
+    }
+
+    /**
+     * The closure to ignore the directory name.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class ConstantClosure extends Closure<String> {
+
+        private static final long serialVersionUID = 1L;
+
+        ConstantClosure() {
+            super(null);
+        }
+
+        @Override
+        public String call(final Object... args) {
+            return "sheet.png";
+        }
+
+    }
+
+    /**
+     * The closure to modify the directory name.
+     *
+     * @author Dmitry Shapovalov
+     */
+    private static final class SubstringClosure extends Closure<String> {
+
+        private static final long serialVersionUID = 1L;
+
+        SubstringClosure() {
+            super(null);
+        }
+
+        @Override
+        public String call(final Object... args) {
+            return String.valueOf(args[0]).substring(1) + ".png";
+        }
+
+    }
+
+}
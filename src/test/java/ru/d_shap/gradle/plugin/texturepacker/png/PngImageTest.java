@@ -0,0 +1,171 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.png;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import javax.imageio.ImageIO;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link PngImage}.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class PngImageTest {
+
+    private static final int WIDTH = 37;
+
+    private static final int HEIGHT = 23;
+
+    private static final long SEED = 12345L;
+
+    private static final int[] IMAGE_TYPES = {BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_BYTE_GRAY, BufferedImage.TYPE_BYTE_INDEXED, BufferedImage.TYPE_BYTE_BINARY};
+
+    private static final int[] FILTER_TYPES = {PngImage.FILTER_NONE, PngImage.FILTER_SUB, PngImage.FILTER_UP, PngImage.FILTER_AVERAGE, PngImage.FILTER_PAETH, PngImage.FILTER_ADAPTIVE};
+
+    private static final int[] STRATEGIES = {Deflater.DEFAULT_STRATEGY, Deflater.FILTERED};
+
+    /**
+     * Test class constructor.
+     */
+    public PngImageTest() {
+        super();
+    }
+
+    /**
+     * {@link PngImage} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void encodeDecodeTest() throws IOException {
+        for (int imageType : IMAGE_TYPES) {
+            BufferedImage image = createImage(imageType);
+            PngImage pngImage = PngImage.read(writeImage(image));
+            Assert.assertNotNull(pngImage);
+            for (int filterType : FILTER_TYPES) {
+                byte[] compressedPixels = pngImage.compress(filterType, STRATEGIES, new BestCompression(Integer.MAX_VALUE));
+                Assert.assertNotNull(compressedPixels);
+                BufferedImage decodedImage = readImage(pngImage.write(compressedPixels));
+                assertSamePixels(imageType + "/" + filterType, image, decodedImage);
+            }
+        }
+    }
+
+    /**
+     * {@link PngImage} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void reencodeTest() throws IOException {
+        BufferedImage image = createImage(BufferedImage.TYPE_INT_ARGB);
+        PngImage pngImage = PngImage.read(writeImage(image));
+        Assert.assertNotNull(pngImage);
+        byte[] data = pngImage.write(pngImage.compress(PngImage.FILTER_PAETH, STRATEGIES, new BestCompression(Integer.MAX_VALUE)));
+        PngImage reencodedImage = PngImage.read(data);
+        Assert.assertNotNull(reencodedImage);
+        byte[] reencodedData = reencodedImage.write(reencodedImage.compress(PngImage.FILTER_PAETH, STRATEGIES, new BestCompression(Integer.MAX_VALUE)));
+        Assert.assertArrayEquals(data, reencodedData);
+    }
+
+    /**
+     * {@link PngImage} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void compressionIsAbandonedTest() throws IOException {
+        PngImage pngImage = PngImage.read(writeImage(createImage(BufferedImage.TYPE_INT_ARGB)));
+        Assert.assertNotNull(pngImage);
+        Assert.assertNull(pngImage.compress(PngImage.FILTER_NONE, STRATEGIES, new BestCompression(1)));
+    }
+
+    /**
+     * {@link PngImage} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void notPngImageTest() throws IOException {
+        Assert.assertNull(PngImage.read(new byte[0]));
+        Assert.assertNull(PngImage.read(new byte[]{'G', 'I', 'F', '8', '9', 'a', 0, 0, 0, 0}));
+    }
+
+    /**
+     * {@link PngImage} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test(expected = IOException.class)
+    public void truncatedImageTest() throws IOException {
+        byte[] data = writeImage(createImage(BufferedImage.TYPE_INT_ARGB));
+        PngImage.read(Arrays.copyOf(data, data.length / 2));
+    }
+
+    static BufferedImage createImage(final int imageType) {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, imageType);
+        Random random = new Random(SEED);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                int argb;
+                if (random.nextInt(4) == 0) {
+                    argb = random.nextInt();
+                } else {
+                    argb = 0x80000000 | x * 6 << 16 | y * 10 << 8 | (x + y) * 4;
+                }
+                image.setRGB(x, y, argb);
+            }
+        }
+        return image;
+    }
+
+    static byte[] writeImage(final BufferedImage image) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Assert.assertTrue(ImageIO.write(image, "png", outputStream));
+        return outputStream.toByteArray();
+    }
+
+    static BufferedImage readImage(final byte[] data) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(data));
+        Assert.assertNotNull(image);
+        return image;
+    }
+
+    static void assertSamePixels(final String message, final BufferedImage expectedImage, final BufferedImage actualImage) {
+        Assert.assertEquals(message, expectedImage.getWidth(), actualImage.getWidth());
+        Assert.assertEquals(message, expectedImage.getHeight(), actualImage.getHeight());
+        for (int y = 0; y < expectedImage.getHeight(); y++) {
+            for (int x = 0; x < expectedImage.getWidth(); x++) {
+                Assert.assertEquals(message + " at " + x + "," + y, expectedImage.getRGB(x, y), actualImage.getRGB(x, y));
+            }
+        }
+    }
+
+}
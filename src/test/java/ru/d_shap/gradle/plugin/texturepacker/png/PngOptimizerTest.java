@@ -0,0 +1,93 @@
+///////////////////////////////////////////////////////////////////////////////////////////////////
+// TexturePacker Gradle Plugin is a plugin to call TexturePacker CLI.
+// Copyright (C) 2024 Dmitry Shapovalov.
+//
+// This file is part of TexturePacker Gradle Plugin.
+//
+// TexturePacker Gradle Plugin is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// TexturePacker Gradle Plugin is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with this program. If not, see <http://www.gnu.org/licenses/>.
+///////////////////////////////////////////////////////////////////////////////////////////////////
+package ru.d_shap.gradle.plugin.texturepacker.png;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link PngOptimizer}.
+ *
+ * @author Dmitry Shapovalov
+ */
+public final class PngOptimizerTest {
+
+    private static final int THREAD_COUNT = 3;
+
+    /**
+     * Test class constructor.
+     */
+    public PngOptimizerTest() {
+        super();
+    }
+
+    /**
+     * {@link PngOptimizer} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void optimizeTest() throws IOException {
+        BufferedImage image = PngImageTest.createImage(BufferedImage.TYPE_INT_ARGB);
+        byte[] data = PngImageTest.writeImage(image);
+        byte[] optimizedData = PngOptimizer.optimize(data);
+        Assert.assertNotNull(optimizedData);
+        Assert.assertTrue(optimizedData.length < data.length);
+        PngImageTest.assertSamePixels("optimized", image, PngImageTest.readImage(optimizedData));
+    }
+
+    /**
+     * {@link PngOptimizer} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void concurrentOptimizeTest() throws IOException {
+        byte[] data = PngImageTest.writeImage(PngImageTest.createImage(BufferedImage.TYPE_INT_ARGB));
+        byte[] optimizedData = PngOptimizer.optimize(data);
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                Assert.assertArrayEquals(optimizedData, PngOptimizer.optimize(data, executorService));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * {@link PngOptimizer} class test.
+     *
+     * @throws IOException IO exception.
+     */
+    @Test
+    public void optimizedImageIsNotOptimizedTest() throws IOException {
+        byte[] data = PngImageTest.writeImage(PngImageTest.createImage(BufferedImage.TYPE_INT_ARGB));
+        byte[] optimizedData = PngOptimizer.optimize(data);
+        Assert.assertNotNull(optimizedData);
+        Assert.assertNull(PngOptimizer.optimize(optimizedData));
+    }
+
+}